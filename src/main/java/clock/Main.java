@@ -1,8 +1,11 @@
 package clock;
 
+import clock.engine.ClockLifecycle;
+import clock.engine.ClockThreads;
 import clock.entity.Clock;
 import clock.exception.InvalidInputException;
 import clock.panel.ClockFrame;
+import clock.util.ClockLogging;
 import clock.entity.Panel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,15 +33,21 @@ public class Main
     private static ClockFrame clockFrame;
 
     /**
-     * Main method to start the Clock
+     * Main method to start the Clock.
+     * A {@code --threads=platform} or {@code --threads=virtual}
+     * argument picks the kind of thread the clock runs on and
+     * is removed before the remaining arguments are read,
+     * as is a {@code --logging=sync} or {@code --logging=async}
+     * argument, which picks how the log files are written.
      *
      * @param args command line arguments
      */
     public static void main(String[] args) throws Exception
     {
-        startMain(args);
+        startMain(ClockLogging.configure(ClockThreads.configure(args)));
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             clockFrame.stop();
+            ClockLifecycle.getDefault().stop();
             logger.info("Closing Clock application");
         }));
     }
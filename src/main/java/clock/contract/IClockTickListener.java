@@ -0,0 +1,22 @@
+package clock.contract;
+
+import clock.entity.Clock;
+
+/**
+ * A contract for anything that follows the clock's ticks,
+ * such as the panels that show the time.
+ * <p>
+ * @author michael ball
+ * @version since 3.0.4
+ */
+@FunctionalInterface
+public interface IClockTickListener
+{
+    /**
+     * Called on the event dispatch thread after the clock
+     * ticks or its state changes. Ticks that happen before
+     * the listeners have been called are delivered as one.
+     * @param clock the clock that ticked
+     */
+    void clockTicked(Clock clock);
+}
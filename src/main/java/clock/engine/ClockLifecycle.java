@@ -0,0 +1,172 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * ClockLifecycle
+ * <p>
+ * Owns the workers the clock starts. Every thread handed out
+ * by {@link ClockThreads} is tracked here under its type, the
+ * name it was made with, so the live threads can be counted
+ * by type at any time. The objects that own threads, such as
+ * the timing wheel, the sound player and the async log writer,
+ * register how they are stopped.
+ * <p>
+ * Stopping runs those stops in the reverse order they were
+ * registered, then interrupts every tracked thread still alive
+ * and joins it, all within one timeout. The threads that are
+ * still alive after that are returned, so a test can fail on
+ * them and a long-running clock can log them, rather than
+ * collecting threads that never end.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class ClockLifecycle
+{
+    private static final Logger logger = LogManager.getLogger(ClockLifecycle.class);
+    /** How long stopping waits for the workers to end, unless told otherwise */
+    public static final Duration DEFAULT_STOP_TIMEOUT = Duration.ofSeconds(2);
+
+    private final Map<Thread, String> threads = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Deque<Owner> owners = new ConcurrentLinkedDeque<>();
+
+    /** A registered owner of workers and how it is stopped */
+    private record Owner(String name, Runnable stop) {}
+
+    /** Returns the lifecycle that tracks the threads from {@link ClockThreads} */
+    public static ClockLifecycle getDefault() { return DefaultHolder.INSTANCE; }
+
+    /**
+     * Tracks the thread under the given type
+     * @param thread the thread
+     * @param type the type of worker, usually the name it was made with
+     * @return the thread
+     */
+    public Thread track(Thread thread, String type)
+    {
+        threads.put(thread, type);
+        return thread;
+    }
+
+    /**
+     * Returns a factory that tracks every thread the given factory makes
+     * @param type the type of worker the threads are
+     * @param factory makes the threads
+     * @return the tracking factory
+     */
+    public ThreadFactory tracking(String type, ThreadFactory factory)
+    {
+        return task -> {
+            final Thread thread = factory.newThread(task);
+            return null == thread ? null : track(thread, type);
+        };
+    }
+
+    /**
+     * Registers an owner of workers, to be stopped when the lifecycle stops
+     * @param name the name of the owner, for the log
+     * @param stop stops the owner's workers
+     * @return a task that takes the registration back, for an owner stopped earlier
+     */
+    public Runnable register(String name, Runnable stop)
+    {
+        final Owner owner = new Owner(name, stop);
+        owners.push(owner);
+        logger.debug("{} registered", name);
+        return () -> owners.remove(owner);
+    }
+
+    /**
+     * Returns the number of tracked threads still alive, by type
+     * @return the live counts, sorted by type
+     */
+    public Map<String, Integer> getLiveCounts()
+    {
+        final Map<String, Integer> counts = new TreeMap<>();
+        synchronized (threads)
+        {
+            threads.forEach((thread, type) -> {
+                if (thread.isAlive()) counts.merge(type, 1, Integer::sum);
+            });
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of tracked threads of the given type still alive
+     * @param type the type of worker
+     * @return the live count
+     */
+    public int getLiveCount(String type) { return getLiveCounts().getOrDefault(type, 0); }
+
+    /**
+     * Stops every registered owner, then interrupts and
+     * joins every tracked thread, waiting up to the timeout
+     * in all. The thread that calls this is left alone.
+     * @param timeout how long to wait for the workers to end
+     * @return the threads still alive once the timeout is up
+     */
+    public List<Thread> stop(Duration timeout)
+    {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        Owner owner;
+        while (null != (owner = owners.poll()))
+        {
+            try
+            {
+                owner.stop().run();
+                logger.debug("{} stopped", owner.name());
+            }
+            catch (RuntimeException e)
+            { logger.error("Failed to stop {}", owner.name(), e); }
+        }
+        final List<Thread> alive = new ArrayList<>();
+        synchronized (threads)
+        {
+            threads.keySet().forEach(thread -> {
+                if (thread.isAlive() && thread != Thread.currentThread()) alive.add(thread);
+            });
+        }
+        alive.forEach(Thread::interrupt);
+        final List<Thread> survivors = new ArrayList<>();
+        for (Thread thread : alive)
+        {
+            try
+            {
+                final long left = deadline - System.nanoTime();
+                if (left > 0) thread.join(Duration.ofNanos(left));
+            }
+            catch (InterruptedException e)
+            { Thread.currentThread().interrupt(); }
+            if (thread.isAlive()) survivors.add(thread);
+        }
+        if (survivors.isEmpty()) logger.info("stopped {} workers", alive.size());
+        else logger.warn("{} of {} workers did not stop: {}", survivors.size(), alive.size(),
+                survivors.stream().map(Thread::getName).toList());
+        return survivors;
+    }
+
+    /**
+     * Stops everything with the default timeout
+     * @return the threads still alive once the timeout is up
+     */
+    public List<Thread> stop() { return stop(DEFAULT_STOP_TIMEOUT); }
+
+    private static final class DefaultHolder
+    {
+        private static final ClockLifecycle INSTANCE = new ClockLifecycle();
+    }
+}
@@ -0,0 +1,154 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * ClockThreads
+ * <p>
+ * The one place the clock creates its threads. The Clock,
+ * the panels and the timing wheel all ask for their threads
+ * here, so they can be switched between platform threads
+ * and virtual threads in one go, and every thread is tracked
+ * by the {@link ClockLifecycle} so it can be stopped.
+ * <p>
+ * The mode is read from the {@value #THREAD_MODE_PROPERTY}
+ * system property, {@code platform} or {@code virtual}, and
+ * defaults to platform threads. It can also be set from the
+ * command line with {@code --threads=virtual}.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class ClockThreads
+{
+    private static final Logger logger = LogManager.getLogger(ClockThreads.class);
+    /** The system property that selects the thread mode */
+    public static final String THREAD_MODE_PROPERTY = "clock.threads";
+    /** The command line argument prefix that selects the thread mode */
+    public static final String THREAD_MODE_ARG = "--threads=";
+
+    /** The kind of thread handed out */
+    public enum Mode
+    {
+        PLATFORM, VIRTUAL;
+
+        /**
+         * Returns the mode with the given name, ignoring case
+         * @param name the name of the mode
+         * @return the mode
+         * @throws IllegalArgumentException if there is no mode with that name
+         */
+        public static Mode of(String name)
+        {
+            if (null == name) throw new IllegalArgumentException("Thread mode must not be null");
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static volatile Mode mode = modeFromProperty();
+
+    private ClockThreads() {}
+
+    /**
+     * Returns a factory that makes daemon threads
+     * in the given mode, named after the prefix
+     * @param mode the kind of thread to make
+     * @param prefix the name given to the threads
+     * @return the thread factory
+     */
+    public static ThreadFactory factory(Mode mode, String prefix)
+    {
+        return ClockLifecycle.getDefault().tracking(prefix, switch (mode)
+        {
+            case VIRTUAL -> Thread.ofVirtual().name(prefix + "-", 0).factory();
+            case PLATFORM -> Thread.ofPlatform().name(prefix + "-", 0).daemon(true).factory();
+        });
+    }
+
+    /**
+     * Returns a factory that makes threads in
+     * the current mode, named after the prefix
+     * @param prefix the name given to the threads
+     * @return the thread factory
+     */
+    public static ThreadFactory factory(String prefix)
+    { return factory(mode, prefix); }
+
+    /**
+     * Creates a thread in the current mode without starting it
+     * @param task the work the thread runs
+     * @param name the name of the thread
+     * @return the unstarted thread
+     */
+    public static Thread newThread(Runnable task, String name)
+    {
+        return ClockLifecycle.getDefault().track(switch (mode)
+        {
+            case VIRTUAL -> Thread.ofVirtual().name(name).unstarted(task);
+            case PLATFORM -> Thread.ofPlatform().name(name).daemon(true).unstarted(task);
+        }, name);
+    }
+
+    /**
+     * Creates and starts a thread in the current mode
+     * @param task the work the thread runs
+     * @param name the name of the thread
+     * @return the started thread
+     */
+    public static Thread start(Runnable task, String name)
+    {
+        final Thread thread = newThread(task, name);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Reads the thread mode from the command line, if it is
+     * given, and returns the remaining arguments.
+     * @param args the command line arguments
+     * @return the arguments without the thread mode
+     * @throws IllegalArgumentException if the thread mode is not known
+     */
+    public static String[] configure(String[] args)
+    {
+        if (null == args) return null;
+        for (String arg : args)
+        {
+            if (arg.startsWith(THREAD_MODE_ARG))
+                setMode(Mode.of(arg.substring(THREAD_MODE_ARG.length())));
+        }
+        return Arrays.stream(args)
+                .filter(arg -> !arg.startsWith(THREAD_MODE_ARG))
+                .toArray(String[]::new);
+    }
+
+    /** Returns the mode read from the system property, or platform */
+    private static Mode modeFromProperty()
+    {
+        final String value = System.getProperty(THREAD_MODE_PROPERTY);
+        if (null == value) return Mode.PLATFORM;
+        try
+        { return Mode.of(value); }
+        catch (IllegalArgumentException e)
+        {
+            logger.warn("Unknown thread mode '{}', using platform threads", value);
+            return Mode.PLATFORM;
+        }
+    }
+
+    /** Returns the current thread mode */
+    public static Mode getMode() { return mode; }
+
+    /** Set the thread mode used for threads created from now on */
+    public static void setMode(Mode mode)
+    {
+        if (null == mode) throw new IllegalArgumentException("Thread mode must not be null");
+        ClockThreads.mode = mode;
+        logger.info("thread mode set to {}", mode);
+    }
+}
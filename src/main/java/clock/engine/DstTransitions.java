@@ -0,0 +1,129 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DstTransitions
+ * <p>
+ * Looks up when a timezone's clocks change, from the zone's own
+ * {@link ZoneRules}, so daylight savings time is right for every
+ * zone and not only for the US. The transitions of the current
+ * year and the next are worked out once per zone and cached, so
+ * asking for the next change, even every tick, costs no more
+ * than walking a list of two or four entries.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class DstTransitions
+{
+    private static final Logger logger = LogManager.getLogger(DstTransitions.class);
+    // one entry per zone, holding the transitions of two years
+    private static final Map<ZoneId, Years> cache = new ConcurrentHashMap<>();
+
+    private DstTransitions() {}
+
+    /**
+     * Returns the transitions of the zone whose local date
+     * and time, before the change, falls in the given year
+     * @param zone the timezone
+     * @param year the year
+     * @return the transitions of the year, in order, which may be empty
+     */
+    public static List<ZoneOffsetTransition> forYear(ZoneId zone, int year)
+    {
+        final Years years = years(zone, year);
+        return years.year() == year ? years.thisYear() : years.nextYear();
+    }
+
+    /**
+     * Returns the first transition of the zone whose local
+     * date and time, before the change, is after the given
+     * date and time. Only this year and next are looked at.
+     * @param zone the timezone
+     * @param after the local date and time to look from
+     * @return the next transition, or null if there is none this year or next
+     */
+    public static ZoneOffsetTransition next(ZoneId zone, LocalDateTime after)
+    {
+        final Years years = years(zone, after.getYear());
+        for (ZoneOffsetTransition transition : years.thisYear())
+        { if (transition.getDateTimeBefore().isAfter(after)) return transition; }
+        return years.nextYear().isEmpty() ? null : years.nextYear().getFirst();
+    }
+
+    /**
+     * Returns the first transition of the zone after the given
+     * instant. Only this year and next are looked at.
+     * @param zone the timezone
+     * @param after the instant to look from
+     * @return the next transition, or null if there is none this year or next
+     */
+    public static ZoneOffsetTransition next(ZoneId zone, Instant after)
+    {
+        final Years years = years(zone, LocalDateTime.ofInstant(after, zone).getYear());
+        for (ZoneOffsetTransition transition : years.thisYear())
+        { if (transition.getInstant().isAfter(after)) return transition; }
+        for (ZoneOffsetTransition transition : years.nextYear())
+        { if (transition.getInstant().isAfter(after)) return transition; }
+        return null;
+    }
+
+    /** Removes every zone from the cache */
+    public static void clear() { cache.clear(); }
+
+    /** Returns the number of zones in the cache */
+    public static int size() { return cache.size(); }
+
+    /**
+     * Returns the cached years of the zone starting at the given
+     * year. Moving on by one year keeps the year already worked out.
+     */
+    private static Years years(ZoneId zone, int year)
+    {
+        final Years cached = cache.get(zone);
+        if (null != cached && cached.year() == year) return cached;
+        final List<ZoneOffsetTransition> thisYear = null != cached && cached.year() + 1 == year
+                ? cached.nextYear()
+                : transitionsOf(zone.getRules(), year);
+        final Years years = new Years(year, thisYear, transitionsOf(zone.getRules(), year + 1));
+        cache.put(zone, years);
+        logger.debug("{} transitions for {} and {}: {}", zone, year, year + 1, years);
+        return years;
+    }
+
+    /**
+     * Works out the transitions whose local date and time,
+     * before the change, falls in the given year
+     */
+    private static List<ZoneOffsetTransition> transitionsOf(ZoneRules rules, int year)
+    {
+        if (rules.isFixedOffset()) return List.of();
+        // start a day early and stop a day late so every offset is covered
+        final Instant end = LocalDate.of(year + 1, 1, 2).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant from = LocalDate.of(year - 1, 12, 31).atStartOfDay().toInstant(ZoneOffset.UTC);
+        final List<ZoneOffsetTransition> transitions = new ArrayList<>(2);
+        ZoneOffsetTransition transition;
+        while (null != (transition = rules.nextTransition(from)) && transition.getInstant().isBefore(end))
+        {
+            if (transition.getDateTimeBefore().getYear() == year) transitions.add(transition);
+            from = transition.getInstant();
+        }
+        return List.copyOf(transitions);
+    }
+
+    private record Years(int year, List<ZoneOffsetTransition> thisYear, List<ZoneOffsetTransition> nextYear) {}
+}
@@ -0,0 +1,124 @@
+package clock.engine;
+
+import clock.contract.IClockTickListener;
+import clock.entity.Clock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TickBus
+ * <p>
+ * Hands the Clock's ticks and state changes to the
+ * listeners that subscribed to them. A publish does not
+ * call the listeners itself. It queues one delivery on the
+ * event dispatch thread, and any publish made before that
+ * delivery runs is folded into it. A burst of ticks, for
+ * example after the tick engine catches up, leads to one
+ * repaint instead of one per tick.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public class TickBus
+{
+    private static final Logger logger = LogManager.getLogger(TickBus.class);
+    private final List<IClockTickListener> listeners;
+    private final Executor dispatcher;
+    private final AtomicBoolean deliveryPending;
+    private final AtomicLong published,
+                             delivered;
+    private volatile Clock lastClock;
+    private final Runnable delivery = this::deliver;
+
+    /**
+     * Creates a new TickBus that delivers
+     * on the event dispatch thread.
+     */
+    public TickBus()
+    { this(SwingUtilities::invokeLater); }
+
+    /**
+     * Creates a new TickBus that delivers on the given executor
+     * @param dispatcher runs the deliveries
+     */
+    public TickBus(Executor dispatcher)
+    {
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.dispatcher = dispatcher;
+        this.deliveryPending = new AtomicBoolean();
+        this.published = new AtomicLong();
+        this.delivered = new AtomicLong();
+    }
+
+    /**
+     * Adds a listener. A listener that is
+     * already subscribed is not added twice.
+     * @param listener the listener to add
+     */
+    public void subscribe(IClockTickListener listener)
+    {
+        if (null != listener && !listeners.contains(listener))
+        {
+            listeners.add(listener);
+            logger.debug("{} subscribed", listener.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Removes a listener
+     * @param listener the listener to remove
+     */
+    public void unsubscribe(IClockTickListener listener)
+    {
+        if (listeners.remove(listener))
+            logger.debug("{} unsubscribed", listener.getClass().getSimpleName());
+    }
+
+    /**
+     * Publishes a tick or state change of the clock. If a
+     * delivery is already waiting to run, this one joins it.
+     * @param clock the clock that ticked
+     */
+    public void publish(Clock clock)
+    {
+        published.incrementAndGet();
+        lastClock = clock;
+        if (listeners.isEmpty()) return;
+        if (deliveryPending.compareAndSet(false, true))
+            dispatcher.execute(delivery);
+    }
+
+    /**
+     * Calls every listener once with the clock
+     * from the latest publish.
+     */
+    private void deliver()
+    {
+        deliveryPending.set(false);
+        delivered.incrementAndGet();
+        final Clock clock = lastClock;
+        for (IClockTickListener listener : listeners)
+        {
+            try
+            { listener.clockTicked(clock); }
+            catch (RuntimeException e)
+            { logger.error("{} failed to handle a tick: {}", listener.getClass().getSimpleName(), e.getMessage()); }
+        }
+    }
+
+    /** Returns whether the listener is subscribed */
+    public boolean isSubscribed(IClockTickListener listener) { return listeners.contains(listener); }
+    /** Returns the number of listeners */
+    public int getListenerCount() { return listeners.size(); }
+    /** Returns the number of publishes */
+    public long getPublishedCount() { return published.get(); }
+    /** Returns the number of deliveries made to the listeners */
+    public long getDeliveredCount() { return delivered.get(); }
+}
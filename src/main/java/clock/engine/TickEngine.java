@@ -0,0 +1,191 @@
+package clock.engine;
+
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * TickEngine
+ * <p>
+ * Drives a periodic tick against absolute deadlines anchored
+ * to {@link System#nanoTime()}. Tick n is due at
+ * {@code anchor + n * period}, so the time spent inside a tick
+ * never pushes the following ticks back. If the thread wakes up
+ * late, after a GC pause or a suspend, every tick that came due
+ * in the meantime is run, in order, before waiting again.
+ * An engine given a catch-up task hands it the number of ticks
+ * that came due instead, so they can be made up in one step.
+ * <p>
+ * The engine records the jitter of each tick, how late it
+ * ran compared to its deadline, and the cumulative drift, how far
+ * the ticks run so far lag behind the time elapsed since the anchor.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public class TickEngine implements Runnable
+{
+    private static final Logger logger = LogManager.getLogger(TickEngine.class);
+    private static final ThrottledLogger tickLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60);
+    private final long periodNanos;
+    private final Runnable onTick;
+    private final LongConsumer onCatchUp;
+    private final TimeSource timeSource;
+    private long anchorNanos;
+    private volatile long ticks,
+                          catchUpTicks,
+                          lastJitterNanos,
+                          maxJitterNanos,
+                          totalJitterNanos,
+                          cumulativeDriftNanos;
+
+    /**
+     * Creates a new TickEngine
+     * @param period the time between ticks
+     * @param onTick the work to do on each tick
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public TickEngine(Duration period, Runnable onTick)
+    { this(period, onTick, null, TimeSource.SYSTEM); }
+
+    /**
+     * Creates a new TickEngine that makes up missed ticks in one step
+     * @param period the time between ticks
+     * @param onTick the work to do on each tick
+     * @param onCatchUp the work to do when more than one tick came due, given how many
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public TickEngine(Duration period, Runnable onTick, LongConsumer onCatchUp)
+    { this(period, onTick, onCatchUp, TimeSource.SYSTEM); }
+
+    /**
+     * Creates a new TickEngine that reads the time from the given source
+     * @param period the time between ticks
+     * @param onTick the work to do on each tick
+     * @param timeSource the monotonic source of the time
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    TickEngine(Duration period, Runnable onTick, TimeSource timeSource)
+    { this(period, onTick, null, timeSource); }
+
+    /**
+     * Creates a new TickEngine that reads the time from the given source
+     * @param period the time between ticks
+     * @param onTick the work to do on each tick
+     * @param onCatchUp the work to do when more than one tick came due, or null to run each one
+     * @param timeSource the monotonic source of the time
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    TickEngine(Duration period, Runnable onTick, LongConsumer onCatchUp, TimeSource timeSource)
+    {
+        if (null == period || period.isZero() || period.isNegative())
+            throw new IllegalArgumentException("Period must be positive");
+        this.periodNanos = period.toNanos();
+        this.onTick = onTick;
+        this.onCatchUp = onCatchUp;
+        this.timeSource = timeSource;
+        this.anchorNanos = timeSource.nanoTime();
+    }
+
+    /**
+     * Runs ticks until the current thread is interrupted.
+     * The first tick is due one period after this is called.
+     */
+    @Override
+    public void run()
+    {
+        anchor(timeSource.nanoTime());
+        while (!Thread.currentThread().isInterrupted())
+        {
+            final long deadline = anchorNanos + (ticks + 1) * periodNanos;
+            long wait = deadline - timeSource.nanoTime();
+            while (wait > 0 && !Thread.currentThread().isInterrupted())
+            {
+                LockSupport.parkNanos(this, wait);
+                wait = deadline - timeSource.nanoTime();
+            }
+            if (Thread.currentThread().isInterrupted()) break;
+            runDueTicks(timeSource.nanoTime());
+        }
+        logger.info("Tick engine stopped after {} ticks, {} caught up, max jitter {}µs",
+                ticks, catchUpTicks, maxJitterNanos / 1_000);
+    }
+
+    /**
+     * Resets the engine so that tick n is due
+     * at {@code now + n * period}.
+     * @param now the current monotonic time, in nanoseconds
+     */
+    void anchor(long now)
+    {
+        anchorNanos = now;
+        ticks = 0L;
+        catchUpTicks = 0L;
+        lastJitterNanos = 0L;
+        maxJitterNanos = 0L;
+        totalJitterNanos = 0L;
+        cumulativeDriftNanos = 0L;
+    }
+
+    /**
+     * Runs every tick whose deadline is at or before now.
+     * If more than one is due and the engine has a catch-up
+     * task, it is run once for all of them instead, and the
+     * lateness of the first is recorded as the jitter.
+     * @param now the current monotonic time, in nanoseconds
+     * @return the number of ticks that were run or caught up
+     */
+    int runDueTicks(long now)
+    {
+        final long due = (now - anchorNanos) / periodNanos;
+        int ran = 0;
+        if (null != onCatchUp && due - ticks > 1)
+        {
+            ran = (int) (due - ticks);
+            recordJitter(now - (anchorNanos + (ticks + 1) * periodNanos));
+            catchUpTicks += ran - 1;
+            ticks = due;
+            onCatchUp.accept(ran);
+        }
+        while (ticks < due)
+        {
+            if (ran > 0) catchUpTicks++;
+            recordJitter(now - (anchorNanos + (ticks + 1) * periodNanos));
+            ticks++;
+            ran++;
+            onTick.run();
+        }
+        cumulativeDriftNanos = (now - anchorNanos) - ticks * periodNanos;
+        if (ran > 1) logger.warn("Caught up {} ticks that were missed", ran - 1);
+        if (tickLog.permits()) logger.debug("tick {} jitter: {}µs drift: {}µs", ticks, lastJitterNanos / 1_000, cumulativeDriftNanos / 1_000);
+        return ran;
+    }
+
+    /** Records how late a tick ran compared to its deadline */
+    private void recordJitter(long jitter)
+    {
+        lastJitterNanos = jitter;
+        if (jitter > maxJitterNanos) maxJitterNanos = jitter;
+        totalJitterNanos += jitter;
+    }
+
+    /** Returns the period in nanoseconds */
+    public long getPeriodNanos() { return periodNanos; }
+    /** Returns the number of ticks run */
+    public long getTicks() { return ticks; }
+    /** Returns the number of ticks that were run late to catch up */
+    public long getCatchUpTicks() { return catchUpTicks; }
+    /** Returns how late the last tick ran, in nanoseconds */
+    public long getLastJitterNanos() { return lastJitterNanos; }
+    /** Returns the latest any tick has run, in nanoseconds */
+    public long getMaxJitterNanos() { return maxJitterNanos; }
+    /** Returns the average lateness of the ticks, in nanoseconds */
+    public long getMeanJitterNanos() { return ticks == 0 ? 0L : totalJitterNanos / ticks; }
+    /** Returns how far the ticks run lag behind the time elapsed since the anchor, in nanoseconds */
+    public long getCumulativeDriftNanos() { return cumulativeDriftNanos; }
+}
@@ -0,0 +1,31 @@
+package clock.engine;
+
+import java.time.Instant;
+
+/**
+ * TimeSource
+ * <p>
+ * A monotonic source of time in nanoseconds, like
+ * {@link System#nanoTime()}, and the wall clock time that
+ * goes with it. The engine and the clock read the time
+ * through this so that tests can drive them with a
+ * {@link VirtualTimeSource}.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+@FunctionalInterface
+public interface TimeSource
+{
+    /** The system's monotonic clock */
+    TimeSource SYSTEM = System::nanoTime;
+
+    /** Returns the current time in nanoseconds */
+    long nanoTime();
+
+    /** Returns the current wall clock time, the system's unless overridden */
+    default Instant instant() { return Instant.now(); }
+
+    /** Returns the current wall clock time in milliseconds since the epoch, without making an instant */
+    default long millis() { return System.currentTimeMillis(); }
+}
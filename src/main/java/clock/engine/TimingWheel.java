@@ -0,0 +1,442 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TimingWheel
+ * <p>
+ * A hierarchical timing wheel that every Alarm, Timer and
+ * Stopwatch registers its deadlines with. One worker thread
+ * advances the wheel one tick at a time and runs whatever
+ * has expired, so the number of threads stays the same no
+ * matter how many entities are scheduled.
+ * <p>
+ * Each level has {@value #WHEEL_SIZE} slots. A slot on level 0
+ * spans one tick, a slot on level 1 spans {@value #WHEEL_SIZE}
+ * ticks, and so on. Deadlines are placed on the lowest level that
+ * can hold them and cascade down as the wheel turns. Scheduling
+ * and cancelling are O(1) and may be called from any thread; the
+ * requests are queued and applied by the worker on its next tick.
+ * <p>
+ * Tasks run on the worker thread and must not block. Blocking
+ * work, such as playing a sound, is handed to
+ * {@link #executeBlocking(Runnable)}.
+ * <p>
+ * A manual wheel, made with {@link #manual(long, TimeUnit, TimeSource)},
+ * has no worker thread. It reads the time from the given source and
+ * only moves when {@link #advance()} is called. It goes straight to
+ * the next tick that has work on it, so a manual wheel can be moved
+ * on by a year in as many steps as there are tasks in that year.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class TimingWheel
+{
+    private static final Logger logger = LogManager.getLogger(TimingWheel.class);
+    static final int WHEEL_BITS = 6;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    static final int LEVELS = 6;
+    /** The default tick duration, in milliseconds */
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final TimeSource timeSource;
+    private final Timeout[][] heads;
+    private final Queue<Timeout> pendingTimeouts;
+    private final Queue<Timeout> cancelledTimeouts;
+    private final AtomicInteger scheduledCount;
+    private final ExecutorService blockingExecutor;
+    private final Thread worker;
+    private volatile boolean running;
+    private long currentTick;
+
+    /**
+     * Creates a new TimingWheel with the given tick duration
+     * and starts its worker thread.
+     * @param tickDuration the duration of one tick
+     * @param unit the unit of the tick duration
+     * @param name the name given to the worker thread
+     * @throws IllegalArgumentException if the tick duration is not positive
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, String name)
+    { this(tickDuration, unit, TimeSource.SYSTEM, name, true); }
+
+    private TimingWheel(long tickDuration, TimeUnit unit, TimeSource timeSource, String name, boolean startWorker)
+    {
+        if (tickDuration <= 0) throw new IllegalArgumentException("Tick duration must be positive");
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.timeSource = timeSource;
+        this.heads = new Timeout[LEVELS][WHEEL_SIZE];
+        this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        this.scheduledCount = new AtomicInteger();
+        this.blockingExecutor = Executors.newSingleThreadExecutor(ClockThreads.factory(name + "-blocking"));
+        this.running = true;
+        this.startNanos = timeSource.nanoTime();
+        if (startWorker)
+        {
+            this.worker = ClockThreads.start(this::workerLoop, name);
+        }
+        else this.worker = null;
+        logger.debug("{} started with a tick of {}ns", name, tickNanos);
+    }
+
+    /**
+     * Creates a wheel with no worker thread that reads the
+     * time from the given source. Call {@link #advance()}
+     * to run whatever has come due.
+     * @param tickDuration the duration of one tick
+     * @param unit the unit of the tick duration
+     * @param timeSource the source of the time
+     * @return the manual wheel
+     * @throws IllegalArgumentException if the tick duration is not positive
+     */
+    public static TimingWheel manual(long tickDuration, TimeUnit unit, TimeSource timeSource)
+    { return new TimingWheel(tickDuration, unit, timeSource, "manual-timing-wheel", false); }
+
+    /** Returns the shared wheel used by the clock's entities */
+    public static TimingWheel getDefault() { return DefaultHolder.INSTANCE; }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     * @param task the task to run
+     * @param delay the delay before running the task
+     * @param unit the unit of the delay
+     * @return a handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+    { return submit(task, unit.toNanos(Math.max(0L, delay)), 0L); }
+
+    /**
+     * Schedules a task to run after the initial delay and
+     * then once every period until it is cancelled.
+     * @param task the task to run
+     * @param initialDelay the delay before the first run
+     * @param period the time between runs
+     * @param unit the unit of the delay and period
+     * @return a handle that can cancel the task
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit)
+    {
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive");
+        return submit(task, unit.toNanos(Math.max(0L, initialDelay)), unit.toNanos(period));
+    }
+
+    /**
+     * Runs a task that may block off the wheel's worker
+     * thread, on a single shared background thread.
+     * @param task the task to run
+     */
+    public void executeBlocking(Runnable task)
+    {
+        if (running) blockingExecutor.execute(task);
+    }
+
+    /**
+     * Stops the worker thread. Tasks still scheduled
+     * will never run.
+     */
+    public void shutdown()
+    {
+        running = false;
+        if (null != worker) LockSupport.unpark(worker);
+        blockingExecutor.shutdownNow();
+        logger.debug("timing wheel shut down");
+    }
+
+    /**
+     * Runs every tick of a manual wheel that has come
+     * due according to its time source.
+     * @throws IllegalStateException if the wheel has a worker thread
+     */
+    public void advance()
+    {
+        if (null != worker) throw new IllegalStateException("Only a manual wheel can be advanced");
+        final long due = (timeSource.nanoTime() - startNanos) / tickNanos;
+        while (running && currentTick < due)
+        {
+            final long next = nextBusyTick();
+            if (next > due) { currentTick = due; break; }
+            currentTick = next - 1; // the ticks in between have nothing on them
+            processTick();
+        }
+    }
+
+    /**
+     * Returns the time of the next tick of a manual wheel on
+     * which a task runs or is moved down a level, or
+     * {@link Long#MAX_VALUE} if nothing is scheduled.
+     * @return the time of the next busy tick, in nanoseconds
+     * @throws IllegalStateException if the wheel has a worker thread
+     */
+    public long nextDueNanos()
+    {
+        if (null != worker) throw new IllegalStateException("Only a manual wheel can be looked ahead");
+        final long next = nextBusyTick();
+        return next == Long.MAX_VALUE ? Long.MAX_VALUE : startNanos + next * tickNanos;
+    }
+
+    /** Returns the number of tasks scheduled and not yet expired or cancelled */
+    public int getScheduledCount() { return scheduledCount.get(); }
+    /** Returns the tick duration in nanoseconds */
+    public long getTickNanos() { return tickNanos; }
+    /** Returns whether the wheel is running */
+    public boolean isRunning() { return running; }
+    /** Returns whether the wheel is manual, moved on only by {@link #advance()} */
+    public boolean isManual() { return null == worker; }
+    /** Returns the source of the wheel's time */
+    public TimeSource getTimeSource() { return timeSource; }
+
+    private Timeout submit(Runnable task, long delayNanos, long periodNanos)
+    {
+        if (null == task) throw new IllegalArgumentException("Task cannot be null");
+        if (!running) throw new IllegalStateException("TimingWheel has been shut down");
+        final Timeout timeout = new Timeout(this, task, timeSource.nanoTime() + delayNanos, periodNanos);
+        scheduledCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel one tick at a time until it is shut down.
+     */
+    private void workerLoop()
+    {
+        while (running)
+        {
+            final long deadline = startNanos + (currentTick + 1) * tickNanos;
+            long wait = deadline - timeSource.nanoTime();
+            while (wait > 0 && running)
+            {
+                LockSupport.parkNanos(this, wait);
+                if (Thread.currentThread().isInterrupted()) { shutdown(); return; }
+                wait = deadline - timeSource.nanoTime();
+            }
+            if (!running) break;
+            processTick();
+        }
+    }
+
+    /**
+     * Moves the wheel forward one tick and runs
+     * everything that expires on it.
+     */
+    private void processTick()
+    {
+        currentTick++;
+        processCancelled();
+        transferPending();
+        cascade();
+        expireSlot(0, (int) (currentTick & WHEEL_MASK));
+    }
+
+    /**
+     * Returns the next tick on which a slot is expired or
+     * cascaded with something in it, or the next tick if
+     * there are requests waiting, or {@link Long#MAX_VALUE}.
+     * A slot on level n is only looked at on the tick that
+     * starts its span, the first one after the current tick.
+     */
+    private long nextBusyTick()
+    {
+        if (!pendingTimeouts.isEmpty() || !cancelledTimeouts.isEmpty()) return currentTick + 1;
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++)
+        {
+            final int shift = WHEEL_BITS * level;
+            final long base = currentTick >>> shift;
+            for (int slot = 0; slot < WHEEL_SIZE; slot++)
+            {
+                if (null == heads[level][slot]) continue;
+                long turns = (slot - base) & WHEEL_MASK;
+                if (turns == 0) turns = WHEEL_SIZE;
+                next = Math.min(next, (base + turns) << shift);
+            }
+        }
+        return next;
+    }
+
+    private void processCancelled()
+    {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null)
+        { unlink(timeout); }
+    }
+
+    private void transferPending()
+    {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null)
+        {
+            if (timeout.isCancelled()) continue;
+            place(timeout);
+        }
+    }
+
+    /**
+     * Moves the entries of every higher level slot whose
+     * span begins at the current tick down to the lower levels.
+     */
+    private void cascade()
+    {
+        for (int level = LEVELS - 1; level > 0; level--)
+        {
+            final int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) continue;
+            final int slot = (int) ((currentTick >>> shift) & WHEEL_MASK);
+            Timeout timeout = heads[level][slot];
+            heads[level][slot] = null;
+            while (timeout != null)
+            {
+                final Timeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                timeout.level = -1;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void expireSlot(int level, int slot)
+    {
+        Timeout timeout = heads[level][slot];
+        heads[level][slot] = null;
+        while (timeout != null)
+        {
+            final Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.level = -1;
+            expire(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts the timeout on the lowest level that can hold
+     * its deadline, or runs it now if it is already due.
+     */
+    private void place(Timeout timeout)
+    {
+        final long deadlineTick = toTick(timeout.deadlineNanos);
+        final long delta = deadlineTick - currentTick;
+        if (delta <= 0)
+        {
+            expire(timeout);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) level++;
+        final int slot = (int) ((deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = heads[level][slot];
+        if (timeout.next != null) timeout.next.prev = timeout;
+        heads[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout)
+    {
+        if (timeout.level < 0) return;
+        if (timeout.prev != null) timeout.prev.next = timeout.next;
+        else heads[timeout.level][timeout.slot] = timeout.next;
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.next = null;
+        timeout.prev = null;
+        timeout.level = -1;
+    }
+
+    private void expire(Timeout timeout)
+    {
+        if (timeout.isCancelled()) return;
+        try
+        { timeout.task.run(); }
+        catch (Throwable t)
+        { logger.error("Scheduled task {} failed: {}", timeout.task, t.toString(), t); }
+        if (timeout.periodNanos > 0 && !timeout.isCancelled())
+        {
+            timeout.deadlineNanos += timeout.periodNanos;
+            place(timeout);
+        }
+        else if (timeout.state.compareAndSet(Timeout.ST_WAITING, Timeout.ST_EXPIRED))
+        { scheduledCount.decrementAndGet(); }
+    }
+
+    /** Returns the first tick at or after the given time */
+    private long toTick(long nanos)
+    {
+        final long elapsed = nanos - startNanos;
+        if (elapsed <= 0) return 0L;
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * A handle to a task scheduled on a {@link TimingWheel}.
+     */
+    public static final class Timeout
+    {
+        private static final int ST_WAITING = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long periodNanos;
+        private final AtomicInteger state = new AtomicInteger(ST_WAITING);
+        private long deadlineNanos;
+        // only touched by the worker thread
+        private Timeout next, prev;
+        private int level = -1, slot;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineNanos, long periodNanos)
+        {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * Cancels the task. A task that is running when it is
+         * cancelled finishes its current run but is not run again.
+         * @return true if this call cancelled the task
+         */
+        public boolean cancel()
+        {
+            if (!state.compareAndSet(ST_WAITING, ST_CANCELLED)) return false;
+            wheel.scheduledCount.decrementAndGet();
+            wheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /** Returns whether the task was cancelled */
+        public boolean isCancelled() { return state.get() == ST_CANCELLED; }
+        /** Returns whether a one-shot task has run */
+        public boolean isExpired() { return state.get() == ST_EXPIRED; }
+        /** Returns whether the task repeats */
+        public boolean isPeriodic() { return periodNanos > 0; }
+        /** Returns the task */
+        public Runnable getTask() { return task; }
+    }
+
+    private static final class DefaultHolder
+    {
+        private static final TimingWheel INSTANCE =
+                new TimingWheel(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, "clock-timing-wheel");
+        static { ClockLifecycle.getDefault().register("clock-timing-wheel", INSTANCE::shutdown); }
+    }
+}
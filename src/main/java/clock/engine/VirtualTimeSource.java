@@ -0,0 +1,80 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VirtualTimeSource
+ * <p>
+ * A {@link TimeSource} that only moves when it is told to.
+ * Used to run hours of scheduled work in a test in moments.
+ * Its wall clock time starts at the given instant and moves
+ * with it.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public class VirtualTimeSource implements TimeSource
+{
+    private static final Logger logger = LogManager.getLogger(VirtualTimeSource.class);
+    private final AtomicLong nanos = new AtomicLong(),
+                             suspendedNanos = new AtomicLong(); // wall clock time that passed without the nanosecond time
+    private final Instant origin;
+    private final long originMillis;
+
+    /** Creates a virtual time source whose wall clock starts at the epoch */
+    public VirtualTimeSource()
+    { this(Instant.EPOCH); }
+
+    /**
+     * Creates a virtual time source whose wall clock starts at the given instant
+     * @param origin the wall clock time when the source is at 0ns
+     */
+    public VirtualTimeSource(Instant origin)
+    {
+        this.origin = origin;
+        this.originMillis = origin.toEpochMilli();
+    }
+
+    /**
+     * Moves the time forward
+     * @param duration how far to move the time
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void advance(Duration duration)
+    {
+        if (duration.isNegative()) throw new IllegalArgumentException("Time cannot move backwards");
+        final long now = nanos.addAndGet(duration.toNanos());
+        logger.debug("virtual time advanced by {} to {}ns", duration, now);
+    }
+
+    /**
+     * Moves the wall clock forward while the nanosecond time
+     * stands still, as a machine's clocks do while it sleeps
+     * @param duration how long the machine slept
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void suspend(Duration duration)
+    {
+        if (duration.isNegative()) throw new IllegalArgumentException("Time cannot move backwards");
+        suspendedNanos.addAndGet(duration.toNanos());
+        logger.debug("virtual time suspended for {}", duration);
+    }
+
+    /** Returns the current virtual time in nanoseconds */
+    @Override
+    public long nanoTime() { return nanos.get(); }
+
+    /** Returns the virtual wall clock time */
+    @Override
+    public Instant instant() { return origin.plusNanos(nanos.get() + suspendedNanos.get()); }
+
+    /** Returns the virtual wall clock time in milliseconds since the epoch */
+    @Override
+    public long millis() { return originMillis + TimeUnit.NANOSECONDS.toMillis(nanos.get() + suspendedNanos.get()); }
+}
@@ -0,0 +1,172 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WorldClock
+ * <p>
+ * Keeps the local date and time of many timezones at once.
+ * Each update takes a single {@link Instant} and works out
+ * every zone's local time from that zone's cached offset, so
+ * hundreds of zones cost no more than adding an offset each.
+ * A zone's offset is only looked up again once the zone's
+ * next transition, taken from {@link DstTransitions}, is
+ * crossed, or if time goes backwards.
+ * <p>
+ * Updates come from one thread at a time. The times of the
+ * latest update are published as a list that cannot be
+ * changed, so they can be read from any thread.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class WorldClock
+{
+    private static final Logger logger = LogManager.getLogger(WorldClock.class);
+
+    private final List<ZoneClock> zones = new ArrayList<>();
+    private final AtomicLong offsetLookups = new AtomicLong();
+    private volatile List<ZoneTime> times = List.of();
+    private Instant lastUpdate;
+
+    /**
+     * The local date and time of a timezone
+     * @param zone the timezone
+     * @param offset the offset of the zone at that time
+     * @param dateTime the local date and time in the zone
+     */
+    public record ZoneTime(ZoneId zone, ZoneOffset offset, LocalDateTime dateTime) {}
+
+    /** Creates a new, empty WorldClock */
+    public WorldClock() {}
+
+    /**
+     * Creates a new WorldClock showing the given zones
+     * @param zones the timezones to show, in order
+     */
+    public WorldClock(List<ZoneId> zones)
+    { zones.forEach(this::addZone); }
+
+    /**
+     * Adds a timezone. The zone gets its time on the next update,
+     * or straight away if the world clock was already updated.
+     * @param zone the timezone to add
+     * @return true if the zone was added, false if it was already shown
+     */
+    public synchronized boolean addZone(ZoneId zone)
+    {
+        if (null == zone || indexOf(zone) >= 0) return false;
+        zones.add(new ZoneClock(zone));
+        if (null != lastUpdate) update(lastUpdate);
+        logger.debug("added {}", zone);
+        return true;
+    }
+
+    /**
+     * Removes a timezone
+     * @param zone the timezone to remove
+     * @return true if the zone was shown
+     */
+    public synchronized boolean removeZone(ZoneId zone)
+    {
+        final int index = indexOf(zone);
+        if (index < 0) return false;
+        zones.remove(index);
+        publish();
+        logger.debug("removed {}", zone);
+        return true;
+    }
+
+    /**
+     * Works out the local time of every zone from the one instant.
+     * @param now the instant to show
+     */
+    public synchronized void update(Instant now)
+    {
+        final long epochSecond = now.getEpochSecond();
+        final int nano = now.getNano();
+        for (ZoneClock zone : zones) zone.update(now, epochSecond, nano);
+        lastUpdate = now;
+        publish();
+    }
+
+    /**
+     * Returns the local date and time of the zone from the latest update
+     * @param zone the timezone
+     * @return the local date and time, or null if the zone is not shown or not updated yet
+     */
+    public LocalDateTime localDateTime(ZoneId zone)
+    {
+        for (ZoneTime time : times)
+        { if (time.zone().equals(zone)) return time.dateTime(); }
+        return null;
+    }
+
+    /** Returns the times of every zone from the latest update, in order */
+    public List<ZoneTime> getTimes() { return times; }
+    /** Returns the timezones shown, in order */
+    public synchronized List<ZoneId> getZones() { return zones.stream().map(ZoneClock::zone).toList(); }
+    /** Returns how many times an offset was looked up from the zone rules */
+    public long getOffsetLookups() { return offsetLookups.get(); }
+
+    private int indexOf(ZoneId zone)
+    {
+        for (int i = 0; i < zones.size(); i++)
+        { if (zones.get(i).zone().equals(zone)) return i; }
+        return -1;
+    }
+
+    private void publish()
+    {
+        final List<ZoneTime> updated = new ArrayList<>(zones.size());
+        for (ZoneClock zone : zones)
+        { if (null != zone.dateTime) updated.add(new ZoneTime(zone.zone(), zone.offset, zone.dateTime)); }
+        times = List.copyOf(updated);
+    }
+
+    /**
+     * One zone of the world clock, with the offset it has
+     * from {@code validFrom} until {@code validUntil}
+     */
+    private final class ZoneClock
+    {
+        private final ZoneId zone;
+        private ZoneOffset offset;
+        private long validFrom = Long.MAX_VALUE, validUntil = Long.MIN_VALUE;
+        private LocalDateTime dateTime;
+
+        private ZoneClock(ZoneId zone) { this.zone = zone; }
+
+        private ZoneId zone() { return zone; }
+
+        private void update(Instant now, long epochSecond, int nano)
+        {
+            if (epochSecond >= validUntil || epochSecond < validFrom) lookUpOffset(now);
+            dateTime = LocalDateTime.ofEpochSecond(epochSecond, nano, offset);
+        }
+
+        private void lookUpOffset(Instant now)
+        {
+            offset = zone.getRules().getOffset(now);
+            final ZoneOffsetTransition next = DstTransitions.next(zone, now);
+            validFrom = now.getEpochSecond();
+            // no change this year or next, so look again in the new year
+            validUntil = null != next
+                    ? next.getInstant().getEpochSecond()
+                    : LocalDate.ofInstant(now, ZoneOffset.UTC).withDayOfYear(1).plusYears(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            offsetLookups.incrementAndGet();
+            logger.debug("{} offset {} until {}", zone, offset, null != next ? next : "the new year");
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package clock.entity;
 
-import java.io.InputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import clock.engine.TimingWheel;
+import clock.engine.TimingWheel.Timeout;
+import clock.entity.AlarmState.Phase;
 import clock.exception.InvalidInputException;
-import javazoom.jl.decoder.JavaLayerException;
-import javazoom.jl.player.advanced.AdvancedPlayer;
+import clock.exception.SoundException;
+import clock.sound.Playback;
+import clock.sound.Sound;
+import clock.sound.SoundCache;
+import clock.sound.SoundPlayer;
+import clock.util.TwoDigits;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import static java.lang.Thread.sleep;
 import static java.time.DayOfWeek.*;
 import static clock.util.Constants.*;
 
@@ -35,25 +46,38 @@ import static clock.util.Constants.*;
 public class Alarm implements Serializable, Comparable<Alarm>, Runnable
 {
     @Serial
-    private static final long serialVersionUID = 2L;
+    private static final long serialVersionUID = 5L;
     private static final Logger logger = LogManager.getLogger(Alarm.class);
-    public static long alarmsCounter = 0L;
-    private static final long SNOOZE_TIME = Duration.ofMinutes(7).toMillis(); // 7 minutes in milliseconds
+    /** Counts the alarms made, for their default names */
+    public static final EntityRegistry.Counter alarmsCounter = new EntityRegistry.Counter(100);
+    /** How long an alarm snoozes for, unless set otherwise */
+    public static final Duration DEFAULT_SNOOZE_DURATION = Duration.ofMinutes(7);
+    /** How many times in a row an alarm can be snoozed, unless set otherwise */
+    public static final int DEFAULT_MAX_SNOOZES = 3;
     private int hours,
                 minutes;
     private String minutesAsStr,
                    hoursAsStr,
                    ampm,
                    name; // limited to 20 characters
-    private List<DayOfWeek> days;
-    private boolean alarmGoingOff,
-                    updatingAlarm,
-                    activatedToday,
-                    isSnoozing,
-                    isPaused;
+    private byte dayMask; // the days, one bit each, see DayMask
+    private Duration snoozeDuration = DEFAULT_SNOOZE_DURATION;
+    private int maxSnoozes = DEFAULT_MAX_SNOOZES, // 0 for no limit
+                snoozeCount; // snoozes since the alarm last went off on time
+    private static final Set<Phase> CAN_GO_OFF = EnumSet.of(Phase.ARMED, Phase.STOPPED),
+                                    NOT_RINGING = EnumSet.of(Phase.ARMED, Phase.SNOOZED, Phase.STOPPED),
+                                    NOT_SNOOZED = EnumSet.of(Phase.ARMED, Phase.RINGING, Phase.STOPPED),
+                                    RINGING_OR_SNOOZED = EnumSet.of(Phase.RINGING, Phase.SNOOZED);
+    private final AlarmState state = new AlarmState(); // the phase and flags, read without locking
+    private final long id = EntityRegistry.nextId();
     private Clock clock;
-    private volatile Thread selfThread;
-    private AdvancedPlayer musicPlayer;
+    private transient volatile Timeout scheduledTask;
+    private transient volatile Playback playback;
+    private transient volatile long goingOffNanos; // when alarmGoingOff was last set, until its first sound is asked for
+    private volatile LocalDateTime nextFireTime; // kept when written, so a snooze outlasts a round trip
+    private transient volatile LocalDateTime missedAt; // when the alarm last came due while the clock was catching up
+    private transient volatile long armVersion;
+    private transient Sound sound;
 
     /**
      * Creates a new Alarm object with default values
@@ -66,7 +90,7 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
      */
     public Alarm()
     {
-        this("Alarm"+(Alarm.alarmsCounter+1), 0, 0, AM, new ArrayList<>(), false, null);
+        this("Alarm"+(Alarm.alarmsCounter.get()+1), 0, 0, AM, new ArrayList<>(), false, null);
         logger.debug("Default alarm created");
     }
 
@@ -91,114 +115,139 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
         setAMPM(ampm.toUpperCase());
         setDays(days);
         setUpdatingAlarm(updatingAlarm);
-        setName(StringUtils.isBlank(name) ? ALARM  + (alarmsCounter + 1) : name);
-        alarmsCounter++;
-        logger.debug("Total alarms created: {}", alarmsCounter);
-        if (alarmsCounter == 100L) {
-            logger.info("Restarting counter for alarms");
-            alarmsCounter = 0L;
-        }
+        final long number = alarmsCounter.next();
+        setName(StringUtils.isBlank(name) ? ALARM + number : name);
+        logger.debug("Total alarms created: {}", number);
+        if (number == 100L) logger.info("Restarting counter for alarms");
         logger.info("Alarm created");
     }
 
     /**
-     * Defines the music player object
+     * Takes the alarm sound from the shared sound cache,
+     * which decodes it the first time any alarm asks
      */
-    protected void setupMusicPlayer()
+    protected void loadSound()
     {
-        logger.debug("setup music player");
-        InputStream inputStream = null;
+        if (null != sound) return;
+        logger.debug("load sound");
         try
+        { sound = SoundCache.getDefault().get(SoundCache.ALARM_SOUND); }
+        catch (SoundException e)
         {
-            inputStream = ClassLoader.getSystemResourceAsStream("sounds/alarmSound1.mp3");
-            if (null != inputStream) { musicPlayer = new AdvancedPlayer(inputStream); }
-            else throw new NullPointerException();
-        }
-        catch (NullPointerException | JavaLayerException e)
-        {
-            logger.error("Music Player not set!");
-            if (null == inputStream) printStackTrace(e, "An issue occurred while reading the alarm file.");
-            else printStackTrace(e, "A JavaLayerException occurred: " + e.getMessage());
+            logger.error("Sound not set!");
+            printStackTrace(e, "An issue occurred while reading the alarm file.");
         }
     }
 
     /**
-     * This method begins the thread
-     * that runs the alarm.
+     * Arms the alarm on its clock. The clock keeps every
+     * armed alarm in a queue ordered by the next time it
+     * should go off, and only checks the head each tick.
      */
     public synchronized void startAlarm()
     {
-        if (selfThread == null)
+        if (null != clock)
         {
             logger.debug("starting alarm");
-            setSelfThread(new Thread(this));
-            selfThread.start();
+            clock.armAlarm(this);
         }
     }
 
     /**
-     * This method starts the alarm
+     * Computes the next time this alarm should go off,
+     * at or after the minute of the given date and time.
+     * An hour of 12 AM, or 0, is midnight and 12 PM is noon.
+     * @param from the date and time to start looking from
+     * @return the next occurrence, or null if the alarm has no days
      */
-    @Override
-    public void run()
+    public LocalDateTime getNextFireTime(LocalDateTime from)
     {
-        while (!selfThread.isInterrupted())
+        if (dayMask == DayMask.NONE) return null;
+        final LocalDateTime start = from.truncatedTo(ChronoUnit.MINUTES);
+        final int hourOfDay = (hours % 12) + (PM.equals(ampm) ? 12 : 0);
+        for (int i = 0; i <= 7; i++)
         {
-            try {
-                if (!alarmGoingOff && !activatedToday && !isPaused && !isSnoozing) {
-                    activateAlarm();
-                    sleep(1000);
-                }
-                else if (isSnoozing) {
-                    sleep(SNOOZE_TIME);
-                    // copilot added
-                    setIsSnoozing(false);
-                    setIsAlarmGoingOff(true);
-                }
-                else if (alarmGoingOff && !isPaused) {
-                    triggerAlarm();
-                    sleep(1000);
-                }
-                else {
-                    // do nothing
-                    sleep(1000);
-                }
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, null);
-                Thread.currentThread().interrupt();
-            }
+            final LocalDate date = start.toLocalDate().plusDays(i);
+            if (!isOn(date.getDayOfWeek())) continue;
+            final LocalDateTime candidate = date.atTime(hourOfDay, minutes);
+            if (!candidate.isBefore(start)) return candidate;
         }
+        return null;
     }
 
     /**
-     * Scheduled to run once every second.
-     * For each alarm, check if the alarm's
-     * time and day matches the clocks current
-     * time and day. And, if the alarm is not
-     * already going off, set it to going off.
+     * Records the next time this alarm is armed for and
+     * returns a new version. Entries in the clock's queue
+     * with an older version are skipped.
+     * @param fireTime the time the alarm is armed for, or null to disarm
+     * @return the new version
      */
-    private synchronized void activateAlarm()
+    synchronized long rearm(LocalDateTime fireTime)
     {
-        if (getAlarmAsString().equals(clock.getClockTimeAsAlarmString())
-                && this.getDays().contains(clock.getDayOfWeek()))
-        {
-            setIsAlarmGoingOff(true);
-            setActivatedToday(true);
-            logger.info("Alarm {} matches clock's time. Activating alarm", this);
-        }
+        setNextFireTime(fireTime);
+        if (null != fireTime) state.move(EnumSet.of(Phase.STOPPED), Phase.ARMED, 0, 0);
+        return ++armVersion;
+    }
+
+    /**
+     * Called by the clock when the alarm's time has come.
+     * Sets the alarm to going off, unless it is paused,
+     * snoozing or already going off, and starts ringing it.
+     */
+    synchronized void activate()
+    {
+        if (null == state.move(CAN_GO_OFF, Phase.RINGING, AlarmState.PAUSED, AlarmState.ACTIVATED_TODAY)) return;
+        snoozeCount = 0;
+        goingOffNanos = System.nanoTime();
+        logger.info("Alarm {} matches clock's time. Activating alarm", this);
+        startRinging();
+    }
+
+    /**
+     * Starts the task on the timing wheel that plays
+     * the sound once every second while going off.
+     */
+    private void startRinging()
+    {
+        if (null == scheduledTask)
+        { setScheduledTask(getTimingWheel().scheduleAtFixedRate(this, 0, 1, TimeUnit.SECONDS)); }
+    }
+
+    /**
+     * Runs once every second on the timing wheel while
+     * the alarm is going off. The sound is played again
+     * once the one before it has finished.
+     */
+    @Override
+    public synchronized void run()
+    {
+        final Playback current = playback;
+        final int word = state.get();
+        if (AlarmState.phaseOf(word) == Phase.RINGING && !AlarmState.has(word, AlarmState.PAUSED)
+                && (null == current || current.isDone())) triggerAlarm();
+    }
+
+    /** Cancels the sound, if one is playing or waiting to play */
+    private void silence()
+    {
+        final Playback current = playback;
+        if (null != current) current.cancel();
+        playback = null;
     }
 
     /**
-     * Stops an actively going off alarm
+     * Stops an actively going off alarm.
+     * The alarm stays armed for its next occurrence.
      */
     public synchronized void stopAlarm()
     {
         logger.debug("stopping alarm");
-        setMusicPlayer(null);
-        setIsAlarmGoingOff(false);
-        setSelfThread(null);
+        silence();
+        snoozeCount = 0;
+        final Phase was = state.move(RINGING_OR_SNOOZED, Phase.STOPPED, 0, 0);
+        if (null != scheduledTask) scheduledTask.cancel();
+        setScheduledTask(null);
+        if (was == Phase.SNOOZED && null != clock) clock.armAlarm(this);
         logger.info("{} alarm turned off", this);
     }
 
@@ -206,6 +255,7 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
     public synchronized void pauseAlarm()
     {
         logger.debug("pause alarm");
+        silence();
         setIsPaused(true);
     }
 
@@ -223,7 +273,9 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
     }
 
     /**
-     * Sets an alarm to go off
+     * Sets an alarm to go off. The decoded sound is
+     * handed to the shared sound player, which plays
+     * it in the background, so this returns at once.
      */
     public synchronized void triggerAlarm()
     {
@@ -231,8 +283,10 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
         try
         {
             logger.debug("playing sound");
-            setupMusicPlayer();
-            musicPlayer.play();
+            loadSound();
+            final long triggerNanos = goingOffNanos != 0L ? goingOffNanos : System.nanoTime();
+            goingOffNanos = 0L;
+            if (null != sound) playback = SoundPlayer.getDefault().play(sound, Playback.Kind.ALARM, triggerNanos);
         }
         catch (Exception e)
         {
@@ -241,14 +295,58 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
     }
 
     /**
-     * Snoozing this alarm will stop the alarm
-     * from playing its sound for 7 minutes.
+     * Snoozing this alarm will stop the alarm from
+     * playing its sound for the snooze duration.
+     * The wake up is a deadline on the clock's queue
+     * like any other occurrence of the alarm, so a
+     * snoozing alarm holds no thread. Stopping or
+     * removing the alarm cancels the wake up at once.
+     * Once the alarm has been snoozed its most times
+     * in a row, it is not snoozed and keeps ringing.
+     * @return true if the alarm was snoozed
+     * @throws IllegalStateException if the alarm is already snoozing
+     */
+    public synchronized boolean snooze()
+    {
+        if (isSnoozing()) throw new IllegalStateException(this + " is already snoozing");
+        if (maxSnoozes > 0 && snoozeCount >= maxSnoozes)
+        {
+            logger.info("{} was snoozed {} times already, it keeps ringing", this, snoozeCount);
+            return false;
+        }
+        snoozeCount++;
+        logger.info("snoozing for {} minutes, snooze {} of {}", snoozeDuration.toMinutes(), snoozeCount,
+                maxSnoozes > 0 ? maxSnoozes : "unlimited");
+        silence();
+        state.moveTo(Phase.SNOOZED);
+        if (null != scheduledTask) scheduledTask.cancel();
+        setScheduledTask(null);
+        if (null != clock) clock.armSnooze(this, snoozeDuration);
+        return true;
+    }
+
+    /**
+     * Called by the clock when the alarm's time came while the
+     * clock was catching up. The alarm counts as having gone
+     * off today, but is not rung.
+     * @param fireTime the time the alarm was due
      */
-    public synchronized void snooze()
+    synchronized void markMissed(LocalDateTime fireTime)
     {
-        logger.info("snoozing for {} minutes", Duration.ofMillis(SNOOZE_TIME).toMinutes());
-        setIsSnoozing(true);
-        setIsAlarmGoingOff(false);
+        state.setFlag(AlarmState.ACTIVATED_TODAY, true);
+        missedAt = fireTime;
+        logger.info("Alarm {} was due at {} while the clock was catching up", this, fireTime);
+    }
+
+    /**
+     * Called by the clock when the snooze time is up.
+     * Sets the alarm to going off again.
+     */
+    synchronized void endSnooze()
+    {
+        if (null == state.move(EnumSet.of(Phase.SNOOZED), Phase.RINGING, 0, 0)) return;
+        goingOffNanos = System.nanoTime();
+        startRinging();
     }
 
     /**
@@ -275,31 +373,25 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
     {
         logger.info("getDaysShortened");
         List<String> shortenedDays = new ArrayList<>();
-        if (days.contains(MONDAY) && days.contains(TUESDAY) &&
-            days.contains(WEDNESDAY) && days.contains(THURSDAY) && days.contains(FRIDAY)
-            && !days.contains(SATURDAY) && !days.contains(SUNDAY))
-        { shortenedDays.add(WEEKDAYS); }
-        else if (!days.contains(MONDAY) && !days.contains(TUESDAY) &&
-                !days.contains(WEDNESDAY) && !days.contains(THURSDAY) && !days.contains(FRIDAY)
-                && days.contains(SATURDAY) && days.contains(SUNDAY))
-        { shortenedDays.add(WEEKENDS); }
-        else if (days.contains(MONDAY) && days.contains(TUESDAY) &&
-                days.contains(WEDNESDAY) && days.contains(THURSDAY) && days.contains(FRIDAY)
-                && days.contains(SATURDAY) && days.contains(SUNDAY))
-        { shortenedDays.add(EVERY_DAY); }
-        else
+        switch (dayMask)
         {
-            for(DayOfWeek day : days)
+            case DayMask.WEEKDAYS -> shortenedDays.add(WEEKDAYS);
+            case DayMask.WEEKENDS -> shortenedDays.add(WEEKENDS);
+            case DayMask.EVERY_DAY -> shortenedDays.add(EVERY_DAY);
+            default ->
             {
-                switch (day)
+                for(DayOfWeek day : getDays())
                 {
-                    case MONDAY -> shortenedDays.add(M);
-                    case TUESDAY -> shortenedDays.add(T);
-                    case WEDNESDAY -> shortenedDays.add(W);
-                    case THURSDAY -> shortenedDays.add(TH);
-                    case FRIDAY -> shortenedDays.add(F);
-                    case SATURDAY -> shortenedDays.add(S);
-                    case SUNDAY -> shortenedDays.add(SU);
+                    switch (day)
+                    {
+                        case MONDAY -> shortenedDays.add(M);
+                        case TUESDAY -> shortenedDays.add(T);
+                        case WEDNESDAY -> shortenedDays.add(W);
+                        case THURSDAY -> shortenedDays.add(TH);
+                        case FRIDAY -> shortenedDays.add(F);
+                        case SATURDAY -> shortenedDays.add(S);
+                        case SUNDAY -> shortenedDays.add(SU);
+                    }
                 }
             }
         }
@@ -308,16 +400,40 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
 
     /** Returns the clock reference */
     public Clock getClock() { return this.clock; }
+    /** Returns the timing wheel of the alarm's clock, or the shared one if it has none */
+    public TimingWheel getTimingWheel()
+    {
+        final TimingWheel wheel = null != clock ? clock.getTimingWheel() : null;
+        return null != wheel ? wheel : TimingWheel.getDefault();
+    }
+    /** Returns the id the clock files the alarm under */
+    public long getId() { return id; }
+    /** Returns the phase the alarm is in */
+    public Phase getPhase() { return state.getPhase(); }
+    /** Returns the phase and flags of the alarm, see {@link AlarmState} */
+    public AlarmState getState() { return state; }
     /** Returns whether the alarm is going off */
-    public boolean isAlarmGoingOff() { return alarmGoingOff; }
+    public boolean isAlarmGoingOff() { return state.getPhase() == Phase.RINGING; }
     /** Returns whether the alarm is being updated */
-    public boolean isUpdatingAlarm() { return updatingAlarm; }
+    public boolean isUpdatingAlarm() { return state.has(AlarmState.UPDATING); }
     /** Returns whether the alarm is snoozing */
-    public boolean isSnoozing() { return isSnoozing; }
+    public boolean isSnoozing() { return state.getPhase() == Phase.SNOOZED; }
     /** Returns whether the alarm is paused */
-    public boolean isPaused() { return isPaused; }
-    /** Returns the days of the alarm */
-    public List<DayOfWeek> getDays() { return this.days; }
+    public boolean isPaused() { return state.has(AlarmState.PAUSED); }
+    /** Returns the days of the alarm, in week order, as a list that cannot be changed */
+    public List<DayOfWeek> getDays() { return DayMask.toList(dayMask); }
+    /** Returns the days of the alarm as a new set */
+    public EnumSet<DayOfWeek> getDaySet() { return DayMask.toSet(dayMask); }
+    /** Returns the days of the alarm as a mask, see {@link DayMask} */
+    public int getDayMask() { return dayMask; }
+    /** Returns whether the alarm goes off on the given day */
+    public boolean isOn(DayOfWeek day) { return DayMask.contains(dayMask, day); }
+    /** Returns how long the alarm snoozes for */
+    public Duration getSnoozeDuration() { return snoozeDuration; }
+    /** Returns how many times in a row the alarm can be snoozed, or 0 for no limit */
+    public int getMaxSnoozes() { return maxSnoozes; }
+    /** Returns how many times the alarm was snoozed since it last went off on time */
+    public int getSnoozeCount() { return snoozeCount; }
     /** Returns the hours of the alarm */
     public int getHours() { return this.hours; }
     /** Returns the hours as a string with leading zero if needed */
@@ -330,49 +446,90 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
     public String getAMPM() { return this.ampm; }
     /** Returns the name of the alarm */
     public String getName() { return this.name; }
-    /** Returns the music player object */
-    public AdvancedPlayer getMusicPlayer() { return this.musicPlayer; }
+    /** Returns the sound playing or last played, or null once silenced */
+    public Playback getPlayback() { return playback; }
+    /** Returns the decoded sound of the alarm, once it has been loaded */
+    public Sound getSound() { return this.sound; }
     /** Returns the alarm as a string in the format HH:MM AM/PM */
     public String getAlarmAsString() { return hoursAsStr+COLON+minutesAsStr+SPACE+ampm; }
     /** Returns whether the alarm has been activated today */
-    public boolean isActivatedToday() { return activatedToday; }
-    /** Returns the thread reference to itself */
-    public Thread getSelfThread() { return selfThread; }
+    public boolean isActivatedToday() { return state.has(AlarmState.ACTIVATED_TODAY); }
+    /** Returns the task that rings the alarm while it is going off */
+    public Timeout getScheduledTask() { return scheduledTask; }
+    /** Returns the time the alarm is armed for, or null if it is not armed */
+    public LocalDateTime getNextFireTime() { return nextFireTime; }
+    /** Returns when the alarm last came due while its clock was catching up, or null if it never has */
+    public LocalDateTime getMissedAt() { return missedAt; }
+    /** Returns whether the alarm is armed on its clock */
+    public boolean isArmed() { return null != nextFireTime; }
+    /** Returns the version of the alarm's latest arming */
+    long getArmVersion() { return armVersion; }
 
     /** Sets the clock reference */
     public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set to: {}", clock); }
-    /** Sets whether the alarm is going off */
-    public void setIsAlarmGoingOff(boolean alarmGoingOff) { this.alarmGoingOff = alarmGoingOff; logger.debug("alarmGoingOff: {}", alarmGoingOff); }
+    /** Sets the alarm going off, or stops it if it is going off */
+    public void setIsAlarmGoingOff(boolean alarmGoingOff) {
+        if (alarmGoingOff) state.move(NOT_RINGING, Phase.RINGING, 0, 0);
+        else state.move(EnumSet.of(Phase.RINGING), Phase.STOPPED, 0, 0);
+        logger.debug("alarmGoingOff: {}", alarmGoingOff);
+    }
     /** Sets whether the alarm is being updated */
-    public void setUpdatingAlarm(boolean updatingAlarm) { this.updatingAlarm = updatingAlarm; logger.debug("updatingAlarm: {}", updatingAlarm); }
-    /** Sets whether the alarm is snoozing */
-    public void setIsSnoozing(boolean isSnoozing) { this.isSnoozing = isSnoozing; logger.debug("isSnoozing: {}", isSnoozing); }
+    public void setUpdatingAlarm(boolean updatingAlarm) { state.setFlag(AlarmState.UPDATING, updatingAlarm); logger.debug("updatingAlarm: {}", updatingAlarm); }
+    /** Sets the alarm snoozing, or stops it if it is snoozing */
+    public void setIsSnoozing(boolean isSnoozing) {
+        if (isSnoozing) state.move(NOT_SNOOZED, Phase.SNOOZED, 0, 0);
+        else state.move(EnumSet.of(Phase.SNOOZED), Phase.STOPPED, 0, 0);
+        logger.debug("isSnoozing: {}", isSnoozing);
+    }
     /** Sets whether the alarm is paused */
-    public void setIsPaused(boolean isPaused) { this.isPaused = isPaused; logger.debug("isPaused: {}", isPaused); }
+    public void setIsPaused(boolean isPaused) { state.setFlag(AlarmState.PAUSED, isPaused); logger.debug("isPaused: {}", isPaused); }
     /** Sets the days of the alarm */
-    public void setDays(List<DayOfWeek> days) { this.days = days; logger.debug("days: {}", days); }
+    public void setDays(List<DayOfWeek> days) { this.dayMask = (byte) DayMask.of(days); logger.debug("days: {}", days); }
+    /**
+     * Sets how long the alarm snoozes for
+     * @param snoozeDuration the snooze duration, at least one minute
+     * @throws InvalidInputException if the duration is shorter than a minute
+     */
+    public void setSnoozeDuration(Duration snoozeDuration) {
+        if (null == snoozeDuration || snoozeDuration.compareTo(Duration.ofMinutes(1)) < 0)
+            throw new InvalidInputException("Snooze must be at least one minute");
+        this.snoozeDuration = snoozeDuration;
+        logger.debug("snoozeDuration: {}", snoozeDuration);
+    }
+    /**
+     * Sets how many times in a row the alarm can be snoozed
+     * @param maxSnoozes the most snoozes, or 0 for no limit
+     * @throws InvalidInputException if the count is negative
+     */
+    public void setMaxSnoozes(int maxSnoozes) {
+        if (maxSnoozes < 0) throw new InvalidInputException("Snoozes cannot be negative");
+        this.maxSnoozes = maxSnoozes;
+        logger.debug("maxSnoozes: {}", maxSnoozes);
+    }
     /** Sets the hours of the alarm */
     public void setHours(int hours) {
         this.hours = hours;
-        this.hoursAsStr = (hours < 10) ? "0"+this.hours : String.valueOf(this.hours);
+        this.hoursAsStr = TwoDigits.of(this.hours);
         logger.debug("hours: {}", hours);
     }
     /** Sets the minutes of the alarm */
     public void setMinutes(int minutes) {
         this.minutes = minutes;
-        this.minutesAsStr = (minutes < 10) ? "0"+this.minutes : String.valueOf(this.minutes);
+        this.minutesAsStr = TwoDigits.of(this.minutes);
         logger.debug("minutes: {}", minutes);
     }
     /** Sets the AM or PM value */
     public void setAMPM(String ampm) { this.ampm = ampm; logger.debug("ampm: {}", ampm); }
     /** Sets the name of the alarm */
     public void setName(String name) { this.name = name; logger.debug("name set to {}", name); }
-    /** Sets the music player object */
-    public void setMusicPlayer(AdvancedPlayer musicPlayer) { this.musicPlayer = musicPlayer; logger.debug("musicPlayer set"); }
+    /** Sets the decoded sound of the alarm */
+    public void setSound(Sound sound) { this.sound = sound; logger.debug("sound set"); }
     /** Sets whether the alarm has been activated today */
-    public void setActivatedToday(boolean activatedToday) { this.activatedToday = activatedToday; logger.debug("triggeredToday: {}", activatedToday); }
-    /** Sets the thread reference to itself */
-    public void setSelfThread(Thread selfThread) { this.selfThread = selfThread; logger.debug("selfThread set"); }
+    public void setActivatedToday(boolean activatedToday) { state.setFlag(AlarmState.ACTIVATED_TODAY, activatedToday); logger.debug("triggeredToday: {}", activatedToday); }
+    /** Sets the task that rings the alarm while it is going off */
+    public void setScheduledTask(Timeout scheduledTask) { this.scheduledTask = scheduledTask; logger.debug("scheduledTask set"); }
+    /** Sets the time the alarm is armed for */
+    void setNextFireTime(LocalDateTime nextFireTime) { this.nextFireTime = nextFireTime; logger.debug("nextFireTime: {}", nextFireTime); }
 
     /**
      * Compares this alarm to another alarm based
@@ -399,7 +556,7 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
                 getHours() == alarm.getHours() &&
                 getMinutes() == alarm.getMinutes() &&
                 Objects.equals(getAMPM(), alarm.getAMPM()) &&
-                Objects.equals(getDays(), alarm.getDays());
+                getDayMask() == alarm.getDayMask();
     }
 
     /**
@@ -411,7 +568,7 @@ public class Alarm implements Serializable, Comparable<Alarm>, Runnable
         return Objects.hash(getHours(), getMinutes(),
                 getName(), getMinutesAsStr(),
                 getHoursAsStr(), getAMPM(),
-                getDays());
+                getDayMask());
     }
 
     /**
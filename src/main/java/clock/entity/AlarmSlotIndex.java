@@ -0,0 +1,183 @@
+package clock.entity;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.DayOfWeek;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static clock.util.Constants.PM;
+
+/**
+ * AlarmSlotIndex
+ * <p>
+ * Files every alarm under the minute of the week it goes off at:
+ * one slot for each day of the week and minute of the day, 7 x 1440
+ * in all. Each slot holds a compact array of alarm ids, so finding
+ * the alarms for the current minute is a single lookup no matter
+ * how many alarms there are. Adding, moving or removing an alarm
+ * only touches the slots of its own days.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class AlarmSlotIndex
+{
+    private static final Logger logger = LogManager.getLogger(AlarmSlotIndex.class);
+    /** The number of minutes in a day */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SLOTS = 7 * MINUTES_PER_DAY;
+    private static final int[] EMPTY_SLOT = new int[0];
+
+    private final int[][] slots;
+    private final int[] slotSizes;
+    private final List<Alarm> alarmsById;
+    private final List<int[]> slotsById;
+    private final Map<Alarm, Integer> ids;
+    private final Deque<Integer> freeIds;
+
+    /**
+     * Creates a new, empty AlarmSlotIndex
+     */
+    public AlarmSlotIndex()
+    {
+        this.slots = new int[SLOTS][];
+        this.slotSizes = new int[SLOTS];
+        this.alarmsById = new ArrayList<>();
+        this.slotsById = new ArrayList<>();
+        this.ids = new IdentityHashMap<>();
+        this.freeIds = new ArrayDeque<>();
+    }
+
+    /**
+     * Files the alarm under the slot of each of its days.
+     * An alarm that is already filed is moved, so this
+     * is also how an alarm whose time or days changed
+     * is brought up to date.
+     * @param alarm the alarm to file
+     */
+    public synchronized void add(Alarm alarm)
+    {
+        if (null == alarm) return;
+        remove(alarm);
+        final int id = freeIds.isEmpty() ? alarmsById.size() : freeIds.pop();
+        final int minute = minuteOfDay(alarm);
+        final int[] filedUnder = alarm.getDays().stream()
+                .mapToInt(day -> slot(day, minute))
+                .toArray();
+        for (int slot : filedUnder) addToSlot(slot, id);
+        if (id == alarmsById.size())
+        {
+            alarmsById.add(alarm);
+            slotsById.add(filedUnder);
+        }
+        else
+        {
+            alarmsById.set(id, alarm);
+            slotsById.set(id, filedUnder);
+        }
+        ids.put(alarm, id);
+        logger.debug("{} filed under {} slots", alarm, filedUnder.length);
+    }
+
+    /**
+     * Removes the alarm from every slot it is filed under
+     * @param alarm the alarm to remove
+     * @return true if the alarm was filed
+     */
+    public synchronized boolean remove(Alarm alarm)
+    {
+        final Integer id = ids.remove(alarm);
+        if (null == id) return false;
+        for (int slot : slotsById.get(id)) removeFromSlot(slot, id);
+        alarmsById.set(id, null);
+        slotsById.set(id, EMPTY_SLOT);
+        freeIds.push(id);
+        return true;
+    }
+
+    /**
+     * Returns the alarms filed under the given day and minute
+     * @param day the day of the week
+     * @param minuteOfDay the minute of the day, from 0 to 1439
+     * @return the alarms that go off at that minute
+     */
+    public synchronized List<Alarm> alarmsAt(DayOfWeek day, int minuteOfDay)
+    {
+        final int slot = slot(day, minuteOfDay);
+        final int size = slotSizes[slot];
+        if (size == 0) return List.of();
+        final List<Alarm> alarms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) alarms.add(alarmsById.get(slots[slot][i]));
+        return alarms;
+    }
+
+    /** Removes every alarm from the index */
+    public synchronized void clear()
+    {
+        Arrays.fill(slots, null);
+        Arrays.fill(slotSizes, 0);
+        alarmsById.clear();
+        slotsById.clear();
+        ids.clear();
+        freeIds.clear();
+    }
+
+    /** Returns whether the alarm is filed */
+    public synchronized boolean contains(Alarm alarm) { return ids.containsKey(alarm); }
+    /** Returns the number of alarms filed */
+    public synchronized int size() { return ids.size(); }
+
+    /**
+     * Returns the minute of the day the alarm goes off at,
+     * from its hours, minutes and AM/PM
+     * @param alarm the alarm
+     * @return the minute of the day, from 0 to 1439
+     */
+    static int minuteOfDay(Alarm alarm)
+    {
+        final int hourOfDay = (alarm.getHours() % 12) + (PM.equals(alarm.getAMPM()) ? 12 : 0);
+        return hourOfDay * 60 + alarm.getMinutes();
+    }
+
+    /**
+     * Returns the slot for the given day and minute
+     * @throws IllegalArgumentException if the minute is outside the day
+     */
+    private static int slot(DayOfWeek day, int minuteOfDay)
+    {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY)
+            throw new IllegalArgumentException("Minute of day must be between 0 and " + (MINUTES_PER_DAY - 1));
+        return (day.getValue() - 1) * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    private void addToSlot(int slot, int id)
+    {
+        int[] ids = slots[slot];
+        if (null == ids) ids = slots[slot] = new int[2];
+        else if (slotSizes[slot] == ids.length) ids = slots[slot] = Arrays.copyOf(ids, ids.length * 2);
+        ids[slotSizes[slot]++] = id;
+    }
+
+    private void removeFromSlot(int slot, int id)
+    {
+        final int[] ids = slots[slot];
+        final int size = slotSizes[slot];
+        for (int i = 0; i < size; i++)
+        {
+            if (ids[i] == id)
+            {
+                ids[i] = ids[size - 1]; // swap with the last so the slot stays packed
+                slotSizes[slot] = size - 1;
+                if (size == 1) slots[slot] = null;
+                return;
+            }
+        }
+    }
+}
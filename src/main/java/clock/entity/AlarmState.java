@@ -0,0 +1,148 @@
+package clock.entity;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AlarmState
+ * <p>
+ * Packs the state of an alarm into one int, so it is always
+ * read and changed as a whole. The low two bits hold the
+ * phase the alarm is in, and the bits above them hold the
+ * flags that can be set in any phase: whether it went off
+ * today, is paused, or is being updated.
+ * <p>
+ * The phase only moves along the transitions {@link Phase#canMoveTo}
+ * allows, each one a single compare-and-set, so two threads
+ * cannot both move the alarm out of the same phase. Asking
+ * for a move the alarm cannot make throws at once rather than
+ * leaving the alarm in a state no one meant.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class AlarmState implements Serializable
+{
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The phases of an alarm */
+    public enum Phase
+    {
+        /** Waiting for its time */
+        ARMED,
+        /** Going off */
+        RINGING,
+        /** Snoozed, and going off again when the snooze is over */
+        SNOOZED,
+        /** Stopped after going off, and waiting for its next time */
+        STOPPED;
+
+        /**
+         * Returns whether an alarm in this phase can move to the next
+         * @param next the phase to move to
+         * @return true if the move is allowed
+         */
+        public boolean canMoveTo(Phase next)
+        {
+            return switch (this)
+            {
+                case ARMED -> next == RINGING || next == SNOOZED;
+                case RINGING, SNOOZED -> next != this && next != ARMED;
+                case STOPPED -> next != STOPPED;
+            };
+        }
+    }
+
+    /** Set once the alarm has gone off today */
+    public static final int ACTIVATED_TODAY = 1 << 2;
+    /** Set while the alarm is paused */
+    public static final int PAUSED = 1 << 3;
+    /** Set while the alarm is being updated */
+    public static final int UPDATING = 1 << 4;
+    private static final int PHASE_MASK = 0b11;
+    private static final Phase[] PHASES = Phase.values();
+
+    private final AtomicInteger word = new AtomicInteger(Phase.ARMED.ordinal());
+
+    /** Returns the packed state, to be read with {@link #phaseOf} and {@link #has(int, int)} */
+    public int get() { return word.get(); }
+    /** Returns the phase held in the packed state */
+    public static Phase phaseOf(int word) { return PHASES[word & PHASE_MASK]; }
+    /** Returns whether the flag is set in the packed state */
+    public static boolean has(int word, int flag) { return (word & flag) != 0; }
+    /** Returns the phase the alarm is in */
+    public Phase getPhase() { return phaseOf(word.get()); }
+    /** Returns whether the flag is set */
+    public boolean has(int flag) { return has(word.get(), flag); }
+
+    /**
+     * Moves the alarm to the next phase if it is in one of the
+     * given phases and none of the blocking flags are set.
+     * @param from the phases the alarm may move from
+     * @param to the phase to move to
+     * @param blockedBy the flags that stop the move if set, or 0
+     * @param flagsToSet the flags to set with the move, or 0
+     * @return the phase the alarm moved from, or null if it did not move
+     * @throws IllegalStateException if one of the given phases cannot move to the next
+     */
+    public Phase move(Set<Phase> from, Phase to, int blockedBy, int flagsToSet)
+    {
+        for (Phase phase : from)
+        {
+            if (!phase.canMoveTo(to))
+                throw new IllegalStateException("An alarm cannot move from " + phase + " to " + to);
+        }
+        int current;
+        do
+        {
+            current = word.get();
+            if (!from.contains(phaseOf(current)) || has(current, blockedBy)) return null;
+        }
+        while (!word.compareAndSet(current, (current & ~PHASE_MASK) | to.ordinal() | flagsToSet));
+        return phaseOf(current);
+    }
+
+    /**
+     * Moves the alarm to the next phase from whatever phase it is in
+     * @param to the phase to move to
+     * @return the phase the alarm moved from
+     * @throws IllegalStateException if the alarm cannot move to that phase from the one it is in
+     */
+    public Phase moveTo(Phase to)
+    {
+        int current;
+        do
+        {
+            current = word.get();
+            if (!phaseOf(current).canMoveTo(to))
+                throw new IllegalStateException("An alarm cannot move from " + phaseOf(current) + " to " + to);
+        }
+        while (!word.compareAndSet(current, (current & ~PHASE_MASK) | to.ordinal()));
+        return phaseOf(current);
+    }
+
+    /**
+     * Sets or clears a flag without changing the phase
+     * @param flag the flag
+     * @param set true to set it, false to clear it
+     */
+    public void setFlag(int flag, boolean set)
+    {
+        if ((flag & PHASE_MASK) != 0) throw new IllegalArgumentException("Not a flag: " + flag);
+        if (set) word.getAndUpdate(current -> current | flag);
+        else word.getAndUpdate(current -> current & ~flag);
+    }
+
+    @Override
+    public String toString()
+    {
+        final int current = word.get();
+        return phaseOf(current)
+                + (has(current, ACTIVATED_TODAY) ? " activatedToday" : "")
+                + (has(current, PAUSED) ? " paused" : "")
+                + (has(current, UPDATING) ? " updating" : "");
+    }
+}
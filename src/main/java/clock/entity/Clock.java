@@ -1,20 +1,38 @@
 package clock.entity;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import clock.engine.DstTransitions;
+import clock.engine.TickBus;
+import clock.engine.TickEngine;
+import clock.engine.TimeSource;
+import clock.engine.TimingWheel;
+import clock.engine.VirtualTimeSource;
 import clock.exception.InvalidInputException;
+import clock.util.ThrottledLogger;
+import clock.util.TwoDigits;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import static java.lang.Thread.sleep;
 import static java.time.Month.*;
 import static java.time.DayOfWeek.*;
 import static clock.util.Constants.*;
@@ -27,6 +45,16 @@ import static clock.util.Constants.*;
  * will 'tick' every second. This will not only update the
  * date and time but also perform the necessary functions
  * to update alarms, timers, and itself if necessary.
+ * <p>
+ * The clock reads the time from the time source of its
+ * timing wheel. On a {@link VirtualTimeSource} it is on
+ * virtual time, and only moves when it is advanced.
+ * <p>
+ * A clock that falls behind, because the machine slept or
+ * the thread was paused, is {@link #catchUp caught up} in
+ * one pass. The alarms that came due in the meantime go off
+ * once each, or only count as missed, as its
+ * {@link MissedAlarmPolicy} says.
  * 
  * @author michael ball 
  * @version since 1.0
@@ -34,29 +62,66 @@ import static clock.util.Constants.*;
 public class Clock implements Serializable, Comparable<Clock>, Runnable
 {
     @Serial
-    private static final long serialVersionUID = 2L;
+    private static final long serialVersionUID = 3L;
     private static final Logger logger = LogManager.getLogger(Clock.class);
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // lines logged on every tick, kept to once a minute at the normal tick rate
+    private static final ThrottledLogger tickRateLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            performTickLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            secondsLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            leapYearLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            dateChangedLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            dateTimeLog = ThrottledLogger.sampled(logger, Level.DEBUG, 60),
+            timeLog = ThrottledLogger.sampled(logger, Level.INFO, 60);
 
     private LocalDate date;
     private DayOfWeek dayOfWeek;
     private Month month;
 
-    private LocalTime time;
+    private transient LocalTime time;
     private int seconds,minutes,hours,dayOfMonth,year;
     private String ampm;
     private ZoneId timezone;
     private String hoursAsStr=EMPTY, minutesAsStr=EMPTY, secondsAsStr=EMPTY;
     private LocalDate beginDaylightSavingsTimeDate, endDaylightSavingsTimeDate;
-    private LocalDateTime currentDateTime;
+    private transient LocalDateTime currentDateTime;
 
-    private List<Alarm> listOfAlarms;
-    private List<Timer> listOfTimers;
-    private List<Stopwatch> listOfStopwatches;
+    // written as plain lists, since a registry files its entities by a function
+    private transient EntityRegistry<Alarm> listOfAlarms;
+    private transient EntityRegistry<Timer> listOfTimers;
+    private transient EntityRegistry<Stopwatch> listOfStopwatches;
+    private transient TickEngine tickEngine;
+    private transient TimingWheel timingWheel = TimingWheel.getDefault();
+    private transient long lastTickNanos; // when a clock on virtual time last ticked, by its time source
+    private transient long lastTickMillis = Long.MIN_VALUE; // when the running clock last ticked, by its time source's wall clock
+    private transient Map<Long, Alarm> missedAlarms; // the alarms that came due while catching up, by id
+    private MissedAlarmPolicy missedAlarmPolicy = MissedAlarmPolicy.FIRE;
+    private transient TickBus tickBus = new TickBus();
+    private transient PriorityBlockingQueue<ArmedAlarm> alarmQueue = newAlarmQueue();
+    private transient volatile int alarmsArmed = -1;
+    private transient AlarmSlotIndex alarmIndex = new AlarmSlotIndex();
+    private transient long lastMatchedMinute = Long.MIN_VALUE;
+    // bumped when a field the time or date strings are written from changes
+    private transient int timeVersion, dateVersion;
+    private transient int timeBuiltAt;
+    private transient Rendered timeAsStr, militaryTimeAsStr, clockTimeAsAlarmString,
+            dateAsStr, fullDateAsStr, partialDateAsStr;
+    private transient volatile ClockSnapshot snapshot;
+    private ZoneOffsetTransition nextDstTransition;
     private boolean leapYear, todayMatchesDSTDate,
             dateChanged, isNewYear, //testingClock,
             showFullDate, showPartialDate, showMilitaryTime,
             daylightSavingsTimeEnabled;
 
+    /** What the clock does with the alarms and timers that came due while it was catching up */
+    public enum MissedAlarmPolicy
+    {
+        /** Each missed alarm or timer goes off once, when the clock has caught up */
+        FIRE,
+        /** The missed alarms and timers do not go off, and only count as missed */
+        SKIP
+    }
+
     /**
      * Default constructor for the Clock class.
      * Uses the system's current date and time.
@@ -67,6 +132,36 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         initialize(null);
     }
 
+    /**
+     * Creates a clock that reads the time from the time source
+     * of the given wheel, and runs the alarms, timers and
+     * stopwatches made for it on that wheel. A manual wheel
+     * on a {@link VirtualTimeSource} puts the clock on virtual
+     * time. It only moves when it is {@link #advance advanced},
+     * and hands each tick to its listeners as it happens, on
+     * the thread that advances it.
+     * @param timingWheel the wheel the clock and its entities run on
+     */
+    public Clock(TimingWheel timingWheel)
+    {
+        super();
+        setTimingWheel(timingWheel);
+        if (isVirtual()) tickBus = new TickBus(Runnable::run);
+        initialize(null);
+    }
+
+    /**
+     * Creates a clock on virtual time, starting at the
+     * given date and time in the system's timezone.
+     * @param start the date and time the clock starts at
+     * @return the clock on virtual time
+     */
+    public static Clock virtual(LocalDateTime start)
+    {
+        final TimeSource source = new VirtualTimeSource(start.atZone(ZoneId.systemDefault()).toInstant());
+        return new Clock(TimingWheel.manual(TimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, source));
+    }
+
     /**
      * Custom constructor which takes in values for all Clock
      * parameters and sets them based on those inputs.
@@ -110,7 +205,7 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      * Shared initializer for all constructors.
      * <p>
      * When {@code arguments} is {@code null} the clock is initialised from the
-     * system's current date and time via {@link #setTheTime(LocalDateTime)}.
+     * current date and time of its time source via {@link #setTheTime(LocalDateTime)}.
      * When a list is supplied it must contain exactly eight pre-validated
      * elements in the order:
      * <ol>
@@ -125,7 +220,7 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      * </ol>
      *
      * @param arguments the ordered list of clock parameters, or {@code null}
-     *                  to use the current system date/time
+     *                  to use the current date/time of the time source
      */
     private void initialize(List<?> arguments)
     {
@@ -136,14 +231,14 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         }
         else
         {
-            logger.info("Initializing Default Clock from system time");
-            setTheTime(LocalDateTime.now());
+            logger.info("Initializing Default Clock from its time source");
+            setTheTime(now());
         }
         setDaylightSavingsTimeDates();
         setLeapYear(date.isLeapYear());
-        setListOfAlarms(new ArrayList<>());
-        setListOfTimers(new ArrayList<>());
-        setListOfStopwatches(new ArrayList<>());
+        setListOfAlarms(List.of());
+        setListOfTimers(List.of());
+        setListOfStopwatches(List.of());
         setDaylightSavingsTimeEnabled(true);
     }
 
@@ -188,6 +283,22 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     public void setTheTime(LocalDateTime dateTime)
     {
         logger.info("Setting the time");
+        setDateTimeValues(dateTime);
+        setTimeZone(null != timezone ? timezone : getZoneIdFromTimezoneButtonText(EMPTY));
+        setDateChanged(false);
+        setTheDateAndTime();
+        alarmsArmed = -1; // the time jumped, so re-arm the alarms on the next tick
+        lastMatchedMinute = Long.MIN_VALUE;
+        setDaylightSavingsTimeDates();
+    }
+
+    /**
+     * Sets the seconds, minutes, hours, AMPM, month,
+     * dayOfWeek, dayOfMonth and year from the dateTime
+     * @param dateTime the dateTime values to use
+     */
+    private void setDateTimeValues(LocalDateTime dateTime)
+    {
         setSeconds(dateTime.getSecond());
         setMinutes(dateTime.getMinute());
         setHours(dateTime.getHour()==0 && !showMilitaryTime ? 12 : dateTime.getHour());
@@ -196,25 +307,35 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         setDayOfWeek(dateTime.getDayOfWeek());
         setDayOfMonth(dateTime.getDayOfMonth());
         setYear(dateTime.getYear());
-        setTimeZone(getZoneIdFromTimezoneButtonText(EMPTY));
-        setDateChanged(false);
-        setTheDateAndTime();
     }
 
     /**
      * Sets the date and time based on the current values
      * of the clock. This method is called after setting
      * the time to ensure that the date and time are in sync.
+     * The date is only made again when the day changed, and
+     * the time is made when it is asked for. Once they are in
+     * sync, a snapshot of the clock is published.
      */
     public void setTheDateAndTime()
     {
         setDateChanged(false);
-        setDate(LocalDate.of(year, month, dayOfMonth));
-        setTime(LocalTime.of(this.hours, this.minutes, this.seconds));
+        if (null == date || date.getDayOfMonth() != dayOfMonth || date.getMonth() != month || date.getYear() != year)
+        { setDate(LocalDate.of(year, month, dayOfMonth)); }
         setLeapYear(date.isLeapYear());
-        setCurrentDateTime(LocalDateTime.of(date, time));
+        printTime();
+        printDateTime();
+        publishSnapshot();
     }
 
+    /**
+     * Publishes a snapshot of the clock for readers on other
+     * threads. It is a single volatile write, so readers never
+     * wait on the tick and never see half of a change.
+     */
+    private void publishSnapshot()
+    { snapshot = ClockSnapshot.of(this); }
+
     /**
      * Sets and logs the new date value from the year, month, and dayOfMonth
      * Sets and logs the new time value from the hours, minutes, and seconds
@@ -230,42 +351,55 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
 
     /**
      * Sets the dates for the beginning and ending of
-     * daylight savings time.
-     * Beginning date is always the second Sunday
-     * Ending date is always the first Sunday
+     * daylight savings time, and the next time the
+     * clocks change, from the rules of the timezone.
+     * Beginning date is the day the clocks go forward,
+     * ending date is the day the clocks go back. Both
+     * are null for a timezone without daylight savings.
      */
     protected void setDaylightSavingsTimeDates()
     {
         logger.debug("setting begin and end daylight savings dates");
-        int sundayCount = 0;
-        int firstOfMonth = 1;
-        LocalDate beginDate = LocalDate.of(year, MARCH, firstOfMonth); // 3
-        while (sundayCount != 2) {
-            DayOfWeek day = beginDate.getDayOfWeek();
-            if (day == SUNDAY) {
-                sundayCount++;
-                if (sundayCount == 2) firstOfMonth -= 1;
-            }
-            beginDate = LocalDate.of(year, MARCH, firstOfMonth++);
+        final ZoneId zone = null != timezone ? timezone : ZoneId.systemDefault();
+        LocalDate beginDate = null, endDate = null;
+        for (ZoneOffsetTransition transition : DstTransitions.forYear(zone, year))
+        {
+            if (transition.isGap() && null == beginDate) beginDate = transition.getDateTimeBefore().toLocalDate();
+            else if (transition.isOverlap() && null == endDate) endDate = transition.getDateTimeBefore().toLocalDate();
         }
         setBeginDaylightSavingsTimeDate(beginDate);
-
-        sundayCount = 0;
-        firstOfMonth = 1;
-        LocalDate endDate = LocalDate.of(getYear(), NOVEMBER, firstOfMonth); // 11
-        while (sundayCount != 1) {
-            DayOfWeek day = endDate.getDayOfWeek();
-            if (day == SUNDAY) {
-                sundayCount++;
-                firstOfMonth -= 1;
-            }
-            endDate = LocalDate.of(year, 11, ++firstOfMonth);
-        }
         setEndDaylightSavingsTimeDate(endDate);
+        // by instant, at the offset the clock is on, so a fall back to midnight does not find the same change again
+        final ZoneOffset offset = null != nextDstTransition ? nextDstTransition.getOffsetBefore() : null;
+        setNextDstTransition(DstTransitions.next(zone, ZonedDateTime.ofLocal(getLocalDateTime(), zone, offset).toInstant()));
         if (isTodayDaylightSavingsTime()) { setTodayMatchesDSTDate(true); }
         logger.info("daylight savings dates set");
     }
 
+    /**
+     * Moves the clock across the daylight savings change it
+     * has just reached, forward over a gap or back over an
+     * overlap, and looks up the change after it. When daylight
+     * savings time is not enabled the time is left alone.
+     */
+    private void changeForDaylightSavingsTime()
+    {
+        final ZoneOffsetTransition transition = nextDstTransition;
+        if (daylightSavingsTimeEnabled)
+        {
+            logger.debug("!! daylight savings time now !!");
+            logger.debug(transition.isGap() ? "spring forward" : "fall back");
+            setDateTimeValues(getLocalDateTime().plus(transition.getDuration()));
+            alarmsArmed = -1; // the time jumped, so re-arm the alarms on the next tick
+            lastMatchedMinute = Long.MIN_VALUE;
+        }
+        else
+        { logger.debug("daylight savings time not enabled, not adjusting time"); }
+        setTodayMatchesDSTDate(false);
+        // by instant, so falling back does not find the same change again
+        setNextDstTransition(DstTransitions.next(null != timezone ? timezone : ZoneId.systemDefault(), transition.getInstant()));
+    }
+
     /**
      * Returns the String associated to the selected ZoneId
      * Example log: timezone: America/Chicago or Central Time
@@ -287,17 +421,18 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     }
 
     /**
-     * Returns a Runnable that will update the time if the current time
-     * does not match the clock time. This is executed once a second.
+     * Returns a Runnable that will update the time if the time
+     * by the clock's time source does not match the clock time.
      * @return Runnable the runnable to update the time
      */
     public Runnable updateOutdatedTime()
-    { return () -> shouldUpdateTime(LocalDateTime.now(timezone)); }
+    { return () -> shouldUpdateTime(now()); }
 
     /**
      * Determines if the expected currentTime now is
      * the same as the clock time. If it is not, the
-     * clock time is updated.
+     * clock time is updated. A clock that is behind
+     * is caught up, so the alarms it passes are not lost.
      * @param rightNow the current time
      * @return boolean if the time was updated
      */
@@ -311,6 +446,11 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         boolean timesAreTheSame = nowUpdated.equals(clockTime);
         logger.debug("{}", timesAreTheSame ? "times are the same" : "times are not the same");
         if (!timesAreTheSame) {
+            final long behind = null != rightNow ? Duration.between(getLocalDateTime(), rightNow.withNano(0)).getSeconds() : 0L;
+            if (behind > 0) {
+                catchUp(behind);
+                return true;
+            }
             logger.warn("clock time is incorrect. updating time");
             setTheTime(nowUpdated);
             if (null != rightNow) {
@@ -342,7 +482,7 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      * @return ZonedDateTime the zoned date time
      */
     protected ZonedDateTime getZonedDateTimeFromLocalDateTime(LocalDateTime now)
-    { return now == null ? ZonedDateTime.now(timezone) : ZonedDateTime.of(now, timezone); }
+    { return now == null ? ZonedDateTime.ofInstant(getTimeSource().instant(), timezone) : ZonedDateTime.of(now, timezone); }
 
     /**
      * Returns the AM or PM string for the given local date time,
@@ -393,8 +533,8 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     protected boolean isTodayDaylightSavingsTime()
     {
-        return date.isEqual(beginDaylightSavingsTimeDate) ||
-                date.isEqual(endDaylightSavingsTimeDate);
+        return date.equals(beginDaylightSavingsTimeDate) ||
+                date.equals(endDaylightSavingsTimeDate);
     }
 
     /**
@@ -437,7 +577,8 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     private void refreshClockTimeIfMidnight()
     {
-        if ((MIDNIGHT_STANDARD_TIME.equals(getTimeAsStr()) || MIDNIGHT_MILITARY_TIME.equals(getMilitaryTimeAsStr()))) {
+        // 12:00:00 AM, or 0000 hours 00, without writing the time out
+        if (minutes == 0 && seconds == 0 && (hours == 0 || (hours == 12 && AM.equals(ampm)))) {
             logger.info("midnight daily clock update");
             setTheTime(LocalDateTime.of(
                     LocalDate.of(getYear(), getMonth(), getDayOfMonth()),
@@ -447,15 +588,178 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     }
 
     /**
-     * Starts all alarms, if any have not yet started.
+     * Sets off every alarm whose time has come.
+     * Alarms are filed in a slot index by day of the week and
+     * minute of the day, so when the minute rolls over only the
+     * slot for the new minute is looked at. Snoozes, and alarms
+     * armed for a minute that was already looked at, are kept in
+     * a queue ordered by when they go off, so each tick only looks
+     * at the head of the queue. If the list of alarms was changed
+     * without going through the clock, or the time was set, the
+     * alarms are re-armed first.
      * If the date has changed and there are still alarms,
      * it will reset the alarms to have not yet been
      * triggered.
      */
     private void setActiveAlarms()
     {
-        getListOfAlarms().forEach(Alarm::startAlarm);
+        if (getListOfAlarms().size() != alarmsArmed) rearmAlarms();
         resetTriggeredAlarms();
+        final int hourOfDay = getHourOfDay();
+        final long minute = secondOf(year, month.getValue(), dayOfMonth, hourOfDay, minutes, 0);
+        if (minute != lastMatchedMinute)
+        {
+            lastMatchedMinute = minute;
+            final List<Alarm> alarms = alarmIndex.alarmsAt(dayOfWeek, hourOfDay * 60 + minutes);
+            if (!alarms.isEmpty())
+            {
+                final LocalDateTime thisMinute = getLocalDateTime().truncatedTo(ChronoUnit.MINUTES),
+                                    nextMinute = thisMinute.plusMinutes(1);
+                for (Alarm alarm : alarms)
+                {
+                    if (!alarm.isActivatedToday()) goOff(alarm, thisMinute, false);
+                    if (!alarm.isSnoozing()) alarm.setNextFireTime(alarm.getNextFireTime(nextMinute));
+                }
+            }
+        }
+        ArmedAlarm head;
+        while (null != (head = alarmQueue.peek()) && hasReached(head.fireTime()))
+        {
+            head = alarmQueue.poll();
+            if (!hasReached(head.fireTime())) { alarmQueue.offer(head); break; }
+            final Alarm alarm = head.alarm();
+            if (head.version() != alarm.getArmVersion()) continue; // re-armed or removed since
+            if (head.snooze())
+            {
+                goOff(alarm, head.fireTime(), true);
+                armAlarm(alarm);
+            }
+            else
+            {
+                goOff(alarm, head.fireTime(), false);
+                armAlarm(alarm, head.fireTime().plusMinutes(1));
+            }
+        }
+    }
+
+    /**
+     * Sets the alarm off, or once its snooze is over, sets it
+     * off again. While the clock is catching up, the alarm is
+     * only marked as missed, to be dealt with once caught up.
+     * @param alarm the alarm whose time has come
+     * @param fireTime the time the alarm is due
+     * @param snooze whether this is the end of a snooze
+     */
+    private void goOff(Alarm alarm, LocalDateTime fireTime, boolean snooze)
+    {
+        final Map<Long, Alarm> missed = missedAlarms;
+        if (null != missed)
+        {
+            alarm.markMissed(fireTime);
+            missed.put(alarm.getId(), alarm);
+        }
+        else if (snooze) alarm.endSnooze();
+        else alarm.activate();
+    }
+
+    /**
+     * Arms the alarm for its next occurrence. If the alarm
+     * has already gone off today, it is armed from tomorrow.
+     * Any earlier arming of the alarm is replaced.
+     * @param alarm the alarm to arm
+     */
+    public void armAlarm(Alarm alarm)
+    {
+        final LocalDateTime now = getSnapshot().localDateTime();
+        armAlarm(alarm, alarm.isActivatedToday() ? now.toLocalDate().plusDays(1).atStartOfDay() : now);
+    }
+
+    /**
+     * Arms the alarm for its first occurrence at or after the given time.
+     * @param alarm the alarm to arm
+     * @param from the date and time to start looking from
+     */
+    private void armAlarm(Alarm alarm, LocalDateTime from)
+    {
+        final LocalDateTime fireTime = alarm.getNextFireTime(from);
+        final long version = alarm.rearm(fireTime);
+        alarmIndex.add(alarm);
+        // the slot for this minute was already looked at, so queue it instead
+        if (null != fireTime && fireTime.getNano() == 0 && secondOf(fireTime) == lastMatchedMinute)
+            alarmQueue.offer(new ArmedAlarm(alarm, fireTime, version, false));
+        logger.debug("{} armed for {}", alarm, fireTime);
+    }
+
+    /**
+     * Arms the alarm to go off again once the snooze is over.
+     * @param alarm the snoozing alarm
+     * @param snoozeTime how long the alarm snoozes for
+     */
+    public void armSnooze(Alarm alarm, Duration snoozeTime)
+    {
+        final LocalDateTime fireTime = getSnapshot().localDateTime().plus(snoozeTime);
+        alarmQueue.offer(new ArmedAlarm(alarm, fireTime, alarm.rearm(fireTime), true));
+        logger.debug("{} snoozing until {}", alarm, fireTime);
+    }
+
+    /**
+     * Adds the alarm to the list of alarms and arms it.
+     * @param alarm the alarm to add
+     */
+    public void addAlarm(Alarm alarm)
+    {
+        getListOfAlarms().add(alarm);
+        armAlarm(alarm);
+        alarmsArmed++;
+        getTickBus().publish(this);
+    }
+
+    /**
+     * Returns the alarms that go off on the given day.
+     * Each alarm is checked with a single bit test of its days.
+     * @param day the day of the week
+     * @return the alarms active on that day
+     */
+    public List<Alarm> getAlarmsOn(DayOfWeek day)
+    {
+        final int bit = DayMask.bit(day);
+        return getListOfAlarms().stream()
+                .filter(alarm -> (alarm.getDayMask() & bit) != 0)
+                .toList();
+    }
+
+    /**
+     * Removes the alarm from the list of alarms and disarms it.
+     * @param alarm the alarm to remove
+     */
+    public void removeAlarm(Alarm alarm)
+    {
+        if (getListOfAlarms().remove(alarm))
+        {
+            alarmIndex.remove(alarm);
+            alarm.rearm(null);
+            alarmsArmed--;
+            getTickBus().publish(this);
+        }
+    }
+
+    /**
+     * Rebuilds the slot index and the queue of armed alarms from the list of alarms.
+     */
+    private void rearmAlarms()
+    {
+        logger.debug("re-arming {} alarms", getListOfAlarms().size());
+        alarmQueue.clear();
+        alarmIndex.clear();
+        getListOfAlarms().forEach(alarm -> {
+            if (alarm.isSnoozing() && null != alarm.getNextFireTime())
+            {
+                alarmIndex.add(alarm);
+                alarmQueue.offer(new ArmedAlarm(alarm, alarm.getNextFireTime(), alarm.rearm(alarm.getNextFireTime()), true));
+            }
+            else armAlarm(alarm);
+        });
+        alarmsArmed = getListOfAlarms().size();
     }
 
     /**
@@ -480,14 +784,19 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
             getListOfAlarms().forEach(alarm -> {
                 alarm.setActivatedToday(false);
             });
-            logger.info("Setting {} alarms to not triggered today", Alarm.alarmsCounter);
+            logger.info("Setting {} alarms to not triggered today", getListOfAlarms().size());
         }
     }
 
     /**
      * The run method is the main loop of the clock.
      * It should run indefinitely, updating the clock
-     * every second, and then sleeping for 1 second.
+     * every second. Each tick is scheduled against an
+     * absolute deadline by the {@link TickEngine}, so the
+     * work done during a tick does not make the clock
+     * fall behind, and ticks missed while the thread was
+     * not running, or the machine was asleep, are caught
+     * up in one pass.
      * There are specifics tasks that should also
      * occur during each tick. We activate alarms,
      * and timers, if any, and refresh the clock time
@@ -497,20 +806,28 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     public void run()
     {
         logger.info("Clock is running");
-        while (!Thread.currentThread().isInterrupted())
-        {
-            try
-            {
-                tick();
-                sleep(1000);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, "Clock thread interrupted");
-                Thread.currentThread().interrupt(); // Restore the interrupted status
-                break; // Exit the loop if interrupted
-            }
-        }
+        lastTickMillis = Long.MIN_VALUE;
+        setTickEngine(new TickEngine(Duration.ofSeconds(1), () -> ticksDue(1), this::ticksDue));
+        tickEngine.run();
+        logger.info("Clock thread interrupted");
+    }
+
+    /**
+     * Called by the tick engine with the number of ticks that
+     * came due. The monotonic time the engine keeps stops on
+     * some systems while the machine sleeps, so if the time
+     * source's wall clock moved on by more whole seconds since
+     * the last tick, the clock is caught up by those instead.
+     * The wall clock is read in milliseconds so a tick does not
+     * allocate.
+     * @param ticks the number of ticks that came due
+     */
+    private void ticksDue(long ticks)
+    {
+        final long now = getTimeSource().millis(),
+                   last = lastTickMillis;
+        lastTickMillis = now;
+        catchUp(Long.MIN_VALUE == last ? ticks : Math.max(ticks, (now - last) / 1000L));
     }
 
     /**
@@ -533,13 +850,178 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     public void tick(int seconds, int minutes, int hours)
     {
-        logger.debug("tick rate: sec: {} min: {} hrs: {}", seconds, minutes, hours);
+        tickRateLog.log("tick rate: sec: {} min: {} hrs: {}", seconds, minutes, hours);
         performTick(seconds, minutes, hours);
         setActiveAlarms();
         setActiveTimers();
         refreshClockTimeIfMidnight();
+        getTickBus().publish(this);
     }
 
+    /**
+     * Moves a clock on virtual time forward by the given duration.
+     * Rather than ticking once a second, the clock goes from one
+     * event to the next: the next alarm, the next midnight, the
+     * next daylight savings change or the next task on its wheel.
+     * The seconds before an event are skipped in one step and the
+     * second of the event is ticked as usual, so alarms, leap days
+     * and daylight savings changes are handled as they are in real
+     * time. The tasks on the wheel that are due by a tick run before
+     * it. A year takes as many steps as there are events in it.
+     * @param duration how far to move the clock
+     * @throws IllegalStateException if the clock is not on virtual time
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void advance(Duration duration)
+    {
+        if (!(getTimeSource() instanceof VirtualTimeSource source))
+            throw new IllegalStateException("Only a clock on virtual time can be advanced");
+        if (duration.isNegative()) throw new IllegalArgumentException("Time cannot move backwards");
+        final long target = source.nanoTime() + duration.toNanos();
+        tickForward((target - lastTickNanos) / SECOND_NANOS, source);
+        moveTo(source, target);
+    }
+
+    /**
+     * Brings the clock forward by the given seconds, after it
+     * fell behind because the machine slept or the thread was
+     * paused. The clock goes from one event to the next, as it
+     * does when it is {@link #advance advanced}, so the seconds
+     * in between are skipped in one step rather than ticked one
+     * by one. The alarms that came due before the last second
+     * are marked as missed, and then go off once each, or not
+     * at all, as the {@link MissedAlarmPolicy} says. The last
+     * second is ticked as usual. The timers that reached zero
+     * by the wall clock are dealt with by the same policy, and
+     * the ones still counting down have their deadlines moved
+     * up, since the monotonic time they count by may have
+     * stopped while the machine slept.
+     * @param seconds how many seconds the clock is behind
+     */
+    public void catchUp(long seconds)
+    {
+        if (seconds <= 0) return;
+        if (seconds > 1)
+        {
+            logger.warn("clock is {} seconds behind, catching up", seconds);
+            final Map<Long, Alarm> missed = new LinkedHashMap<>();
+            missedAlarms = missed;
+            try { tickForward(seconds - 1, null); }
+            finally { missedAlarms = null; }
+            if (!missed.isEmpty()) handleMissedAlarms(missed.values());
+            final boolean fire = getMissedAlarmPolicy() == MissedAlarmPolicy.FIRE;
+            getListOfTimers().forEach(timer -> timer.catchUp(fire));
+        }
+        tick();
+    }
+
+    /**
+     * Sets off the alarms that came due while the clock was
+     * catching up, once each, or stops the ones that were
+     * snoozing, as the missed alarm policy says.
+     * @param missed the alarms that came due
+     */
+    private void handleMissedAlarms(Iterable<Alarm> missed)
+    {
+        final MissedAlarmPolicy policy = getMissedAlarmPolicy();
+        for (Alarm alarm : missed)
+        {
+            logger.info("{} alarm {}, due at {}", policy == MissedAlarmPolicy.FIRE ? "firing" : "skipping",
+                    alarm, alarm.getMissedAt());
+            if (policy == MissedAlarmPolicy.FIRE)
+            {
+                if (alarm.isSnoozing()) alarm.endSnooze();
+                else alarm.activate();
+            }
+            else if (alarm.isSnoozing()) alarm.setIsSnoozing(false);
+        }
+    }
+
+    /**
+     * Ticks the clock forward by the given seconds, going from
+     * one event to the next. The seconds before an event are
+     * skipped in one step and the second of the event is ticked.
+     * On virtual time the source is moved along with the clock.
+     * @param ticks the seconds to move forward
+     * @param source the virtual time source, or null on real time
+     */
+    private void tickForward(long ticks, VirtualTimeSource source)
+    {
+        while (ticks > 0)
+        {
+            final long step = Math.min(ticks, secondsToNextEvent(source));
+            if (step > 1)
+            {
+                if (null != source) moveTo(source, lastTickNanos + (step - 1) * SECOND_NANOS);
+                skip(step - 1);
+            }
+            if (null != source)
+            {
+                lastTickNanos += step * SECOND_NANOS;
+                moveTo(source, lastTickNanos);
+            }
+            tick();
+            ticks -= step;
+        }
+    }
+
+    /** Moves the virtual time on to the given time and runs the tasks on the wheel due by then */
+    private void moveTo(VirtualTimeSource source, long nanos)
+    {
+        source.advance(Duration.ofNanos(nanos - source.nanoTime()));
+        timingWheel.advance();
+    }
+
+    /**
+     * Returns the whole seconds from the last tick to the next
+     * one that has something to do: an alarm going off, midnight,
+     * a daylight savings change or, on virtual time, a task on
+     * the wheel. At least 1. While the alarms wait to be re-armed,
+     * or the alarms of the current minute have not been looked at,
+     * it is the next second.
+     * @param source the virtual time source, or null on real time
+     */
+    private long secondsToNextEvent(VirtualTimeSource source)
+    {
+        if (getListOfAlarms().size() != alarmsArmed
+                || secondOf(year, month.getValue(), dayOfMonth, getHourOfDay(), minutes, 0) != lastMatchedMinute) return 1L;
+        final LocalDateTime now = getLocalDateTime();
+        LocalDateTime next = now.toLocalDate().plusDays(1).atStartOfDay();
+        if (null != nextDstTransition) next = sooner(now, nextDstTransition.getDateTimeBefore(), next);
+        final LocalDateTime nextMinute = now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        for (Alarm alarm : getListOfAlarms())
+        {
+            final LocalDateTime fireTime = alarm.getNextFireTime(nextMinute);
+            if (null != fireTime) next = sooner(now, fireTime, next);
+        }
+        final ArmedAlarm head = alarmQueue.peek();
+        if (null != head) next = sooner(now, head.fireTime(), next);
+        long seconds = Duration.between(now, next).getSeconds();
+        final long due = null != source ? timingWheel.nextDueNanos() : Long.MAX_VALUE;
+        if (due != Long.MAX_VALUE) seconds = Math.min(seconds, Math.ceilDiv(due - lastTickNanos, SECOND_NANOS));
+        return Math.max(1L, seconds);
+    }
+
+    /** Returns the candidate if it is after now and before next, or else next */
+    private static LocalDateTime sooner(LocalDateTime now, LocalDateTime candidate, LocalDateTime next)
+    { return candidate.isAfter(now) && candidate.isBefore(next) ? candidate : next; }
+
+    /**
+     * Moves the clock forward by the given seconds in one
+     * step. Only called for seconds in which nothing happens,
+     * so there is nothing to tick for them.
+     * @param seconds the seconds to move forward
+     */
+    private void skip(long seconds)
+    {
+        setDateTimeValues(getLocalDateTime().plusSeconds(seconds));
+        setTheDateAndTime();
+    }
+
+    /** Returns the date and time now, by the clock's time source, in its timezone */
+    private LocalDateTime now()
+    { return LocalDateTime.ofInstant(getTimeSource().instant(), null != timezone ? timezone : ZoneId.systemDefault()); }
+
     /**
      * updateJLabels performs the logic to update the time, date, month,
      * and many other values. it also updates the values we see on the
@@ -551,7 +1033,7 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     private void performTick(Integer seconds, Integer minutes, Integer hours)
     {
-        logger.debug("performing tick...");
+        performTickLog.log("performing tick...");
         setSeconds(this.seconds+seconds);
         if (this.seconds >= 60)
         {
@@ -596,7 +1078,7 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
                     setHours(this.hours);
                     setDateChanged(false);
                 }
-                logger.debug("isMilitary: {} time: {}", isShowMilitaryTime(), getTimeAsStr());
+                if (logger.isDebugEnabled()) logger.debug("isMilitary: {} time: {}", isShowMilitaryTime(), getTimeAsStr());
             }
         }
         else { setDateChanged(false); }
@@ -641,33 +1123,9 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
             setDate(LocalDate.of(year, month, dayOfMonth));
             if (isTodayDaylightSavingsTime()) { setTodayMatchesDSTDate(true); }
         }
-        if (daylightSavingsTimeEnabled && todayMatchesDSTDate && this.hours == 2)
-        {
-            logger.debug("!! daylight savings time now !!");
-            if (month == MARCH && AM.equals(ampm))
-            {
-                logger.debug("spring forward");
-                setHours(3);
-                setTodayMatchesDSTDate(false);
-            }
-            else if (month == NOVEMBER && AM.equals(ampm))
-            {
-                logger.debug("fall back");
-                setHours(1);
-                setTodayMatchesDSTDate(false);
-            }
-            logger.debug("setting doesTodayMatchDSTDate to {}", todayMatchesDSTDate);
-        }
-        else
-        {
-            if (!daylightSavingsTimeEnabled)
-            {
-                logger.debug("daylight savings time not enabled");
-                logger.debug("not adjusting time");
-            }
-            else
-            { logger.debug("!! today is not dst !!"); }
-        }
+        // the only daylight savings work on a tick: one comparison with the next change
+        if (null != nextDstTransition && hasReached(nextDstTransition.getDateTimeBefore()))
+        { changeForDaylightSavingsTime(); }
         setTheDateAndTime();
     }
 
@@ -689,12 +1147,22 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
 
     /** Returns the date */
     public LocalDate getDate() { return date; }
-    /** Returns the time */
-    public LocalTime getTime() { return time; }
+    /** Returns the time, made again only when the time has changed */
+    public LocalTime getTime()
+    {
+        if (null == time || timeBuiltAt != timeVersion)
+        {
+            time = LocalTime.of(hours, minutes, seconds);
+            timeBuiltAt = timeVersion;
+        }
+        return time;
+    }
     /** Returns the beginDaylightSavingsTimeDate */
     public LocalDate getBeginDaylightSavingsTimeDate() { return this.beginDaylightSavingsTimeDate; }
     /** Returns the endDaylightSavingsTimeDate */
     public LocalDate getEndDaylightSavingsTimeDate() { return this.endDaylightSavingsTimeDate; }
+    /** Returns the next daylight savings change, or null if there is none this year or next */
+    public ZoneOffsetTransition getNextDstTransition() { return this.nextDstTransition; }
     /** Returns the seconds */
     public int getSeconds() { return seconds; }
     /** Returns the minutes */
@@ -719,16 +1187,33 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     public String getMinutesAsStr() { return minutesAsStr; }
     /** Returns the second as a string */
     public String getSecondsAsStr() { return secondsAsStr; }
-    /** Returns the current time in the selected timezone */
-    public LocalDateTime getCurrentDateTime() { return currentDateTime; }
+    /** Returns the current time in the selected timezone, made again only when the date or time has changed */
+    public LocalDateTime getCurrentDateTime()
+    {
+        final LocalTime time = getTime();
+        if (null == currentDateTime || currentDateTime.toLocalTime() != time || currentDateTime.toLocalDate() != date)
+        { currentDateTime = LocalDateTime.of(date, time); }
+        return currentDateTime;
+    }
     /**
      * This method returns the clock's current hour, minute, second, and time.
      * It can also be used to get the alarm's time set value
      * @return 'HH:MM:SS AMPM' ex: 05:15:24 PM
      */
-    public String getTimeAsStr() { return hoursAsStr+COLON+minutesAsStr+COLON+secondsAsStr+SPACE+ampm; }
+    public String getTimeAsStr()
+    {
+        if (isStale(timeAsStr, timeVersion))
+        { timeAsStr = new Rendered(timeVersion, hoursAsStr+COLON+minutesAsStr+COLON+secondsAsStr+SPACE+ampm); }
+        return timeAsStr.value();
+    }
     /** Returns the clock's time as an alarm string */
-    public String getClockTimeAsAlarmString() {
+    public String getClockTimeAsAlarmString()
+    {
+        if (isStale(clockTimeAsAlarmString, timeVersion))
+        { clockTimeAsAlarmString = new Rendered(timeVersion, renderClockTimeAsAlarmString()); }
+        return clockTimeAsAlarmString.value();
+    }
+    private String renderClockTimeAsAlarmString() {
         if (showMilitaryTime) {
             if (hours > 12) {
                 var hours = this.hours - 12;
@@ -745,13 +1230,36 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         }
     }
     /** Returns the date like: MAY 4, 2000 */
-    public String getDateAsStr() { return month+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    public String getDateAsStr()
+    {
+        if (isStale(dateAsStr, dateVersion))
+        { dateAsStr = new Rendered(dateVersion, month+SPACE+dayOfMonth+COMMA+SPACE+year); }
+        return dateAsStr.value();
+    }
     /** Returns the full date like: FRIDAY MAY 4, 2000 */
-    public String getFullDateAsStr() { return dayOfWeek+SPACE+month+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    public String getFullDateAsStr()
+    {
+        if (isStale(fullDateAsStr, dateVersion))
+        { fullDateAsStr = new Rendered(dateVersion, dayOfWeek+SPACE+month+SPACE+dayOfMonth+COMMA+SPACE+year); }
+        return fullDateAsStr.value();
+    }
     /** Returns the military time like: 17:15:24 */
-    public String getMilitaryTimeAsStr() { return hoursAsStr+minutesAsStr+SPACE+Hours.toLowerCase()+SPACE+secondsAsStr; }
+    public String getMilitaryTimeAsStr()
+    {
+        if (isStale(militaryTimeAsStr, timeVersion))
+        { militaryTimeAsStr = new Rendered(timeVersion, hoursAsStr+minutesAsStr+SPACE+Hours.toLowerCase()+SPACE+secondsAsStr); }
+        return militaryTimeAsStr.value();
+    }
     /** Returns the partial date: FRI MAY 4, 2000 */
-    public String getPartialDateAsStr() { return dayOfWeek.toString().substring(0,3)+SPACE+month.toString().substring(0,3)+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    public String getPartialDateAsStr()
+    {
+        if (isStale(partialDateAsStr, dateVersion))
+        { partialDateAsStr = new Rendered(dateVersion, dayOfWeek.toString().substring(0,3)+SPACE+month.toString().substring(0,3)+SPACE+dayOfMonth+COMMA+SPACE+year); }
+        return partialDateAsStr.value();
+    }
+    /** Returns true if the string was not written from the current version of its fields */
+    private static boolean isStale(Rendered rendered, int version)
+    { return null == rendered || rendered.version() != version; }
     /** Returns isLeapYear */
     public boolean isLeapYear() { return leapYear; }
     /** Returns todayMatchesDSTDate */
@@ -770,12 +1278,62 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
     //public boolean isTestingClock() { return testingClock; }
     /** Returns daylightSavingsTimeEnabled */
     public boolean isDaylightSavingsTimeEnabled() { return daylightSavingsTimeEnabled; }
-    /** Returns the list of alarms */
-    public List<Alarm> getListOfAlarms() { return listOfAlarms; }
+    /** Returns the alarms, which can be walked while they are changed */
+    public EntityRegistry<Alarm> getListOfAlarms() { return listOfAlarms; }
+    /** Returns the clock's date and time with the hour in 24 hour time */
+    public LocalDateTime getLocalDateTime()
+    { return LocalDateTime.of(year, month, dayOfMonth, getHourOfDay(), minutes, seconds); }
+    /** Returns the clock's hour in 24 hour time */
+    private int getHourOfDay()
+    { return showMilitaryTime ? hours : (hours % 12) + (PM.equals(ampm) ? 12 : 0); }
+    /**
+     * Returns true if the clock's date and time is at or after
+     * the given date and time. The fields are compared as they
+     * are, so no date and time is made on the tick.
+     * @param dateTime the date and time to compare with
+     * @return true if the clock has reached the date and time
+     */
+    private boolean hasReached(LocalDateTime dateTime)
+    {
+        final long now = secondOf(year, month.getValue(), dayOfMonth, getHourOfDay(), minutes, seconds);
+        final long then = secondOf(dateTime);
+        return now > then || (now == then && dateTime.getNano() == 0);
+    }
+    private static long secondOf(LocalDateTime dateTime)
+    { return secondOf(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond()); }
+    /** Returns a number for the second that orders the same way the dates and times do */
+    private static long secondOf(int year, int month, int dayOfMonth, int hour, int minute, int second)
+    { return ((((year * 13L + month) * 32 + dayOfMonth) * 24 + hour) * 60 + minute) * 60 + second; }
     /** Returns the list of timers */
-    public List<Timer> getListOfTimers() { return listOfTimers; }
+    public EntityRegistry<Timer> getListOfTimers() { return listOfTimers; }
     /** Returns the list of stopwatches */
-    public List<Stopwatch> getListOfStopwatches() { return listOfStopwatches; }
+    public EntityRegistry<Stopwatch> getListOfStopwatches() { return listOfStopwatches; }
+    /** Returns the tick engine, which reports the tick jitter and drift */
+    public TickEngine getTickEngine() { return tickEngine; }
+    /** Returns the wheel the clock's alarms, timers and stopwatches run on */
+    public TimingWheel getTimingWheel() { return timingWheel; }
+    /** Returns the source the clock reads the time from */
+    public TimeSource getTimeSource() { return null != timingWheel ? timingWheel.getTimeSource() : TimeSource.SYSTEM; }
+    /** Returns whether the clock is on virtual time, and only moves when it is advanced */
+    public boolean isVirtual() { return getTimeSource() instanceof VirtualTimeSource; }
+    /** Returns what the clock does with the alarms that came due while it was catching up */
+    public MissedAlarmPolicy getMissedAlarmPolicy() { return null != missedAlarmPolicy ? missedAlarmPolicy : MissedAlarmPolicy.FIRE; }
+    /** Returns the slot index of the alarms */
+    public AlarmSlotIndex getAlarmIndex() { return alarmIndex; }
+    /** Returns the bus that hands ticks and changes to the panels */
+    public TickBus getTickBus() { return tickBus; }
+    /**
+     * Returns the latest snapshot of the clock. Readers on
+     * other threads should take one snapshot and read every
+     * value from it, rather than calling the getters here.
+     * @return the latest snapshot of the clock
+     */
+    public ClockSnapshot getSnapshot()
+    {
+        ClockSnapshot current = snapshot;
+        if (null == current) { current = snapshot = ClockSnapshot.of(this); } // after deserializing
+        return current;
+    }
     /**
      * Returns the timezone from the selected timezone button text
      * @param btnText the text from the timezone button
@@ -801,9 +1359,9 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     protected void setSeconds(int seconds) {
         this.seconds = seconds;
-        if (this.seconds <= 9) secondsAsStr = "0"+this.seconds;
-        else secondsAsStr = Integer.toString(this.seconds);
-        logger.debug("seconds: {} asStr: {}", this.seconds, secondsAsStr);
+        secondsAsStr = TwoDigits.of(this.seconds);
+        timeVersion++;
+        secondsLog.log("seconds: {} asStr: {}", this.seconds, secondsAsStr);
     }
     /**
      * Sets and logs the new minute value
@@ -812,8 +1370,8 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      */
     protected void setMinutes(int minutes) {
         this.minutes = minutes;
-        if (this.minutes <= 9) minutesAsStr = "0"+this.minutes;
-        else minutesAsStr = Integer.toString(this.minutes);
+        minutesAsStr = TwoDigits.of(this.minutes);
+        timeVersion++;
         logger.debug("minutes: {} asStr: {}", this.minutes, minutesAsStr);
     }
     /**
@@ -825,35 +1383,58 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         if (hours > 12 && !showMilitaryTime) { hours-=12; }
         else if (showMilitaryTime && hours == 24) { hours = 0; }
         this.hours = hours;
-        if (this.hours < 10) this.hoursAsStr = "0"+hours;
-        else this.hoursAsStr = Integer.toString(this.hours);
+        this.hoursAsStr = TwoDigits.of(this.hours);
+        timeVersion++;
         logger.debug("hours: {} asStr: {}", this.hours, hoursAsStr);
     }
+    /**
+     * Sets the tick engine
+     * @param tickEngine the new tick engine
+     */
+    protected void setTickEngine(TickEngine tickEngine) { this.tickEngine = tickEngine; logger.debug("tickEngine set"); }
+    /**
+     * Sets the wheel the clock's alarms, timers and stopwatches
+     * run on, whose time source the clock reads the time from
+     * @param timingWheel the new timing wheel
+     */
+    public void setTimingWheel(TimingWheel timingWheel)
+    {
+        this.timingWheel = timingWheel;
+        this.lastTickNanos = timingWheel.getTimeSource().nanoTime();
+        logger.debug("timingWheel set");
+    }
+    /**
+     * Sets what the clock does with the alarms that came due while it was catching up
+     * @param missedAlarmPolicy the new policy
+     */
+    public void setMissedAlarmPolicy(MissedAlarmPolicy missedAlarmPolicy) { this.missedAlarmPolicy = missedAlarmPolicy; logger.debug("missedAlarmPolicy: {}", missedAlarmPolicy); }
     /**
      * Sets and logs the new AMPM value
      * @param ampm the new AMPM value
      */
-    protected void setAMPM(String ampm) { this.ampm = ampm; logger.debug("ampm: {}", this.ampm); }
+    protected void setAMPM(String ampm) { this.ampm = ampm; timeVersion++; logger.debug("ampm: {}", this.ampm); }
     /**
      * Sets and logs the new timezone value
      * @param timezone the new timezone value
      */
-    public void setTimeZone(ZoneId timezone) { this.timezone = timezone; logger.debug("timezone: {}", getPlainTimezoneFromZoneId(timezone)); }
-    /** Sets and logs the new time value
-     * @param time the new time value
-     */
-    private void setTime(LocalTime time) { this.time = time; printTime(); }
-    private void printTime()
+    public void setTimeZone(ZoneId timezone)
     {
-        if (logger.isInfoEnabled())
+        final boolean changed = !Objects.equals(this.timezone, timezone);
+        this.timezone = timezone;
+        logger.debug("timezone: {}", getPlainTimezoneFromZoneId(timezone));
+        if (changed && null != date)
         {
-            logger.info("time: {} (isMilitary:{})",
-                    !isShowMilitaryTime() ? getTimeAsStr() : getMilitaryTimeAsStr(),
-                    isShowMilitaryTime());
+            nextDstTransition = null; // a change of the old zone says nothing about the offset in the new one
+            setDaylightSavingsTimeDates(); // the new zone changes its clocks on other days
+            publishSnapshot();
         }
-        else
+    }
+    /** Logs the time once a minute, writing it out only when it is logged */
+    private void printTime()
+    {
+        if (timeLog.permits())
         {
-            logger.debug("time: {} (isMilitary:{})",
+            logger.info("time: {} (isMilitary:{})",
                     !isShowMilitaryTime() ? getTimeAsStr() : getMilitaryTimeAsStr(),
                     isShowMilitaryTime());
         }
@@ -862,22 +1443,22 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      * Sets and logs the new dayOfWeek value
      * @param dayOfWeek the new dayOfWeek value
      */
-    protected void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; logger.debug("dayOfWeek: {}", dayOfWeek); }
+    protected void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; dateVersion++; logger.debug("dayOfWeek: {}", dayOfWeek); }
     /**
      * Sets and logs the new dayOfMonth value
      * @param dayOfMonth the new dayOfMonth value
      */
-    protected void setDayOfMonth(int dayOfMonth) { this.dayOfMonth = dayOfMonth; logger.debug("dayOfMonth: {}", dayOfMonth); }
+    protected void setDayOfMonth(int dayOfMonth) { this.dayOfMonth = dayOfMonth; dateVersion++; logger.debug("dayOfMonth: {}", dayOfMonth); }
     /**
      * Sets and logs the new month value
      * @param month the new month value
      */
-    protected void setMonth(Month month) { this.month = month; logger.debug("month: {}", month); }
+    protected void setMonth(Month month) { this.month = month; dateVersion++; logger.debug("month: {}", month); }
     /**
      * Sets and logs the new year value
      * @param year the new year value
      */
-    protected void setYear(int year) { this.year = year; logger.debug("year: {}", year); }
+    protected void setYear(int year) { this.year = year; dateVersion++; logger.debug("year: {}", year); }
     /**
      * Sets and logs the new date value
      * Example log: FRIDAY MAY 4, 2000
@@ -890,28 +1471,30 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         {
             logger.info("date: {} {}", dayOfWeek!=null?dayOfWeek.toString():"DayOfWeekUnset", getDateAsStr());
         }
-        else
+        else if (logger.isDebugEnabled())
         {
             logger.debug("date: {} {}", dayOfWeek!=null?dayOfWeek.toString():"DayOfWeekUnset", getDateAsStr());
         }
     }
-    /**
-     * Sets and logs the new current time
-     * @param currentDateTime the new current time
-     */
-    protected void setCurrentDateTime(LocalDateTime currentDateTime) { this.currentDateTime = currentDateTime; printDateTime(); }
-    private void printDateTime() { logger.debug("{}", DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm:ss a").format(currentDateTime)); }
+    /** Logs the current date and time once a minute, writing it out only when it is logged */
+    private void printDateTime()
+    { if (dateTimeLog.permits()) logger.debug("{}", DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm:ss a").format(getCurrentDateTime())); }
     /**
      * Sets and logs the new begin dst date value
      * @param beginDaylightSavingsTimeDate the new begin dst date value
      */
-    protected void setBeginDaylightSavingsTimeDate(LocalDate beginDaylightSavingsTimeDate) { this.beginDaylightSavingsTimeDate = beginDaylightSavingsTimeDate; logger.debug("begin dst: {} {} {}, {}",beginDaylightSavingsTimeDate.getDayOfWeek(), beginDaylightSavingsTimeDate.getMonth(), beginDaylightSavingsTimeDate.getDayOfMonth(), beginDaylightSavingsTimeDate.getYear()); }
+    protected void setBeginDaylightSavingsTimeDate(LocalDate beginDaylightSavingsTimeDate) { this.beginDaylightSavingsTimeDate = beginDaylightSavingsTimeDate; logger.debug("begin dst: {}", null != beginDaylightSavingsTimeDate ? beginDaylightSavingsTimeDate.getDayOfWeek()+SPACE+beginDaylightSavingsTimeDate : "none"); }
     /**
      * Sets and logs the new end dst date value
      * @param endDaylightSavingsTimeDate the new end dst date value
      */
-    protected void setEndDaylightSavingsTimeDate(LocalDate endDaylightSavingsTimeDate) { this.endDaylightSavingsTimeDate = endDaylightSavingsTimeDate; logger.debug("end dst: {} {} {}, {}", endDaylightSavingsTimeDate.getDayOfWeek(), endDaylightSavingsTimeDate.getMonth(), endDaylightSavingsTimeDate.getDayOfMonth(), endDaylightSavingsTimeDate.getYear()); }
-    protected void setLeapYear(boolean leapYear) { this.leapYear = leapYear; logger.debug("isLeapYear: {}", this.leapYear); }
+    protected void setEndDaylightSavingsTimeDate(LocalDate endDaylightSavingsTimeDate) { this.endDaylightSavingsTimeDate = endDaylightSavingsTimeDate; logger.debug("end dst: {}", null != endDaylightSavingsTimeDate ? endDaylightSavingsTimeDate.getDayOfWeek()+SPACE+endDaylightSavingsTimeDate : "none"); }
+    /**
+     * Sets and logs the next daylight savings change
+     * @param nextDstTransition the next change, or null if there is none soon
+     */
+    private void setNextDstTransition(ZoneOffsetTransition nextDstTransition) { this.nextDstTransition = nextDstTransition; logger.debug("next dst change: {}", nextDstTransition); }
+    protected void setLeapYear(boolean leapYear) { this.leapYear = leapYear; leapYearLog.log("isLeapYear: {}", this.leapYear); }
     /**
      * When the clock starts and the date matches a daylight savings
      * date, this value is set. It is also set after the date updates,
@@ -923,20 +1506,65 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
      * Sets and logs the new dateChanged value
      * @param isDateChanged the dateChanged value to set
      */
-    protected void setDateChanged(boolean isDateChanged) { this.dateChanged = isDateChanged; logger.debug("dateChanged: {}", dateChanged); }
+    protected void setDateChanged(boolean isDateChanged) { this.dateChanged = isDateChanged; dateChangedLog.log("dateChanged: {}", dateChanged); }
     /**
      * Sets and logs the new isNewYear value
      * @param isNewYear the isNewYear value to set
      */
     protected void setIsNewYear(boolean isNewYear) { this.isNewYear = isNewYear; logger.debug("isNewYear: {}", isNewYear); }
-    protected void setShowFullDate(boolean showFullDate) { this.showFullDate = showFullDate; logger.debug("showFullDate: {}", showFullDate); }
-    protected void setShowPartialDate(boolean showPartialDate) { this.showPartialDate = showPartialDate; logger.debug("showPartialDate: {}", showPartialDate); }
-    public void setShowMilitaryTime(boolean showMilitaryTime) { this.showMilitaryTime = showMilitaryTime; logger.debug("showMilitaryTime: {}", showMilitaryTime); }
+    protected void setShowFullDate(boolean showFullDate) { this.showFullDate = showFullDate; publishSnapshot(); logger.debug("showFullDate: {}", showFullDate); }
+    protected void setShowPartialDate(boolean showPartialDate) { this.showPartialDate = showPartialDate; publishSnapshot(); logger.debug("showPartialDate: {}", showPartialDate); }
+    public void setShowMilitaryTime(boolean showMilitaryTime) { this.showMilitaryTime = showMilitaryTime; timeVersion++; publishSnapshot(); logger.debug("showMilitaryTime: {}", showMilitaryTime); }
     //private void setTestingClock(boolean testingClock) { this.testingClock = testingClock; logger.debug("testingClock: {}", testingClock); }
     protected void setDaylightSavingsTimeEnabled(boolean daylightSavingsTimeEnabled) { this.daylightSavingsTimeEnabled = daylightSavingsTimeEnabled; logger.debug("daylightSavingsTimeEnabled: {}", daylightSavingsTimeEnabled); }
-    protected void setListOfAlarms(List<Alarm> listOfAlarms) { this.listOfAlarms = listOfAlarms; logger.debug("listOfAlarms: {}", listOfAlarms); }
-    protected void setListOfTimers(List<Timer> listOfTimers) { this.listOfTimers = listOfTimers; logger.debug("listOfTimers: {}", listOfTimers); }
-    protected void setListOfStopwatches(List<Stopwatch> listOfStopwatches) { this.listOfStopwatches = listOfStopwatches; logger.debug("listOfStopwatches: {}", listOfStopwatches); }
+    protected void setListOfAlarms(List<Alarm> listOfAlarms) { this.listOfAlarms = new EntityRegistry<>(Alarm::getId, listOfAlarms); this.alarmsArmed = -1; logger.debug("listOfAlarms: {}", listOfAlarms); }
+    protected void setListOfTimers(List<Timer> listOfTimers) { this.listOfTimers = new EntityRegistry<>(Timer::getId, listOfTimers); logger.debug("listOfTimers: {}", listOfTimers); }
+    protected void setListOfStopwatches(List<Stopwatch> listOfStopwatches) { this.listOfStopwatches = new EntityRegistry<>(Stopwatch::getId, listOfStopwatches); logger.debug("listOfStopwatches: {}", listOfStopwatches); }
+
+    /**
+     * Writes the clock, with its alarms, timers and
+     * stopwatches as plain lists.
+     * @param out the stream to write to
+     * @throws IOException if the clock cannot be written
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeObject(new ArrayList<>(listOfAlarms));
+        out.writeObject(new ArrayList<>(listOfTimers));
+        out.writeObject(new ArrayList<>(listOfStopwatches));
+    }
+
+    /**
+     * Reads the clock, and files its alarms, timers and
+     * stopwatches in new registries. The parts that are
+     * not written are made again, as they are for a new
+     * clock.
+     * @param in the stream to read from
+     * @throws IOException if the clock cannot be read
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        listOfAlarms = new EntityRegistry<>(Alarm::getId, (List<Alarm>) in.readObject());
+        listOfTimers = new EntityRegistry<>(Timer::getId, (List<Timer>) in.readObject());
+        listOfStopwatches = new EntityRegistry<>(Stopwatch::getId, (List<Stopwatch>) in.readObject());
+        timingWheel = TimingWheel.getDefault();
+        tickBus = new TickBus();
+        alarmIndex = new AlarmSlotIndex();
+        listOfAlarms.forEach(alarmIndex::add);
+        alarmQueue = newAlarmQueue();
+        alarmsArmed = -1; // nothing is queued, so arm the alarms on the first tick
+        lastMatchedMinute = Long.MIN_VALUE;
+    }
+
+    /** Returns an empty queue of armed alarms, the soonest first */
+    private static PriorityBlockingQueue<ArmedAlarm> newAlarmQueue()
+    { return new PriorityBlockingQueue<>(11, Comparator.comparing(ArmedAlarm::fireTime)); }
 
     /**
      * Compares this clock to another clock based
@@ -992,6 +1620,20 @@ public class Clock implements Serializable, Comparable<Clock>, Runnable
         return shortenedDayOfWeek + SPACE +
                 DateTimeFormatter.ofPattern("MMM d, yyyy hh:mm:ss a").format(getCurrentDateTime());
     }
-}
 
+    /**
+     * An alarm in the clock's queue, armed for the given time.
+     * @param alarm the alarm
+     * @param fireTime when the alarm goes off
+     * @param version the alarm's arm version when it was queued
+     * @param snooze whether this is the end of a snooze
+     */
+    private record ArmedAlarm(Alarm alarm, LocalDateTime fireTime, long version, boolean snooze) {}
 
+    /**
+     * A string written from the clock's fields
+     * @param version the version of the fields it was written from
+     * @param value the string
+     */
+    private record Rendered(int version, String value) {}
+}
@@ -46,7 +46,8 @@ public class ClockMenuBar extends JMenuBar
                       analogueClockFeature,
                       alarmsFeature,
                       timerFeature,
-                      stopwatchFeature;
+                      stopwatchFeature,
+                      worldClockFeature;
     private List<JMenuItem> timezones;
 
     /**
@@ -148,12 +149,17 @@ public class ClockMenuBar extends JMenuBar
         getStopwatchFeature().setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, InputEvent.CTRL_DOWN_MASK));
         getStopwatchFeature().addActionListener(action -> clockFrame.changePanels(PANEL_STOPWATCH));
 
+        setWorldClockFeature(new JMenuItem(VIEW_WORLD_CLOCK));
+        getWorldClockFeature().setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_W, InputEvent.CTRL_DOWN_MASK));
+        getWorldClockFeature().addActionListener(action -> clockFrame.changePanels(PANEL_WORLD_CLOCK));
+
         // Add options to Features Menu, consistent for each panel
         getFeaturesMenu().add(getDigitalClockFeature());
         getFeaturesMenu().add(getAnalogueClockFeature());
         getFeaturesMenu().add(getAlarmsFeature());
         getFeaturesMenu().add(getTimerFeature());
         getFeaturesMenu().add(getStopwatchFeature());
+        getFeaturesMenu().add(getWorldClockFeature());
         // Setup Settings Menu, options are unique by each panel* (mostly unique)
         getSettingsMenu().setOpaque(false);
         getSettingsMenu().setForeground(Color.WHITE);
@@ -170,6 +176,7 @@ public class ClockMenuBar extends JMenuBar
         getAnalogueClockFeature().setForeground(Color.WHITE);
         getTimerFeature().setForeground(Color.WHITE);
         getStopwatchFeature().setForeground(Color.WHITE);
+        getWorldClockFeature().setForeground(Color.WHITE);
         // Add both menus to main menu
         add(getSettingsMenu());
         add(getFeaturesMenu());
@@ -425,6 +432,8 @@ public class ClockMenuBar extends JMenuBar
     public JMenuItem getTimerFeature() { return this.timerFeature; }
     /** Returns the stopwatch feature menu item */
     public JMenuItem getStopwatchFeature() { return this.stopwatchFeature; }
+    /** Returns the world clock feature */
+    public JMenuItem getWorldClockFeature() { return this.worldClockFeature; }
     /** Returns the clock frame */
     public ClockFrame getClockFrame() { return this.clockFrame; }
     /** Returns the clock */
@@ -470,6 +479,7 @@ public class ClockMenuBar extends JMenuBar
     protected void setTimerFeature(JMenuItem timerFeature) { this.timerFeature = timerFeature; logger.debug("timer feature"); }
     /** Sets the stopwatch feature menu item */
     protected void setStopwatchFeature(JMenuItem stopwatchFeature) { this.stopwatchFeature = stopwatchFeature; logger.debug("stopwatch feature");}
+    protected void setWorldClockFeature(JMenuItem worldClockFeature) { this.worldClockFeature = worldClockFeature; logger.debug("world clock feature");}
     /** Sets the clock frame */
     protected void setClockFrame(ClockFrame clockFrame) { this.clockFrame = clockFrame; logger.debug("clock frame"); }
     /** Sets the clock */
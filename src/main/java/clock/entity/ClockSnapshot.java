@@ -0,0 +1,158 @@
+package clock.entity;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+
+import clock.util.TwoDigits;
+
+import static clock.util.Constants.*;
+
+/**
+ * ClockSnapshot
+ * <p>
+ * An immutable copy of the clock's date, time and display
+ * settings, taken each time the clock's date and time are
+ * brought in sync and published with one volatile write.
+ * The clock changes its fields one at a time, so a panel
+ * or alarm reading them from another thread could see a
+ * new hour with the old AM/PM. Reading one snapshot instead
+ * always gives values that belong together.
+ *
+ * @param hours the hours, 0-12 or 0-23 in military time
+ * @param minutes the minutes
+ * @param seconds the seconds
+ * @param ampm AM or PM
+ * @param hoursAsStr the hours as two digits
+ * @param minutesAsStr the minutes as two digits
+ * @param secondsAsStr the seconds as two digits
+ * @param dayOfWeek the day of the week
+ * @param month the month
+ * @param dayOfMonth the day of the month
+ * @param year the year
+ * @param date the date
+ * @param timezone the timezone
+ * @param showMilitaryTime whether the time is shown in military time
+ * @param showFullDate whether the full date is shown
+ * @param showPartialDate whether the partial date is shown
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public record ClockSnapshot(int hours, int minutes, int seconds, String ampm,
+                            String hoursAsStr, String minutesAsStr, String secondsAsStr,
+                            DayOfWeek dayOfWeek, Month month, int dayOfMonth, int year,
+                            LocalDate date,
+                            ZoneId timezone,
+                            boolean showMilitaryTime, boolean showFullDate, boolean showPartialDate)
+{
+    /**
+     * Takes a snapshot of the clock. Only the clock calls this,
+     * on the thread that changes it. The strings are the ones
+     * the clock already keeps, so the snapshot is the only
+     * thing made.
+     * @param clock the clock to copy
+     * @return the snapshot of the clock
+     */
+    static ClockSnapshot of(Clock clock)
+    {
+        return new ClockSnapshot(clock.getHours(), clock.getMinutes(), clock.getSeconds(), clock.getAMPM(),
+                clock.getHoursAsStr(), clock.getMinutesAsStr(), clock.getSecondsAsStr(),
+                clock.getDayOfWeek(), clock.getMonth(), clock.getDayOfMonth(), clock.getYear(),
+                clock.getDate(),
+                clock.getTimezone(),
+                clock.isShowMilitaryTime(), clock.isShowFullDate(), clock.isShowPartialDate());
+    }
+
+    /**
+     * Takes a snapshot of a date and time in a timezone, shown
+     * with the given settings, so any date and time can be
+     * written out the way the digital clock writes the clock.
+     * @param dateTime the local date and time
+     * @param timezone the timezone
+     * @param showMilitaryTime whether the time is shown in military time
+     * @param showFullDate whether the full date is shown
+     * @param showPartialDate whether the partial date is shown
+     * @return the snapshot of the date and time
+     */
+    public static ClockSnapshot of(LocalDateTime dateTime, ZoneId timezone,
+                                   boolean showMilitaryTime, boolean showFullDate, boolean showPartialDate)
+    {
+        final int hourOfDay = dateTime.getHour();
+        final int hours = showMilitaryTime ? hourOfDay : (hourOfDay % 12 == 0 ? 12 : hourOfDay % 12);
+        return new ClockSnapshot(hours, dateTime.getMinute(), dateTime.getSecond(), hourOfDay < 12 ? AM : PM,
+                TwoDigits.of(hours), TwoDigits.of(dateTime.getMinute()), TwoDigits.of(dateTime.getSecond()),
+                dateTime.getDayOfWeek(), dateTime.getMonth(), dateTime.getDayOfMonth(), dateTime.getYear(),
+                dateTime.toLocalDate(),
+                timezone,
+                showMilitaryTime, showFullDate, showPartialDate);
+    }
+
+    /** Returns the time like: 05:15:24 PM */
+    public String timeAsStr() { return hoursAsStr+COLON+minutesAsStr+COLON+secondsAsStr+SPACE+ampm; }
+    /** Returns the military time like: 17:15:24 */
+    public String militaryTimeAsStr() { return hoursAsStr+minutesAsStr+SPACE+Hours.toLowerCase()+SPACE+secondsAsStr; }
+    /** Returns the date like: MAY 4, 2000 */
+    public String dateAsStr() { return month+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    /** Returns the full date like: FRIDAY MAY 4, 2000 */
+    public String fullDateAsStr() { return dayOfWeek+SPACE+month+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    /** Returns the partial date: FRI MAY 4, 2000 */
+    public String partialDateAsStr() { return dayOfWeek.toString().substring(0,3)+SPACE+month.toString().substring(0,3)+SPACE+dayOfMonth+COMMA+SPACE+year; }
+    /** Returns the time as an alarm string like: 05:15 PM */
+    public String clockTimeAsAlarmString()
+    { return twelveHourStr()+COLON+minutesAsStr+SPACE+ampm; }
+
+    /**
+     * Returns the date as the clock shows it:
+     * the full, partial or plain date
+     * @return the date text
+     */
+    public String dateText()
+    {
+        if (showFullDate && !showPartialDate) return fullDateAsStr();
+        else if (showPartialDate && !showFullDate) return partialDateAsStr();
+        else return dateAsStr();
+    }
+
+    /**
+     * Returns the time as the clock shows it:
+     * in military time or in twelve hour time
+     * @return the time text
+     */
+    public String timeText()
+    {
+        if (showMilitaryTime) return militaryTimeAsStr();
+        return twelveHourStr()+COLON+minutesAsStr+COLON+secondsAsStr+SPACE+ampm;
+    }
+
+    /** Returns the time, with the hour as the clock shows it */
+    public LocalTime time() { return LocalTime.of(hours, minutes, seconds); }
+    /** Returns the date and time, with the hour as the clock shows it */
+    public LocalDateTime currentDateTime() { return null != date ? LocalDateTime.of(date, time()) : null; }
+
+    /** Returns the date and time with the hour in 24 hour time */
+    public LocalDateTime localDateTime()
+    {
+        final int hourOfDay = showMilitaryTime ? hours : (hours % 12) + (PM.equals(ampm) ? 12 : 0);
+        return LocalDateTime.of(year, month, dayOfMonth, hourOfDay, minutes, seconds);
+    }
+
+    /**
+     * Returns the instant of the snapshot, from its
+     * date and time in its timezone
+     * @return the instant of the snapshot
+     */
+    public Instant instant()
+    { return localDateTime().atZone(null != timezone ? timezone : ZoneId.systemDefault()).toInstant(); }
+
+    /** Returns the hours as two digits in twelve hour time */
+    private String twelveHourStr()
+    {
+        if (hours <= 12) return hoursAsStr;
+        return TwoDigits.of(hours - 12);
+    }
+}
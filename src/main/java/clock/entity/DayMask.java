@@ -0,0 +1,102 @@
+package clock.entity;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * DayMask
+ * <p>
+ * Helpers for a set of days of the week stored as a 7-bit
+ * mask, Monday in the lowest bit and Sunday in the highest.
+ * Checking a day or comparing against weekdays, weekends or
+ * every day is a single bit operation, and a day can never
+ * be in the set twice.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class DayMask
+{
+    /** No days */
+    public static final int NONE = 0;
+    /** Monday through Friday */
+    public static final int WEEKDAYS = 0b0011111;
+    /** Saturday and Sunday */
+    public static final int WEEKENDS = 0b1100000;
+    /** Every day of the week */
+    public static final int EVERY_DAY = WEEKDAYS | WEEKENDS;
+
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    // the days of every mask, worked out once, in week order
+    private static final List<DayOfWeek>[] DAYS_OF_MASK = daysOfEveryMask();
+
+    private DayMask() {}
+
+    /**
+     * Returns the bit of the given day
+     * @param day the day of the week
+     * @return the bit of the day
+     */
+    public static int bit(DayOfWeek day)
+    { return 1 << (day.getValue() - 1); }
+
+    /**
+     * Returns the mask of the given days.
+     * Repeated days and nulls are ignored.
+     * @param days the days, may be null
+     * @return the mask of the days
+     */
+    public static int of(Collection<DayOfWeek> days)
+    {
+        int mask = NONE;
+        if (null == days) return mask;
+        for (DayOfWeek day : days)
+        { if (null != day) mask |= bit(day); }
+        return mask;
+    }
+
+    /**
+     * Returns whether the mask has the given day
+     * @param mask the mask
+     * @param day the day of the week
+     * @return true if the day is in the mask
+     */
+    public static boolean contains(int mask, DayOfWeek day)
+    { return (mask & bit(day)) != 0; }
+
+    /**
+     * Returns the days of the mask, in week order,
+     * as a list that cannot be changed
+     * @param mask the mask
+     * @return the days of the mask
+     */
+    public static List<DayOfWeek> toList(int mask)
+    { return DAYS_OF_MASK[mask & EVERY_DAY]; }
+
+    /**
+     * Returns the days of the mask as a new set
+     * @param mask the mask
+     * @return the days of the mask
+     */
+    public static EnumSet<DayOfWeek> toSet(int mask)
+    {
+        final EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        days.addAll(toList(mask));
+        return days;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<DayOfWeek>[] daysOfEveryMask()
+    {
+        final List<DayOfWeek>[] lists = new List[EVERY_DAY + 1];
+        for (int mask = 0; mask <= EVERY_DAY; mask++)
+        {
+            final int m = mask;
+            lists[mask] = Arrays.stream(DAYS).filter(day -> contains(m, day)).toList();
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,223 @@
+package clock.entity;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * EntityRegistry
+ * <p>
+ * Holds the clock's alarms, timers or stopwatches. The clock
+ * thread walks them on every tick while the panels add and
+ * remove them on the event dispatch thread, so the entities
+ * are kept in a copy-on-write array: every iteration, stream
+ * or forEach works on the array as it was when it began, and
+ * never throws a ConcurrentModificationException. Changes are
+ * made one at a time under a lock, and are rare next to the
+ * number of times the entities are walked.
+ * <p>
+ * Each entity is also filed under its id, which comes from
+ * {@link #nextId()}, so it can be looked up without a scan.
+ *
+ * @param <E> the type of entity
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class EntityRegistry<E> extends AbstractList<E> implements RandomAccess
+{
+    private static final AtomicLong ids = new AtomicLong();
+
+    private final ToLongFunction<E> idOf;
+    private final CopyOnWriteArrayList<E> entities = new CopyOnWriteArrayList<>();
+    private final Map<Long, E> byId = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    /**
+     * Creates an empty registry
+     * @param idOf returns the id of an entity
+     */
+    public EntityRegistry(ToLongFunction<E> idOf)
+    {
+        this.idOf = idOf;
+    }
+
+    /**
+     * Creates a registry holding the given entities
+     * @param idOf returns the id of an entity
+     * @param entities the entities to start with
+     */
+    public EntityRegistry(ToLongFunction<E> idOf, Collection<? extends E> entities)
+    {
+        this(idOf);
+        addAll(entities);
+    }
+
+    /**
+     * Returns a new id, unique among all the entities
+     * made while the application runs
+     * @return the id
+     */
+    public static long nextId() { return ids.incrementAndGet(); }
+
+    /**
+     * Returns the entity with the given id
+     * @param id the id of the entity
+     * @return the entity, or null if there is none
+     */
+    public E getById(long id) { return byId.get(id); }
+
+    @Override
+    public E get(int index) { return entities.get(index); }
+
+    @Override
+    public int size() { return entities.size(); }
+
+    @Override
+    public boolean add(E entity)
+    {
+        synchronized (lock)
+        {
+            entities.add(entity);
+            byId.put(idOf.applyAsLong(entity), entity);
+            return true;
+        }
+    }
+
+    @Override
+    public void add(int index, E entity)
+    {
+        synchronized (lock)
+        {
+            entities.add(index, entity);
+            byId.put(idOf.applyAsLong(entity), entity);
+        }
+    }
+
+    @Override
+    public E set(int index, E entity)
+    {
+        synchronized (lock)
+        {
+            final E previous = entities.set(index, entity);
+            unfile(previous);
+            byId.put(idOf.applyAsLong(entity), entity);
+            return previous;
+        }
+    }
+
+    @Override
+    public E remove(int index)
+    {
+        synchronized (lock)
+        {
+            final E removed = entities.remove(index);
+            unfile(removed);
+            return removed;
+        }
+    }
+
+    @Override
+    public boolean remove(Object entity)
+    {
+        synchronized (lock)
+        {
+            final int index = entities.indexOf(entity);
+            if (index < 0) return false;
+            unfile(entities.remove(index));
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter)
+    {
+        synchronized (lock)
+        {
+            boolean removed = false;
+            for (E entity : entities)
+            {
+                if (filter.test(entity) && entities.remove(entity))
+                {
+                    unfile(entity);
+                    removed = true;
+                }
+            }
+            return removed;
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        synchronized (lock)
+        {
+            entities.clear();
+            byId.clear();
+        }
+    }
+
+    /** Takes the entity out of the id map, unless it is still held at another index */
+    private void unfile(E entity)
+    {
+        if (null == entity) return;
+        for (E held : entities) if (held == entity) return;
+        byId.remove(idOf.applyAsLong(entity), entity);
+    }
+
+    @Override
+    public Iterator<E> iterator() { return entities.iterator(); }
+
+    @Override
+    public Spliterator<E> spliterator() { return entities.spliterator(); }
+
+    @Override
+    public void forEach(Consumer<? super E> action) { entities.forEach(action); }
+
+    @Override
+    public Object[] toArray() { return entities.toArray(); }
+
+    @Override
+    public <T> T[] toArray(T[] array) { return entities.toArray(array); }
+
+    /**
+     * Counts the entities made, for their default names.
+     * The count goes back to 0 after it reaches its limit,
+     * so default names run from 1 to the limit and repeat.
+     */
+    public static final class Counter
+    {
+        private final AtomicLong count = new AtomicLong();
+        private final long limit;
+
+        /**
+         * Creates a counter
+         * @param limit the highest number the counter hands out
+         */
+        public Counter(long limit)
+        {
+            if (limit < 1) throw new IllegalArgumentException("limit must be 1 or more");
+            this.limit = limit;
+        }
+
+        /**
+         * Counts a new entity
+         * @return the number of the new entity, from 1 to the limit
+         */
+        public long next() { return count.getAndUpdate(c -> c + 1 >= limit ? 0 : c + 1) + 1; }
+
+        /** Returns how many entities have been counted since the count last went back to 0 */
+        public long get() { return count.get(); }
+
+        /** Sets the count back to 0 */
+        public void reset() { count.set(0); }
+    }
+}
@@ -15,7 +15,8 @@ public enum Panel
 	PANEL_ANALOGUE_CLOCK,
 	PANEL_ALARM,
 	PANEL_TIMER,
-	PANEL_STOPWATCH;
+	PANEL_STOPWATCH,
+	PANEL_WORLD_CLOCK;
 
 	private static final Logger logger = LogManager.getLogger(Panel.class);
 }
\ No newline at end of file
@@ -1,18 +1,23 @@
 package clock.entity;
 
+import clock.engine.TimingWheel;
+import clock.engine.TimingWheel.Timeout;
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static clock.util.Constants.STOPWATCH_READING_FORMAT;
-import static java.lang.Thread.sleep;
 
 /**
  * Stopwatch
@@ -34,21 +39,31 @@ import static java.lang.Thread.sleep;
 public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
 {
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
     private static final Logger logger = LogManager.getLogger(Stopwatch.class);
-    public static long stopwatchCounter = 0L;
+    // the display asks for the elapsed time on every frame
+    private static final ThrottledLogger elapsedLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1);
+    private static final Duration MAX_DURATION = Duration.ofHours(1);
+    /** Counts the stopwatches made, for their default names */
+    public static final EntityRegistry.Counter stopwatchCounter = new EntityRegistry.Counter(100);
     private String name;
     private boolean paused,
                     started;
+    private final long id = EntityRegistry.nextId();
     private Clock clock;
-    private volatile Thread selfThread;
-    private long startMilli = 0L;        // start time in milliseconds
-    private long accumMilli = 0L;        // time accumulated across previous runs
-    private long lastLapMarkMilli = 0L;  // elapsed ns at last lap
-    private long pausedAccumMilli = 0L;  // total paused duration accumulated
-    private long totalPausedMilli = 0L;  // total paused duration with previous pauses
-    private long pausedMilli = 0L;        // when Pause was pressed in milliseconds
-    private Duration duration;
+    private transient volatile Timeout scheduledTask;
+    private transient TimingWheel timingWheel = TimingWheel.getDefault();
+    // monotonic readings start anywhere in another JVM, so they are banked when written rather than kept
+    private transient boolean running,    // whether the stopwatch is counting right now
+                              hasStarted, // whether startNanos holds a start, as 0ns is a valid time
+                              pauseRecorded; // whether pausedNanos holds a pause, as 0ns is a valid time
+    private transient long startNanos = 0L;        // when the stopwatch was first started, in ns
+    private transient long runningSinceNanos = 0L; // when the current run began, in ns
+    private long bankedNanos = 0L;        // time counted by previous runs, in ns
+    private transient long lastLapMarkNanos = 0L;  // when the last lap was recorded, in ns
+    private transient long pausedNanos = 0L;       // when Pause was pressed, in ns
+    private long pausedAccumMilli = 0L;   // total paused duration accumulated
+    private long totalPausedMilli = 0L;   // total paused duration with previous pauses
     private List<Lap> laps;
 
     /**
@@ -67,23 +82,32 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
         setClock(clock);
         setLaps(new ArrayList<>());
         setDuration(Duration.ZERO);
-        stopwatchCounter++;
-        logger.debug("Total stopwatches created: {}", stopwatchCounter);
-        if (stopwatchCounter == 100L) {
-            logger.info("Restarting counter for stopwatchCounter");
-            stopwatchCounter = 0L;
-        }
+        final long number = stopwatchCounter.next();
+        logger.debug("Total stopwatches created: {}", number);
+        if (number == 100L) logger.info("Restarting counter for stopwatchCounter");
     }
 
-    /** This method begins the thread that runs the stopwatch. */
+    /**
+     * Starts the stopwatch. Nothing runs while it counts;
+     * the elapsed time is worked out from the time source of
+     * its timing wheel whenever it is read. The only task registered with the
+     * timing wheel is the deadline at which the stopwatch
+     * reaches its maximum time of 1 hour.
+     */
     public synchronized void startStopwatch()
     {
-        if (selfThread == null)
+        if (running || paused) return;
+        final long now = nanoTime();
+        if (!hasStarted)
         {
-            setSelfThread(new Thread(this));
-            selfThread.start(); // thread starting itself
-            setStarted(true);
+            startNanos = now;
+            lastLapMarkNanos = now;
+            hasStarted = true;
         }
+        runningSinceNanos = now;
+        running = true;
+        setStarted(true);
+        armMaxDuration();
     }
 
     /**
@@ -95,13 +119,17 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
         setPaused(false);
         setStarted(false);
         setClock(null);
-        setSelfThread(null);
-        startMilli = 0L;
-        accumMilli = 0L;
-        lastLapMarkMilli = 0L;
+        disarmMaxDuration();
+        running = false;
+        startNanos = 0L;
+        hasStarted = false;
+        runningSinceNanos = 0L;
+        bankedNanos = 0L;
+        lastLapMarkNanos = 0L;
+        pausedNanos = 0L;
+        pauseRecorded = false;
         pausedAccumMilli = 0L;
         totalPausedMilli = 0L;
-        pausedMilli = 0L;
         setLaps(null);
         logger.debug("{} stopwatch stopped", this);
     }
@@ -109,7 +137,15 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
     /** Pauses the stopwatch */
     public synchronized void pauseStopwatch()
     {
-        pausedMilli = System.currentTimeMillis();
+        final long now = nanoTime();
+        if (running)
+        {
+            bankedNanos += now - runningSinceNanos;
+            running = false;
+            disarmMaxDuration();
+        }
+        pausedNanos = now;
+        pauseRecorded = true;
         setPaused(true);
         logger.debug("{} paused", this);
     }
@@ -121,55 +157,88 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
     {
         if (paused)
         {
+            final long now = nanoTime();
+            if (pauseRecorded) setPausedAccumMilli(TimeUnit.NANOSECONDS.toMillis(now - pausedNanos));
             logger.debug("paused for {} seconds", Duration.ofMillis(pausedAccumMilli).getSeconds());
             totalPausedMilli += pausedAccumMilli;
             setPausedAccumMilli(0L);
             setPaused(false);
+            if (started)
+            {
+                if (!hasStarted)
+                {
+                    startNanos = lastLapMarkNanos = now;
+                    hasStarted = true;
+                }
+                runningSinceNanos = now;
+                running = true;
+                armMaxDuration();
+            }
             logger.debug("resuming {}", this);
         }
     }
 
     /**
-     * This method executes the logic for the stopwatch
+     * Runs when the stopwatch reaches its maximum time.
+     * Stops the stopwatch, or arms the deadline again if
+     * the stopwatch was paused and resumed since it was set.
      */
     @Override
     public void run()
+    { endIfMaxAccumMilli(); }
+
+    /**
+     * Writes the stopwatch with the time it has counted, and
+     * the time it has been paused for, banked. A stopwatch
+     * that was running is read back stopped at the time it
+     * had counted, and counts on from there once started.
+     * @param out the stream to write to
+     * @throws IOException if the stopwatch cannot be written
+     */
+    @Serial
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException
     {
-        while (!selfThread.isInterrupted())
+        final long now = nanoTime();
+        if (running)
         {
-            try
-            {
-                performCountUp(System.currentTimeMillis());
-                sleep(1);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, null);
-                Thread.currentThread().interrupt();
-            }
+            bankedNanos += now - runningSinceNanos;
+            runningSinceNanos = now;
         }
+        if (paused && pauseRecorded) pausedAccumMilli = TimeUnit.NANOSECONDS.toMillis(now - pausedNanos);
+        out.defaultWriteObject();
     }
 
     /**
-     * This method performs the count up logic for the stopwatch.
-     * It checks if the stopwatch is paused, started, or stopped,
-     * and updates the accumulated time accordingly.
+     * Returns the time counted so far, in nanoseconds,
+     * capped at the maximum time of 1 hour
      */
-    private synchronized void performCountUp(long now)
+    private synchronized long elapsedNanos()
     {
-        if (paused) {
-            logger.debug("{} paused", this);
-            pausedAccumMilli = (now - pausedMilli);
-        } else if (startMilli == 0L) {
-            // first start
-            startMilli = now;
-            lastLapMarkMilli = now;
-        } else {
-            setDuration(Duration.ofMillis(now - startMilli - totalPausedMilli));
-            accumMilli = duration.toMillis();
-            logger.info("{} elapsed time: {}", this.getName(), elapsedFormatted(accumMilli, STOPWATCH_READING_FORMAT));
-            endIfMaxAccumMilli();
-        }
+        long elapsed = bankedNanos;
+        if (running) elapsed += nanoTime() - runningSinceNanos;
+        return Math.min(elapsed, MAX_DURATION.toNanos());
+    }
+
+    /**
+     * Registers a single deadline with the timing wheel
+     * for when the stopwatch will reach its maximum time.
+     */
+    private void armMaxDuration()
+    {
+        disarmMaxDuration();
+        final long remaining = MAX_DURATION.toNanos() - elapsedNanos();
+        setScheduledTask(getTimingWheel().schedule(this, Math.max(0L, remaining), TimeUnit.NANOSECONDS));
+    }
+
+    /** Returns the time now, in nanoseconds, by the time source of the timing wheel */
+    private long nanoTime()
+    { return getTimingWheel().getTimeSource().nanoTime(); }
+
+    /** Cancels the maximum time deadline, if there is one */
+    private void disarmMaxDuration()
+    {
+        if (null != scheduledTask) scheduledTask.cancel();
+        setScheduledTask(null);
     }
 
     /**
@@ -177,14 +246,15 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
      * for 1 hour (the maximum allowed time). If it has,
      * the stopwatch is stopped.
      */
-    private void endIfMaxAccumMilli()
+    private synchronized void endIfMaxAccumMilli()
     {
-        if (Duration.of(1, ChronoUnit.HOURS).minus(duration).isZero() ||
-            Duration.of(1, ChronoUnit.HOURS).minus(duration).isNegative())
+        if (!running) return;
+        if (elapsedNanos() >= MAX_DURATION.toNanos())
         {
             logger.info("{} has reached max time of 1 hour, stopping", this);
             stopStopwatch();
         }
+        else armMaxDuration();
     }
 
     /**
@@ -192,15 +262,14 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
      * Logic: Take the time (now), get the minutes, seconds and milliseconds since last lap.
      * Subtract the now from the last lap to get duration of lap.
      */
-    public void recordLap()
+    public synchronized void recordLap()
     {
-        long now = System.currentTimeMillis();
         long lastRecordedDuration = 0L;
         if (!laps.isEmpty()) lastRecordedDuration = laps.getLast().getDuration();
-        long thisDuration = (now - startMilli - totalPausedMilli);
+        long thisDuration = getAccumMilli();
         Lap lap = new Lap(laps.size() + 1, thisDuration,
                           thisDuration - lastRecordedDuration, this);
-        lastLapMarkMilli = now;
+        lastLapMarkNanos = nanoTime();
         String mmssms = lap.getFormattedDuration();
         logger.info("Recording lap #{}, time: {} for stopwatch:{}", lap.getLapNumber(), mmssms, this.getName());
         laps.add(lap);
@@ -214,7 +283,7 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
      */
     public synchronized String elapsedFormatted(long millis, String format)
     {
-        logger.debug("elapsedFormatted");
+        elapsedLog.log("elapsedFormatted");
         long minutes = millis / 60_000;
         long seconds = (millis % 60_000) / 1000;
         long hundredths = millis % 1000;
@@ -282,54 +351,82 @@ public class Stopwatch implements Serializable, Comparable<Stopwatch>, Runnable
         sb.append("name='").append(name).append('\'');
         sb.append(", started=").append(started);
         sb.append(", paused=").append(paused);
-        if (paused) sb.append(", pausedAccumMilli=").append(elapsedFormatted(pausedAccumMilli, STOPWATCH_READING_FORMAT));
-        sb.append(", elapsed=").append(elapsedFormatted(accumMilli, STOPWATCH_READING_FORMAT));
-        sb.append(", laps=").append(laps.size());
+        if (paused) sb.append(", pausedAccumMilli=").append(elapsedFormatted(getPausedAccumMilli(), STOPWATCH_READING_FORMAT));
+        sb.append(", elapsed=").append(elapsedFormatted(getAccumMilli(), STOPWATCH_READING_FORMAT));
+        sb.append(", laps=").append(null == laps ? 0 : laps.size());
         sb.append('}');
         return sb.toString();
     }
 
     /** Returns the clock */
     public Clock getClock() { return clock; }
+    /** Returns the id the clock files the stopwatch under */
+    public long getId() { return id; }
     /** Returns paused */
     public boolean isPaused() { return paused; }
     /** Returns the name */
     public String getName() { return name; }
     /** Returns started */
     public boolean isStarted() { return started; }
-    /** Returns the selfThread */
-    public Thread getSelfThread() { return selfThread; }
+    /** Returns the maximum time deadline registered with the timing wheel */
+    public Timeout getScheduledTask() { return scheduledTask; }
+    /**
+     * Returns the timing wheel the stopwatch is scheduled on. After
+     * deserializing it is its clock's, or the shared one if it has none.
+     */
+    public TimingWheel getTimingWheel()
+    {
+        if (null == timingWheel)
+        {
+            final TimingWheel wheel = null != clock ? clock.getTimingWheel() : null;
+            timingWheel = null != wheel ? wheel : TimingWheel.getDefault();
+        }
+        return timingWheel;
+    }
     /** Returns the list of laps */
     public List<Lap> getLaps() { return laps; }
     /** Returns the total paused milliseconds */
     public long getTotalPausedMilli() { return totalPausedMilli; }
-    /** Returns the last lap mark in milliseconds */
-    public long getLastLapMarkMilli() { return lastLapMarkMilli; }
-    /** Returns the duration */
-    public Duration getDuration() { return duration; }
-    /** Returns the start time in milliseconds */
-    public long getStartMilli() { return startMilli; }
-    /** Returns when Pause was pressed in milliseconds */
-    public long getPausedMilli() { return pausedMilli; }
-    /** Returns the accumulated paused milliseconds */
-    public long getAccumMilli() { return accumMilli; }
-    /** Returns the accumulated paused milliseconds */
-    public long getPausedAccumMilli() { return pausedAccumMilli; }
+    /** Returns the last lap mark in monotonic milliseconds */
+    public long getLastLapMarkMilli() { return TimeUnit.NANOSECONDS.toMillis(lastLapMarkNanos); }
+    /** Returns the elapsed time, worked out when it is read */
+    public Duration getDuration() { return Duration.ofNanos(elapsedNanos()); }
+    /** Returns the start time in monotonic milliseconds */
+    public long getStartMilli() { return TimeUnit.NANOSECONDS.toMillis(startNanos); }
+    /** Returns when Pause was pressed in monotonic milliseconds */
+    public long getPausedMilli() { return TimeUnit.NANOSECONDS.toMillis(pausedNanos); }
+    /** Returns the elapsed milliseconds, worked out when they are read */
+    public long getAccumMilli() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos()); }
+    /** Returns the accumulated paused milliseconds, worked out when they are read while paused */
+    public synchronized long getPausedAccumMilli()
+    { return paused && pauseRecorded ? TimeUnit.NANOSECONDS.toMillis(nanoTime() - pausedNanos) : pausedAccumMilli; }
 
-    /** Set the clock */
-    public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set"); }
+    /** Set the clock, and schedule the stopwatch on the clock's timing wheel */
+    public void setClock(Clock clock)
+    {
+        this.clock = clock;
+        if (null != clock && null != clock.getTimingWheel()) setTimingWheel(clock.getTimingWheel());
+        logger.debug("clock set");
+    }
     /** Set paused */
     public void setPaused(boolean paused) { this.paused = paused; logger.debug("paused set to {}", paused); }
     /** Set the name */
     public void setName(String name) { this.name = name; logger.debug("name set to {}", name); }
     /** Set started */
     public void setStarted(boolean started) { this.started = started; logger.debug("started set to {}", started); }
-    /** Set the selfThread */
-    public void setSelfThread(Thread selfThread) { this.selfThread = selfThread; logger.debug("selfThread set to {}", selfThread); }
+    /** Set the task registered with the timing wheel */
+    public void setScheduledTask(Timeout scheduledTask) { this.scheduledTask = scheduledTask; logger.debug("scheduledTask set"); }
+    /** Set the timing wheel the stopwatch is scheduled on */
+    public void setTimingWheel(TimingWheel timingWheel) { this.timingWheel = timingWheel; logger.debug("timingWheel set"); }
     /** Set the laps */
     public void setLaps(List<Lap> laps) { this.laps = laps; if (laps != null) logger.debug("laps set"); else logger.debug("laps set to null"); }
-    /** Set the duration */
-    public void setDuration(Duration duration) { this.duration = duration; logger.debug("duration set to {}", duration); }
+    /** Set the elapsed time, counting on from it if the stopwatch is running */
+    public synchronized void setDuration(Duration duration)
+    {
+        bankedNanos = duration.toNanos();
+        if (running) runningSinceNanos = nanoTime();
+        logger.debug("duration set to {}", duration);
+    }
     /** Set the accumulated paused milliseconds */
     public void setPausedAccumMilli(long pausedAccumMilli) { this.pausedAccumMilli = pausedAccumMilli; logger.debug("pausedAccumMilli set to {}", pausedAccumMilli); }
 
@@ -1,20 +1,28 @@
 package clock.entity;
 
+import clock.engine.TimeSource;
+import clock.engine.TimingWheel;
+import clock.engine.TimingWheel.Timeout;
 import clock.exception.InvalidInputException;
-import javazoom.jl.decoder.JavaLayerException;
-import javazoom.jl.player.advanced.AdvancedPlayer;
+import clock.exception.SoundException;
+import clock.sound.Playback;
+import clock.sound.Sound;
+import clock.sound.SoundCache;
+import clock.sound.SoundPlayer;
+import clock.util.TwoDigits;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalTime;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static clock.util.Constants.*;
-import static java.lang.Thread.sleep;
 
 /**
  * Timer
@@ -29,9 +37,10 @@ import static java.lang.Thread.sleep;
 public class Timer implements Serializable, Comparable<Timer>, Runnable
 {
     @Serial
-    private static final long serialVersionUID = 2L;
+    private static final long serialVersionUID = 3L;
     private static final Logger logger = LogManager.getLogger(Timer.class);
-    public static long timersCounter = 0L;
+    /** Counts the timers made, for their default names */
+    public static final EntityRegistry.Counter timersCounter = new EntityRegistry.Counter(100);
     private int hours,
                 minutes,
                 seconds;
@@ -41,10 +50,18 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
                    secondsAsStr;
     private boolean timerGoingOff, paused,
                     started, triggered;
+    private final long id = EntityRegistry.nextId();
     private Clock clock;
-    private volatile Thread selfThread;
-    private LocalTime countDown;
-    private AdvancedPlayer musicPlayer;
+    private transient volatile Timeout scheduledTask,
+                                       ringTask;
+    private transient volatile Playback playback;
+    private transient volatile long goingOffNanos; // when timerGoingOff was last set, until its first sound is asked for
+    private transient TimingWheel timingWheel = TimingWheel.getDefault();
+    private long remainingNanos;  // time left, banked while not counting down, and when written
+    private transient long deadlineNanos; // monotonic time the timer reaches zero, while counting down
+    private transient long deadlineMillis; // wall clock time the timer reaches zero, while counting down
+    private transient long expiryVersion;
+    private transient Sound sound;
 
     /**
      * Creates a new Timer object with default values
@@ -116,113 +133,167 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
         setPaused(paused);
         setStarted(started);
         setClock(clock);
-        setName(StringUtils.isBlank(name) ? TIMER  + (timersCounter + 1) : name);
-        setupMusicPlayer();
-        timersCounter++;
-        logger.debug("Total timers created: {}", timersCounter);
-        if (timersCounter == 100L) {
-            logger.info("Restarting counter for timers");
-            timersCounter = 0L;
-        }
+        final long number = timersCounter.next();
+        setName(StringUtils.isBlank(name) ? TIMER + number : name);
+        logger.debug("Total timers created: {}", number);
+        if (number == 100L) logger.info("Restarting counter for timers");
         logger.info("Timer created");
     }
 
     /**
-     * Defines the music player object
+     * Takes the timer sound from the shared sound cache,
+     * which decodes it the first time any timer asks
      */
-    private void setupMusicPlayer()
+    private void loadSound()
     {
-        logger.info("setup music player");
-        InputStream inputStream = null;
+        if (null != sound) return;
+        logger.info("load sound");
         try
+        { sound = SoundCache.getDefault().get(SoundCache.ALARM_SOUND); }
+        catch (SoundException e)
         {
-            inputStream = ClassLoader.getSystemResourceAsStream("sounds/alarmSound1.mp3");
-            if (null != inputStream) { musicPlayer = new AdvancedPlayer(inputStream); }
-            else throw new NullPointerException();
-        }
-        catch (NullPointerException | JavaLayerException e)
-        {
-            logger.error("Music Player not set!");
-            if (null == inputStream) printStackTrace(e, "An issue occurred while reading the alarm file.");
-            else printStackTrace(e, "A JavaLayerException occurred: " + e.getMessage());
+            logger.error("Sound not set!");
+            printStackTrace(e, "An issue occurred while reading the alarm file.");
         }
     }
 
     /**
-     * This method begins the thread
-     * that runs the timer.
+     * Starts counting the timer down. The timer stores the
+     * monotonic time it reaches zero and registers a single
+     * callback for that time on the timing wheel.
      */
     public synchronized void startTimer()
     {
-        if (selfThread == null)
-        {
-            setSelfThread(new Thread(this));
-            selfThread.start(); // thread starting itself
-        }
+        if (null != scheduledTask || timerGoingOff) return;
+        if (!started) setStarted(true);
+        if (!paused) armExpiry();
     }
 
     /**
-     * This method starts the timer
+     * Sets the deadline from the banked remaining
+     * time and schedules the expiry callback.
      */
-    @Override
-    public void run()
+    private void armExpiry()
     {
-        while (!selfThread.isInterrupted())
+        final TimeSource source = getTimingWheel().getTimeSource();
+        deadlineNanos = source.nanoTime() + remainingNanos;
+        deadlineMillis = source.millis() + TimeUnit.NANOSECONDS.toMillis(remainingNanos);
+        final long version = ++expiryVersion;
+        setScheduledTask(getTimingWheel().schedule(() -> expire(version), remainingNanos, TimeUnit.NANOSECONDS));
+        logger.debug("{} counting down", this);
+    }
+
+    /**
+     * Cancels the expiry callback and banks the time
+     * that is left, if the timer is counting down.
+     */
+    private void disarmExpiry()
+    {
+        if (null == scheduledTask) return;
+        scheduledTask.cancel();
+        setScheduledTask(null);
+        remainingNanos = Math.max(0L, deadlineNanos - getTimingWheel().getTimeSource().nanoTime());
+    }
+
+    /**
+     * Called on the timing wheel when the timer reaches zero.
+     * Sets the timer to going off and starts ringing it.
+     * @param version the arming this callback belongs to
+     */
+    private synchronized void expire(long version)
+    {
+        if (null == scheduledTask || version != expiryVersion) return;
+        setScheduledTask(null);
+        remainingNanos = 0L;
+        logger.debug("{} has reached zero", this);
+        setTimerGoingOff(true);
+        goingOffNanos = System.nanoTime();
+        if (null == ringTask)
+        { ringTask = getTimingWheel().scheduleAtFixedRate(this, 0, 1, TimeUnit.SECONDS); }
+    }
+
+    /**
+     * Called by the clock once it has caught up after falling
+     * behind. The monotonic time the deadline is kept in stops
+     * on some systems while the machine sleeps, so the deadline
+     * is checked against the wall clock instead. A timer that
+     * reached zero in the meantime goes off now, or if it is
+     * not to fire, stops at zero as triggered and paused. A
+     * timer still counting down has its deadline moved up to
+     * what the wall clock says is left.
+     * @param fire whether a timer that reached zero goes off
+     */
+    synchronized void catchUp(boolean fire)
+    {
+        if (null == scheduledTask) return;
+        final TimeSource source = getTimingWheel().getTimeSource();
+        final long left = TimeUnit.MILLISECONDS.toNanos(deadlineMillis - source.millis());
+        if (left <= 0L)
         {
-            try {
-                if (!timerGoingOff && !paused) {
-                    performCountDown();
-                    sleep(1000);
-                } else if (timerGoingOff && !paused) {
-                    triggerTimer();
-                    sleep(1000);
-                } else { // if (stopTimer) {
-                    sleep(1000);
-                }
-            }
-            catch (InterruptedException e)
+            logger.info("{} reached zero while the clock was catching up", this);
+            if (fire) expire(expiryVersion);
+            else
             {
-                printStackTrace(e, null);
-                Thread.currentThread().interrupt();
+                scheduledTask.cancel();
+                setScheduledTask(null);
+                remainingNanos = 0L;
+                setTriggered(true);
+                setPaused(true);
             }
         }
+        else if (deadlineNanos - source.nanoTime() - left > TimeUnit.SECONDS.toNanos(1))
+        {
+            scheduledTask.cancel();
+            setScheduledTask(null);
+            remainingNanos = left;
+            armExpiry();
+        }
     }
 
     /**
-     * This method performs the countdown
-     * by reducing the seconds, minutes and hours
-     * accordingly. If the timer reaches zero,
-     * it will set the timerGoingOff flag to true.
+     * Runs once every second on the timing wheel while
+     * the timer is going off. The sound is played again
+     * once the one before it has finished.
      */
-    private void performCountDown()
+    @Override
+    public synchronized void run()
     {
-        if (!started || !paused) {
-            setStarted(true);
-            logger.debug("{} ticking down...", this);
-            if (countDown.getSecond() > 0 || countDown.getMinute() > 0 || countDown.getHour() > 0)
-            {
-                countDown = countDown.minusSeconds(1);
-            }
-            logger.debug("CountDown: {}", getCountDownString());
-            if (countDown.getHour() == 0 && countDown.getMinute() == 0 && countDown.getSecond() == 0)
-            {
-                logger.debug("{} has reached zero", this);
-                setTimerGoingOff(true);
-            }
-        }
+        final Playback current = playback;
+        if (timerGoingOff && !paused && (null == current || current.isDone())) triggerTimer();
+    }
+
+    /**
+     * Cancels the task that rings the timer.
+     */
+    private void stopRinging()
+    {
+        if (null != ringTask) ringTask.cancel();
+        ringTask = null;
+        silence();
+    }
+
+    /** Cancels the sound, if one is playing or waiting to play */
+    private void silence()
+    {
+        final Playback current = playback;
+        if (null != current) current.cancel();
+        playback = null;
     }
 
     /**
-     * Plays the timer sound as long
-     * as the timer is not paused.
+     * Plays the timer sound as long as the timer is not
+     * paused. The sound is handed to the shared sound
+     * player, which plays it in the background.
      */
     private void triggerTimer()
     {
         try
         {
             logger.debug("triggering timer...");
-            setupMusicPlayer();
-            musicPlayer.play();
+            loadSound();
+            final long triggerNanos = goingOffNanos != 0L ? goingOffNanos : System.nanoTime();
+            goingOffNanos = 0L;
+            if (null != sound) playback = SoundPlayer.getDefault().play(sound, Playback.Kind.TIMER, triggerNanos);
         }
         catch (Exception e)
         {
@@ -230,10 +301,12 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
         }
     }
 
-    /** Pauses the timer */
+    /** Pauses the timer, banking the time that is left */
     public synchronized void pauseTimer()
     {
         logger.debug("pausing {}", this);
+        disarmExpiry();
+        silence();
         setPaused(true);
     }
 
@@ -242,12 +315,15 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     {
         logger.debug("resuming {}", this);
         setPaused(false);
+        if (started && !timerGoingOff && null == scheduledTask) armExpiry();
     }
 
     /** Resets the timer to its initial state. */
     public synchronized void resetTimer()
     {
         logger.info("resetting {}", this);
+        disarmExpiry();
+        stopRinging();
         setPaused(false);
         setStarted(false);
         setTriggered(false);
@@ -263,9 +339,9 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     public synchronized void stopTimer()
     {
         logger.info("stopping {}", this);
-        setMusicPlayer(null);
         setStarted(false);
-        setSelfThread(null);
+        disarmExpiry();
+        stopRinging();
         setTriggered(false);
         setTimerGoingOff(false);
         logger.info("{} timer stopped", this);
@@ -289,6 +365,8 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
 
     /** Returns the clock */
     public Clock getClock() { return clock; }
+    /** Returns the id the clock files the timer under */
+    public long getId() { return id; }
     /** Returns the hours */
     public int getHours() { return hours; }
     /** Returns the hours as a string */
@@ -301,10 +379,22 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     public int getSeconds() { return seconds; }
     /** Returns the seconds as a string */
     public String getSecondsAsStr() { return secondsAsStr; }
-    /** Returns the countdown */
-    public LocalTime getCountDown() { return countDown; }
+    /**
+     * Returns the time left on the timer, rounded up to the
+     * second. It is computed from the deadline when read.
+     */
+    public LocalTime getCountDown() { return LocalTime.ofSecondOfDay(getRemainingSeconds()); }
+    /** Returns the time left on the timer in whole seconds, rounded up */
+    public long getRemainingSeconds()
+    {
+        final long remaining = null != scheduledTask
+                ? Math.max(0L, deadlineNanos - getTimingWheel().getTimeSource().nanoTime())
+                : remainingNanos;
+        return (remaining + 999_999_999L) / 1_000_000_000L;
+    }
     /** Returns the countdown as a formatted string HH:MM:SS */
     public String getCountDownString() {
+        final LocalTime countDown = getCountDown();
         String countdownHours = countDown.getHour() < 10 ? ZERO + countDown.getHour() : String.valueOf(countDown.getHour());
         String countdownMinutes = countDown.getMinute() < 10 ? ZERO + countDown.getMinute() : String.valueOf(countDown.getMinute());
         String countdownSeconds = countDown.getSecond() < 10 ? ZERO + countDown.getSecond() : String.valueOf(countDown.getSecond());
@@ -320,18 +410,37 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     public boolean isStarted() { return started; }
     /** Returns the triggered flag */
     public boolean isTriggered() { return triggered; }
-    /** Returns the music player */
-    public AdvancedPlayer getMusicPlayer() { return musicPlayer; }
-    /** Returns the self thread */
-    public Thread getSelfThread() { return selfThread; }
+    /** Returns the sound playing or last played, or null once silenced */
+    public Playback getPlayback() { return playback; }
+    /** Returns the decoded sound, once it has been loaded */
+    public Sound getSound() { return sound; }
+    /** Returns the expiry callback registered with the timing wheel */
+    public Timeout getScheduledTask() { return scheduledTask; }
+    /**
+     * Returns the timing wheel the timer is scheduled on. After
+     * deserializing it is its clock's, or the shared one if it has none.
+     */
+    public TimingWheel getTimingWheel()
+    {
+        if (null == timingWheel)
+        {
+            final TimingWheel wheel = null != clock ? clock.getTimingWheel() : null;
+            timingWheel = null != wheel ? wheel : TimingWheel.getDefault();
+        }
+        return timingWheel;
+    }
 
-    /** Sets the clock */
-    public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set"); }
+    /** Sets the clock, and schedules the timer on the clock's timing wheel */
+    public void setClock(Clock clock)
+    {
+        this.clock = clock;
+        if (null != clock && null != clock.getTimingWheel()) setTimingWheel(clock.getTimingWheel());
+        logger.debug("clock set");
+    }
     /** Sets the hours, also updates the hoursAsStr */
     public void setHours(int hour) {
         this.hours = hour;
-        if (hour < 10) setHoursAsStr(ZERO+hour);
-        else setHoursAsStr(EMPTY+hour);
+        setHoursAsStr(TwoDigits.of(hour));
         logger.debug("hours set to {}", hour);
     }
     /** Sets the hours as a string */
@@ -339,8 +448,7 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     /** Sets the minutes, also updates the minutesAsStr */
     public void setMinutes(int minutes) {
         this.minutes = minutes;
-        if (minutes < 10) setMinutesAsStr(ZERO+ minutes);
-        else setMinutesAsStr(EMPTY+ minutes);
+        setMinutesAsStr(TwoDigits.of(minutes));
         logger.debug("minutes set to {}", minutes);
     }
     /** Sets the minutes as a string */
@@ -348,14 +456,19 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     /** Sets the seconds, also updates the secondsAsStr */
     public void setSeconds(int seconds) {
         this.seconds = seconds;
-        if (seconds < 10) setSecondsAsStr(ZERO+ seconds);
-        else setSecondsAsStr(EMPTY+ seconds);
+        setSecondsAsStr(TwoDigits.of(seconds));
         logger.debug("seconds set to {}", seconds);
     }
     /** Sets the seconds as a string */
     public void setSecondsAsStr(String secondsAsStr) { this.secondsAsStr = secondsAsStr; logger.debug("secondsAsStr set to {}", secondsAsStr); }
-    /** Sets the countdown */
-    public void setCountDown(LocalTime countDown) { this.countDown = countDown; logger.debug("countDown set to {}", countDown); }
+    /** Sets the time left on the timer */
+    public synchronized void setCountDown(LocalTime countDown) {
+        final boolean counting = null != scheduledTask;
+        disarmExpiry();
+        this.remainingNanos = countDown.toNanoOfDay();
+        if (counting) armExpiry();
+        logger.debug("countDown set to {}", countDown);
+    }
     /** Sets the paused flag */
     public void setPaused(boolean paused) { this.paused = paused; logger.debug("paused set to {}", paused); }
     /** Sets the name of the timer */
@@ -366,10 +479,29 @@ public class Timer implements Serializable, Comparable<Timer>, Runnable
     public void setStarted(boolean started) { this.started = started; logger.debug("hasBeenStarted set to {}", started); }
     /** Sets the triggered flag */
     public void setTriggered(boolean triggered) { this.triggered = triggered; logger.debug("hasBeenTriggered set to {}", triggered); }
-    /** Sets the music player */
-    public void setMusicPlayer(AdvancedPlayer musicPlayer) { this.musicPlayer = musicPlayer; logger.debug("musicPlayer set"); }
-    /** Sets the self thread */
-    public void setSelfThread(Thread selfThread) { this.selfThread = selfThread; logger.debug("selfThread set to {}", selfThread); }
+    /** Sets the decoded sound */
+    public void setSound(Sound sound) { this.sound = sound; logger.debug("sound set"); }
+    /** Sets the expiry callback registered with the timing wheel */
+    public void setScheduledTask(Timeout scheduledTask) { this.scheduledTask = scheduledTask; logger.debug("scheduledTask set"); }
+    /** Sets the timing wheel the timer is scheduled on */
+    public void setTimingWheel(TimingWheel timingWheel) { this.timingWheel = timingWheel; logger.debug("timingWheel set"); }
+
+    /**
+     * Writes the timer with the time it has left banked.
+     * The monotonic time its deadline is kept in starts
+     * anywhere in another JVM, so it is not written. A
+     * timer that was counting down is started again with
+     * the banked time on its next tick.
+     * @param out the stream to write to
+     * @throws IOException if the timer cannot be written
+     */
+    @Serial
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException
+    {
+        if (null != scheduledTask)
+            remainingNanos = Math.max(0L, deadlineNanos - getTimingWheel().getTimeSource().nanoTime());
+        out.defaultWriteObject();
+    }
 
     /**
      * Compares this timer to another timer based
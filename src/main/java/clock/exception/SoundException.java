@@ -0,0 +1,37 @@
+package clock.exception;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * SoundException
+ * <p>
+ * This class is used to determine that an error
+ * has occurred while reading, decoding or playing
+ * the sound of an Alarm or a Timer. It is an
+ * unchecked exception. The Alarm or Timer logs it
+ * and keeps going off without the sound.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public class SoundException extends RuntimeException implements Serializable
+{
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor for SoundException with a message
+	 * @param message the message provided
+	 */
+	public SoundException(String message)
+	{ super(message); }
+
+	/**
+	 * Main constructor for SoundException
+	 * @param message the message provided
+	 * @param cause the reason why
+	 */
+	public SoundException(String message, Throwable cause)
+	{ super(message, cause); }
+}
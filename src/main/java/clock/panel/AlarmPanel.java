@@ -1,7 +1,11 @@
 package clock.panel;
 
+import clock.contract.IClockTickListener;
+import clock.engine.TickBus;
 import clock.entity.Alarm;
+import clock.entity.AlarmState;
 import clock.entity.Clock;
+import clock.entity.DayMask;
 import clock.exception.InvalidInputException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,7 +24,6 @@ import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static clock.util.Constants.*;
-import static java.lang.Thread.sleep;
 import static java.time.DayOfWeek.*;
 
 /**
@@ -38,17 +41,18 @@ import static java.time.DayOfWeek.*;
  * alarm by clicking on the Sleeping button. This will remove
  * the alarm from the table.
  * Once the alarm goes off, a sound will play and you can click
- * snooze or stop. Snoozing will stop the alarm for 7 more
- * minutes and then it will sound off again. Stopping the alarm
+ * snooze or stop. Snoozing will stop the alarm for its snooze
+ * duration, 7 minutes unless set otherwise, and then it will
+ * sound off again, up to its most snoozes. Stopping the alarm
  * will stop the sound but the alarm will remain on the table.
  *
  * @author michael ball
  * @version since 2.0
  */
-public class AlarmPanel extends ClockPanel implements Runnable
+public class AlarmPanel extends ClockPanel implements IClockTickListener
 {
     private static final Logger logger = LogManager.getLogger(AlarmPanel.class);
-    private Thread thread;
+    private TickBus tickBus;
     private GridBagLayout layout;
     private GridBagConstraints constraints;
     private JLabel nameLabel,
@@ -133,7 +137,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                     switch (e.getSource() instanceof JTextField textField ? textField.getName() : null)
                     {
                         case NAME+TEXT_FIELD -> {
-                            if (nameTextField.getText().equals(ALARM+(Alarm.alarmsCounter+1)))
+                            if (nameTextField.getText().equals(ALARM+(Alarm.alarmsCounter.get()+1)))
                             { nameTextField.setText(EMPTY); }
                             logger.debug("Focus gained on name field");
                         }
@@ -148,7 +152,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                     {
                         case NAME+TEXT_FIELD -> {
                             if (nameTextField.getText().isBlank())
-                            { nameTextField.setText(ALARM+(Alarm.alarmsCounter+1)); }
+                            { nameTextField.setText(ALARM+(Alarm.alarmsCounter.get()+1)); }
                             else if (nameTextField.getText().length() > 10)
                             { nameTextField.setText(nameTextField.getText().substring(0, 10)); }
                         }
@@ -431,8 +435,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                 Alarm alarm = clock.getListOfAlarms().get(modelRow);
                 switch (buttonAction) {
                     case SNOOZE -> {
-                        alarmsTable.getModel().setValueAt(SLEEPING, modelRow, 3);
-                        alarm.snooze();
+                        if (alarm.snooze()) alarmsTable.getModel().setValueAt(SLEEPING, modelRow, 3);
                         clock.getListOfAlarms().set(modelRow, alarm);
                     }
                     case SLEEPING -> {
@@ -443,7 +446,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                         minutesTextField.setText(Integer.toString(alarm.getMinutes()));
                         ampmDropDown.setSelectedItem(alarm.getAMPM());
                         setCheckBoxesIfWasSelected(alarm);
-                        clock.getListOfAlarms().remove(alarm);
+                        clock.removeAlarm(alarm);
                     }
                     case STOP -> {
                         logger.info("Stopping alarm");
@@ -453,7 +456,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                     case REMOVE -> {
                         logger.info("Removing {} at row: {}", alarm, modelRow);
                         alarm.stopAlarm();
-                        clock.getListOfAlarms().remove(alarm);
+                        clock.removeAlarm(alarm);
                     }
                 }
             }
@@ -522,7 +525,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
                         alarmsTable.setValueAt(alarm.getAlarmAsString(), rowIndex.get(), 1);
                     }
                     // update buttons to show restart or remove
-                    if (alarm.isAlarmGoingOff() && !alarm.isSnoozing()) {
+                    if (alarm.getPhase() == AlarmState.Phase.RINGING) {
                         alarmsTable.getModel().setValueAt(SNOOZE, rowIndex.get(), 3);
                         alarmsTable.getModel().setValueAt(STOP, rowIndex.get(), 4);
                         new ButtonColumn(alarmsTable, buttonAction(3), 3);
@@ -679,7 +682,7 @@ public class AlarmPanel extends ClockPanel implements Runnable
             // checks equality
             if (!clock.getListOfAlarms().contains(alarm))
             {
-                clock.getListOfAlarms().add(alarm);
+                clock.addAlarm(alarm);
                 nameTextField.setText(EMPTY);
                 hoursTextField.setText(EMPTY);
                 minutesTextField.setText(EMPTY);
@@ -766,69 +769,44 @@ public class AlarmPanel extends ClockPanel implements Runnable
     public void setCheckBoxesIfWasSelected(Alarm alarmToUpdate)
     {
         logger.info("setCheckBoxesIfWasSelected");
-        if (alarmToUpdate.getDays().contains(MONDAY)) { mondayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(TUESDAY)) { tuesdayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(WEDNESDAY)) { wednesdayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(THURSDAY)) { thursdayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(FRIDAY)) { fridayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(SATURDAY)) { saturdayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(SUNDAY)) { sundayCheckBox.setSelected(true); }
-        if (alarmToUpdate.getDays().contains(MONDAY) &&
-                alarmToUpdate.getDays().contains(TUESDAY) &&
-                alarmToUpdate.getDays().contains(WEDNESDAY) &&
-                alarmToUpdate.getDays().contains(THURSDAY) &&
-                alarmToUpdate.getDays().contains(FRIDAY)) {
-            mondayCheckBox.setSelected(true);
-            tuesdayCheckBox.setSelected(true);
-            wednesdayCheckBox.setSelected(true);
-            thursdayCheckBox.setSelected(true);
-            fridayCheckBox.setSelected(true);
-            weekdaysCheckBox.setSelected(true);
-        }
-        if (alarmToUpdate.getDays().contains(SATURDAY) &&
-                alarmToUpdate.getDays().contains(SUNDAY)) {
-            saturdayCheckBox.setSelected(true);
-            sundayCheckBox.setSelected(true);
-            weekendsCheckBox.setSelected(true);
-        }
+        if (alarmToUpdate.isOn(MONDAY)) { mondayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(TUESDAY)) { tuesdayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(WEDNESDAY)) { wednesdayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(THURSDAY)) { thursdayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(FRIDAY)) { fridayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(SATURDAY)) { saturdayCheckBox.setSelected(true); }
+        if (alarmToUpdate.isOn(SUNDAY)) { sundayCheckBox.setSelected(true); }
+        if ((alarmToUpdate.getDayMask() & DayMask.WEEKDAYS) == DayMask.WEEKDAYS) { weekdaysCheckBox.setSelected(true); }
+        if ((alarmToUpdate.getDayMask() & DayMask.WEEKENDS) == DayMask.WEEKENDS) { weekendsCheckBox.setSelected(true); }
     }
 
-    /** Starts the alarm panel thread and internally calls the run method. */
+    /** Subscribes the alarm panel to the ticks of the clock. */
     public void start()
     {
         logger.debug("starting alarm panel");
-        if (thread == null)
+        if (tickBus == null && getClock() != null)
         {
-            thread = new Thread(this);
-            thread.start();
+            tickBus = getClock().getTickBus();
+            tickBus.subscribe(this);
         }
     }
 
-    /** Stops the alarm panel thread. */
+    /** Unsubscribes the alarm panel from the ticks of the clock. */
     public void stop()
     {
         logger.debug("stopping alarm panel");
-        thread = null;
+        if (tickBus != null) tickBus.unsubscribe(this);
+        tickBus = null;
     }
 
-    /** This method runs the alarm panel thread and updates the alarms table every second. */
+    /**
+     * Updates the alarms table after the clock ticks.
+     * Does nothing while the panel is not on screen.
+     */
     @Override
-    public void run()
+    public void clockTicked(Clock clock)
     {
-        logger.debug("running alarm panel");
-        while (thread != null)
-        {
-            try
-            {
-                setupAlarmsTableDefaults(false);
-                sleep(1000);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, null);
-                Thread.currentThread().interrupt();
-            }
-        }
+        if (isShowing()) setupAlarmsTableDefaults(false);
     }
 
     /** Return the clock frame */
@@ -2,13 +2,17 @@ package clock.panel;
 
 import java.awt.*;
 
+import clock.contract.IClockTickListener;
+import clock.engine.TickBus;
 import clock.entity.Clock;
+import clock.entity.ClockSnapshot;
 import clock.entity.Panel;
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import static clock.util.Constants.*;
-import static java.lang.Thread.sleep;
 import static clock.entity.Panel.PANEL_ANALOGUE_CLOCK;
 
 /**
@@ -22,12 +26,14 @@ import static clock.entity.Panel.PANEL_ANALOGUE_CLOCK;
  * @author michael ball
  * @version since 2.6
  */
-public class AnalogueClockPanel extends ClockPanel implements Runnable
+public class AnalogueClockPanel extends ClockPanel implements IClockTickListener
 {
     private static final Logger logger = LogManager.getLogger(AnalogueClockPanel.class);
+    private static final ThrottledLogger paintLog = ThrottledLogger.perSecond(logger, Level.INFO, 1),
+            drawLog = ThrottledLogger.perSecond(logger, Level.INFO, 1);
     private GridBagLayout layout;
     private GridBagConstraints constraints;
-    private Thread thread = null;
+    private TickBus tickBus = null;
     private int xcenter = 175, ycenter = 175, lastxs = 0, lastys = 0, lastxm = 0, lastym = 0, lastxh = 0, lastyh = 0;
     private ClockFrame clockFrame;
     private Clock clock;
@@ -54,7 +60,7 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
         logger.debug("initialize analogue clock panel");
         setClockFrame(clockFrame);
         setClock(clockFrame.getClock());
-        setClockText(clock.getTimeAsStr());
+        setClockText(clock.getSnapshot().timeAsStr());
         setGridBagLayout(new GridBagLayout()); // sets layout
         setLayout(layout);
         setGridBagConstraints(new GridBagConstraints());
@@ -89,45 +95,35 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
     }
 
     /**
-     * Starts the analogue clock panel thread
-     * and internally calls the run method.
+     * Subscribes the analogue clock panel
+     * to the ticks of the clock.
      */
     public void start()
     {
         logger.debug("starting analogue clock panel");
-        if (thread == null)
+        if (tickBus == null && clock != null)
         {
-            setThread(new Thread(this));
-            thread.start();
+            setTickBus(clock.getTickBus());
+            tickBus.subscribe(this);
         }
     }
 
-    /** Stops the timer panel thread. */
+    /** Unsubscribes the analogue clock panel from the ticks of the clock. */
     public void stop()
     {
         logger.debug("stopping analogue clock panel");
-        setThread(null);
+        if (tickBus != null) tickBus.unsubscribe(this);
+        setTickBus(null);
     }
 
     /**
-     * Repaints the analogue clock after it has been updated
+     * Repaints the analogue clock after it has been updated.
+     * Does nothing while the panel is not on screen.
      */
-    public void run()
+    @Override
+    public void clockTicked(Clock clock)
     {
-        logger.debug("starting analogue clock");
-        while (thread != null)
-        {
-            try
-            {
-                repaint(); // goes to paint
-                sleep(1000);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, e.getMessage());
-                Thread.currentThread().interrupt();
-            }
-        }
+        if (isShowing()) repaint(); // goes to paint
     }
 
     /**
@@ -137,15 +133,16 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
     @Override
     public void paint(Graphics g)
     {
-        logger.info("painting analogue clock panel");
+        paintLog.log("painting analogue clock panel");
         int xhour, yhour, xminute, yminute, xsecond, ysecond, second, minute, hour;
 
+        final ClockSnapshot snapshot = clock.getSnapshot(); // one consistent read of the ticking clock
         if (isShowDigitalTimeOnAnalogueClock())
-        { setClockText(clock.getTimeAsStr()); }
+        { setClockText(snapshot.timeAsStr()); }
         drawStructure(g);
-        second = clock.getTime().getSecond();
-        minute = clock.getTime().getMinute();
-        hour = clock.getTime().getHour();
+        second = snapshot.time().getSecond();
+        minute = snapshot.time().getMinute();
+        hour = snapshot.time().getHour();
         xsecond = (int)(Math.cos(second * 3.14f / 30 - 3.14f / 2) * 120 + xcenter);
         ysecond = (int)(Math.sin(second * 3.14f / 30 - 3.14f / 2) * 120 + ycenter);
         xminute = (int)(Math.cos(minute * 3.14f / 30 - 3.14f / 2) * 100 + xcenter);
@@ -192,7 +189,7 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
      */
     public void drawStructure(Graphics g)
     {
-        logger.info("drawing structure");
+        drawLog.log("drawing structure");
         g.setFont(ClockFrame.analogueFont);
         g.setColor(Color.BLACK);
         g.fillOval(xcenter - 150, ycenter - 150, 300, 300);
@@ -231,8 +228,8 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
     public String getClockText() { return this.clockText; }
     /** Returns isShowDigitalTimeOnAnalogueClock */
     public boolean isShowDigitalTimeOnAnalogueClock() { return showDigitalTimeOnAnalogueClock; }
-    /** Returns the self thread */
-    public Thread getThread() { return this.thread; }
+    /** Returns the tick bus the panel is subscribed to */
+    public TickBus getTickBus() { return this.tickBus; }
 
     /** Sets the clock frame */
     private void setClockFrame(ClockFrame clockFrame) { this.clockFrame = clockFrame; logger.debug("clockFrame set"); }
@@ -246,6 +243,6 @@ public class AnalogueClockPanel extends ClockPanel implements Runnable
     public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set"); }
     /** Sets isShowDigitalTimeOnAnalogueClock */
     public void setShowDigitalTimeOnAnalogueClock(boolean showDigitalTimeOnAnalogueClock)  { this.showDigitalTimeOnAnalogueClock = showDigitalTimeOnAnalogueClock; logger.debug("showDigitalTimeOnAnalogueClock set to " + showDigitalTimeOnAnalogueClock); }
-    /** Sets the self thread */
-    private void setThread(Thread thread) { this.thread = thread; logger.debug("thread set");  }
+    /** Sets the tick bus the panel is subscribed to */
+    private void setTickBus(TickBus tickBus) { this.tickBus = tickBus; logger.debug("tickBus set");  }
 }
\ No newline at end of file
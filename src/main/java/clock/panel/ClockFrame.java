@@ -1,8 +1,12 @@
 package clock.panel;
 
+import clock.engine.ClockLifecycle;
+import clock.engine.ClockThreads;
 import clock.entity.Clock;
 import clock.entity.ClockMenuBar;
 import clock.entity.Panel;
+import clock.sound.SoundCache;
+import clock.sound.SoundPlayer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -52,9 +56,11 @@ public class ClockFrame extends JFrame
                        analogueClockPanel,
                        alarmPanel,
                        timerPanel,
-                       stopwatchPanel;
+                       stopwatchPanel,
+                       worldClockPanel;
     private Clock clock;
     private ScheduledExecutorService scheduler;
+    private transient Runnable unregister; // takes the frame off the lifecycle once stopped
 
     /**
      * Default constructor for ClockFrame
@@ -90,6 +96,7 @@ public class ClockFrame extends JFrame
 
     /**
      * Initializes the ClockFrame with the given clock.
+     * The alarm sounds are preloaded in the background.
      * @param clock the clock to use for initialization
      */
     private void initialize(Clock clock)
@@ -106,13 +113,16 @@ public class ClockFrame extends JFrame
         setLocationRelativeTo(null); // loads the GUI in the center of the screen
         setResizable(false);
         setClock(clock != null ? clock : new Clock());
-        setScheduler(Executors.newScheduledThreadPool(25));
+        SoundPlayer.getDefault().preload(SoundCache.getDefault(), SoundCache.REGISTERED_SOUNDS);
+        setScheduler(Executors.newScheduledThreadPool(25, ClockThreads.factory("clock-scheduler")));
+        unregister = ClockLifecycle.getDefault().register("clock-frame", this::stop);
         setupMenuBar(); // daylightSavingsTimeEnabled directly influences menu bar setup
         setDigitalClockPanel(new DigitalClockPanel(this));
         setAnalogueClockPanel(new AnalogueClockPanel(this));
         setAlarmPanel(new AlarmPanel(this));
         setTimerPanel(new TimerPanel(this));
         setStopwatchPanel(new StopwatchPanel(this));
+        setWorldClockPanel(new WorldClockPanel(this));
         changePanels(panelType != null ? panelType : PANEL_DIGITAL_CLOCK);
     }
 
@@ -166,6 +176,8 @@ public class ClockFrame extends JFrame
                 ap.stop();
             else if (currentPanel instanceof StopwatchPanel sp)
                 sp.stop();
+            else if (currentPanel instanceof WorldClockPanel wcp)
+                wcp.stop();
             showPanel(changePanelType);
             repaint();
             setVisible(true);
@@ -187,6 +199,7 @@ public class ClockFrame extends JFrame
             case PANEL_ALARM -> changeToAlarmPanel();
             case PANEL_TIMER -> changeToTimerPanel();
             case PANEL_STOPWATCH -> changeToStopwatchPanel();
+            case PANEL_WORLD_CLOCK -> changeToWorldClockPanel();
         }
     }
 
@@ -257,6 +270,20 @@ public class ClockFrame extends JFrame
         setPanelType(PANEL_STOPWATCH);
     }
 
+    /**
+     * Changes the panel to the world clock panel
+     */
+    private void changeToWorldClockPanel()
+    {
+        logger.info("change to world clock");
+        add(worldClockPanel);
+        setCurrentPanel(worldClockPanel);
+        getWorldClockPanel().setupDefaultValues();
+        setSize(clockDefaultSize);
+        setBackground(Color.BLACK);
+        setPanelType(PANEL_WORLD_CLOCK);
+    }
+
     /**
      * Updates the current time based on the selected timezone
      * @param timezone the timezone to update the time to
@@ -344,10 +371,25 @@ public class ClockFrame extends JFrame
     }
 
     /**
-     * Stops the clock and all scheduled tasks.
+     * Stops the clock and all scheduled tasks. The scheduler
+     * is shut down, which interrupts the clock's tick loop,
+     * and its threads are waited on for a short while.
      */
     public void stop()
     {
+        if (null != scheduler)
+        {
+            scheduler.shutdownNow();
+            try
+            {
+                if (!scheduler.awaitTermination(ClockLifecycle.DEFAULT_STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                    logger.warn("clock scheduler did not stop in {}", ClockLifecycle.DEFAULT_STOP_TIMEOUT);
+            }
+            catch (InterruptedException e)
+            { Thread.currentThread().interrupt(); }
+        }
+        if (null != unregister) unregister.run();
+        unregister = null;
         setClock(null);
         setScheduler(null);
     }
@@ -366,6 +408,8 @@ public class ClockFrame extends JFrame
     public TimerPanel getTimerPanel() { return (TimerPanel) timerPanel; }
     /** Returns the stopwatch panel */
     public StopwatchPanel getStopwatchPanel() { return (StopwatchPanel) stopwatchPanel; }
+    /** Returns the world clock panel */
+    public WorldClockPanel getWorldClockPanel() { return (WorldClockPanel) worldClockPanel; }
     /** Returns the menu bar */
     public ClockMenuBar getClockMenuBar() { return menuBar; }
     /** Returns the clock */
@@ -387,6 +431,8 @@ public class ClockFrame extends JFrame
     public void setTimerPanel(TimerPanel timerPanel) { this.timerPanel = timerPanel; logger.debug("timerPanel set"); }
     /** Sets the stopwatch panel */
     public void setStopwatchPanel(StopwatchPanel stopwatchPanel) { this.stopwatchPanel = stopwatchPanel; logger.debug("stopwatchPanel set"); }
+    /** Sets the world clock panel */
+    public void setWorldClockPanel(WorldClockPanel worldClockPanel) { this.worldClockPanel = worldClockPanel; logger.debug("worldClockPanel set"); }
     /** Sets the clock */
     public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set to {}", clock); }
     /** Sets the scheduler */
@@ -1,8 +1,13 @@
 package clock.panel;
 
+import clock.contract.IClockTickListener;
+import clock.engine.TickBus;
 import clock.entity.Alarm;
 import clock.entity.Clock;
+import clock.entity.ClockSnapshot;
 import clock.entity.Timer;
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,7 +15,6 @@ import javax.swing.*;
 import java.awt.*;
 
 import static clock.util.Constants.*;
-import static java.lang.Thread.sleep;
 
 /**
  * Digital Clock Panel
@@ -20,12 +24,14 @@ import static java.lang.Thread.sleep;
  * @author michael ball
  * @version since 1.0
  */
-public class DigitalClockPanel extends ClockPanel implements Runnable
+public class DigitalClockPanel extends ClockPanel implements IClockTickListener
 {
     private static final Logger logger = LogManager.getLogger(DigitalClockPanel.class);
+    private static final ThrottledLogger paintLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1),
+            drawLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1);
     private GridBagLayout layout;
     private GridBagConstraints constraints;
-    private Thread thread = null;
+    private TickBus tickBus = null;
     private Clock clock;
     private ClockFrame clockFrame;
 
@@ -81,46 +87,35 @@ public class DigitalClockPanel extends ClockPanel implements Runnable
     }
 
     /**
-     * Starts the digital clock panel thread
-     * and internally calls the run method.
+     * Subscribes the digital clock panel
+     * to the ticks of the clock.
      */
     public void start()
     {
         logger.debug("starting digital panel");
-        if (thread == null)
+        if (tickBus == null && clock != null)
         {
-            thread = new Thread(this);
-            thread.start();
+            tickBus = clock.getTickBus();
+            tickBus.subscribe(this);
         }
     }
 
-    /** Stops the timer panel thread. */
+    /** Unsubscribes the digital clock panel from the ticks of the clock. */
     public void stop()
     {
         logger.debug("stopping digital panel");
-        thread = null;
+        if (tickBus != null) tickBus.unsubscribe(this);
+        tickBus = null;
     }
 
     /**
-     * Repaints the digital clock after it has been updated
+     * Repaints the digital clock after it has been updated.
+     * Does nothing while the panel is not on screen.
      */
     @Override
-    public void run()
+    public void clockTicked(Clock clock)
     {
-        logger.debug("starting digital clock");
-        while (thread != null)
-        {
-            try
-            {
-                repaint(); // goes to paint
-                sleep(1000);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, e.getMessage());
-                Thread.currentThread().interrupt();
-            }
-        }
+        if (isShowing()) repaint(); // goes to paint
     }
 
     /**
@@ -130,7 +125,7 @@ public class DigitalClockPanel extends ClockPanel implements Runnable
     @Override
     public void paint(Graphics g)
     {
-        logger.debug("painting digital clock panel");
+        paintLog.log("painting digital clock panel");
         drawStructure(g);
     }
 
@@ -140,9 +135,10 @@ public class DigitalClockPanel extends ClockPanel implements Runnable
      */
     public void drawStructure(Graphics g)
     {
-        logger.debug("drawing structure");
+        drawLog.log("drawing structure");
+        final ClockSnapshot snapshot = clock.getSnapshot(); // one consistent read of the ticking clock
         g.setFont(ClockFrame.font60);
-        if (clock.isShowFullDate()) g.setFont(ClockFrame.font40);
+        if (snapshot.showFullDate()) g.setFont(ClockFrame.font40);
 
         g.setColor(Color.BLACK);
         g.fillRect(0, 0, ClockFrame.clockDefaultSize.width, ClockFrame.clockDefaultSize.height);
@@ -164,8 +160,8 @@ public class DigitalClockPanel extends ClockPanel implements Runnable
         // If we have no Alarms or Timers going off
         if (!alarmsGoingOff && !timersGoingOff)
         {
-            dateStr = clock.defaultText(1);
-            timeStr = clock.defaultText(2);
+            dateStr = snapshot.dateText();
+            timeStr = snapshot.timeText();
         }
         // If we have only Alarms going off
         else if (alarmsGoingOff && !timersGoingOff)
@@ -52,7 +52,7 @@ public class DisplayLapsPanel extends JPanel
     /** The default layout of the panel */
     public void setDefaultLayout()
     {
-        JLabel label = new JLabel("Sw" + (Stopwatch.stopwatchCounter + 1));
+        JLabel label = new JLabel("Sw" + (Stopwatch.stopwatchCounter.get() + 1));
         label.setForeground(Color.WHITE);
         label.setFont(ClockFrame.font20);
         // add a space or some gap, if needed
@@ -1,5 +1,8 @@
 package clock.panel;
 
+import clock.engine.ClockThreads;
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -22,6 +25,10 @@ import static java.lang.Thread.sleep;
 public class DisplayTimePanel extends JPanel implements Runnable
 {
     private static final Logger logger = LogManager.getLogger(DisplayTimePanel.class);
+    // the panel repaints every millisecond while a stopwatch runs
+    private static final ThrottledLogger digitalLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1),
+            analogueLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1),
+            clockTextLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1);
     public Thread thread;
     private boolean showAnaloguePanel = false;
     public String clockText = "00:00.000";
@@ -49,7 +56,7 @@ public class DisplayTimePanel extends JPanel implements Runnable
         logger.debug("starting digital stopwatch panel");
         if (thread == null)
         {
-            thread = new Thread(this);
+            thread = ClockThreads.newThread(this, "display-time-panel");
             thread.start();
         }
     }
@@ -116,7 +123,7 @@ public class DisplayTimePanel extends JPanel implements Runnable
 
     public void drawDigitalClock(Graphics g)
     {
-        logger.debug("drawing display time panel");
+        digitalLog.log("drawing display time panel");
         g.setFont(ClockFrame.font20);
 
         g.setColor(Color.BLACK);
@@ -162,7 +169,7 @@ public class DisplayTimePanel extends JPanel implements Runnable
      */
     public void drawAnalogueClock(Graphics g)
     {
-        logger.debug("painting analogue clock panel");
+        analogueLog.log("painting analogue clock panel");
         int width = getWidth();
         int height = getHeight();
         int diameter = Math.min(width, height) - 20; // leave some margin
@@ -235,6 +242,6 @@ public class DisplayTimePanel extends JPanel implements Runnable
     /** Sets the showAnaloguePanel flag */
     public void setShowAnaloguePanel(boolean showAnaloguePanel) { this.showAnaloguePanel = showAnaloguePanel; logger.debug("showAnaloguePanel set to {}", showAnaloguePanel); }
     /** Sets the clock text */
-    public void setClockText(String clockText) { this.clockText = clockText; logger.debug("clockText set to {}", clockText); }
+    public void setClockText(String clockText) { this.clockText = clockText; clockTextLog.log("clockText set to {}", clockText); }
 }
 
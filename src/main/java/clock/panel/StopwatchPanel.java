@@ -93,7 +93,7 @@ public class StopwatchPanel extends ClockPanel
         lapButton.setForeground(Color.BLUE);
         lapButton.addActionListener(this::executeButtonAction);
 
-        stopwatchNameField = new JTextField("Sw" + (Stopwatch.stopwatchCounter + 1), 4);
+        stopwatchNameField = new JTextField("Sw" + (Stopwatch.stopwatchCounter.get() + 1), 4);
         stopwatchNameField.setFont(ClockFrame.font20);
         stopwatchNameField.setOpaque(true);
         stopwatchNameField.setName(STOPWATCH + TEXT_FIELD);
@@ -106,7 +106,7 @@ public class StopwatchPanel extends ClockPanel
            public void focusGained(FocusEvent e) {
                if (currentStopwatch.isPaused())
                {
-                   if (stopwatchNameField.getText().equals("Sw" + (Stopwatch.stopwatchCounter + 1)))
+                   if (stopwatchNameField.getText().equals("Sw" + (Stopwatch.stopwatchCounter.get() + 1)))
                    {
                        stopwatchNameField.setText(EMPTY);
                    }
@@ -119,7 +119,7 @@ public class StopwatchPanel extends ClockPanel
            public void focusLost(FocusEvent e) {
                if (stopwatchNameField.getText().isBlank())
                {
-                   stopwatchNameField.setText("Sw" + (Stopwatch.stopwatchCounter + 1));
+                   stopwatchNameField.setText("Sw" + (Stopwatch.stopwatchCounter.get() + 1));
                }
                else
                {
@@ -354,8 +354,8 @@ public class StopwatchPanel extends ClockPanel
         logger.debug("resetting stopwatch panel");
         getClock().getListOfStopwatches().forEach(Stopwatch::stopStopwatch);
         getClock().getListOfStopwatches().clear();
-        Stopwatch.stopwatchCounter = 0L;
-        stopwatchNameField.setText("Sw" + (Stopwatch.stopwatchCounter + 1));
+        Stopwatch.stopwatchCounter.reset();
+        stopwatchNameField.setText("Sw" + (Stopwatch.stopwatchCounter.get() + 1));
         currentStopwatch = null;
         displayTimePanel.stop();
         displayTimePanel.setClockText(startText);
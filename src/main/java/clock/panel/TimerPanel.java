@@ -1,5 +1,7 @@
 package clock.panel;
 
+import clock.contract.IClockTickListener;
+import clock.engine.TickBus;
 import clock.entity.Clock;
 import clock.entity.Timer;
 import clock.exception.InvalidInputException;
@@ -16,7 +18,6 @@ import java.awt.event.FocusListener;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.lang.Thread.sleep;
 import static clock.util.Constants.*;
 
 /**
@@ -35,10 +36,10 @@ import static clock.util.Constants.*;
  * @author michael ball
  * @version since 2.9
  */
-public class TimerPanel extends ClockPanel implements Runnable
+public class TimerPanel extends ClockPanel implements IClockTickListener
 {
     private static final Logger logger = LogManager.getLogger(TimerPanel.class);
-    private Thread thread;
+    private TickBus tickBus;
     private GridBagLayout layout;
     private GridBagConstraints constraints;
     private JLabel nameLabel,
@@ -113,7 +114,7 @@ public class TimerPanel extends ClockPanel implements Runnable
                     switch (e.getSource() instanceof JTextField textField ? textField.getName() : null)
                     {
                         case NAME+TEXT_FIELD -> {
-                            if (nameTextField.getText().equals(TIMER+(Timer.timersCounter+1)))
+                            if (nameTextField.getText().equals(TIMER+(Timer.timersCounter.get()+1)))
                             { nameTextField.setText(EMPTY); }
                             logger.debug("Focus gained on name field");
                         }
@@ -131,7 +132,7 @@ public class TimerPanel extends ClockPanel implements Runnable
                     {
                         case NAME+TEXT_FIELD -> {
                             if (nameTextField.getText().isBlank())
-                            { nameTextField.setText(TIMER+(Timer.timersCounter+1)); }
+                            { nameTextField.setText(TIMER+(Timer.timersCounter.get()+1)); }
                             else if (nameTextField.getText().length() > 10)
                             { nameTextField.setText(nameTextField.getText().substring(0, 10)); }
                         }
@@ -614,42 +615,33 @@ public class TimerPanel extends ClockPanel implements Runnable
         return validInputs;
     }
 
-    /** Starts the timer clock panel thread and internally calls the run method. */
+    /** Subscribes the timer panel to the ticks of the clock. */
     public void start()
     {
         logger.debug("starting timer panel");
-        if (thread == null)
+        if (tickBus == null && getClock() != null)
         {
-            thread = new Thread(this);
-            thread.start();
+            tickBus = getClock().getTickBus();
+            tickBus.subscribe(this);
         }
     }
 
-    /** Stops the timer panel thread. */
+    /** Unsubscribes the timer panel from the ticks of the clock. */
     public void stop()
     {
         logger.debug("stopping timer panel");
-        thread = null;
+        if (tickBus != null) tickBus.unsubscribe(this);
+        tickBus = null;
     }
 
-    /** This method runs the timer panel thread and updates the timers table every second. */
+    /**
+     * Updates the timers table after the clock ticks.
+     * Does nothing while the panel is not on screen.
+     */
     @Override
-    public void run()
+    public void clockTicked(Clock clock)
     {
-        logger.debug("running timer panel");
-        while (thread != null)
-        {
-            try
-            {
-                setupTimersTableDefaults(false);
-                sleep(1000);
-            }
-            catch (InterruptedException e)
-            {
-                printStackTrace(e, e.getMessage());
-                Thread.currentThread().interrupt();
-            }
-        }
+        if (isShowing()) setupTimersTableDefaults(false);
     }
 
     /** Returns the clock frame */
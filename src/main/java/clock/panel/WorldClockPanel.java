@@ -0,0 +1,185 @@
+package clock.panel;
+
+import clock.contract.IClockTickListener;
+import clock.engine.TickBus;
+import clock.engine.WorldClock;
+import clock.engine.WorldClock.ZoneTime;
+import clock.entity.Clock;
+import clock.entity.ClockSnapshot;
+import clock.util.ThrottledLogger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.ZoneId;
+import java.util.List;
+
+import static clock.util.Constants.*;
+
+/**
+ * World Clock Panel
+ * <p>
+ * Used to view the date and time in many timezones at once.
+ * Every tick the {@link WorldClock} is given the clock's
+ * instant, and each zone is written out the same way the
+ * {@link DigitalClockPanel} writes the clock.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public class WorldClockPanel extends ClockPanel implements IClockTickListener
+{
+    private static final Logger logger = LogManager.getLogger(WorldClockPanel.class);
+    private static final ThrottledLogger paintLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1),
+            drawLog = ThrottledLogger.perSecond(logger, Level.DEBUG, 1);
+    /** The timezones shown when the panel is created */
+    public static final List<ZoneId> DEFAULT_ZONES = List.of(
+            ZoneId.of(PACIFIC_HONOLULU), ZoneId.of(AMERICA_ANCHORAGE), ZoneId.of(AMERICA_LOS_ANGELES),
+            ZoneId.of(AMERICA_DENVER), ZoneId.of(AMERICA_CHICAGO), ZoneId.of(AMERICA_NEW_YORK),
+            ZoneId.of(EUROPE_LONDON), ZoneId.of(EUROPE_PARIS), ZoneId.of(ASIA_KOLKATA),
+            ZoneId.of(ASIA_TOKYO), ZoneId.of(AUSTRALIA_SYDNEY));
+    private TickBus tickBus = null;
+    private WorldClock worldClock;
+    private Clock clock;
+    private ClockFrame clockFrame;
+
+    /**
+     * The main constructor for the world clock panel
+     * @param clockFrame the clockFrame object reference
+     */
+    public WorldClockPanel(ClockFrame clockFrame)
+    {
+        super();
+        initialize(clockFrame);
+        logger.info("Finished creating WorldClock Panel");
+    }
+
+    /**
+     * Sets up the default actions for the world clock panel
+     * @param clockFrame the clockFrame reference
+     */
+    public void initialize(ClockFrame clockFrame)
+    {
+        logger.debug("setup default actions with clock");
+        setClockFrame(clockFrame);
+        setClock(clockFrame.getClock());
+        setWorldClock(new WorldClock(DEFAULT_ZONES));
+        setupDefaultValues();
+    }
+
+    public void setupDefaultValues()
+    {
+        setMaximumSize(ClockFrame.clockDefaultSize);
+        setupSettingsMenu();
+        setBackground(Color.BLACK);
+        setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        setForeground(Color.WHITE);
+        clockFrame.setTitle(WORLD+SPACE+CLOCK);
+        start();
+    }
+
+    /**
+     * This method sets up the settings menu for the
+     * world clock panel.
+     */
+    public void setupSettingsMenu()
+    {
+        clockFrame.clearSettingsMenu();
+        clockFrame.getClockMenuBar().getSettingsMenu().add(clockFrame.getClockMenuBar().getMilitaryTimeSetting());
+        clockFrame.getClockMenuBar().getSettingsMenu().add(clockFrame.getClockMenuBar().getFullTimeSetting());
+        clockFrame.getClockMenuBar().getSettingsMenu().add(clockFrame.getClockMenuBar().getPartialTimeSetting());
+    }
+
+    /**
+     * Subscribes the world clock panel
+     * to the ticks of the clock.
+     */
+    public void start()
+    {
+        logger.debug("starting world clock panel");
+        if (tickBus == null && clock != null)
+        {
+            tickBus = clock.getTickBus();
+            tickBus.subscribe(this);
+        }
+    }
+
+    /** Unsubscribes the world clock panel from the ticks of the clock. */
+    public void stop()
+    {
+        logger.debug("stopping world clock panel");
+        if (tickBus != null) tickBus.unsubscribe(this);
+        tickBus = null;
+    }
+
+    /**
+     * Moves every zone to the clock's instant and repaints.
+     * Does nothing while the panel is not on screen.
+     */
+    @Override
+    public void clockTicked(Clock clock)
+    {
+        if (!isShowing()) return;
+        worldClock.update(clock.getSnapshot().instant()); // one instant for every zone
+        repaint(); // goes to paint
+    }
+
+    /**
+     * Paints the world clock panel
+     * @param g the graphics object
+     */
+    @Override
+    public void paint(Graphics g)
+    {
+        paintLog.log("painting world clock panel");
+        drawStructure(g);
+    }
+
+    /**
+     * Draws one row for each zone: the zone, its date and
+     * its time. Rows that do not fit go into another column.
+     * @param g the graphics object
+     */
+    public void drawStructure(Graphics g)
+    {
+        drawLog.log("drawing structure");
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        g.setFont(ClockFrame.font10);
+        g.setColor(Color.WHITE);
+        final FontMetrics fm = g.getFontMetrics(g.getFont());
+        final int rowHeight = fm.getHeight() + 4;
+        final int rowsPerColumn = Math.max(1, (getHeight() - rowHeight) / rowHeight);
+        final List<ZoneTime> times = worldClock.getTimes();
+        final int columns = Math.max(1, (times.size() + rowsPerColumn - 1) / rowsPerColumn);
+        final int columnWidth = getWidth() / columns;
+        final ClockSnapshot settings = clock.getSnapshot();
+        for (int i = 0; i < times.size(); i++)
+        {
+            final ZoneTime time = times.get(i);
+            final ClockSnapshot zone = ClockSnapshot.of(time.dateTime(), time.zone(),
+                    settings.showMilitaryTime(), settings.showFullDate(), settings.showPartialDate());
+            final int x = (i / rowsPerColumn) * columnWidth + 10;
+            final int y = (i % rowsPerColumn + 1) * rowHeight;
+            g.drawString(time.zone().getId()+SPACE+zone.dateText()+SPACE+zone.timeText(), x, y);
+        }
+    }
+
+    /** Returns the clock frame */
+    public ClockFrame getClockFrame() { return this.clockFrame; }
+    /** Returns the clock */
+    public Clock getClock() { return this.clock; }
+    /** Returns the world clock */
+    public WorldClock getWorldClock() { return this.worldClock; }
+    /** Returns the tick bus the panel is subscribed to, or null */
+    public TickBus getTickBus() { return this.tickBus; }
+
+    /** Sets the clock frame */
+    private void setClockFrame(ClockFrame clockFrame) { this.clockFrame = clockFrame; logger.debug("clockFrame set"); }
+    /** Sets the clock */
+    public void setClock(Clock clock) { this.clock = clock; logger.debug("clock set in WorldClockPanel"); }
+    /** Sets the world clock */
+    public void setWorldClock(WorldClock worldClock) { this.worldClock = worldClock; logger.debug("worldClock set"); }
+}
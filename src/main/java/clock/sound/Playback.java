@@ -0,0 +1,100 @@
+package clock.sound;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Playback
+ * <p>
+ * The handle to one play request given to the
+ * {@link SoundPlayer}. It can cancel the request, whether
+ * it is just made or already playing, and records
+ * how long the sound took to start and, once cancelled,
+ * how long it took to go silent.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class Playback
+{
+    /** What asked for the sound */
+    public enum Kind { ALARM, TIMER, OTHER }
+
+    private final Sound sound;
+    private final Kind kind;
+    private final long triggerNanos;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile boolean cancelled;
+    private volatile long startNanos = -1L,
+                          cancelNanos = -1L,
+                          silencedNanos = -1L;
+
+    /**
+     * Creates a play request
+     * @param sound the sound to play
+     * @param kind what asked for the sound
+     * @param triggerNanos the {@link System#nanoTime()} the sound was asked for
+     */
+    Playback(Sound sound, Kind kind, long triggerNanos)
+    {
+        this.sound = sound;
+        this.kind = kind;
+        this.triggerNanos = triggerNanos;
+    }
+
+    /**
+     * Cancels the request. A sound that is playing
+     * goes silent within one chunk of audio.
+     * @return true if the request had not finished yet
+     */
+    public boolean cancel()
+    {
+        if (isDone() || cancelled) return false;
+        cancelNanos = System.nanoTime();
+        cancelled = true;
+        return true;
+    }
+
+    /**
+     * Marks the time the first samples reached the line
+     * @return true if the request had not started before
+     */
+    synchronized boolean started()
+    {
+        if (startNanos != -1L) return false;
+        startNanos = System.nanoTime();
+        return true;
+    }
+
+    /** Marks the request as finished, and silenced if it was cancelled */
+    void finished()
+    {
+        if (cancelled) silencedNanos = System.nanoTime();
+        done.countDown();
+    }
+
+    /**
+     * Waits for the request to finish
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return true if it finished in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    { return done.await(timeout, unit); }
+
+    /** Returns what asked for the sound */
+    public Kind getKind() { return kind; }
+    /** Returns the sound being played */
+    public Sound getSound() { return sound; }
+    /** Returns whether the request was cancelled */
+    public boolean isCancelled() { return cancelled; }
+    /** Returns whether the sound has started playing */
+    public boolean isStarted() { return startNanos != -1L; }
+    /** Returns whether the request has finished, played out or cancelled */
+    public boolean isDone() { return done.getCount() == 0; }
+    /** Returns the time from the trigger to the first samples, or -1 if it never started */
+    public long getStartLatencyNanos() { return isStarted() ? startNanos - triggerNanos : -1L; }
+    /** Returns the time from the cancel to silence, or -1 if it was not cancelled */
+    public long getSilenceLatencyNanos() { return silencedNanos != -1L ? silencedNanos - cancelNanos : -1L; }
+}
@@ -0,0 +1,59 @@
+package clock.sound;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Sound
+ * <p>
+ * A sound decoded once into signed 16-bit little endian
+ * PCM, ready to be written to an audio line as it is.
+ * Sounds are made by the {@link SoundCache} and shared
+ * by every Alarm and Timer that plays them.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class Sound
+{
+    private final String name;
+    private final AudioFormat format;
+    private final byte[] pcm;
+    private final boolean truncated;
+
+    /**
+     * Creates a decoded sound
+     * @param name the classpath resource it was decoded from
+     * @param format the format of the PCM
+     * @param pcm the decoded samples, not copied
+     * @param truncated whether the decoding stopped at the cache's limit
+     */
+    Sound(String name, AudioFormat format, byte[] pcm, boolean truncated)
+    {
+        this.name = name;
+        this.format = format;
+        this.pcm = pcm;
+        this.truncated = truncated;
+    }
+
+    /** Returns the classpath resource the sound was decoded from */
+    public String getName() { return name; }
+    /** Returns the format of the PCM */
+    public AudioFormat getFormat() { return format; }
+    /** Returns the number of bytes of PCM the sound holds */
+    public int getSizeInBytes() { return pcm.length; }
+    /** Returns whether the sound was cut off at the cache's limit */
+    public boolean isTruncated() { return truncated; }
+    /** Returns how long the sound plays for, in milliseconds */
+    public long getDurationMillis()
+    { return (long) (pcm.length / (format.getFrameSize() * (double) format.getFrameRate()) * 1000); }
+    /** Returns the decoded samples. Callers must not change them */
+    byte[] pcm() { return pcm; }
+
+    /**
+     * Returns the sound's name, size and duration
+     * @return a string representation of the sound
+     */
+    @Override
+    public String toString()
+    { return name + " (" + pcm.length / 1024 + " KB, " + getDurationMillis() + " ms" + (truncated ? ", truncated" : "") + ")"; }
+}
@@ -0,0 +1,139 @@
+package clock.sound;
+
+import clock.exception.SoundException;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SoundCache
+ * <p>
+ * Decodes each MP3 on the classpath once into PCM and keeps
+ * it, so an alarm or timer that goes off every second plays
+ * the same decoded samples instead of reading and decoding
+ * the file again. Every Alarm and Timer shares the default
+ * cache.
+ * <p>
+ * The PCM kept for one sound is bounded: decoding stops once
+ * a sound reaches the cache's limit, and the sound is marked
+ * as truncated. The size of each sound, and of the cache, is
+ * logged when it is decoded and can be read back.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class SoundCache
+{
+    private static final Logger logger = LogManager.getLogger(SoundCache.class);
+    /** The sound played by alarms and timers */
+    public static final String ALARM_SOUND = "sounds/alarmSound1.mp3";
+    /** Every sound the clock plays, preloaded at startup */
+    public static final List<String> REGISTERED_SOUNDS = List.of(ALARM_SOUND);
+    /** The most PCM kept for one sound by default, 8 MB */
+    public static final int DEFAULT_MAX_BYTES_PER_SOUND = 8 * 1024 * 1024;
+
+    private final int maxBytesPerSound;
+    private final Map<String, Sound> sounds = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a sound cache
+     * @param maxBytesPerSound the most PCM kept for one sound
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public SoundCache(int maxBytesPerSound)
+    {
+        if (maxBytesPerSound <= 0) throw new IllegalArgumentException("maxBytesPerSound must be positive");
+        this.maxBytesPerSound = maxBytesPerSound;
+    }
+
+    /** Returns the cache shared by the clock's entities */
+    public static SoundCache getDefault() { return DefaultHolder.INSTANCE; }
+
+    /**
+     * Returns the decoded sound, decoding it
+     * the first time it is asked for
+     * @param resource the classpath resource of the MP3
+     * @return the decoded sound
+     * @throws SoundException if the resource is missing or cannot be decoded
+     */
+    public Sound get(String resource)
+    { return sounds.computeIfAbsent(resource, this::decode); }
+
+    /** Returns whether the sound has been decoded already */
+    public boolean contains(String resource) { return sounds.containsKey(resource); }
+    /** Returns the number of sounds decoded */
+    public int size() { return sounds.size(); }
+    /** Returns the total bytes of PCM kept by the cache */
+    public long getSizeInBytes()
+    { return sounds.values().stream().mapToLong(Sound::getSizeInBytes).sum(); }
+    /** Returns the most PCM kept for one sound */
+    public int getMaxBytesPerSound() { return maxBytesPerSound; }
+
+    /**
+     * Reads the MP3 frame by frame and
+     * collects the decoded samples
+     * @param resource the classpath resource of the MP3
+     * @return the decoded sound
+     */
+    private Sound decode(String resource)
+    {
+        final long start = System.nanoTime();
+        try (InputStream inputStream = ClassLoader.getSystemResourceAsStream(resource))
+        {
+            if (null == inputStream) throw new SoundException("Sound not found: " + resource);
+            final Bitstream bitstream = new Bitstream(inputStream);
+            final Decoder decoder = new Decoder();
+            final ByteArrayOutputStream pcm = new ByteArrayOutputStream(256 * 1024);
+            AudioFormat format = null;
+            boolean truncated = false;
+            try
+            {
+                Header header;
+                while (null != (header = bitstream.readFrame()))
+                {
+                    final SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+                    if (null == format)
+                    { format = new AudioFormat(output.getSampleFrequency(), 16, output.getChannelCount(), true, false); }
+                    final short[] samples = output.getBuffer();
+                    final int length = output.getBufferLength();
+                    if (pcm.size() + length * 2 > maxBytesPerSound) { truncated = true; break; }
+                    for (int i = 0; i < length; i++)
+                    {
+                        pcm.write(samples[i]);
+                        pcm.write(samples[i] >> 8);
+                    }
+                    bitstream.closeFrame();
+                }
+            }
+            finally
+            { bitstream.close(); }
+            if (null == format) throw new SoundException("No audio frames in " + resource);
+            final Sound sound = new Sound(resource, format, pcm.toByteArray(), truncated);
+            logger.info("decoded {} in {} ms, cache holds {} KB",
+                    sound, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    (getSizeInBytes() + sound.getSizeInBytes()) / 1024);
+            if (truncated) logger.warn("{} was cut off at {} bytes", resource, maxBytesPerSound);
+            return sound;
+        }
+        catch (JavaLayerException | IOException e)
+        { throw new SoundException("Could not decode " + resource, e); }
+    }
+
+    private static final class DefaultHolder
+    {
+        private static final SoundCache INSTANCE = new SoundCache(DEFAULT_MAX_BYTES_PER_SOUND);
+    }
+}
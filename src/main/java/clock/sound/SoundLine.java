@@ -0,0 +1,126 @@
+package clock.sound;
+
+import clock.exception.SoundException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * SoundLine
+ * <p>
+ * The one audio line the {@link SoundPlayer} writes its mix
+ * to. The line is opened the first time it is needed and
+ * kept open, and only reopened for another format.
+ * <p>
+ * The line is opened with a small buffer, {@value #BUFFER_CHUNKS}
+ * chunks of {@value #CHUNK_MILLIS} ms, so a sound dropped from
+ * the mix is not heard for long after. Silencing the line
+ * stops it and throws away what it still holds.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class SoundLine
+{
+    private static final Logger logger = LogManager.getLogger(SoundLine.class);
+    /** The length of audio mixed and written at a time */
+    static final int CHUNK_MILLIS = 10;
+    /** The number of chunks the line buffers */
+    static final int BUFFER_CHUNKS = 4;
+
+    /** Gets an unopened line for a format */
+    interface Opener
+    {
+        SourceDataLine get(AudioFormat format) throws LineUnavailableException;
+    }
+
+    private final Opener opener;
+    private SourceDataLine line;
+    private AudioFormat format;
+
+    /** Creates a sound line on the system's default mixer */
+    public SoundLine() { this(AudioSystem::getSourceDataLine); }
+
+    /**
+     * Creates a sound line that gets its lines from the opener
+     * @param opener gets an unopened line for a format
+     */
+    SoundLine(Opener opener) { this.opener = opener; }
+
+    /**
+     * Returns the number of bytes in one chunk of the format
+     * @param format the format of the audio
+     * @return the bytes in {@value #CHUNK_MILLIS} ms, in whole frames
+     */
+    static int chunkBytes(AudioFormat format)
+    { return Math.max(1, (int) (format.getFrameRate() * CHUNK_MILLIS / 1000)) * format.getFrameSize(); }
+
+    /**
+     * Writes the samples to the line, starting it if it is
+     * stopped, and blocks until the line has taken them all
+     * @param format the format of the samples
+     * @param pcm the samples
+     * @param length the number of bytes to write
+     * @throws SoundException if no line can be opened for the format
+     */
+    synchronized void write(AudioFormat format, byte[] pcm, int length)
+    {
+        final SourceDataLine output = open(format);
+        if (!output.isRunning()) output.start();
+        for (int offset = 0; offset < length; )
+        { offset += output.write(pcm, offset, length - offset); }
+    }
+
+    /**
+     * Opens the line for the format ahead of the first write
+     * @param format the format of the sounds to play
+     * @throws SoundException if no line can be opened for the format
+     */
+    synchronized void prepare(AudioFormat format) { open(format); }
+
+    /** Stops the line and throws away what it still holds */
+    synchronized void silence()
+    {
+        if (null == line) return;
+        line.stop();
+        line.flush();
+    }
+
+    /**
+     * Returns the open line, opening it, or
+     * reopening it if the format has changed
+     * @param format the format of the sound to play
+     * @return the open line
+     */
+    private SourceDataLine open(AudioFormat format)
+    {
+        if (null != line && line.isOpen() && format.matches(this.format)) return line;
+        close();
+        try
+        {
+            line = opener.get(format);
+            line.open(format, chunkBytes(format) * BUFFER_CHUNKS);
+            this.format = format;
+            logger.info("opened audio line for {}", format);
+            return line;
+        }
+        catch (LineUnavailableException | IllegalArgumentException | SecurityException e)
+        {
+            line = null;
+            throw new SoundException("No audio line for " + format, e);
+        }
+    }
+
+    /** Closes the line, if it is open */
+    public synchronized void close()
+    {
+        if (null == line) return;
+        line.close();
+        line = null;
+        format = null;
+    }
+}
@@ -0,0 +1,371 @@
+package clock.sound;
+
+import clock.engine.ClockLifecycle;
+import clock.engine.ClockThreads;
+import clock.exception.SoundException;
+import clock.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SoundPlayer
+ * <p>
+ * Mixes every sound the clock plays into one audio line, on
+ * one background thread, so whoever asks for a sound never
+ * waits for it to end. Alarms and timers submit a play request
+ * and get back a {@link Playback} handle; stopping, snoozing or
+ * pausing cancels the handle and the sound drops out of the mix
+ * within a few milliseconds.
+ * <p>
+ * Each sound being played is a voice. A request for a sound
+ * that already has a voice started within the de-duplication
+ * window joins that voice instead of starting another, so many
+ * alarms going off in the same second are heard as one. At most
+ * so many voices play at once; a request past that is dropped.
+ * The merged and dropped requests are counted.
+ * <p>
+ * The first voice picks the format of the line. A request for
+ * a sound of another format is dropped while voices are playing.
+ * <p>
+ * The time from each trigger to the sound's first samples is
+ * kept in a histogram for alarms and one for timers. A start
+ * slower than the budget, {@value #START_BUDGET_MILLIS} ms,
+ * is logged and counted. Sounds can be preloaded in the
+ * background, so the first alarm of the day does not pay
+ * for decoding its sound and opening the line.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class SoundPlayer
+{
+    private static final Logger logger = LogManager.getLogger(SoundPlayer.class);
+    /** The time within which requests for the same sound join one voice, by default */
+    public static final long DEFAULT_DEDUP_WINDOW_MILLIS = 1000L;
+    /** The most voices mixed at once, by default */
+    public static final int DEFAULT_MAX_VOICES = 4;
+    /** The most time a sound should take to start after its trigger */
+    public static final long START_BUDGET_MILLIS = 100L;
+
+    private final SoundLine line;
+    private final long dedupWindowNanos;
+    private final int maxVoices;
+    private final List<Voice> voices = new ArrayList<>();
+    private final Thread mixer;
+    private final AtomicLong requested = new AtomicLong(),
+                             merged = new AtomicLong(),
+                             dropped = new AtomicLong(),
+                             overBudget = new AtomicLong();
+    private final Map<Playback.Kind, LatencyHistogram> startLatencies = new EnumMap<>(Playback.Kind.class);
+    private volatile boolean running = true;
+
+    /**
+     * Creates a sound player and starts its mixing thread
+     * @param line the line the mix is written to
+     * @param threadFactory makes the mixing thread
+     * @param dedupWindowMillis the time within which requests for the same sound join one voice
+     * @param maxVoices the most voices mixed at once
+     * @throws IllegalArgumentException if the window is negative or the voices are not positive
+     */
+    public SoundPlayer(SoundLine line, ThreadFactory threadFactory, long dedupWindowMillis, int maxVoices)
+    {
+        if (dedupWindowMillis < 0 || maxVoices < 1) throw new IllegalArgumentException("dedupWindowMillis must be 0 or more and maxVoices 1 or more");
+        this.line = line;
+        this.dedupWindowNanos = TimeUnit.MILLISECONDS.toNanos(dedupWindowMillis);
+        this.maxVoices = maxVoices;
+        for (Playback.Kind kind : Playback.Kind.values()) startLatencies.put(kind, new LatencyHistogram());
+        this.mixer = threadFactory.newThread(this::mix);
+        this.mixer.start();
+    }
+
+    /** Returns the player shared by the clock's entities */
+    public static SoundPlayer getDefault() { return DefaultHolder.INSTANCE; }
+
+    /**
+     * Asks for the sound to be played and returns at once
+     * @param sound the sound to play
+     * @return the handle to the request
+     */
+    public Playback play(Sound sound)
+    { return play(sound, Playback.Kind.OTHER, System.nanoTime()); }
+
+    /**
+     * Asks for the sound to be played and returns at once.
+     * The request joins a voice of the same sound started
+     * within the window, starts a new voice, or is dropped
+     * when the most voices are already playing.
+     * @param sound the sound to play
+     * @param kind what asked for the sound
+     * @param triggerNanos the {@link System#nanoTime()} the sound was triggered
+     * @return the handle to the request
+     */
+    public Playback play(Sound sound, Playback.Kind kind, long triggerNanos)
+    {
+        final long now = System.nanoTime();
+        final Playback playback = new Playback(sound, kind, triggerNanos);
+        requested.incrementAndGet();
+        synchronized (this)
+        {
+            if (running)
+            {
+                for (Voice voice : voices)
+                {
+                    if (voice.sound == sound && now - voice.createdNanos < dedupWindowNanos && !voice.isDone())
+                    {
+                        voice.playbacks.add(playback);
+                        if (voice.started) started(playback);
+                        merged.incrementAndGet();
+                        logger.debug("merged a request for {} into its voice", sound.getName());
+                        return playback;
+                    }
+                }
+                if (voices.size() < maxVoices && (voices.isEmpty() || voices.getFirst().sound.getFormat().matches(sound.getFormat())))
+                {
+                    voices.add(new Voice(sound, playback, now));
+                    notifyAll();
+                    return playback;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+        logger.debug("dropped a request for {}, {} voices playing", sound.getName(), getActiveVoices());
+        playback.finished();
+        return playback;
+    }
+
+    /**
+     * Mixes one chunk of every voice at a time and writes it
+     * to the line. Requests that were cancelled leave their
+     * voice; a voice with no requests left, or that has played
+     * to its end, leaves the mix. When the mix is left empty
+     * by a cancel, the line is silenced at once.
+     */
+    private void mix()
+    {
+        final List<Voice> mixing = new ArrayList<>();
+        final List<Playback> finished = new ArrayList<>();
+        int[] sums = new int[0];
+        byte[] chunk = new byte[0];
+        while (running)
+        {
+            synchronized (this)
+            {
+                boolean cancelled = false;
+                for (Iterator<Voice> it = voices.iterator(); it.hasNext(); )
+                {
+                    final Voice voice = it.next();
+                    for (Playback playback : voice.playbacks)
+                    {
+                        if (!playback.isCancelled()) continue;
+                        voice.playbacks.remove(playback);
+                        finished.add(playback);
+                        cancelled = true;
+                    }
+                    if (voice.playbacks.isEmpty() || voice.isDone())
+                    {
+                        it.remove();
+                        finished.addAll(voice.playbacks);
+                    }
+                }
+                if (voices.isEmpty())
+                {
+                    if (cancelled) silence();
+                    finish(finished);
+                    try { wait(); }
+                    catch (InterruptedException e) { Thread.currentThread().interrupt(); running = false; }
+                    continue;
+                }
+                mixing.addAll(voices);
+            }
+            final AudioFormat format = mixing.getFirst().sound.getFormat();
+            final int chunkBytes = SoundLine.chunkBytes(format);
+            if (chunk.length < chunkBytes) { chunk = new byte[chunkBytes]; sums = new int[chunkBytes / 2]; }
+            Arrays.fill(sums, 0);
+            int length = 0;
+            for (Voice voice : mixing) length = Math.max(length, voice.mixInto(sums, chunkBytes));
+            for (int i = 0; i < length / 2; i++)
+            {
+                final int sample = Math.clamp(sums[i], Short.MIN_VALUE, Short.MAX_VALUE);
+                chunk[2 * i] = (byte) sample;
+                chunk[2 * i + 1] = (byte) (sample >> 8);
+            }
+            try
+            {
+                line.write(format, chunk, length);
+                synchronized (this)
+                {
+                    for (Voice voice : mixing)
+                    {
+                        if (voice.started) continue;
+                        voice.started = true;
+                        voice.playbacks.forEach(this::started);
+                    }
+                }
+            }
+            catch (SoundException e)
+            {
+                logger.error("Could not play {}: {}", mixing.getFirst().sound.getName(), e.getMessage());
+                for (Voice voice : mixing) voice.position = voice.sound.pcm().length;
+            }
+            mixing.clear();
+            finish(finished);
+        }
+    }
+
+    /**
+     * Marks the request as started and records the
+     * time from its trigger to the first samples
+     * @param playback the request whose voice reached the line
+     */
+    private void started(Playback playback)
+    {
+        if (!playback.started()) return;
+        final long latency = playback.getStartLatencyNanos();
+        startLatencies.get(playback.getKind()).record(latency);
+        if (latency > TimeUnit.MILLISECONDS.toNanos(START_BUDGET_MILLIS))
+        {
+            overBudget.incrementAndGet();
+            logger.warn("{} sound started {} ms after its trigger, over the {} ms budget",
+                    playback.getKind(), TimeUnit.NANOSECONDS.toMillis(latency), START_BUDGET_MILLIS);
+        }
+        else logger.debug("first sample {} us after the trigger", TimeUnit.NANOSECONDS.toMicros(latency));
+    }
+
+    /**
+     * Decodes the sounds and opens the line for them on a
+     * background thread, and returns without waiting.
+     * A sound that cannot be decoded or a line that
+     * cannot be opened is logged and skipped.
+     * @param cache the cache to decode the sounds into
+     * @param resources the classpath resources of the sounds
+     * @return the thread doing the preloading
+     */
+    public Thread preload(SoundCache cache, Collection<String> resources)
+    {
+        final List<String> sounds = List.copyOf(resources);
+        return ClockThreads.start(() -> {
+            final long start = System.nanoTime();
+            for (String resource : sounds)
+            {
+                try
+                {
+                    final Sound sound = cache.get(resource);
+                    line.prepare(sound.getFormat());
+                }
+                catch (SoundException e)
+                { logger.warn("Could not preload {}: {}", resource, e.getMessage()); }
+            }
+            logger.info("preloaded {} sounds in {} ms", sounds.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }, "sound-preload");
+    }
+
+    /** Silences the line, as the last voice left the mix on a cancel */
+    private void silence()
+    {
+        try { line.silence(); }
+        catch (RuntimeException e) { logger.error("Could not silence the line: {}", e.getMessage()); }
+    }
+
+    /** Marks the requests as finished and forgets them */
+    private static void finish(List<Playback> playbacks)
+    {
+        for (Playback playback : playbacks) playback.finished();
+        playbacks.clear();
+    }
+
+    /** Stops the mixing thread and closes the line */
+    public void shutdown()
+    {
+        synchronized (this)
+        {
+            running = false;
+            for (Voice voice : voices) voice.playbacks.forEach(Playback::finished);
+            voices.clear();
+            notifyAll();
+        }
+        mixer.interrupt();
+        line.close();
+        logger.debug("sound player shut down");
+    }
+
+    /** Returns how many play requests were made */
+    public long getRequested() { return requested.get(); }
+    /** Returns how many requests joined a voice already playing */
+    public long getMerged() { return merged.get(); }
+    /** Returns how many requests were dropped */
+    public long getDropped() { return dropped.get(); }
+    /** Returns how many sounds started later than the budget */
+    public long getOverBudget() { return overBudget.get(); }
+    /**
+     * Returns the histogram of the time from trigger to
+     * first samples for the sounds of the given kind
+     * @param kind what asked for the sounds
+     * @return the histogram
+     */
+    public LatencyHistogram getStartLatencies(Playback.Kind kind) { return startLatencies.get(kind); }
+    /** Returns how many voices are in the mix */
+    public synchronized int getActiveVoices() { return voices.size(); }
+
+    /**
+     * One sound in the mix, and the
+     * requests that are listening to it
+     */
+    private static final class Voice
+    {
+        private final Sound sound;
+        private final long createdNanos;
+        private final List<Playback> playbacks = new CopyOnWriteArrayList<>();
+        private volatile int position;
+        private volatile boolean started;
+
+        private Voice(Sound sound, Playback first, long createdNanos)
+        {
+            this.sound = sound;
+            this.createdNanos = createdNanos;
+            this.playbacks.add(first);
+        }
+
+        /** Returns whether the voice has played to its end */
+        private boolean isDone() { return position >= sound.pcm().length; }
+
+        /**
+         * Adds the voice's next chunk to the sums
+         * @param sums the mix, one int per sample
+         * @param chunkBytes the bytes in one chunk
+         * @return the number of bytes added
+         */
+        private int mixInto(int[] sums, int chunkBytes)
+        {
+            final byte[] pcm = sound.pcm();
+            final int length = Math.min(chunkBytes, pcm.length - position);
+            for (int i = 0; i < length / 2; i++)
+            {
+                final int at = position + 2 * i;
+                sums[i] += (short) ((pcm[at + 1] << 8) | (pcm[at] & 0xFF));
+            }
+            position += length;
+            return length;
+        }
+    }
+
+    private static final class DefaultHolder
+    {
+        private static final SoundPlayer INSTANCE = new SoundPlayer(new SoundLine(),
+                ClockThreads.factory("sound-mixer"), DEFAULT_DEDUP_WINDOW_MILLIS, DEFAULT_MAX_VOICES);
+        static { ClockLifecycle.getDefault().register("sound-mixer", INSTANCE::shutdown); }
+    }
+}
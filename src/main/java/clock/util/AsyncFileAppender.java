@@ -0,0 +1,177 @@
+package clock.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AsyncFileAppender
+ * <p>
+ * Hands log events to a single background writer, so the
+ * thread that logs never waits on the log files. Events go
+ * into a bounded ring buffer, and the writer takes them out
+ * in batches and appends each batch to the file appenders,
+ * marking the last event of a batch as its end.
+ * <p>
+ * When the buffer fills up, DEBUG and TRACE events are
+ * dropped first: they are only let in while the buffer is
+ * less than three quarters full. INFO and above are never
+ * dropped; when the buffer is full they wait for room.
+ * The number of dropped events is counted.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class AsyncFileAppender extends AbstractAppender
+{
+    /** The number of events the buffer holds by default */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    /** The most events appended in one batch */
+    static final int MAX_BATCH = 128;
+
+    private final Appender[] appenders;
+    private final BlockingQueue<LogEvent> buffer;
+    private final int debugLimit;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * Creates an async file appender
+     * @param name the name of the appender
+     * @param bufferSize the number of events the buffer holds
+     * @param threadFactory makes the writer thread
+     * @param appenders the appenders the writer appends to
+     */
+    public AsyncFileAppender(String name, int bufferSize, ThreadFactory threadFactory, Appender... appenders)
+    {
+        super(name, null, null, true, Property.EMPTY_ARRAY);
+        if (bufferSize < 4) throw new IllegalArgumentException("bufferSize must be 4 or more");
+        this.appenders = appenders.clone();
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.debugLimit = bufferSize - bufferSize / 4;
+        this.writer = threadFactory.newThread(this::write);
+    }
+
+    @Override
+    public void start()
+    {
+        running = true;
+        writer.start();
+        super.start();
+    }
+
+    /**
+     * Puts the event in the buffer, dropping it
+     * if it is DEBUG or TRACE and the buffer is
+     * three quarters full
+     * @param event the event to log
+     */
+    @Override
+    public void append(LogEvent event)
+    {
+        if (!running) { appendAll(Log4jLogEvent.createMemento(event, true)); return; }
+        final boolean droppable = event.getLevel().isLessSpecificThan(Level.DEBUG);
+        if (droppable && buffer.size() >= debugLimit) { dropped.incrementAndGet(); return; }
+        final LogEvent memento = Log4jLogEvent.createMemento(event, true);
+        if (droppable)
+        {
+            if (!buffer.offer(memento)) dropped.incrementAndGet();
+            return;
+        }
+        try
+        { buffer.put(memento); }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            appendAll(memento);
+        }
+    }
+
+    /** Takes batches out of the buffer until stopped and the buffer is empty */
+    private void write()
+    {
+        final List<LogEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !buffer.isEmpty())
+        {
+            try
+            {
+                final LogEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (null == first) continue;
+                batch.add(first);
+            }
+            catch (InterruptedException e)
+            {
+                if (!running) buffer.drainTo(batch);
+                else continue;
+            }
+            buffer.drainTo(batch, MAX_BATCH - batch.size());
+            if (batch.isEmpty()) continue;
+            if (batch.getLast() instanceof Log4jLogEvent last) last.setEndOfBatch(true);
+            for (LogEvent event : batch) appendAll(event);
+            written.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    /** Appends the event to each file appender */
+    private void appendAll(LogEvent event)
+    {
+        for (Appender appender : appenders)
+        {
+            try
+            { if (appender.isStarted()) appender.append(event); }
+            catch (RuntimeException e)
+            { error("Failed to append to " + appender.getName(), event, e); }
+        }
+    }
+
+    /**
+     * Stops taking events, lets the writer empty the
+     * buffer, and waits for it to finish
+     * @param timeout how long to wait for the writer
+     * @param timeUnit the unit of the timeout
+     * @return true if the writer finished in time
+     */
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit)
+    {
+        setStopping();
+        running = false;
+        boolean stopped = true;
+        try
+        {
+            if (timeout > 0) writer.join(Math.max(1, timeUnit.toMillis(timeout)));
+            else writer.join();
+            stopped = !writer.isAlive();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            stopped = false;
+        }
+        setStopped();
+        return stopped;
+    }
+
+    /** Returns the appenders the writer appends to */
+    public Appender[] getAppenders() { return appenders.clone(); }
+    /** Returns how many DEBUG and TRACE events were dropped */
+    public long getDropped() { return dropped.get(); }
+    /** Returns how many events the writer appended */
+    public long getWritten() { return written.get(); }
+    /** Returns how many events are waiting in the buffer */
+    public int getQueued() { return buffer.size(); }
+}
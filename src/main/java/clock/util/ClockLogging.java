@@ -0,0 +1,178 @@
+package clock.util;
+
+import clock.engine.ClockLifecycle;
+import clock.engine.ClockThreads;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ClockLogging
+ * <p>
+ * Switches the log files between being written on the
+ * thread that logs, as log4j2.properties sets them up, and
+ * being written by one background writer. In async mode the
+ * MasterFile, DailyFile and InstanceFile appenders are taken
+ * off the root logger and put behind an {@link AsyncFileAppender}.
+ * The console is always written on the thread that logs.
+ * <p>
+ * The mode is read from the {@value #LOGGING_MODE_PROPERTY}
+ * system property, {@code sync} or {@code async}, and
+ * defaults to sync. It can also be set from the command
+ * line with {@code --logging=async}. The size of the async
+ * buffer is read from {@value #BUFFER_SIZE_PROPERTY}.
+ * When the {@link ClockLifecycle} stops, the writer empties
+ * its buffer and the files go back to sync mode.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class ClockLogging
+{
+    private static final Logger logger = LogManager.getLogger(ClockLogging.class);
+    /** The system property that selects the logging mode */
+    public static final String LOGGING_MODE_PROPERTY = "clock.logging";
+    /** The system property that sets the size of the async buffer */
+    public static final String BUFFER_SIZE_PROPERTY = "clock.logging.bufferSize";
+    /** The command line argument prefix that selects the logging mode */
+    public static final String LOGGING_MODE_ARG = "--logging=";
+    /** The name of the appender the files are put behind in async mode */
+    public static final String ASYNC_APPENDER_NAME = "AsyncFiles";
+    /** The names of the file appenders in log4j2.properties */
+    static final List<String> FILE_APPENDERS = List.of("MasterFile", "DailyFile", "InstanceFile");
+
+    /** How the log files are written */
+    public enum Mode
+    {
+        SYNC, ASYNC;
+
+        /**
+         * Returns the mode with the given name, ignoring case
+         * @param name the name of the mode
+         * @return the mode
+         * @throws IllegalArgumentException if there is no mode with that name
+         */
+        public static Mode of(String name)
+        {
+            if (null == name) throw new IllegalArgumentException("Logging mode must not be null");
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static Mode mode = Mode.SYNC;
+    private static Runnable unregister; // takes the writer off the lifecycle once back in sync mode
+
+    private ClockLogging() {}
+
+    /**
+     * Reads the logging mode from the system property and
+     * then the command line, if it is given, applies it,
+     * and returns the remaining arguments.
+     * @param args the command line arguments
+     * @return the arguments without the logging mode
+     * @throws IllegalArgumentException if the logging mode is not known
+     */
+    public static String[] configure(String[] args)
+    {
+        Mode selected = modeFromProperty();
+        if (null != args)
+        {
+            for (String arg : args)
+            {
+                if (arg.startsWith(LOGGING_MODE_ARG))
+                    selected = Mode.of(arg.substring(LOGGING_MODE_ARG.length()));
+            }
+        }
+        setMode(selected);
+        if (null == args) return null;
+        return Arrays.stream(args)
+                .filter(arg -> !arg.startsWith(LOGGING_MODE_ARG))
+                .toArray(String[]::new);
+    }
+
+    /** Returns the mode read from the system property, or sync */
+    private static Mode modeFromProperty()
+    {
+        final String value = System.getProperty(LOGGING_MODE_PROPERTY);
+        if (null == value) return Mode.SYNC;
+        try
+        { return Mode.of(value); }
+        catch (IllegalArgumentException e)
+        {
+            logger.warn("Unknown logging mode '{}', logging synchronously", value);
+            return Mode.SYNC;
+        }
+    }
+
+    /** Returns the size of the async buffer from the system property, or the default */
+    private static int bufferSize()
+    {
+        final String value = System.getProperty(BUFFER_SIZE_PROPERTY);
+        if (null == value) return AsyncFileAppender.DEFAULT_BUFFER_SIZE;
+        try
+        { return Math.max(4, Integer.parseInt(value.trim())); }
+        catch (NumberFormatException e)
+        {
+            logger.warn("Unknown logging buffer size '{}', using {}", value, AsyncFileAppender.DEFAULT_BUFFER_SIZE);
+            return AsyncFileAppender.DEFAULT_BUFFER_SIZE;
+        }
+    }
+
+    /** Returns the current logging mode */
+    public static synchronized Mode getMode() { return mode; }
+
+    /**
+     * Sets how the log files are written. Switching back
+     * to sync mode waits for the writer to empty its buffer.
+     * @param mode the logging mode
+     */
+    public static synchronized void setMode(Mode mode)
+    {
+        if (null == mode) throw new IllegalArgumentException("Logging mode must not be null");
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        final Configuration configuration = context.getConfiguration();
+        final LoggerConfig root = configuration.getRootLogger();
+        final boolean async = root.getAppenders().get(ASYNC_APPENDER_NAME) instanceof AsyncFileAppender;
+        if (mode == Mode.ASYNC && !async)
+        {
+            final List<Appender> files = new ArrayList<>();
+            for (String name : FILE_APPENDERS)
+            {
+                final Appender file = root.getAppenders().get(name);
+                if (null == file) continue;
+                files.add(file);
+                root.removeAppender(name);
+            }
+            final AsyncFileAppender asyncFiles = new AsyncFileAppender(ASYNC_APPENDER_NAME, bufferSize(),
+                    ClockThreads.factory("log-writer"), files.toArray(Appender[]::new));
+            asyncFiles.start();
+            configuration.addAppender(asyncFiles);
+            root.addAppender(asyncFiles, null, null);
+            context.updateLoggers();
+            unregister = ClockLifecycle.getDefault().register("log-writer", () -> setMode(Mode.SYNC));
+        }
+        else if (mode == Mode.SYNC && async)
+        {
+            final AsyncFileAppender asyncFiles = (AsyncFileAppender) root.getAppenders().get(ASYNC_APPENDER_NAME);
+            for (Appender file : asyncFiles.getAppenders()) root.addAppender(file, null, null);
+            root.removeAppender(ASYNC_APPENDER_NAME);
+            configuration.getAppenders().remove(ASYNC_APPENDER_NAME);
+            context.updateLoggers();
+            asyncFiles.stop();
+            if (null != unregister) unregister.run();
+            unregister = null;
+            if (asyncFiles.getDropped() > 0)
+                logger.warn("async logging dropped {} debug events", asyncFiles.getDropped());
+        }
+        ClockLogging.mode = mode;
+        logger.info("logging mode set to {}", mode);
+    }
+}
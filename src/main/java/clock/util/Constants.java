@@ -89,6 +89,11 @@ public class Constants {
     public static final String AMERICA_NEW_YORK = "America/New_York";
     public static final String PACIFIC_HONOLULU = "Pacific/Honolulu";
     public static final String AMERICA_DENVER = "America/Denver";
+    public static final String EUROPE_LONDON = "Europe/London";
+    public static final String EUROPE_PARIS = "Europe/Paris";
+    public static final String ASIA_KOLKATA = "Asia/Kolkata";
+    public static final String ASIA_TOKYO = "Asia/Tokyo";
+    public static final String AUSTRALIA_SYDNEY = "Australia/Sydney";
 
     //String
 
@@ -144,6 +149,8 @@ public class Constants {
     public static final String WEEKENDS = "Weekends";
     public static final String VIEW_DIGITAL_CLOCK = "View Digital Clock";
     public static final String VIEW_ANALOGUE_CLOCK = "View Analogue Clock";
+    public static final String VIEW_WORLD_CLOCK = "View World Clock";
+    public static final String WORLD = "World";
 
     // Stopwatch
     public static final String ELAPSED = "Elapsed";
@@ -0,0 +1,92 @@
+package clock.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram
+ * <p>
+ * Counts latencies in buckets that double in width, so a
+ * few dozen counters cover a microsecond up to an hour.
+ * Bucket 0 holds latencies under one microsecond, and
+ * bucket n those from 2<sup>n-1</sup> up to 2<sup>n</sup>
+ * microseconds. Recording is lock free and may be done
+ * from any thread. Percentiles are read as the upper
+ * edge of the bucket they fall in.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class LatencyHistogram
+{
+    /** The number of buckets */
+    static final int BUCKETS = 32;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(),
+                             maxNanos = new AtomicLong();
+
+    /**
+     * Records one latency
+     * @param nanos the latency, in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        final long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Returns the bucket the latency falls in */
+    static int bucketOf(long micros)
+    { return micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)); }
+
+    /** Returns the number of latencies recorded */
+    public long getCount() { return count.get(); }
+    /** Returns the largest latency recorded, in nanoseconds */
+    public long getMaxNanos() { return maxNanos.get(); }
+    /** Returns the number of latencies in each bucket */
+    public long[] getCounts()
+    {
+        final long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+        return copy;
+    }
+
+    /**
+     * Returns the upper edge of the bucket the
+     * given percentile of latencies falls in
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency, in microseconds, or 0 if none were recorded
+     */
+    public long getPercentileMicros(double percentile)
+    {
+        final long[] snapshot = getCounts();
+        long total = 0;
+        for (long c : snapshot) total += c;
+        if (total == 0) return 0L;
+        final long rank = Math.max(1L, (long) Math.ceil(total * Math.clamp(percentile, 0.0, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank) return 1L << i;
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * Returns the count, the median, 99th percentile and max
+     * @return a summary of the histogram
+     */
+    @Override
+    public String toString()
+    {
+        return "count=" + getCount()
+                + " p50<=" + getPercentileMicros(50) + "us"
+                + " p99<=" + getPercentileMicros(99) + "us"
+                + " max=" + TimeUnit.NANOSECONDS.toMicros(getMaxNanos()) + "us";
+    }
+}
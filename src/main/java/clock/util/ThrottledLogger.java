@@ -0,0 +1,168 @@
+package clock.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * ThrottledLogger
+ * <p>
+ * Logs one call site that runs on every tick or every
+ * frame, without letting it flood the logs. A throttled
+ * logger either lets at most so many messages through a
+ * second, or only every nth message. Messages take their
+ * values as parameters, so a message that is held back,
+ * or whose level is off, is never formatted. When a rate
+ * limited call site starts a new second, the number of
+ * messages held back in the second before is logged once.
+ * <p>
+ * Each call site keeps its own throttled logger, usually
+ * in a static final field next to the class's logger.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class ThrottledLogger
+{
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final Level level;
+    private final int perSecond, every;
+    private final LongSupplier nanoTime;
+    private long calls, logged, heldBack, heldBackThisSecond;
+    private long secondStart = Long.MIN_VALUE;
+    private int loggedThisSecond;
+
+    /**
+     * Creates a throttled logger
+     * @param logger the logger to write to
+     * @param level the level of the call site
+     * @param perSecond how many messages a second are let through, or 0 to sample
+     * @param every let every nth message through, when sampling
+     * @param nanoTime the monotonic time, in nanoseconds
+     */
+    ThrottledLogger(Logger logger, Level level, int perSecond, int every, LongSupplier nanoTime)
+    {
+        if (perSecond < 0 || every < 1) throw new IllegalArgumentException("perSecond must be 0 or more and every must be 1 or more");
+        this.logger = logger;
+        this.level = level;
+        this.perSecond = perSecond;
+        this.every = every;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Creates a throttled logger that lets at most
+     * so many messages through each second
+     * @param logger the logger to write to
+     * @param level the level of the call site
+     * @param perSecond how many messages a second are let through
+     * @return the throttled logger
+     */
+    public static ThrottledLogger perSecond(Logger logger, Level level, int perSecond)
+    { return new ThrottledLogger(logger, level, Math.max(1, perSecond), 1, System::nanoTime); }
+
+    /**
+     * Creates a throttled logger that lets the first
+     * message through, then every nth message after it
+     * @param logger the logger to write to
+     * @param level the level of the call site
+     * @param every let every nth message through
+     * @return the throttled logger
+     */
+    public static ThrottledLogger sampled(Logger logger, Level level, int every)
+    { return new ThrottledLogger(logger, level, 0, Math.max(1, every), System::nanoTime); }
+
+    /** Returns true if the level of the call site is on */
+    public boolean isEnabled() { return logger.isEnabled(level); }
+
+    /**
+     * Returns true if the next message of the call site is let
+     * through, for call sites whose values are costly to work
+     * out. It counts as a call, so log the message when true.
+     * @return true if the message should be logged
+     */
+    public boolean permits()
+    { return isEnabled() && letThrough(null); }
+
+    /**
+     * Logs the message, if it is let through
+     * @param message the message
+     */
+    public void log(String message)
+    { if (isEnabled() && letThrough(message)) logger.log(level, message); }
+
+    /**
+     * Logs the message, if it is let through
+     * @param message the message, with a {} for the parameter
+     * @param p0 the parameter
+     */
+    public void log(String message, Object p0)
+    { if (isEnabled() && letThrough(message)) logger.log(level, message, p0); }
+
+    /**
+     * Logs the message, if it is let through
+     * @param message the message, with a {} for each parameter
+     * @param p0 the first parameter
+     * @param p1 the second parameter
+     */
+    public void log(String message, Object p0, Object p1)
+    { if (isEnabled() && letThrough(message)) logger.log(level, message, p0, p1); }
+
+    /**
+     * Logs the message, if it is let through
+     * @param message the message, with a {} for each parameter
+     * @param p0 the first parameter
+     * @param p1 the second parameter
+     * @param p2 the third parameter
+     */
+    public void log(String message, Object p0, Object p1, Object p2)
+    { if (isEnabled() && letThrough(message)) logger.log(level, message, p0, p1, p2); }
+
+    /** Returns how many messages were let through */
+    public synchronized long getLogged() { return logged; }
+    /** Returns how many messages were held back */
+    public synchronized long getHeldBack() { return heldBack; }
+
+    /**
+     * Decides if this call is let through, and logs how many
+     * were held back in the second before, if any were
+     * @param message the message, for the held back line, or null
+     * @return true if the message should be logged
+     */
+    private boolean letThrough(String message)
+    {
+        final boolean pass;
+        long heldBackBefore = 0;
+        synchronized (this)
+        {
+            if (perSecond > 0)
+            {
+                final long now = nanoTime.getAsLong();
+                if (secondStart == Long.MIN_VALUE || now - secondStart >= ONE_SECOND)
+                {
+                    heldBackBefore = heldBackThisSecond;
+                    heldBackThisSecond = 0;
+                    loggedThisSecond = 0;
+                    secondStart = now;
+                }
+                pass = loggedThisSecond < perSecond;
+                if (pass) loggedThisSecond++;
+            }
+            else
+            { pass = calls % every == 0; }
+            calls++;
+            if (pass) logged++;
+            else { heldBack++; if (perSecond > 0) heldBackThisSecond++; }
+        }
+        if (heldBackBefore > 0)
+        {
+            if (null != message) logger.log(level, "held back {} messages like: {}", heldBackBefore, message);
+            else logger.log(level, "held back {} messages", heldBackBefore);
+        }
+        return pass;
+    }
+}
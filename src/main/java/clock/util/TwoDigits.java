@@ -0,0 +1,35 @@
+package clock.util;
+
+/**
+ * TwoDigits
+ * <p>
+ * The numbers 00 to 99 as two digit strings, built once
+ * and interned, so setting the hours, minutes or seconds
+ * on every tick looks a string up instead of building one.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+public final class TwoDigits
+{
+    private static final String[] DIGITS = new String[100];
+    static
+    {
+        for (int i = 0; i < DIGITS.length; i++)
+        { DIGITS[i] = ((i <= 9 ? Constants.ZERO : Constants.EMPTY) + i).intern(); }
+    }
+
+    private TwoDigits() {}
+
+    /**
+     * Returns the value as two digits, like 05.
+     * Values outside 0-99 are written out as they are.
+     * @param value the value to write
+     * @return the value as a string of at least two digits
+     */
+    public static String of(int value)
+    {
+        if (value >= 0 && value < DIGITS.length) return DIGITS[value];
+        return Integer.toString(value);
+    }
+}
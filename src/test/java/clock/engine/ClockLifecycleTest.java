@@ -0,0 +1,147 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ClockLifecycle} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class ClockLifecycleTest
+{
+    private static final Logger logger = LogManager.getLogger(ClockLifecycleTest.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private ClockLifecycle lifecycle;
+
+    @BeforeAll
+    static void beforeClass() { logger.info("Starting {}...", ClockLifecycleTest.class.getSimpleName()); }
+
+    @BeforeEach
+    void beforeEach() { lifecycle = new ClockLifecycle(); }
+
+    @AfterEach
+    void afterEach() { lifecycle.stop(TIMEOUT); }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", ClockLifecycleTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Live threads are counted by type and none survive stop")
+    void testCountsAndStops() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(3);
+        for (int i = 0; i < 2; i++)
+            lifecycle.track(ClockThreads.start(() -> parkUntilInterrupted(started), "lifecycle-sleeper-" + i), "sleeper");
+        final ExecutorService pool = Executors.newSingleThreadExecutor(
+                lifecycle.tracking("pool", ClockThreads.factory("lifecycle-pool")));
+        pool.execute(() -> parkUntilInterrupted(started));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Map.of("pool", 1, "sleeper", 2), lifecycle.getLiveCounts());
+
+        final List<Thread> survivors = lifecycle.stop(TIMEOUT);
+
+        assertTrue(survivors.isEmpty(), () -> "Threads survived stop: " + survivors);
+        assertTrue(lifecycle.getLiveCounts().isEmpty(), "No thread should be counted once stopped");
+    }
+
+    @Test
+    @DisplayName("Owners are stopped in the reverse order they were registered")
+    void testOwnersStopInReverseOrder()
+    {
+        final List<String> stopped = new ArrayList<>();
+        lifecycle.register("first", () -> stopped.add("first"));
+        lifecycle.register("second", () -> stopped.add("second"));
+        final Runnable unregister = lifecycle.register("gone", () -> stopped.add("gone"));
+        lifecycle.register("failing", () -> { throw new IllegalStateException("fails to stop"); });
+        unregister.run();
+
+        assertTrue(lifecycle.stop(TIMEOUT).isEmpty());
+        assertEquals(List.of("second", "first"), stopped, "A failing owner should not stop the others");
+
+        assertTrue(lifecycle.stop(TIMEOUT).isEmpty());
+        assertEquals(2, stopped.size(), "Owners are only stopped once");
+    }
+
+    @Test
+    @DisplayName("A thread that ignores interrupts is reported as a survivor")
+    void testSurvivorsAreReported() throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread stubborn = lifecycle.track(ClockThreads.start(() -> {
+            while (release.getCount() > 0)
+            {
+                try { release.await(); }
+                catch (InterruptedException ignored) { /* keeps going */ }
+            }
+        }, "lifecycle-stubborn"), "stubborn");
+
+        final List<Thread> survivors = lifecycle.stop(Duration.ofMillis(100));
+
+        assertEquals(List.of(stubborn), survivors);
+        assertEquals(1, lifecycle.getLiveCount("stubborn"));
+        release.countDown();
+        stubborn.join(TIMEOUT);
+        assertEquals(0, lifecycle.getLiveCount("stubborn"));
+    }
+
+    @Test
+    @DisplayName("A scheduler, a timing wheel and a tick loop all end when the lifecycle stops")
+    void testWorkersEndOnStop() throws Exception
+    {
+        final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2,
+                lifecycle.tracking("scheduler", ClockThreads.factory("lifecycle-scheduler")));
+        lifecycle.register("scheduler", scheduler::shutdownNow);
+        final TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, "lifecycle-wheel");
+        lifecycle.register("wheel", wheel::shutdown);
+        final TickEngine engine = new TickEngine(Duration.ofMillis(1), () -> {});
+        final CountDownLatch ticking = new CountDownLatch(1);
+        scheduler.execute(() -> { ticking.countDown(); engine.run(); });
+        wheel.schedule(() -> {}, 1, TimeUnit.SECONDS);
+        assertTrue(ticking.await(5, TimeUnit.SECONDS));
+
+        final List<Thread> survivors = lifecycle.stop(TIMEOUT);
+
+        assertTrue(survivors.isEmpty(), () -> "Threads survived stop: " + survivors);
+        assertTrue(scheduler.isTerminated() || scheduler.awaitTermination(1, TimeUnit.SECONDS));
+        assertFalse(wheel.isRunning());
+    }
+
+    @Test
+    @DisplayName("Threads from ClockThreads are tracked by the default lifecycle")
+    void testClockThreadsAreTracked() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final Thread thread = ClockThreads.start(() -> parkUntilInterrupted(started), "lifecycle-default-test");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, ClockLifecycle.getDefault().getLiveCount("lifecycle-default-test"));
+
+        thread.interrupt();
+        thread.join(TIMEOUT.toMillis());
+        assertEquals(0, ClockLifecycle.getDefault().getLiveCount("lifecycle-default-test"));
+    }
+
+    /** Parks the calling thread until it is interrupted */
+    private static void parkUntilInterrupted(CountDownLatch started)
+    {
+        started.countDown();
+        while (!Thread.currentThread().isInterrupted()) LockSupport.park();
+    }
+}
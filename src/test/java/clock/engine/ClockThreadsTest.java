@@ -0,0 +1,140 @@
+package clock.engine;
+
+import clock.entity.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ClockThreads} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class ClockThreadsTest
+{
+    private static final Logger logger = LogManager.getLogger(ClockThreadsTest.class);
+    private static final int SOAK_TIMERS = 100_000;
+
+    private ClockThreads.Mode modeBefore;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", ClockThreadsTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        modeBefore = ClockThreads.getMode();
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        ClockThreads.setMode(modeBefore);
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", ClockThreadsTest.class.getSimpleName()); }
+
+    @ParameterizedTest
+    @DisplayName("Threads are made in the selected mode")
+    @EnumSource(ClockThreads.Mode.class)
+    void testThreadsAreMadeInTheSelectedMode(ClockThreads.Mode mode)
+    {
+        ClockThreads.setMode(mode);
+        final Thread thread = ClockThreads.newThread(() -> {}, "test-thread");
+        final Thread fromFactory = ClockThreads.factory("test-factory").newThread(() -> {});
+
+        assertEquals(mode == ClockThreads.Mode.VIRTUAL, thread.isVirtual());
+        assertEquals(mode == ClockThreads.Mode.VIRTUAL, fromFactory.isVirtual());
+        assertTrue(thread.isDaemon(), "Clock threads should never keep the application alive");
+        assertEquals("test-thread", thread.getName());
+        assertEquals("test-factory-0", fromFactory.getName());
+    }
+
+    @Test
+    @DisplayName("The thread mode is read from the command line and removed from the arguments")
+    void testConfigureReadsTheThreadMode()
+    {
+        ClockThreads.setMode(ClockThreads.Mode.PLATFORM);
+        final String[] rest = ClockThreads.configure(new String[]{"--threads=Virtual", "panel_alarm"});
+
+        assertEquals(ClockThreads.Mode.VIRTUAL, ClockThreads.getMode());
+        assertArrayEquals(new String[]{"panel_alarm"}, rest);
+        assertNull(ClockThreads.configure(null));
+        assertThrows(IllegalArgumentException.class, () -> ClockThreads.configure(new String[]{"--threads=green"}));
+    }
+
+    @Test
+    @Tag("soak")
+    @DisplayName("Soak: 100k timers started on platform threads and on virtual threads")
+    void testSoakOneHundredThousandTimers() throws InterruptedException
+    {
+        final SoakResult platform = soak(ClockThreads.Mode.PLATFORM);
+        final SoakResult virtual = soak(ClockThreads.Mode.VIRTUAL);
+        logger.info("100k timers, platform: {}", platform);
+        logger.info("100k timers, virtual:  {}", virtual);
+
+        final int carriers = Runtime.getRuntime().availableProcessors();
+        assertTrue(virtual.peakPlatformThreads() <= carriers + 4,
+                "Virtual mode should only add carrier threads but added " + virtual.peakPlatformThreads());
+    }
+
+    // Helper methods
+    /**
+     * Creates and starts {@value #SOAK_TIMERS} timers, each started
+     * from its own thread made in the given mode, and measures
+     * how many platform threads, how much heap and how long it took.
+     */
+    private SoakResult soak(ClockThreads.Mode mode) throws InterruptedException
+    {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final Runtime runtime = Runtime.getRuntime();
+        final List<Timer> timers = new ArrayList<>(SOAK_TIMERS);
+        for (int i = 0; i < SOAK_TIMERS; i++) timers.add(new Timer(1, 0, 0));
+        System.gc();
+        final long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        final int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        final ThreadFactory factory = ClockThreads.factory(mode, "soak-" + mode.name().toLowerCase());
+        final CountDownLatch started = new CountDownLatch(SOAK_TIMERS);
+        final long start = System.nanoTime();
+        for (Timer timer : timers)
+        {
+            factory.newThread(() -> {
+                timer.startTimer();
+                started.countDown();
+            }).start();
+        }
+        assertTrue(started.await(2, TimeUnit.MINUTES), "Every timer should start");
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        final int peak = threads.getPeakThreadCount() - threadsBefore;
+
+        timers.forEach(Timer::stopTimer);
+        return new SoakResult(elapsedMillis, peak, (heapAfter - heapBefore) / 1024);
+    }
+
+    private record SoakResult(long startupMillis, int peakPlatformThreads, long heapKb)
+    {
+        @Override
+        public String toString()
+        { return "startup " + startupMillis + "ms, peak extra platform threads " + peakPlatformThreads + ", heap +" + heapKb + "kB"; }
+    }
+}
@@ -0,0 +1,136 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static clock.util.Constants.AMERICA_CHICAGO;
+import static clock.util.Constants.PACIFIC_HONOLULU;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link DstTransitions} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class DstTransitionsTest
+{
+    private static final Logger logger = LogManager.getLogger(DstTransitionsTest.class);
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", DstTransitionsTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        DstTransitions.clear();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", DstTransitionsTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("The transitions of a year come from the zone's rules")
+    void testTransitionsOfAYear()
+    {
+        final ZoneId chicago = ZoneId.of(AMERICA_CHICAGO);
+        final List<ZoneOffsetTransition> transitions = DstTransitions.forYear(chicago, 2022);
+
+        assertEquals(2, transitions.size());
+        assertTrue(transitions.get(0).isGap());
+        assertEquals(LocalDateTime.of(2022, 3, 13, 2, 0), transitions.get(0).getDateTimeBefore());
+        assertTrue(transitions.get(1).isOverlap());
+        assertEquals(LocalDateTime.of(2022, 11, 6, 2, 0), transitions.get(1).getDateTimeBefore());
+        assertTrue(DstTransitions.forYear(ZoneId.of(PACIFIC_HONOLULU), 2022).isEmpty());
+        assertTrue(DstTransitions.forYear(ZoneOffset.UTC, 2022).isEmpty());
+    }
+
+    @Test
+    @DisplayName("The next transition is found by local time and by instant")
+    void testNextTransition()
+    {
+        final ZoneId chicago = ZoneId.of(AMERICA_CHICAGO);
+        final ZoneOffsetTransition fallBack = DstTransitions.next(chicago, LocalDateTime.of(2022, 11, 6, 1, 59, 59));
+        assertEquals(LocalDateTime.of(2022, 11, 6, 2, 0), fallBack.getDateTimeBefore());
+
+        final ZoneOffsetTransition afterFallBack = DstTransitions.next(chicago, fallBack.getInstant());
+        assertEquals(LocalDateTime.of(2023, 3, 12, 2, 0), afterFallBack.getDateTimeBefore(),
+                "Looking from the instant of a change should find the change after it");
+        assertNull(DstTransitions.next(ZoneId.of(PACIFIC_HONOLULU), LocalDateTime.of(2022, 1, 1, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Each zone keeps one entry as the years go by")
+    void testCacheKeepsOneEntryPerZone()
+    {
+        final ZoneId chicago = ZoneId.of(AMERICA_CHICAGO);
+        for (int year = 2000; year < 2100; year++) DstTransitions.forYear(chicago, year);
+        DstTransitions.forYear(ZoneId.of("Europe/Berlin"), 2022);
+
+        assertEquals(2, DstTransitions.size());
+        assertEquals(DstTransitions.forYear(chicago, 2099), DstTransitions.forYear(chicago, 2099));
+    }
+
+    @Test
+    @DisplayName("Benchmark: 100 years of ticks in every zone finds every transition")
+    void testOneHundredYearsInEveryZone()
+    {
+        final Instant start = LocalDateTime.of(2000, 1, 1, 0, 0).toInstant(ZoneOffset.UTC);
+        final Instant end = LocalDateTime.of(2100, 1, 1, 0, 0).toInstant(ZoneOffset.UTC);
+        final Duration step = Duration.ofHours(6);
+        long ticks = 0, found = 0, expected = 0, nanos = 0;
+        for (String id : ZoneId.getAvailableZoneIds())
+        {
+            final ZoneId zone = ZoneId.of(id);
+            expected += countTransitions(zone.getRules(), start, end);
+
+            final long begin = System.nanoTime();
+            ZoneOffsetTransition next = DstTransitions.next(zone, start);
+            int year = 2000;
+            for (Instant now = start; now.isBefore(end); now = now.plus(step), ticks++)
+            {
+                // the tick path: one comparison with the next change
+                while (null != next && !now.isBefore(next.getInstant()))
+                {
+                    found++;
+                    next = DstTransitions.next(zone, next.getInstant());
+                }
+                final int nowYear = now.atOffset(ZoneOffset.UTC).getYear();
+                if (nowYear != year)
+                {
+                    year = nowYear;
+                    if (null == next) next = DstTransitions.next(zone, now); // a new year, look again
+                }
+            }
+            nanos += System.nanoTime() - begin;
+        }
+        logger.info("100 years in {} zones: {} ticks found {} transitions in {}ms",
+                ZoneId.getAvailableZoneIds().size(), ticks, found, TimeUnit.NANOSECONDS.toMillis(nanos));
+
+        assertEquals(expected, found, "Every transition of every zone should be found");
+        assertEquals(ZoneId.getAvailableZoneIds().size(), DstTransitions.size());
+    }
+
+    // Helper methods
+    private long countTransitions(ZoneRules rules, Instant start, Instant end)
+    {
+        long count = 0;
+        for (ZoneOffsetTransition t = rules.nextTransition(start); null != t && t.getInstant().isBefore(end); t = rules.nextTransition(t.getInstant()))
+            count++;
+        return count;
+    }
+}
@@ -0,0 +1,111 @@
+package clock.engine;
+
+import clock.contract.IClockTickListener;
+import clock.entity.Clock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TickBus} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class TickBusTest
+{
+    private static final Logger logger = LogManager.getLogger(TickBusTest.class);
+
+    private Queue<Runnable> dispatched;
+    private TickBus tickBus;
+    private Clock clock;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", TickBusTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        dispatched = new ArrayDeque<>();
+        tickBus = new TickBus(dispatched::add);
+        clock = new Clock();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", TickBusTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Ticks published before a delivery runs are delivered once")
+    void testTicksAreCoalesced()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        tickBus.subscribe(c -> calls.incrementAndGet());
+
+        tickBus.publish(clock);
+        tickBus.publish(clock);
+        tickBus.publish(clock);
+        assertEquals(1, dispatched.size(), "Only one delivery should be queued");
+
+        runDispatched();
+        assertEquals(1, calls.get());
+        assertEquals(3, tickBus.getPublishedCount());
+        assertEquals(1, tickBus.getDeliveredCount());
+
+        tickBus.publish(clock);
+        runDispatched();
+        assertEquals(2, calls.get(), "A tick after the delivery should be delivered again");
+    }
+
+    @Test
+    @DisplayName("Nothing is queued while there are no listeners")
+    void testNoDeliveryWithoutListeners()
+    {
+        tickBus.publish(clock);
+        assertTrue(dispatched.isEmpty());
+
+        final IClockTickListener listener = c -> {};
+        tickBus.subscribe(listener);
+        tickBus.subscribe(listener);
+        assertEquals(1, tickBus.getListenerCount(), "A listener should only be added once");
+        tickBus.unsubscribe(listener);
+        assertFalse(tickBus.isSubscribed(listener));
+    }
+
+    @Test
+    @DisplayName("A failing listener does not stop the others")
+    void testFailingListenerDoesNotStopTheOthers()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        tickBus.subscribe(c -> { throw new IllegalStateException("Mocked failure"); });
+        tickBus.subscribe(c -> calls.incrementAndGet());
+
+        tickBus.publish(clock);
+        runDispatched();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Clock publishes on every tick")
+    void testClockPublishesTicks()
+    {
+        final int before = (int) clock.getTickBus().getPublishedCount();
+        clock.tick();
+        clock.tick();
+        assertEquals(before + 2, clock.getTickBus().getPublishedCount());
+    }
+
+    // Helper methods
+    private void runDispatched()
+    {
+        while (!dispatched.isEmpty()) dispatched.poll().run();
+    }
+}
@@ -0,0 +1,151 @@
+package clock.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TickEngine} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class TickEngineTest
+{
+    private static final Logger logger = LogManager.getLogger(TickEngineTest.class);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong now;
+    private AtomicInteger ticks;
+    private TickEngine engine;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", TickEngineTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        now = new AtomicLong(1_000L);
+        ticks = new AtomicInteger();
+        engine = new TickEngine(Duration.ofSeconds(1), ticks::incrementAndGet, now::get);
+        engine.anchor(now.get());
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", TickEngineTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("No tick runs before its deadline")
+    void testNoTickBeforeDeadline()
+    {
+        now.addAndGet(SECOND - 1);
+        assertEquals(0, engine.runDueTicks(now.get()));
+        assertEquals(0, ticks.get());
+    }
+
+    @Test
+    @DisplayName("A late tick is measured against its absolute deadline")
+    void testJitterIsMeasuredAgainstDeadline()
+    {
+        now.addAndGet(SECOND + 2_000_000L);
+        assertEquals(1, engine.runDueTicks(now.get()));
+        assertEquals(2_000_000L, engine.getLastJitterNanos());
+
+        // the next deadline is still anchor + 2s, not 1s after the late tick
+        now.addAndGet(SECOND - 2_000_000L);
+        assertEquals(1, engine.runDueTicks(now.get()));
+        assertEquals(0L, engine.getLastJitterNanos());
+        assertEquals(0L, engine.getCumulativeDriftNanos());
+        assertEquals(2_000_000L, engine.getMaxJitterNanos());
+        assertEquals(1_000_000L, engine.getMeanJitterNanos());
+    }
+
+    @Test
+    @DisplayName("Missed ticks are caught up in order after a pause")
+    void testCatchUpAfterPause()
+    {
+        now.addAndGet(5 * SECOND + SECOND / 2);
+        assertEquals(5, engine.runDueTicks(now.get()), "Every missed tick should run");
+        assertEquals(5, ticks.get());
+        assertEquals(4, engine.getCatchUpTicks());
+        assertEquals(SECOND / 2, engine.getCumulativeDriftNanos());
+
+        assertEquals(0, engine.runDueTicks(now.get()), "Ticks should not run twice");
+    }
+
+    @Test
+    @DisplayName("An engine with a catch-up task makes up missed ticks in one call")
+    void testCatchUpInOneCall()
+    {
+        final AtomicLong caughtUp = new AtomicLong();
+        engine = new TickEngine(Duration.ofSeconds(1), ticks::incrementAndGet, caughtUp::addAndGet, now::get);
+        engine.anchor(now.get());
+
+        now.addAndGet(5 * SECOND + SECOND / 2);
+        assertEquals(5, engine.runDueTicks(now.get()));
+        assertEquals(0, ticks.get(), "No tick should be run one at a time");
+        assertEquals(5, caughtUp.get(), "The catch-up task should be told how many ticks came due");
+        assertEquals(4, engine.getCatchUpTicks());
+        assertEquals(4 * SECOND + SECOND / 2, engine.getLastJitterNanos(), "The first missed tick sets the jitter");
+        assertEquals(SECOND / 2, engine.getCumulativeDriftNanos());
+
+        now.addAndGet(SECOND);
+        assertEquals(1, engine.runDueTicks(now.get()));
+        assertEquals(1, ticks.get(), "A single tick should run as usual");
+        assertEquals(5, caughtUp.get());
+    }
+
+    @Test
+    @DisplayName("Slow ticks do not accumulate drift")
+    void testSlowTicksDoNotDrift() throws InterruptedException
+    {
+        final AtomicInteger realTicks = new AtomicInteger();
+        final TickEngine realEngine = new TickEngine(Duration.ofMillis(10), () -> {
+            realTicks.incrementAndGet();
+            sleep(4); // work done during a tick
+        });
+        final Thread thread = new Thread(realEngine, "tick-engine-test");
+        thread.start();
+        sleep(500);
+        thread.interrupt();
+        thread.join(1000);
+
+        logger.info("ticks: {} mean jitter: {}µs max jitter: {}µs drift: {}µs", realEngine.getTicks(),
+                realEngine.getMeanJitterNanos() / 1_000, realEngine.getMaxJitterNanos() / 1_000,
+                realEngine.getCumulativeDriftNanos() / 1_000);
+        assertFalse(thread.isAlive(), "Engine should stop when interrupted");
+        assertTrue(realTicks.get() >= 45, "Expected about 50 ticks in 500ms but got " + realTicks.get());
+        assertTrue(realEngine.getCumulativeDriftNanos() < TimeUnit.MILLISECONDS.toNanos(10),
+                "Drift should stay below one period");
+    }
+
+    @Test
+    @DisplayName("A period that is not positive is rejected")
+    void testInvalidPeriod()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new TickEngine(Duration.ZERO, () -> {}));
+        assertThrows(IllegalArgumentException.class, () -> new TickEngine(Duration.ofSeconds(-1), () -> {}));
+    }
+
+    // Helper methods
+    private static void sleep(int time)
+    {
+        try {
+            Thread.sleep(time);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package clock.engine;
+
+import clock.entity.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TimingWheel} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class TimingWheelTest
+{
+    private static final Logger logger = LogManager.getLogger(TimingWheelTest.class);
+
+    private TimingWheel wheel;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", TimingWheelTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, "test-timing-wheel");
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        wheel.shutdown();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", TimingWheelTest.class.getSimpleName()); }
+
+    @ParameterizedTest
+    @DisplayName("One-time tasks run once after their delay, including delays that cascade")
+    @ValueSource(longs = {0, 5, 63, 64, 65, 300})
+    void testScheduleRunsOnceAfterDelay(long delay) throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final TimingWheel.Timeout timeout = wheel.schedule(latch::countDown, delay, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(delay + 2000, TimeUnit.MILLISECONDS), "Task should have run");
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= delay, "Task ran early after " + elapsed + "ms");
+        waitFor(timeout::isExpired);
+        assertEquals(0, wheel.getScheduledCount(), "Nothing should be left scheduled");
+    }
+
+    @Test
+    @DisplayName("Periodic tasks repeat until cancelled")
+    void testScheduleAtFixedRateRepeatsUntilCancelled()
+    {
+        final AtomicInteger runs = new AtomicInteger();
+        final TimingWheel.Timeout timeout = wheel.scheduleAtFixedRate(runs::incrementAndGet, 0, 5, TimeUnit.MILLISECONDS);
+
+        waitFor(() -> runs.get() >= 5);
+        assertTrue(timeout.cancel(), "First cancel should succeed");
+        assertFalse(timeout.cancel(), "Second cancel should do nothing");
+        final int runsAtCancel = runs.get();
+        sleep(50);
+
+        assertTrue(timeout.isCancelled());
+        assertTrue(runs.get() <= runsAtCancel + 1, "Task should stop running once cancelled");
+        assertEquals(0, wheel.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("Cancelled tasks never run")
+    void testCancelledTaskNeverRuns()
+    {
+        final AtomicInteger runs = new AtomicInteger();
+        final TimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+        sleep(60);
+
+        assertEquals(0, runs.get(), "Cancelled task should not run");
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    @DisplayName("A failing task does not stop the wheel")
+    void testFailingTaskDoesNotStopTheWheel() throws InterruptedException
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+        wheel.schedule(() -> { throw new IllegalStateException("Mocked failure"); }, 0, TimeUnit.MILLISECONDS);
+        wheel.schedule(latch::countDown, 5, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS), "Wheel should keep running after a task fails");
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0, TimeUnit.MILLISECONDS, "bad"));
+        assertThrows(IllegalArgumentException.class, () -> wheel.scheduleAtFixedRate(() -> {}, 0, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(null, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, wheel::advance, "Only a manual wheel can be advanced by hand");
+        wheel.shutdown();
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> {}, 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("A manual wheel runs a year of tasks in order, going straight to the ticks with work on them")
+    void testManualWheelSkipsToBusyTicks()
+    {
+        final VirtualTimeSource time = new VirtualTimeSource();
+        final TimingWheel manual = TimingWheel.manual(1, TimeUnit.MILLISECONDS, time);
+        final List<String> ran = new ArrayList<>();
+        manual.schedule(() -> ran.add("year"), 365, TimeUnit.DAYS);
+        manual.schedule(() -> ran.add("minute"), 1, TimeUnit.MINUTES);
+        manual.schedule(() -> ran.add("day"), 1, TimeUnit.DAYS);
+        final TimingWheel.Timeout hourly = manual.scheduleAtFixedRate(() -> ran.add("hour"), 1, 1, TimeUnit.HOURS);
+        assertTrue(manual.nextDueNanos() <= TimeUnit.MINUTES.toNanos(1), "The first task is due within a minute");
+
+        final long start = System.nanoTime();
+        time.advance(Duration.ofHours(2));
+        manual.advance();
+        hourly.cancel();
+        time.advance(Duration.ofDays(366));
+        manual.advance();
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("minute", "hour", "hour", "day", "year"), ran);
+        assertEquals(Long.MAX_VALUE, manual.nextDueNanos(), "Nothing should be left to run");
+        assertTrue(elapsed < 1_000, "A year on a 1ms wheel took " + elapsed + "ms");
+        manual.shutdown();
+    }
+
+    @Test
+    @DisplayName("Benchmark: 10k timers on the wheel do not add threads or much memory")
+    void testTenThousandTimersKeepThreadCountConstant()
+    {
+        TimingWheel.getDefault(); // a timer starts on the shared wheel, so its thread is counted in the baseline
+        final int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        final long rssBefore = residentSetKb();
+
+        final List<Timer> timers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+        {
+            final Timer timer = new Timer((i % 12) + 1, i % 60, i % 60);
+            timer.setTimingWheel(wheel);
+            timer.startTimer();
+            timers.add(timer);
+        }
+
+        final int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+        final long rssAfter = residentSetKb();
+        final int scheduled = wheel.getScheduledCount();
+        logger.info("10k timers: threads {} -> {}, RSS {}kB -> {}kB, scheduled {}",
+                threadsBefore, threadsAfter, rssBefore, rssAfter, scheduled);
+        timers.forEach(Timer::stopTimer);
+
+        assertEquals(10_000, scheduled, "Every timer should have its deadline on the wheel");
+        assertEquals(0, wheel.getScheduledCount(), "Stopping the timers should take their deadlines off");
+        assertTrue(threadsAfter - threadsBefore <= 1, "Thread count grew from " + threadsBefore + " to " + threadsAfter);
+        if (rssBefore > 0 && rssAfter > 0)
+            assertTrue(rssAfter - rssBefore < 64 * 1024, "RSS grew by " + (rssAfter - rssBefore) + "kB");
+    }
+
+    // Helper methods
+    /** Returns the resident set size of this process in kB, or -1 if it cannot be read */
+    private static long residentSetKb()
+    {
+        try
+        {
+            return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst().orElse(-1L);
+        }
+        catch (IOException | RuntimeException e)
+        { return -1L; }
+    }
+
+    private void waitFor(BooleanSupplier condition)
+    {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) sleep(1);
+        assertTrue(condition.getAsBoolean(), "Condition was not met in time");
+    }
+
+    private void sleep(int time)
+    {
+        try {
+            Thread.sleep(time);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package clock.engine;
+
+import clock.engine.WorldClock.ZoneTime;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static clock.util.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link WorldClock} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class WorldClockTest
+{
+    private static final Logger logger = LogManager.getLogger(WorldClockTest.class);
+    // 2022-03-13 07:59:58 UTC, two seconds before Chicago springs forward
+    private static final Instant BEFORE_SPRING_FORWARD = LocalDateTime.of(2022, 3, 13, 7, 59, 58).toInstant(ZoneOffset.UTC);
+
+    private WorldClock worldClock;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", WorldClockTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        worldClock = new WorldClock(List.of(ZoneId.of(AMERICA_CHICAGO), ZoneId.of(ASIA_TOKYO), ZoneId.of(EUROPE_LONDON)));
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", WorldClockTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Every zone's local time is worked out from the one instant")
+    void testEveryZoneFromOneInstant()
+    {
+        worldClock.update(BEFORE_SPRING_FORWARD);
+
+        assertEquals(LocalDateTime.of(2022, 3, 13, 1, 59, 58), worldClock.localDateTime(ZoneId.of(AMERICA_CHICAGO)));
+        assertEquals(LocalDateTime.of(2022, 3, 13, 16, 59, 58), worldClock.localDateTime(ZoneId.of(ASIA_TOKYO)));
+        assertEquals(LocalDateTime.of(2022, 3, 13, 7, 59, 58), worldClock.localDateTime(ZoneId.of(EUROPE_LONDON)));
+        assertEquals(List.of(ZoneId.of(AMERICA_CHICAGO), ZoneId.of(ASIA_TOKYO), ZoneId.of(EUROPE_LONDON)), worldClock.getZones());
+    }
+
+    @Test
+    @DisplayName("An offset is only looked up again when the zone's transition is crossed")
+    void testOffsetIsLookedUpOnlyAtTransitions()
+    {
+        worldClock.update(BEFORE_SPRING_FORWARD);
+        worldClock.update(BEFORE_SPRING_FORWARD.plusSeconds(1));
+        assertEquals(3, worldClock.getOffsetLookups(), "Each zone should look up its offset once");
+
+        worldClock.update(BEFORE_SPRING_FORWARD.plusSeconds(2));
+        assertEquals(4, worldClock.getOffsetLookups(), "Only Chicago crossed a transition");
+        assertEquals(LocalDateTime.of(2022, 3, 13, 3, 0, 0), worldClock.localDateTime(ZoneId.of(AMERICA_CHICAGO)));
+
+        worldClock.update(BEFORE_SPRING_FORWARD.minusSeconds(1));
+        assertEquals(7, worldClock.getOffsetLookups(), "Going back in time should look every offset up again");
+        assertEquals(LocalDateTime.of(2022, 3, 13, 1, 59, 57), worldClock.localDateTime(ZoneId.of(AMERICA_CHICAGO)));
+    }
+
+    @Test
+    @DisplayName("Zones can be added and removed")
+    void testAddAndRemoveZones()
+    {
+        worldClock.update(BEFORE_SPRING_FORWARD);
+        assertTrue(worldClock.addZone(ZoneId.of(AUSTRALIA_SYDNEY)));
+        assertFalse(worldClock.addZone(ZoneId.of(AUSTRALIA_SYDNEY)), "A zone should only be shown once");
+        assertEquals(LocalDateTime.of(2022, 3, 13, 18, 59, 58), worldClock.localDateTime(ZoneId.of(AUSTRALIA_SYDNEY)),
+                "An added zone should get its time straight away");
+
+        assertTrue(worldClock.removeZone(ZoneId.of(ASIA_TOKYO)));
+        assertNull(worldClock.localDateTime(ZoneId.of(ASIA_TOKYO)));
+        assertEquals(3, worldClock.getTimes().size());
+    }
+
+    @Test
+    @DisplayName("Benchmark: every available zone, ticking once a second for an hour")
+    void testEveryZoneForAnHour()
+    {
+        final WorldClock everyZone = new WorldClock(ZoneId.getAvailableZoneIds().stream().sorted().map(ZoneId::of).toList());
+        final Instant start = LocalDateTime.of(2022, 3, 27, 0, 30).toInstant(ZoneOffset.UTC);
+        final int ticks = 60 * 60;
+        final long begin = System.nanoTime();
+        for (int i = 0; i < ticks; i++) everyZone.update(start.plusSeconds(i));
+        final long elapsed = System.nanoTime() - begin;
+        logger.info("{} zones for {} ticks: {}ms, {} offset lookups",
+                everyZone.getZones().size(), ticks, TimeUnit.NANOSECONDS.toMillis(elapsed), everyZone.getOffsetLookups());
+
+        final Instant end = start.plusSeconds(ticks - 1);
+        for (ZoneTime time : everyZone.getTimes())
+            assertEquals(LocalDateTime.ofInstant(end, time.zone()), time.dateTime(), time.zone().getId());
+        assertTrue(everyZone.getOffsetLookups() < 2L * everyZone.getZones().size(),
+                "Offsets should only be looked up at the start and at transitions");
+    }
+}
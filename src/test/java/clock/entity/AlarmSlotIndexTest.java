@@ -0,0 +1,154 @@
+package clock.entity;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static clock.util.Constants.AM;
+import static clock.util.Constants.PM;
+import static java.time.DayOfWeek.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link AlarmSlotIndex} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class AlarmSlotIndexTest
+{
+    private static final Logger logger = LogManager.getLogger(AlarmSlotIndexTest.class);
+
+    private Clock clock;
+    private AlarmSlotIndex index;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", AlarmSlotIndexTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        clock = new Clock();
+        index = new AlarmSlotIndex();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", AlarmSlotIndexTest.class.getSimpleName()); }
+
+    @ParameterizedTest
+    @DisplayName("The minute of the day is worked out from the hours, minutes and AM/PM")
+    @MethodSource("minuteOfDayCases")
+    void testMinuteOfDay(int hours, int minutes, String ampm, int expected)
+    {
+        final Alarm alarm = new Alarm("Minute", hours, minutes, ampm, new ArrayList<>(List.of(MONDAY)), false, clock);
+        assertEquals(expected, AlarmSlotIndex.minuteOfDay(alarm));
+    }
+    private static Stream<Arguments> minuteOfDayCases()
+    {
+        return Stream.of(
+                Arguments.of(12, 0, AM, 0),
+                Arguments.of(12, 30, PM, 750),
+                Arguments.of(7, 30, AM, 450),
+                Arguments.of(11, 59, PM, 1439)
+        );
+    }
+
+    @Test
+    @DisplayName("An alarm is found under each of its days and nowhere else")
+    void testAlarmIsFiledUnderItsDays()
+    {
+        final Alarm alarm = new Alarm("Filed", 7, 30, AM, new ArrayList<>(List.of(MONDAY, WEDNESDAY, MONDAY)), false, clock);
+        index.add(alarm);
+
+        assertEquals(List.of(alarm), index.alarmsAt(MONDAY, 450), "A repeated day should only be filed once");
+        assertEquals(List.of(alarm), index.alarmsAt(WEDNESDAY, 450));
+        assertTrue(index.alarmsAt(TUESDAY, 450).isEmpty());
+        assertTrue(index.alarmsAt(MONDAY, 451).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.alarmsAt(MONDAY, AlarmSlotIndex.MINUTES_PER_DAY));
+    }
+
+    @Test
+    @DisplayName("Adding an alarm again moves it to its new slots")
+    void testAddingAgainMovesTheAlarm()
+    {
+        final Alarm alarm = new Alarm("Moved", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        index.add(alarm);
+        alarm.setMinutes(45);
+        alarm.setDays(new ArrayList<>(List.of(FRIDAY)));
+        index.add(alarm);
+
+        assertEquals(1, index.size());
+        assertTrue(index.alarmsAt(MONDAY, 450).isEmpty(), "The old slot should be empty");
+        assertEquals(List.of(alarm), index.alarmsAt(FRIDAY, 465));
+    }
+
+    @Test
+    @DisplayName("A removed alarm leaves the other alarms in its slot")
+    void testRemoveKeepsTheOtherAlarms()
+    {
+        final Alarm first = new Alarm("First", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        final Alarm second = new Alarm("Second", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        final Alarm third = new Alarm("Third", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        index.add(first);
+        index.add(second);
+        index.add(third);
+
+        assertTrue(index.remove(first));
+        assertFalse(index.remove(first), "Removing twice should do nothing");
+        assertEquals(2, index.alarmsAt(MONDAY, 450).size());
+        assertFalse(index.alarmsAt(MONDAY, 450).contains(first));
+
+        final Alarm fourth = new Alarm("Fourth", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        index.add(fourth);
+        assertEquals(3, index.alarmsAt(MONDAY, 450).size(), "A freed id should be reused");
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.alarmsAt(MONDAY, 450).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Clock keeps the index up to date as alarms are added and removed")
+    void testClockUpdatesTheIndex()
+    {
+        final Alarm alarm = new Alarm("Clock", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.addAlarm(alarm);
+        assertTrue(clock.getAlarmIndex().contains(alarm));
+
+        clock.removeAlarm(alarm);
+        assertFalse(clock.getAlarmIndex().contains(alarm));
+    }
+
+    @Test
+    @DisplayName("Benchmark: looking up a slot does not depend on how many alarms there are")
+    void testLookupWithManyAlarms()
+    {
+        final DayOfWeek[] days = DayOfWeek.values();
+        for (int i = 0; i < 100_000; i++)
+        {
+            final Alarm alarm = new Alarm("Bench" + i, (i % 12) + 1, i % 60, i % 2 == 0 ? AM : PM,
+                    new ArrayList<>(List.of(days[i % 7])), false, clock);
+            index.add(alarm);
+        }
+        final long start = System.nanoTime();
+        int found = 0;
+        for (int minute = 0; minute < AlarmSlotIndex.MINUTES_PER_DAY; minute++)
+            found += index.alarmsAt(TUESDAY, minute).size();
+        final long elapsed = System.nanoTime() - start;
+        logger.info("100k alarms: a day of slot lookups found {} alarms in {}µs", found, TimeUnit.NANOSECONDS.toMicros(elapsed));
+
+        assertEquals(100_000, index.size());
+        assertTrue(found > 0);
+    }
+}
@@ -0,0 +1,196 @@
+package clock.entity;
+
+import clock.entity.AlarmState.Phase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link AlarmState} class
+ * <p>
+ * The property tests run random sequences of moves, each
+ * from a fixed seed so a failure can be run again, and
+ * check them against the table of allowed transitions.
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class AlarmStateTest
+{
+    private static final Logger logger = LogManager.getLogger(AlarmStateTest.class);
+    private static final Phase[] PHASES = Phase.values();
+    private static final int[] FLAGS = {AlarmState.ACTIVATED_TODAY, AlarmState.PAUSED, AlarmState.UPDATING};
+
+    @BeforeAll
+    static void beforeClass() { logger.info("Starting {}...", AlarmStateTest.class.getSimpleName()); }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", AlarmStateTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("An alarm starts armed with no flags set")
+    void testStartsArmed()
+    {
+        AlarmState state = new AlarmState();
+        assertEquals(Phase.ARMED, state.getPhase());
+        for (int flag : FLAGS) assertFalse(state.has(flag));
+    }
+
+    @Test
+    @DisplayName("An alarm rings, snoozes, rings again and stops")
+    void testLifecycle()
+    {
+        AlarmState state = new AlarmState();
+        assertEquals(Phase.ARMED, state.moveTo(Phase.RINGING));
+        assertEquals(Phase.RINGING, state.moveTo(Phase.SNOOZED));
+        assertEquals(Phase.SNOOZED, state.moveTo(Phase.RINGING));
+        assertEquals(Phase.RINGING, state.moveTo(Phase.STOPPED));
+        assertEquals(Phase.STOPPED, state.moveTo(Phase.ARMED));
+        assertEquals(Phase.ARMED, state.getPhase());
+    }
+
+    @Test
+    @DisplayName("Illegal moves throw and leave the state as it was")
+    void testIllegalMovesFailFast()
+    {
+        AlarmState state = new AlarmState();
+        state.setFlag(AlarmState.PAUSED, true);
+        assertThrows(IllegalStateException.class, () -> state.moveTo(Phase.STOPPED));
+        assertThrows(IllegalStateException.class, () -> state.moveTo(Phase.ARMED));
+        state.moveTo(Phase.SNOOZED);
+        assertThrows(IllegalStateException.class, () -> state.moveTo(Phase.SNOOZED));
+        assertThrows(IllegalStateException.class, () -> state.move(EnumSet.of(Phase.RINGING), Phase.ARMED, 0, 0),
+                "Asking for a move that is never allowed throws even when it would not be made");
+        assertEquals(Phase.SNOOZED, state.getPhase());
+        assertTrue(state.has(AlarmState.PAUSED));
+    }
+
+    @Test
+    @DisplayName("A move is not made when a blocking flag is set")
+    void testBlockingFlag()
+    {
+        AlarmState state = new AlarmState();
+        state.setFlag(AlarmState.PAUSED, true);
+        assertNull(state.move(EnumSet.of(Phase.ARMED), Phase.RINGING, AlarmState.PAUSED, AlarmState.ACTIVATED_TODAY));
+        assertEquals(Phase.ARMED, state.getPhase());
+        assertFalse(state.has(AlarmState.ACTIVATED_TODAY));
+
+        state.setFlag(AlarmState.PAUSED, false);
+        assertEquals(Phase.ARMED, state.move(EnumSet.of(Phase.ARMED), Phase.RINGING, AlarmState.PAUSED, AlarmState.ACTIVATED_TODAY));
+        assertEquals(Phase.RINGING, state.getPhase());
+        assertTrue(state.has(AlarmState.ACTIVATED_TODAY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L, 2025L, 31337L})
+    @DisplayName("Random moves and flag changes match the transition table")
+    void testRandomSequencesMatchTheModel(long seed)
+    {
+        Random random = new Random(seed);
+        AlarmState state = new AlarmState();
+        Phase phase = Phase.ARMED;
+        int flags = 0;
+        for (int step = 0; step < 10_000; step++)
+        {
+            if (random.nextInt(3) == 0)
+            {
+                int flag = FLAGS[random.nextInt(FLAGS.length)];
+                boolean set = random.nextBoolean();
+                state.setFlag(flag, set);
+                flags = set ? flags | flag : flags & ~flag;
+            }
+            else
+            {
+                Phase to = PHASES[random.nextInt(PHASES.length)];
+                if (phase.canMoveTo(to))
+                {
+                    assertEquals(phase, state.moveTo(to), "seed " + seed + " step " + step);
+                    phase = to;
+                }
+                else
+                {
+                    final Phase from = phase;
+                    assertThrows(IllegalStateException.class, () -> state.moveTo(to),
+                            "seed " + seed + " step " + step + ": " + from + " to " + to);
+                }
+            }
+            assertEquals(phase, state.getPhase(), "seed " + seed + " step " + step);
+            for (int flag : FLAGS)
+                assertEquals((flags & flag) != 0, state.has(flag), "seed " + seed + " step " + step);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {3L, 11L, 97L})
+    @DisplayName("Concurrent moves each leave one phase and enter another, and flags are never lost")
+    void testConcurrentMovesConserveThePhase(long seed) throws Exception
+    {
+        final int threads = 8, steps = 20_000;
+        AlarmState state = new AlarmState();
+        AtomicIntegerArray entered = new AtomicIntegerArray(PHASES.length),
+                           left = new AtomicIntegerArray(PHASES.length);
+        CountDownLatch ready = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+            {
+                final Random random = new Random(seed * 31 + t);
+                final int ownFlag = FLAGS[t % FLAGS.length];
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    for (int i = 0; i < steps; i++)
+                    {
+                        Phase to = PHASES[random.nextInt(PHASES.length)];
+                        Set<Phase> from = allowedFrom(to);
+                        Phase was = state.move(from, to, 0, 0);
+                        if (null != was)
+                        {
+                            assertTrue(was.canMoveTo(to), was + " to " + to);
+                            left.incrementAndGet(was.ordinal());
+                            entered.incrementAndGet(to.ordinal());
+                        }
+                        if (random.nextInt(64) == 0) state.setFlag(ownFlag, true);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        }
+        finally { pool.shutdownNow(); }
+
+        for (Phase phase : PHASES)
+        {
+            int expected = (phase == state.getPhase() ? 1 : 0) - (phase == Phase.ARMED ? 1 : 0);
+            assertEquals(expected, entered.get(phase.ordinal()) - left.get(phase.ordinal()),
+                    "Every move into " + phase + " should be matched by a move out of it, bar the first and last");
+        }
+        for (int flag : FLAGS) assertTrue(state.has(flag), "A flag set during the moves should not be lost");
+    }
+
+    /** Returns the phases that can move to the given one */
+    private static Set<Phase> allowedFrom(Phase to)
+    {
+        Set<Phase> from = EnumSet.noneOf(Phase.class);
+        for (Phase phase : PHASES) if (phase.canMoveTo(to)) from.add(phase);
+        return from;
+    }
+}
@@ -2,7 +2,6 @@ package clock.entity;
 
 import clock.exception.InvalidInputException;
 import javazoom.jl.decoder.JavaLayerException;
-import javazoom.jl.player.advanced.AdvancedPlayer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.*;
@@ -12,16 +11,17 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoField;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -46,8 +46,6 @@ class AlarmTest {
                                   weekendDays = List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
     @InjectMocks
     private Alarm alarm1, alarm2, weekDays730AmAlarm, weekend10AmAlarm;
-    @Mock
-    private AdvancedPlayer musicPlayerMock;
 
     @BeforeAll
     static void beforeClass()
@@ -56,11 +54,9 @@ class AlarmTest {
     @BeforeEach
     void beforeEach()
     {
-        clock = new Clock();
+        clock = Clock.virtual(LocalDateTime.now());
         weekDays730AmAlarm = new Alarm("Weekdays Alarm", 7, 30, AM, weekDays, false, clock);
         weekend10AmAlarm = new Alarm("Weekends Alarm", 10, 0, AM, weekendDays, false, clock);
-        weekDays730AmAlarm.setMusicPlayer(musicPlayerMock);
-        weekend10AmAlarm.setMusicPlayer(musicPlayerMock);
     }
 
     @AfterEach
@@ -81,7 +77,7 @@ class AlarmTest {
     {
         alarm1 = new Alarm();
 
-        String expectedName = ALARM + Alarm.alarmsCounter;
+        String expectedName = ALARM + Alarm.alarmsCounter.get();
         assertEquals(expectedName, alarm1.getName(), "Alarm name should be empty");
     }
 
@@ -96,12 +92,25 @@ class AlarmTest {
         assertEquals(7, alarm1.getHours(), "Alarm hour should be 7");
         assertEquals(0, alarm1.getMinutes(), "Alarm minute should be 0");
         assertEquals(AM, alarm1.getAMPM(), "Alarm AM/PM should be AM");
-        assertSame(weekDays, alarm1.getDays(), "Alarm days should be the same");
+        assertEquals(weekDays, alarm1.getDays(), "Alarm days should be the same");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be updating");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
         assertFalse(alarm1.isActivatedToday(), "Alarm should not yet be triggered today");
     }
 
+    @Test
+    @DisplayName("Days are stored once each and can be checked one at a time")
+    void testDaysAreStoredAsAMask()
+    {
+        alarm1 = new Alarm("Mask", 7, 0, AM, List.of(FRIDAY, MONDAY, FRIDAY), false, clock);
+
+        assertEquals(List.of(MONDAY, FRIDAY), alarm1.getDays(), "Days should be in week order with no repeats");
+        assertEquals(DayMask.bit(MONDAY) | DayMask.bit(FRIDAY), alarm1.getDayMask());
+        assertTrue(alarm1.isOn(FRIDAY));
+        assertFalse(alarm1.isOn(SUNDAY));
+        assertEquals(EnumSet.of(MONDAY, FRIDAY), alarm1.getDaySet());
+    }
+
     @Test
     @DisplayName("Create an Alarm with a name longer than 20 characters")
     void testCreateAnAlarmWithNameLongerThan20Characters()
@@ -147,9 +156,9 @@ class AlarmTest {
         alarm1 = weekDays730AmAlarm;
         alarm1.startAlarm();
 
-        sleep(1000);
+        clock.advance(Duration.ofSeconds(1));
 
-        assertNotNull(alarm1.getSelfThread(), "Alarm should be active");
+        assertTrue(alarm1.isArmed(), "Alarm should be active");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be in update mode");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
     }
@@ -161,16 +170,16 @@ class AlarmTest {
         alarm1 = weekDays730AmAlarm;
         alarm1.startAlarm();
 
-        sleep(1000);
+        clock.advance(Duration.ofSeconds(1));
 
-        assertNotNull(alarm1.getSelfThread(), "Alarm should be active");
+        assertTrue(alarm1.isArmed(), "Alarm should be active");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be in update mode");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
 
         // Attempt to start the alarm again
         alarm1.startAlarm();
 
-        assertNotNull(alarm1.getSelfThread(), "Alarm should still be active");
+        assertTrue(alarm1.isArmed(), "Alarm should still be active");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be in update mode");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
     }
@@ -182,15 +191,15 @@ class AlarmTest {
         alarm1 = weekDays730AmAlarm;
         alarm1.startAlarm();
 
-        sleep(1000);
+        clock.advance(Duration.ofSeconds(1));
 
-        assertNotNull(alarm1.getSelfThread(), "Alarm should be active");
+        assertTrue(alarm1.isArmed(), "Alarm should be active");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be in update mode");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
 
         alarm1.stopAlarm();
 
-        assertNull(alarm1.getSelfThread(), "Alarm should be inactive");
+        assertNull(alarm1.getScheduledTask(), "Alarm should be inactive");
         assertFalse(alarm1.isUpdatingAlarm(), "Alarm should not be in update mode");
         assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
     }
@@ -203,18 +212,16 @@ class AlarmTest {
 
         // Simulate the clock reaching the alarm time
         LocalDate date = LocalDateTime.now().toLocalDate().with(ChronoField.DAY_OF_WEEK, DayOfWeek.MONDAY.getValue());
-        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30);
+        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30).withSecond(0);
         LocalDateTime dateTime = LocalDateTime.of(date, time);
         clock.setTheTime(dateTime);
 
-        alarm1.startAlarm();
-        sleep(1000); // Allow time for the alarm to trigger
+        clock.addAlarm(alarm1);
+        clock.advance(Duration.ofSeconds(2)); // goes off on the first tick, rings on the next
 
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
-            assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
-            assertNotNull(alarm1.getMusicPlayer(), "Music player should be set");
-        });
+        assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
+        assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
+        assertNotNull(alarm1.getSound(), "Sound should be set");
     }
 
     @Test
@@ -225,19 +232,17 @@ class AlarmTest {
 
         // Simulate the clock reaching the alarm time
         LocalDate date = LocalDateTime.now().toLocalDate().with(ChronoField.DAY_OF_WEEK, DayOfWeek.MONDAY.getValue());
-        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30);
+        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30).withSecond(0);
         LocalDateTime dateTime = LocalDateTime.of(date, time);
         clock.setTheTime(dateTime);
 
-        alarm1.startAlarm();
-        sleep(1000); // Allow time for the alarm to trigger
+        clock.addAlarm(alarm1);
+        clock.advance(Duration.ofSeconds(1));
 
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
-            assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
-            alarm1.pauseAlarm();
-            assertTrue(alarm1.isPaused(), "Alarm should be paused");
-        });
+        assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
+        assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
+        alarm1.pauseAlarm();
+        assertTrue(alarm1.isPaused(), "Alarm should be paused");
     }
 
     @Test
@@ -248,22 +253,21 @@ class AlarmTest {
 
         // Simulate the clock reaching the alarm time
         LocalDate date = LocalDateTime.now().toLocalDate().with(ChronoField.DAY_OF_WEEK, DayOfWeek.MONDAY.getValue());
-        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30);
+        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30).withSecond(0);
         LocalDateTime dateTime = LocalDateTime.of(date, time);
         clock.setTheTime(dateTime);
 
-        alarm1.startAlarm();
-        sleep(1000); // Allow time for the alarm to trigger
+        clock.addAlarm(alarm1);
+        clock.advance(Duration.ofSeconds(1));
 
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
-            assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
-            alarm1.pauseAlarm();
-            assertTrue(alarm1.isPaused(), "Alarm should be paused");
-            sleep(2000); // Simulate some time passing while paused
-            alarm1.resumeAlarm();
-            assertFalse(alarm1.isPaused(), "Alarm should not be paused anymore");
-        });
+        assertTrue(alarm1.isAlarmGoingOff(), "Alarm should be going off");
+        assertTrue(alarm1.isActivatedToday(), "Alarm should be triggered today");
+        alarm1.pauseAlarm();
+        assertTrue(alarm1.isPaused(), "Alarm should be paused");
+        clock.advance(Duration.ofSeconds(2)); // time passes while paused
+        assertNull(alarm1.getPlayback(), "A paused alarm should not play");
+        alarm1.resumeAlarm();
+        assertFalse(alarm1.isPaused(), "Alarm should not be paused anymore");
     }
 
     @Test
@@ -274,14 +278,15 @@ class AlarmTest {
 
         // Simulate the clock not reaching the alarm time
         LocalDate date = LocalDateTime.now().toLocalDate().with(ChronoField.DAY_OF_WEEK, DayOfWeek.MONDAY.getValue());
-        LocalTime time = LocalDateTime.now().toLocalTime().withHour(6).withMinute(30);
+        LocalTime time = LocalDateTime.now().toLocalTime().withHour(6).withMinute(30).withSecond(0);
         LocalDateTime dateTime = LocalDateTime.of(date, time);
         clock.setTheTime(dateTime);
 
-        alarm1.startAlarm();
-        sleep(1000);
+        clock.addAlarm(alarm1);
+        clock.advance(Duration.ofSeconds(2));
 
-        javax.swing.SwingUtilities.invokeLater(() -> assertNull(alarm1.getMusicPlayer(), "Music player should not be set yet"));
+        assertFalse(alarm1.isAlarmGoingOff(), "Alarm should not be going off");
+        assertNull(alarm1.getSound(), "Sound should not be set yet");
     }
 
     @Test
@@ -291,12 +296,12 @@ class AlarmTest {
         alarm1 = spy(weekDays730AmAlarm);
         // Simulate the clock reaching the alarm time
         LocalDate date = LocalDateTime.now().toLocalDate();
-        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30);
+        LocalTime time = LocalDateTime.now().toLocalTime().withHour(7).withMinute(30).withSecond(0);
         LocalDateTime dateTime = LocalDateTime.of(date, time);
         clock.setTheTime(dateTime);
 
-        doThrow(new RuntimeException("Mocked Music player error"))
-            .when(alarm1).setupMusicPlayer();
+        doThrow(new RuntimeException("Mocked sound error"))
+            .when(alarm1).loadSound();
 
         assertDoesNotThrow(() -> alarm1.triggerAlarm(), "An exception was thrown");
     }
@@ -375,7 +380,7 @@ class AlarmTest {
         alarm2 = new Alarm("", 6, 0, PM, weekendDays, false, clock);
 
         assertEquals("Alarm3", alarm1.getName(), "Alarm1 name should match");
-        assertEquals("Alarm"+Alarm.alarmsCounter, alarm2.getName(), "Alarm2 name should match");
+        assertEquals("Alarm"+Alarm.alarmsCounter.get(), alarm2.getName(), "Alarm2 name should match");
     }
 
     @ParameterizedTest
@@ -584,7 +589,7 @@ class AlarmTest {
 
         assertTrue(alarm1.isActivatedToday(), "stopAlarm should not reset activatedToday");
         assertFalse(alarm1.isAlarmGoingOff(), "stopAlarm should set alarmGoingOff to false");
-        assertNull(alarm1.getSelfThread(), "stopAlarm should clear the thread");
+        assertNull(alarm1.getScheduledTask(), "stopAlarm should cancel the scheduled task");
     }
 
     @Test
@@ -598,16 +603,123 @@ class AlarmTest {
                 "Shortened days should map Tuesday=T, Thursday=TH, Saturday=S");
     }
 
-    // Helper methods
-    @SuppressWarnings("SameParameterValue")
-    private void sleep(int time)
+    @ParameterizedTest
+    @DisplayName("Test getNextFireTime finds the next occurrence")
+    @MethodSource("nextFireTimeCases")
+    void testGetNextFireTime(int hours, int minutes, String ampm, List<DayOfWeek> days,
+                             LocalDateTime from, LocalDateTime expected)
+    {
+        alarm1 = new Alarm("Next Fire", hours, minutes, ampm, days, false, clock);
+        assertEquals(expected, alarm1.getNextFireTime(from));
+    }
+    static Stream<Arguments> nextFireTimeCases()
+    {
+        // January 6, 2025 is a Monday
+        final LocalDateTime monday0700 = LocalDateTime.of(2025, 1, 6, 7, 0, 0);
+        return Stream.of(
+            Arguments.of(7, 30, AM, List.of(MONDAY), monday0700, LocalDateTime.of(2025, 1, 6, 7, 30)),
+            Arguments.of(7, 0, AM, List.of(MONDAY), monday0700.plusSeconds(30), LocalDateTime.of(2025, 1, 6, 7, 0)),
+            Arguments.of(6, 59, AM, List.of(MONDAY), monday0700, LocalDateTime.of(2025, 1, 13, 6, 59)),
+            Arguments.of(12, 0, AM, List.of(TUESDAY), monday0700, LocalDateTime.of(2025, 1, 7, 0, 0)),
+            Arguments.of(12, 15, PM, List.of(MONDAY), monday0700, LocalDateTime.of(2025, 1, 6, 12, 15)),
+            Arguments.of(9, 0, PM, List.of(SATURDAY, SUNDAY), monday0700, LocalDateTime.of(2025, 1, 11, 21, 0)),
+            Arguments.of(9, 0, PM, List.of(), monday0700, null)
+        );
+    }
+
+    @Test
+    @DisplayName("Test startAlarm arms the alarm on its clock")
+    void testStartAlarmArmsTheAlarm()
+    {
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 0, 0)); // Monday
+
+        alarm1.startAlarm();
+
+        assertTrue(alarm1.isArmed(), "Alarm should be armed");
+        assertEquals(LocalDateTime.of(2025, 1, 6, 7, 30), alarm1.getNextFireTime());
+    }
+
+    @Test
+    @DisplayName("Test snoozing arms the alarm for the end of the snooze")
+    void testSnoozeArmsTheEndOfTheSnooze()
+    {
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 30, 0)); // Monday
+
+        alarm1.snooze();
+
+        assertTrue(alarm1.isSnoozing(), "Alarm should be snoozing");
+        assertEquals(LocalDateTime.of(2025, 1, 6, 7, 37), alarm1.getNextFireTime());
+    }
+
+    @Test
+    @DisplayName("Test the snooze duration can be set")
+    void testSnoozeDurationCanBeSet()
+    {
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 30, 0)); // Monday
+        alarm1.setSnoozeDuration(Duration.ofMinutes(10));
+
+        assertTrue(alarm1.snooze());
+
+        assertEquals(LocalDateTime.of(2025, 1, 6, 7, 40), alarm1.getNextFireTime());
+        assertThrows(InvalidInputException.class, () -> alarm1.setSnoozeDuration(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("Test an alarm is only snoozed its most times in a row")
+    void testSnoozeRepeatCount()
     {
-        try {
-            Thread.sleep(time);
-        }
-        catch (InterruptedException e)
-        {
-            Thread.currentThread().interrupt();
-        }
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 30, 0)); // Monday
+        alarm1.setMaxSnoozes(2);
+
+        assertTrue(alarm1.snooze());
+        alarm1.endSnooze();
+        assertTrue(alarm1.snooze());
+        alarm1.endSnooze();
+        assertFalse(alarm1.snooze(), "The third snooze in a row is refused");
+        assertTrue(alarm1.isAlarmGoingOff(), "The alarm keeps ringing");
+        assertEquals(2, alarm1.getSnoozeCount());
+
+        alarm1.stopAlarm();
+        assertEquals(0, alarm1.getSnoozeCount(), "Stopping starts the count again");
+    }
+
+    @Test
+    @DisplayName("Test stopping a snoozing alarm cancels its wake up at once")
+    void testStopCancelsTheSnooze()
+    {
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 30, 0)); // Monday
+        alarm1.snooze();
+
+        alarm1.stopAlarm();
+
+        assertFalse(alarm1.isSnoozing());
+        assertNull(alarm1.getScheduledTask(), "A stopped alarm holds no task");
+        assertNotEquals(LocalDateTime.of(2025, 1, 6, 7, 37), alarm1.getNextFireTime(), "Armed for its next occurrence, not the snooze");
+    }
+
+    @Test
+    @DisplayName("Test an alarm moves through its phases and cannot be snoozed twice")
+    void testPhases()
+    {
+        alarm1 = weekDays730AmAlarm;
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 30, 0)); // Monday
+        assertEquals(AlarmState.Phase.ARMED, alarm1.getPhase());
+
+        alarm1.setIsAlarmGoingOff(true);
+        assertEquals(AlarmState.Phase.RINGING, alarm1.getPhase());
+        assertTrue(alarm1.snooze());
+        assertEquals(AlarmState.Phase.SNOOZED, alarm1.getPhase());
+        assertThrows(IllegalStateException.class, () -> alarm1.snooze(), "A snoozing alarm cannot be snoozed again");
+        assertEquals(1, alarm1.getSnoozeCount());
+
+        alarm1.endSnooze();
+        assertEquals(AlarmState.Phase.RINGING, alarm1.getPhase());
+        alarm1.stopAlarm();
+        assertEquals(AlarmState.Phase.STOPPED, alarm1.getPhase());
     }
 }
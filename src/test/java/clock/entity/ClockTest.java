@@ -1,7 +1,9 @@
 package clock.entity;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -9,18 +11,32 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
+import clock.engine.TimingWheel;
+import clock.engine.VirtualTimeSource;
+import clock.entity.Clock.MissedAlarmPolicy;
 import clock.exception.InvalidInputException;
 
 import static clock.util.Constants.*;
-import static java.lang.Thread.sleep;
 import static java.time.DayOfWeek.*;
 import static java.time.Month.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests for the {@link Clock} class
@@ -179,6 +195,7 @@ class ClockTest
     @Test
     void testBeginningDayLightSavingsTimeIsProperlySet()
     {
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.setHours(5);
         clock.setMinutes(42);
         clock.setSeconds(0);
@@ -250,6 +267,7 @@ class ClockTest
     @Test
     void testIsTodayDaylightSavingsDayReturnsTrueWhenIsBeginningDST()
     {
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.setHours(5);
         clock.setMinutes(42);
         clock.setSeconds(0);
@@ -266,6 +284,7 @@ class ClockTest
     @Test
     void testIsTodayDaylightSavingsDayReturnsTrueWhenIsEndingDST()
     {
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.setHours(5);
         clock.setMinutes(42);
         clock.setSeconds(0);
@@ -283,6 +302,7 @@ class ClockTest
     void testIsTodayDaylightSavingsDay()
     {
         LocalDate today = LocalDate.now();
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.setHours(12);
         clock.setMinutes(0);
         clock.setSeconds(0);
@@ -333,6 +353,7 @@ class ClockTest
     @Test
     void testWhenClockInMilitaryTimeAlarmStillTriggers()
     {
+        clock = Clock.virtual(LocalDateTime.of(2021, MARCH, 6, 13, 0, 59));
         clock.setShowMilitaryTime(true);
         clock.setHours(13);
         clock.setMinutes(0);
@@ -348,11 +369,9 @@ class ClockTest
 
         assertEquals(1, clock.getListOfAlarms().size());
 
-        tick(4);
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            assertTrue(clock.getListOfAlarms().getFirst().isAlarmGoingOff());
-            alarm.stopAlarm();
-        });
+        clock.advance(Duration.ofSeconds(4));
+        assertTrue(clock.getListOfAlarms().getFirst().isAlarmGoingOff());
+        alarm.stopAlarm();
     }
 
     @Test
@@ -376,7 +395,7 @@ class ClockTest
     }
 
     @Test
-    void testTickClockFaster() throws InterruptedException
+    void testTickClockFaster()
     {
         clock.setHours(7);
         clock.setMinutes(59);
@@ -386,9 +405,7 @@ class ClockTest
         clock.setDayOfMonth(20);
         clock.setYear(2024);
         clock.setAMPM(PM);
-        sleep(2000); // needed because it wasn't displaying immediately
         clock.tick(2,3,4);
-        sleep(2000); // needed because it needed a second to refresh
         assertEquals(ONE+ONE, clock.getHoursAsStr(), "Expected hoursAsStr to be 11");
         assertEquals(ZERO+TWO, clock.getMinutesAsStr(), "Expected minutesAsStr to be 02");
         assertEquals(ZERO+ZERO, clock.getSecondsAsStr(), "Expected secondsAsStr to be 00");
@@ -669,15 +686,7 @@ class ClockTest
     // Helper methods
     private void tick(int times) {
         logger.info("Test ticking clock {} times", times);
-        try {
-            for (int i = 0; i < times; i++) {
-                clock.tick();
-                sleep(1000);
-            }
-        } catch (InterruptedException e) {
-            logger.error("Interrupted while ticking clock", e);
-            Thread.currentThread().interrupt();
-        }
+        for (int i = 0; i < times; i++) clock.tick();
     }
 
     // -------------------------------------------------------------------------
@@ -926,53 +935,74 @@ class ClockTest
     @DisplayName("DST spring forward: 2 AM in March advances to 3 AM")
     void testDSTSpringForward()
     {
-        clock.setHours(2);
-        clock.setMinutes(0);
-        clock.setSeconds(0);
-        clock.setMonth(MARCH);
-        clock.setDayOfMonth(13);
-        clock.setYear(2022);
-        clock.setAMPM(AM);
-        clock.setDaylightSavingsTimeEnabled(true);
-        clock.setTodayMatchesDSTDate(true);
+        clock = new Clock(1, 59, 59, MARCH, SUNDAY, 13, 2022, AM);
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.tick();
-        assertEquals(3, clock.getHours(), "Should spring forward to 3 AM");
+        assertEquals("03:00:00 AM", clock.getTimeAsStr(), "Should spring forward to 3 AM");
         assertFalse(clock.isTodayMatchesDSTDate(), "todayMatchesDSTDate should be cleared");
+        assertEquals(LocalDate.of(2022, NOVEMBER, 6), clock.getNextDstTransition().getDateTimeBefore().toLocalDate());
     }
 
     @Test
-    @DisplayName("DST fall back: 2 AM in November falls back to 1 AM")
+    @DisplayName("DST fall back: 2 AM in November falls back to 1 AM, once")
     void testDSTFallBack()
     {
-        clock.setHours(2);
-        clock.setMinutes(0);
-        clock.setSeconds(0);
-        clock.setMonth(NOVEMBER);
-        clock.setDayOfMonth(6);
-        clock.setYear(2022);
-        clock.setAMPM(AM);
-        clock.setDaylightSavingsTimeEnabled(true);
-        clock.setTodayMatchesDSTDate(true);
+        clock = new Clock(1, 59, 59, NOVEMBER, SUNDAY, 6, 2022, AM);
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.tick();
-        assertEquals(1, clock.getHours(), "Should fall back to 1 AM");
+        assertEquals("01:00:00 AM", clock.getTimeAsStr(), "Should fall back to 1 AM");
         assertFalse(clock.isTodayMatchesDSTDate(), "todayMatchesDSTDate should be cleared");
+
+        for (int i = 0; i < 3600; i++) clock.tick();
+        assertEquals("02:00:00 AM", clock.getTimeAsStr(), "Should only fall back once");
+    }
+
+    @Test
+    @DisplayName("DST fall back to midnight: 1 AM falls back to 12 AM once, despite the midnight refresh")
+    void testDSTFallBackToMidnight()
+    {
+        clock = new Clock(12, 59, 59, NOVEMBER, SUNDAY, 2, 2025, AM);
+        clock.setTimeZone(ZoneId.of("America/Havana"));
+        clock.tick();
+        assertEquals("12:00:00 AM", clock.getTimeAsStr(), "Should fall back to midnight");
+        assertEquals(LocalDate.of(2026, MARCH, 8), clock.getNextDstTransition().getDateTimeBefore().toLocalDate(),
+                "The midnight refresh should not find the same change again");
+
+        for (int i = 0; i < 3600; i++) clock.tick();
+        assertEquals("01:00:00 AM", clock.getTimeAsStr(), "Should only fall back once");
     }
 
     @Test
     @DisplayName("DST is not applied when daylightSavingsTimeEnabled is false")
     void testDSTNotAppliedWhenDisabled()
     {
-        clock.setHours(2);
-        clock.setMinutes(0);
-        clock.setSeconds(0);
-        clock.setMonth(MARCH);
-        clock.setDayOfMonth(13);
-        clock.setYear(2022);
-        clock.setAMPM(AM);
+        clock = new Clock(1, 59, 59, MARCH, SUNDAY, 13, 2022, AM);
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
         clock.setDaylightSavingsTimeEnabled(false);
-        clock.setTodayMatchesDSTDate(true);
         clock.tick();
         assertEquals(2, clock.getHours(), "Hours should remain 2 when DST is disabled");
+        assertEquals(LocalDate.of(2022, NOVEMBER, 6), clock.getNextDstTransition().getDateTimeBefore().toLocalDate(),
+                "The skipped change should not be looked at again");
+    }
+
+    @ParameterizedTest
+    @DisplayName("DST dates come from the rules of the clock's timezone")
+    @MethodSource("dstDatesByZone")
+    void testDSTDatesFollowTheTimezone(String zone, LocalDate begin, LocalDate end)
+    {
+        clock = new Clock(10, 0, 0, JUNE, WEDNESDAY, 1, 2022, AM);
+        clock.setTimeZone(ZoneId.of(zone));
+        assertEquals(begin, clock.getBeginDaylightSavingsTimeDate());
+        assertEquals(end, clock.getEndDaylightSavingsTimeDate());
+    }
+    static Stream<Arguments> dstDatesByZone()
+    {
+        return Stream.of(
+                Arguments.of(AMERICA_CHICAGO, LocalDate.of(2022, MARCH, 13), LocalDate.of(2022, NOVEMBER, 6)),
+                Arguments.of("Europe/Berlin", LocalDate.of(2022, MARCH, 27), LocalDate.of(2022, OCTOBER, 30)),
+                Arguments.of("Australia/Sydney", LocalDate.of(2022, OCTOBER, 2), LocalDate.of(2022, APRIL, 3)),
+                Arguments.of(PACIFIC_HONOLULU, null, null)
+        );
     }
 
     // -------------------------------------------------------------------------
@@ -1093,13 +1123,243 @@ class ClockTest
     @DisplayName("setListOfAlarms and setListOfTimers store and retrieve their lists")
     void testSetListOfAlarmsAndTimers()
     {
-        final var alarmList = new ArrayList<Alarm>();
+        final var alarm = new Alarm();
+        final var alarmList = new ArrayList<Alarm>(List.of(alarm));
         clock.setListOfAlarms(alarmList);
-        assertSame(alarmList, clock.getListOfAlarms());
+        assertEquals(alarmList, clock.getListOfAlarms());
+        assertSame(alarm, clock.getListOfAlarms().getById(alarm.getId()));
 
         final var timerList = new ArrayList<Timer>();
         clock.setListOfTimers(timerList);
-        assertSame(timerList, clock.getListOfTimers());
+        assertEquals(timerList, clock.getListOfTimers());
+    }
+
+    // -------------------------------------------------------------------------
+    // Armed alarm queue
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("An armed alarm goes off on the tick that reaches its time and is re-armed")
+    void testArmedAlarmGoesOffAndIsRearmed()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 58)); // Monday
+        final Alarm alarm = new Alarm("Queued", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.addAlarm(alarm);
+        assertEquals(LocalDateTime.of(2025, 1, 6, 7, 30), alarm.getNextFireTime());
+
+        clock.tick();
+        assertFalse(alarm.isAlarmGoingOff(), "Alarm should not go off early");
+        clock.tick();
+
+        assertTrue(alarm.isAlarmGoingOff(), "Alarm should be going off");
+        assertTrue(alarm.isActivatedToday(), "Alarm should be activated today");
+        assertEquals(LocalDateTime.of(2025, 1, 13, 7, 30), alarm.getNextFireTime(), "Alarm should be armed for next week");
+        alarm.stopAlarm();
+    }
+
+    @Test
+    @DisplayName("A paused alarm does not go off but stays armed")
+    void testPausedAlarmIsSkipped()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 59)); // Monday
+        final Alarm alarm = new Alarm("Paused", 7, 30, AM, new ArrayList<>(List.of(MONDAY, TUESDAY)), false, clock);
+        clock.addAlarm(alarm);
+        alarm.pauseAlarm();
+
+        clock.tick();
+
+        assertFalse(alarm.isAlarmGoingOff(), "Paused alarm should not go off");
+        assertEquals(LocalDateTime.of(2025, 1, 7, 7, 30), alarm.getNextFireTime(), "Alarm should be armed for tomorrow");
+    }
+
+    @Test
+    @DisplayName("A removed alarm is disarmed")
+    void testRemovedAlarmIsDisarmed()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 59)); // Monday
+        final Alarm alarm = new Alarm("Removed", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.addAlarm(alarm);
+        clock.removeAlarm(alarm);
+
+        clock.tick();
+
+        assertFalse(alarm.isArmed(), "Alarm should not be armed");
+        assertFalse(alarm.isAlarmGoingOff(), "Removed alarm should not go off");
+    }
+
+    @Test
+    @DisplayName("Alarms added straight to the list are armed on the next tick")
+    void testAlarmsAddedToTheListAreArmed()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 59)); // Monday
+        final Alarm alarm = new Alarm("Listed", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.getListOfAlarms().add(alarm);
+
+        clock.tick();
+
+        assertTrue(alarm.isAlarmGoingOff(), "Alarm should be going off");
+        alarm.stopAlarm();
+    }
+
+    @Test
+    @DisplayName("A snoozed alarm goes off again once the snooze is over")
+    void testSnoozedAlarmGoesOffAgain()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 59)); // Monday
+        final Alarm alarm = new Alarm("Snoozed", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.addAlarm(alarm);
+        clock.tick();
+        alarm.snooze();
+
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 36, 58));
+        clock.tick();
+        assertFalse(alarm.isAlarmGoingOff(), "Alarm should still be snoozing");
+
+        clock.tick();
+        assertTrue(alarm.isAlarmGoingOff(), "Alarm should go off after snoozing");
+        assertFalse(alarm.isSnoozing(), "Alarm should no longer be snoozing");
+        assertEquals(LocalDateTime.of(2025, 1, 13, 7, 30), alarm.getNextFireTime(), "Alarm should be armed for next week");
+        alarm.stopAlarm();
+    }
+
+    @Test
+    @DisplayName("An alarm added during its own minute still goes off")
+    void testAlarmAddedDuringItsMinuteGoesOff()
+    {
+        clock.setTheTime(LocalDateTime.of(2025, 1, 6, 7, 29, 59)); // Monday
+        clock.tick(); // the 7:30 slot is looked at here
+        final Alarm alarm = new Alarm("Late", 7, 30, AM, new ArrayList<>(List.of(MONDAY)), false, clock);
+        clock.addAlarm(alarm);
+
+        clock.tick();
+
+        assertTrue(alarm.isAlarmGoingOff(), "Alarm should be going off");
+        assertEquals(LocalDateTime.of(2025, 1, 13, 7, 30), alarm.getNextFireTime(), "Alarm should be armed for next week");
+        alarm.stopAlarm();
+    }
+
+    @Test
+    @DisplayName("getAlarmsOn returns only the alarms set for that day")
+    void testGetAlarmsOn()
+    {
+        final Alarm weekdays = new Alarm("Weekdays", 7, 0, AM, new ArrayList<>(List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY)), false, clock);
+        final Alarm weekend = new Alarm("Weekend", 9, 0, AM, new ArrayList<>(List.of(SATURDAY, SUNDAY)), false, clock);
+        clock.addAlarm(weekdays);
+        clock.addAlarm(weekend);
+
+        assertEquals(List.of(weekdays), clock.getAlarmsOn(TUESDAY));
+        assertEquals(List.of(weekend), clock.getAlarmsOn(SUNDAY));
+    }
+
+    // -------------------------------------------------------------------------
+    // Snapshots
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("The snapshot follows the clock and the display settings")
+    void testSnapshotFollowsTheClock()
+    {
+        clock = new Clock(11, 59, 59, JUNE, FRIDAY, 14, 2024, PM);
+        final ClockSnapshot before = clock.getSnapshot();
+        clock.tick();
+        final ClockSnapshot after = clock.getSnapshot();
+
+        assertEquals("11:59:59 PM", before.timeAsStr(), "A snapshot should never change");
+        assertEquals("12:00:00 AM", after.timeAsStr());
+        assertEquals(SATURDAY, after.dayOfWeek());
+        assertEquals(LocalDateTime.of(2024, JUNE, 15, 0, 0, 0), after.localDateTime());
+        assertEquals(clock.getClockTimeAsAlarmString(), after.clockTimeAsAlarmString());
+
+        clock.setShowFullDate(true);
+        assertEquals("SATURDAY JUNE 15, 2024", clock.getSnapshot().dateText());
+    }
+
+    @Test
+    @DisplayName("A snapshot of any date and time is written out like the clock")
+    void testSnapshotOfADateAndTime()
+    {
+        final LocalDateTime dateTime = LocalDateTime.of(2024, JUNE, 15, 17, 5, 9);
+        assertEquals("05:05:09 PM", ClockSnapshot.of(dateTime, ZoneId.of(AMERICA_CHICAGO), false, false, false).timeText());
+        assertEquals("1705 hours 09", ClockSnapshot.of(dateTime, ZoneId.of(AMERICA_CHICAGO), true, false, false).timeText());
+        assertEquals("SAT JUN 15, 2024", ClockSnapshot.of(dateTime, ZoneId.of(AMERICA_CHICAGO), false, false, true).dateText());
+        assertEquals(dateTime.atZone(ZoneId.of(AMERICA_CHICAGO)).toInstant(),
+                ClockSnapshot.of(dateTime, ZoneId.of(AMERICA_CHICAGO), false, false, false).instant());
+    }
+
+    @Test
+    @DisplayName("Readers on another thread only ever see whole snapshots while the clock ticks")
+    void testSnapshotsAreConsistentUnderLoad() throws InterruptedException
+    {
+        clock = new Clock(11, 0, 0, JUNE, FRIDAY, 14, 2024, PM);
+        final int ticks = 20_000;
+        final AtomicBoolean ticking = new AtomicBoolean(true);
+        final List<String> problems = new CopyOnWriteArrayList<>();
+        final AtomicLong reads = new AtomicLong();
+        final Thread reader = new Thread(() -> {
+            LocalDateTime last = clock.getSnapshot().localDateTime();
+            while (ticking.get() && problems.isEmpty())
+            {
+                final ClockSnapshot snapshot = clock.getSnapshot();
+                final LocalDateTime now = snapshot.localDateTime();
+                if (now.isBefore(last)) problems.add(now + " came after " + last);
+                if (snapshot.time().getHour() != snapshot.hours()
+                        || !snapshot.currentDateTime().equals(LocalDateTime.of(snapshot.date(), snapshot.time()))
+                        || !snapshot.date().getDayOfWeek().equals(snapshot.dayOfWeek()))
+                    problems.add("torn snapshot " + snapshot);
+                last = now;
+                reads.incrementAndGet();
+            }
+        }, "snapshot-reader");
+        reader.start();
+        for (int i = 0; i < ticks; i++) clock.tick();
+        ticking.set(false);
+        reader.join();
+        logger.info("{} snapshot reads while ticking {} times", reads.get(), ticks);
+
+        assertTrue(problems.isEmpty(), () -> problems.getFirst());
+        assertEquals(LocalDateTime.of(2024, JUNE, 15, 4, 33, 20), clock.getSnapshot().localDateTime());
+    }
+
+    @Test
+    @DisplayName("Once warmed up, a tick only makes its snapshot while logging is off")
+    void testTickOnlyMakesItsSnapshotInSteadyState()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Allocations of a thread cannot be measured on this JVM");
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        // logging writes the time out on every tick, so it is turned off while measuring
+        final String entities = Clock.class.getPackageName();
+        final Level rootLevel = LogManager.getRootLogger().getLevel(),
+                    entityLevel = LogManager.getLogger(entities).getLevel();
+        final int ticks = 2 * 60 * 60; // across minutes, hours and noon
+        final long snapshotBytes, allocated;
+        Configurator.setRootLevel(Level.OFF);
+        Configurator.setLevel(entities, Level.OFF);
+        try
+        {
+            clock = new Clock(6, 0, 0, JUNE, FRIDAY, 14, 2024, AM);
+            for (int i = 0; i < 20_000; i++) clock.tick(); // warm up, to 11:33:20 AM
+
+            final ClockSnapshot[] kept = new ClockSnapshot[100];
+            final long mark = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < kept.length; i++) kept[i] = ClockSnapshot.of(clock);
+            snapshotBytes = (threads.getCurrentThreadAllocatedBytes() - mark) / kept.length;
+
+            final long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < ticks; i++) clock.tick();
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        finally
+        {
+            Configurator.setLevel(entities, entityLevel);
+            Configurator.setRootLevel(rootLevel);
+        }
+        logger.info("{} ticks allocated {} bytes, {} bytes a snapshot", ticks, allocated, snapshotBytes);
+
+        assertTrue(allocated <= ticks * snapshotBytes, "A tick should only make its snapshot, but " + ticks + " ticks allocated " + allocated + " bytes");
+        assertEquals("01:33:20 PM", clock.getTimeAsStr());
+        assertEquals(LocalTime.of(1, 33, 20), clock.getTime());
     }
 
     // -------------------------------------------------------------------------
@@ -1128,4 +1388,278 @@ class ClockTest
         assertEquals(ZoneId.systemDefault().getId(), result);
     }
 
-}
\ No newline at end of file
+    // -------------------------------------------------------------------------
+    // Virtual time
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("A year on virtual time runs every alarm, leap day and DST change, in well under a second")
+    void testAYearOnVirtualTime()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 0, 0, 0));
+        clock.setTimeZone(ZoneId.of(AMERICA_CHICAGO));
+        clock.addAlarm(new Alarm("Weekdays", 7, 30, AM, List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY), false, clock));
+        final List<LocalDateTime> ticks = new ArrayList<>(), wentOff = new ArrayList<>();
+        clock.getTickBus().subscribe(ticked -> {
+            ticks.add(ticked.getLocalDateTime());
+            for (Alarm alarm : ticked.getListOfAlarms())
+            {
+                if (!alarm.isAlarmGoingOff()) continue;
+                wentOff.add(ticked.getLocalDateTime());
+                alarm.stopAlarm();
+            }
+        });
+
+        final long start = System.nanoTime();
+        clock.advance(Duration.ofDays(366));
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("A year on virtual time took {}ms and {} ticks", elapsed, ticks.size());
+
+        assertEquals(LocalDateTime.of(2025, JANUARY, 1, 0, 0, 0), clock.getLocalDateTime(), "Springing forward and falling back cancel out");
+        assertEquals(262, wentOff.size(), "The alarm should go off on every weekday of 2024");
+        assertTrue(wentOff.stream().allMatch(time -> time.toLocalTime().equals(LocalTime.of(7, 30))
+                && time.getDayOfWeek() != SATURDAY && time.getDayOfWeek() != SUNDAY), "The alarm only goes off at its time");
+        assertEquals(367, ticks.stream().map(LocalDateTime::toLocalDate).distinct().count(), "Every day should be ticked");
+        assertTrue(ticks.contains(LocalDateTime.of(2024, FEBRUARY, 29, 0, 0, 0)), "The clock should tick into the leap day");
+        assertTrue(ticks.contains(LocalDateTime.of(2024, MARCH, 10, 3, 0, 0)), "The clock should spring forward from 2 to 3 AM");
+        assertTrue(ticks.contains(LocalDateTime.of(2024, NOVEMBER, 3, 1, 0, 0)), "The clock should fall back from 2 to 1 AM");
+        assertEquals(LocalDate.of(2025, MARCH, 9), clock.getNextDstTransition().getDateTimeBefore().toLocalDate());
+        assertTrue(ticks.size() < 2_000, "Only the seconds with something to do should be ticked, not " + ticks.size());
+        assertTrue(elapsed < 1_000, "A year took " + elapsed + "ms");
+    }
+
+    @Test
+    @DisplayName("Timers and stopwatches on a clock on virtual time count by its time source")
+    void testTimersAndStopwatchesOnVirtualTime()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2025, JANUARY, 1, 12, 0, 0));
+        final Timer timer = new Timer(0, 5, 0, clock);
+        final Stopwatch stopwatch = new Stopwatch("Virtual", false, false, clock);
+        timer.startTimer();
+        stopwatch.startStopwatch();
+
+        clock.advance(Duration.ofMinutes(5).minusMillis(500));
+        assertFalse(timer.isTimerGoingOff(), "The timer should not go off early");
+        assertEquals(Duration.ofMinutes(5).minusMillis(500), stopwatch.getDuration());
+        assertEquals(LocalTime.of(12, 4, 59), clock.getTime());
+
+        clock.advance(Duration.ofMillis(500));
+        assertTrue(timer.isTimerGoingOff(), "The timer should go off on time");
+        assertEquals(LocalTime.of(12, 5, 0), clock.getTime());
+        timer.stopTimer();
+
+        clock.advance(Duration.ofHours(1));
+        assertFalse(stopwatch.isStarted(), "The stopwatch should stop itself at its most time of an hour");
+    }
+
+    @Test
+    @DisplayName("Only a clock on virtual time can be advanced, and parts of a second add up")
+    void testAdvancingVirtualTime()
+    {
+        assertFalse(clock.isVirtual());
+        assertThrows(IllegalStateException.class, () -> clock.advance(Duration.ofSeconds(1)));
+
+        clock = Clock.virtual(LocalDateTime.of(2025, JANUARY, 1, 12, 0, 0));
+        assertTrue(clock.isVirtual());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofSeconds(-1)));
+        clock.advance(Duration.ofMillis(600));
+        assertEquals(0, clock.getSeconds(), "Not a whole second yet");
+        clock.advance(Duration.ofMillis(600));
+        assertEquals(1, clock.getSeconds(), "The parts add up to a tick");
+    }
+
+    // -------------------------------------------------------------------------
+    // Catching up
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("Catching up three days goes off once for each alarm that came due, in a few ticks")
+    void testCatchUpFiresMissedAlarmsOnce()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 6, 0, 0));
+        final Alarm weekdays = new Alarm("Weekdays", 7, 30, AM, List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY), false, clock),
+                    monday = new Alarm("Monday", 12, 0, PM, List.of(MONDAY), false, clock);
+        clock.addAlarm(weekdays);
+        clock.addAlarm(monday);
+        final AtomicLong ticks = new AtomicLong();
+        clock.getTickBus().subscribe(ticked -> ticks.incrementAndGet());
+
+        clock.catchUp(Duration.ofDays(3).toSeconds());
+
+        assertEquals(LocalDateTime.of(2024, JANUARY, 4, 6, 0, 0), clock.getLocalDateTime());
+        assertEquals(MissedAlarmPolicy.FIRE, clock.getMissedAlarmPolicy());
+        assertTrue(weekdays.isAlarmGoingOff(), "A missed alarm should go off once caught up");
+        assertTrue(monday.isAlarmGoingOff(), "A missed alarm should go off once caught up");
+        assertEquals(LocalDateTime.of(2024, JANUARY, 3, 7, 30), weekdays.getMissedAt(), "The latest time it came due");
+        assertEquals(LocalDateTime.of(2024, JANUARY, 1, 12, 0), monday.getMissedAt());
+        assertTrue(ticks.get() < 50, "Only the seconds with something to do should be ticked, not " + ticks.get());
+    }
+
+    @Test
+    @DisplayName("Catching up with missed alarms skipped marks them missed and leaves later ones alone")
+    void testCatchUpSkipsMissedAlarms()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 6, 0, 0));
+        clock.setMissedAlarmPolicy(MissedAlarmPolicy.SKIP);
+        final Alarm weekdays = new Alarm("Weekdays", 7, 30, AM, List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY), false, clock);
+        clock.addAlarm(weekdays);
+
+        clock.catchUp(Duration.ofDays(1).toSeconds());
+
+        assertEquals(LocalDateTime.of(2024, JANUARY, 2, 6, 0, 0), clock.getLocalDateTime());
+        assertFalse(weekdays.isAlarmGoingOff(), "A skipped alarm should not go off");
+        assertEquals(LocalDateTime.of(2024, JANUARY, 1, 7, 30), weekdays.getMissedAt());
+        assertFalse(weekdays.isActivatedToday(), "Missing yesterday's alarm should not count for today");
+
+        clock.advance(Duration.ofMinutes(90));
+        assertTrue(weekdays.isAlarmGoingOff(), "The alarm should go off on its next day as usual");
+    }
+
+    @Test
+    @DisplayName("Catching up after a sleep goes off for the timers that reached zero and moves up the rest")
+    void testCatchUpFiresMissedTimers()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 6, 0, 0));
+        final Timer shorter = new Timer(0, 5, 0, clock),
+                    longer = new Timer(1, 0, 0, clock);
+        clock.getListOfTimers().add(shorter);
+        clock.getListOfTimers().add(longer);
+        shorter.startTimer();
+        longer.startTimer();
+
+        ((VirtualTimeSource) clock.getTimeSource()).suspend(Duration.ofMinutes(30));
+        clock.catchUp(Duration.ofMinutes(30).toSeconds());
+
+        assertTrue(shorter.isTimerGoingOff(), "A timer that reached zero during the sleep should go off");
+        assertFalse(longer.isTimerGoingOff(), "A timer with time left should not go off");
+        assertEquals(Duration.ofMinutes(30).toSeconds(), longer.getRemainingSeconds(), "The sleep should count against the time left");
+        clock.advance(Duration.ofMinutes(30));
+        assertTrue(longer.isTimerGoingOff(), "The timer should go off at its moved up deadline");
+        shorter.stopTimer();
+        longer.stopTimer();
+    }
+
+    @Test
+    @DisplayName("Catching up after a sleep with missed timers skipped stops them at zero")
+    void testCatchUpSkipsMissedTimers()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 6, 0, 0));
+        clock.setMissedAlarmPolicy(MissedAlarmPolicy.SKIP);
+        final Timer timer = new Timer(0, 5, 0, clock);
+        clock.getListOfTimers().add(timer);
+        timer.startTimer();
+
+        ((VirtualTimeSource) clock.getTimeSource()).suspend(Duration.ofMinutes(30));
+        clock.catchUp(Duration.ofMinutes(30).toSeconds());
+        clock.advance(Duration.ofMinutes(5));
+
+        assertFalse(timer.isTimerGoingOff(), "A skipped timer should not go off");
+        assertTrue(timer.isTriggered(), "A skipped timer should count as missed");
+        assertEquals(0, timer.getRemainingSeconds());
+    }
+
+    @Test
+    @DisplayName("A clock that is behind the time it is given is caught up rather than reset")
+    void testShouldUpdateTimeCatchesUp()
+    {
+        clock = Clock.virtual(LocalDateTime.of(2024, JANUARY, 1, 7, 0, 0));
+        final Alarm alarm = new Alarm("Half past", 7, 30, AM, List.of(MONDAY), false, clock);
+        clock.addAlarm(alarm);
+
+        assertTrue(clock.shouldUpdateTime(LocalDateTime.of(2024, JANUARY, 1, 8, 0, 0)));
+        assertEquals(LocalDateTime.of(2024, JANUARY, 1, 8, 0, 0), clock.getLocalDateTime());
+        assertTrue(alarm.isAlarmGoingOff(), "The alarm passed on the way should go off");
+        clock.catchUp(0);
+        assertEquals(LocalDateTime.of(2024, JANUARY, 1, 8, 0, 0), clock.getLocalDateTime(), "Nothing to catch up");
+    }
+
+    // -------------------------------------------------------------------------
+    // Serialization
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("A clock with alarms, timers and stopwatches survives a round trip, and so does each entity")
+    void testSerializationRoundTrip() throws Exception
+    {
+        clock = new Clock(10, 30, 0, JANUARY, WEDNESDAY, 1, 2025, AM);
+        final Alarm alarm = new Alarm("Round trip", 11, 0, AM, List.of(WEDNESDAY), false, clock);
+        final Timer timer = new Timer(0, 5, 0, clock);
+        final Stopwatch stopwatch = new Stopwatch("Round trip", false, false, clock);
+        clock.addAlarm(alarm);
+        clock.getListOfTimers().add(timer);
+        clock.getListOfStopwatches().add(stopwatch);
+
+        final Clock restored = roundTrip(clock);
+        assertEquals(clock.getLocalDateTime(), restored.getLocalDateTime());
+        assertEquals(1, restored.getListOfAlarms().size());
+        assertEquals(1, restored.getListOfTimers().size());
+        assertEquals(1, restored.getListOfStopwatches().size());
+        final Alarm restoredAlarm = restored.getListOfAlarms().getById(alarm.getId());
+        assertNotNull(restoredAlarm, "The alarms should be filed by id again");
+        assertSame(restored, restoredAlarm.getClock());
+        assertSame(restored.getListOfTimers().getFirst(), restored.getListOfTimers().getById(timer.getId()));
+        assertSame(restored.getListOfStopwatches().getFirst(), restored.getListOfStopwatches().getById(stopwatch.getId()));
+        assertNotNull(restored.getTickBus(), "The tick bus should be made again");
+        assertEquals(List.of(restoredAlarm), restored.getAlarmIndex().alarmsAt(WEDNESDAY, 11 * 60),
+                "The alarms should be filed under their slots again");
+
+        final Timer restoredTimer = roundTrip(timer);
+        assertEquals(timer.getCountDown(), restoredTimer.getCountDown());
+        assertSame(restoredTimer, restoredTimer.getClock().getListOfTimers().getById(timer.getId()),
+                "An entity should bring its clock along, filed with it");
+    }
+
+    @Test
+    @DisplayName("A deserialized clock arms its alarms again and goes off for them")
+    void testDeserializedClockGoesOffForItsAlarms() throws Exception
+    {
+        clock = new Clock(10, 30, 0, JANUARY, WEDNESDAY, 1, 2025, AM);
+        clock.addAlarm(new Alarm("Restored", 10, 31, AM, List.of(WEDNESDAY), false, clock));
+        final Clock restored = roundTrip(clock),
+                    empty = roundTrip(new Clock(10, 30, 0, JANUARY, WEDNESDAY, 1, 2025, AM));
+        final Alarm added = new Alarm("Added", 10, 31, AM, List.of(WEDNESDAY), false, empty);
+        empty.addAlarm(added);
+
+        for (int i = 0; i < 60; i++)
+        {
+            restored.tick();
+            empty.tick();
+        }
+
+        assertTrue(restored.getListOfAlarms().getFirst().isAlarmGoingOff(), "A restored alarm should go off");
+        assertTrue(added.isAlarmGoingOff(), "An alarm added to an empty restored clock should go off");
+        restored.getListOfAlarms().getFirst().stopAlarm();
+        added.stopAlarm();
+    }
+
+    @Test
+    @DisplayName("The timers and stopwatches of a deserialized clock run on a timing wheel")
+    void testDeserializedEntitiesHaveATimingWheel() throws Exception
+    {
+        clock.getListOfTimers().add(new Timer(0, 5, 0, clock));
+        clock.getListOfStopwatches().add(new Stopwatch("Restored", false, false, clock));
+        final Clock restored = roundTrip(clock);
+        final Timer timer = restored.getListOfTimers().getFirst();
+        final Stopwatch stopwatch = restored.getListOfStopwatches().getFirst();
+
+        assertSame(TimingWheel.getDefault(), restored.getTimingWheel());
+        assertDoesNotThrow(timer::startTimer);
+        assertDoesNotThrow(stopwatch::startStopwatch);
+        assertSame(restored.getTimingWheel(), timer.getTimingWheel(), "A timer should run on its clock's wheel");
+        assertNotNull(timer.getScheduledTask());
+        assertNotNull(stopwatch.getDuration());
+        timer.stopTimer();
+        stopwatch.stopStopwatch();
+    }
+
+    /** Writes the object out and reads it back in */
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        { out.writeObject(object); }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        { return (T) in.readObject(); }
+    }
+}
@@ -0,0 +1,103 @@
+package clock.entity;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static clock.util.Constants.AM;
+import static java.time.DayOfWeek.*;
+import static java.time.Month.JANUARY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link DayMask} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class DayMaskTest
+{
+    private static final Logger logger = LogManager.getLogger(DayMaskTest.class);
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", DayMaskTest.class.getSimpleName());
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", DayMaskTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Each day has its own bit, Monday lowest")
+    void testBits()
+    {
+        assertEquals(1, DayMask.bit(MONDAY));
+        assertEquals(64, DayMask.bit(SUNDAY));
+        assertEquals(DayMask.EVERY_DAY, DayMask.of(List.of(DayOfWeek.values())));
+        assertEquals(DayMask.WEEKDAYS, DayMask.of(List.of(MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY)));
+        assertEquals(DayMask.WEEKENDS, DayMask.of(List.of(SUNDAY, SATURDAY)));
+    }
+
+    @Test
+    @DisplayName("Repeated days and nulls are ignored")
+    void testRepeatedDaysAreIgnored()
+    {
+        assertEquals(DayMask.bit(FRIDAY), DayMask.of(Arrays.asList(FRIDAY, null, FRIDAY)));
+        assertEquals(DayMask.NONE, DayMask.of(null));
+    }
+
+    @Test
+    @DisplayName("A mask turns back into its days in week order")
+    void testToListAndSet()
+    {
+        final int mask = DayMask.of(List.of(SUNDAY, WEDNESDAY, MONDAY));
+        assertEquals(List.of(MONDAY, WEDNESDAY, SUNDAY), DayMask.toList(mask));
+        assertEquals(EnumSet.of(MONDAY, WEDNESDAY, SUNDAY), DayMask.toSet(mask));
+        assertTrue(DayMask.contains(mask, WEDNESDAY));
+        assertFalse(DayMask.contains(mask, TUESDAY));
+        assertThrows(UnsupportedOperationException.class, () -> DayMask.toList(mask).add(TUESDAY));
+    }
+
+    @Test
+    @DisplayName("An alarm on a clock is written with its mask, and its days, state and next time come back")
+    void testAlarmRoundTrip() throws Exception
+    {
+        final Clock clock = new Clock(10, 30, 0, JANUARY, WEDNESDAY, 1, 2025, AM);
+        final Alarm alarm = new Alarm("Mask", 7, 15, AM, List.of(SUNDAY, WEDNESDAY, FRIDAY), false, clock);
+        clock.addAlarm(alarm);
+        alarm.setIsPaused(true);
+
+        final Alarm restored = roundTrip(alarm);
+        assertEquals(List.of(WEDNESDAY, FRIDAY, SUNDAY), restored.getDays());
+        assertEquals(alarm.getDayMask(), restored.getDayMask());
+        assertEquals(alarm.getState().get(), restored.getState().get(), "The state word should come back");
+        assertTrue(restored.isPaused());
+        assertEquals(LocalDateTime.of(2025, JANUARY, 3, 7, 15), restored.getNextFireTime());
+        assertSame(restored, restored.getClock().getListOfAlarms().getById(alarm.getId()),
+                "The alarm should come back filed on its clock");
+    }
+
+    // Helper methods
+    /** Writes the object out and reads it back in */
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        { out.writeObject(object); }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        { return (T) in.readObject(); }
+    }
+}
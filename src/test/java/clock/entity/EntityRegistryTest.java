@@ -0,0 +1,192 @@
+package clock.entity;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link EntityRegistry} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class EntityRegistryTest
+{
+    private static final Logger logger = LogManager.getLogger(EntityRegistryTest.class);
+
+    @BeforeAll
+    static void beforeClass() { logger.info("Starting {}...", EntityRegistryTest.class.getSimpleName()); }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", EntityRegistryTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Entities can be looked up by id until they are removed")
+    void testGetById()
+    {
+        EntityRegistry<Stopwatch> registry = new EntityRegistry<>(Stopwatch::getId);
+        Stopwatch first = new Stopwatch("Sw1", false, false, null);
+        Stopwatch second = new Stopwatch("Sw2", false, false, null);
+        registry.add(first);
+        registry.add(second);
+
+        assertNotEquals(first.getId(), second.getId(), "Ids should be unique");
+        assertSame(first, registry.getById(first.getId()));
+        assertSame(second, registry.getById(second.getId()));
+
+        assertTrue(registry.remove(first));
+        assertNull(registry.getById(first.getId()), "A removed entity should not be found");
+        assertEquals(List.of(second), registry);
+
+        Stopwatch third = new Stopwatch("Sw3", false, false, null);
+        assertSame(second, registry.set(0, third));
+        assertNull(registry.getById(second.getId()), "A replaced entity should not be found");
+        assertSame(third, registry.getById(third.getId()));
+
+        registry.clear();
+        assertTrue(registry.isEmpty());
+        assertNull(registry.getById(third.getId()));
+    }
+
+    @Test
+    @DisplayName("Iterating works on a snapshot and does not see later changes")
+    void testSnapshotIteration()
+    {
+        EntityRegistry<Stopwatch> registry = new EntityRegistry<>(Stopwatch::getId);
+        for (int i = 0; i < 5; i++) registry.add(new Stopwatch("Sw" + i, false, false, null));
+
+        List<Stopwatch> seen = new ArrayList<>();
+        for (Stopwatch stopwatch : registry)
+        {
+            seen.add(stopwatch);
+            registry.remove(stopwatch);
+            registry.add(new Stopwatch("New", false, false, null));
+        }
+        assertEquals(5, seen.size(), "The loop should see the five entities it started with");
+        assertEquals(5, registry.size());
+        assertTrue(registry.stream().allMatch(stopwatch -> stopwatch.getName().equals("New")));
+
+        assertTrue(registry.removeIf(stopwatch -> true));
+        assertTrue(registry.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The counter hands out numbers from 1 to its limit and starts again")
+    void testCounterWraps()
+    {
+        EntityRegistry.Counter counter = new EntityRegistry.Counter(3);
+        assertEquals(1, counter.next());
+        assertEquals(2, counter.next());
+        assertEquals(3, counter.next());
+        assertEquals(0, counter.get(), "The count should go back to 0 at the limit");
+        assertEquals(1, counter.next());
+        counter.reset();
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    @DisplayName("The counter never hands out the same number twice before it wraps")
+    void testCounterIsAtomic() throws Exception
+    {
+        final int threads = 8, each = 1_000;
+        EntityRegistry.Counter counter = new EntityRegistry.Counter((long) threads * each);
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+                futures.add(pool.submit(() -> { for (int i = 0; i < each; i++) numbers.add(counter.next()); }));
+            for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+        }
+        finally { pool.shutdownNow(); }
+        assertEquals(threads * each, numbers.size(), "Every number should be handed out once");
+    }
+
+    @Test
+    @DisplayName("The clock ticks while 8 threads add and remove alarms, timers and stopwatches")
+    void testTickWhileMutating() throws Exception
+    {
+        final int threads = 8, changes = 500;
+        Clock clock = new Clock();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean mutating = new AtomicBoolean(true);
+        AtomicInteger ticks = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(threads);
+
+        Thread ticker = new Thread(() -> {
+            try
+            {
+                while (mutating.get())
+                {
+                    clock.tick();
+                    clock.getListOfAlarms().forEach(Alarm::getName);
+                    clock.getListOfStopwatches().stream().map(Stopwatch::getName).toList();
+                    ticks.incrementAndGet();
+                }
+            }
+            catch (Throwable t) { failures.add(t); }
+        }, "test-ticker");
+        ticker.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+            {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < changes; i++)
+                    {
+                        Alarm alarm = new Alarm("Stress", random.nextInt(1, 13), random.nextInt(60), "AM", new ArrayList<>(), false, clock);
+                        Timer timer = new Timer(0, 5, 0, "Stress", false, true, false, clock);
+                        Stopwatch stopwatch = new Stopwatch("Stress", false, false, clock);
+                        clock.getListOfAlarms().add(alarm);
+                        clock.getListOfTimers().add(timer);
+                        clock.getListOfStopwatches().add(stopwatch);
+                        assertSame(alarm, clock.getListOfAlarms().getById(alarm.getId()));
+                        clock.getListOfAlarms().remove(alarm);
+                        clock.getListOfTimers().remove(timer);
+                        if (random.nextBoolean()) clock.getListOfStopwatches().remove(stopwatch);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            mutating.set(false);
+            pool.shutdownNow();
+            ticker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertTrue(failures.isEmpty(), () -> "The tick loop failed: " + failures.peek());
+        assertTrue(ticks.get() > 0, "The clock should have ticked");
+        assertTrue(clock.getListOfAlarms().isEmpty());
+        assertTrue(clock.getListOfTimers().isEmpty());
+        clock.getListOfStopwatches().forEach(stopwatch ->
+                assertSame(stopwatch, clock.getListOfStopwatches().getById(stopwatch.getId())));
+        logger.info("{} ticks while {} threads made {} changes each", ticks.get(), threads, changes);
+    }
+}
@@ -7,12 +7,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.stream.Stream;
 
 import static clock.util.Constants.STOPWATCH_READING_FORMAT;
 import static java.lang.Thread.sleep;
+import static java.time.Month.JANUARY;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -31,7 +39,7 @@ public class StopwatchTest {
     static void beforeClass()
     {
         logger.info("Starting {}...", StopwatchTest.class.getSimpleName());
-        Stopwatch.stopwatchCounter = 0L;
+        Stopwatch.stopwatchCounter.reset();
     }
 
     @BeforeEach
@@ -67,7 +75,7 @@ public class StopwatchTest {
         stopwatch.startStopwatch();
 
         assertTrue(stopwatch.isStarted());
-        assertNotNull(stopwatch.getSelfThread());
+        assertNotNull(stopwatch.getScheduledTask());
 
         assertNotNull(stopwatch.elapsedFormatted(stopwatch.getAccumMilli(), STOPWATCH_READING_FORMAT)); // used for parsing in analogue panel
     }
@@ -82,7 +90,7 @@ public class StopwatchTest {
         stopwatch.startStopwatch();
 
         assertTrue(stopwatch.isStarted());
-        assertNotNull(stopwatch.getSelfThread());
+        assertNotNull(stopwatch.getScheduledTask());
     }
 
     @Test
@@ -108,6 +116,57 @@ public class StopwatchTest {
         assertNotEquals(0L, stopwatch.getPausedMilli());
     }
 
+    @Test
+    @DisplayName("A stopwatch started and paused at 0ns on virtual time keeps both")
+    void testStartAndPauseAtTimeZero()
+    {
+        final Clock virtual = Clock.virtual(LocalDateTime.of(2025, JANUARY, 1, 12, 0, 0));
+        final Stopwatch stopwatch = new Stopwatch("Virtual", false, false, virtual);
+        stopwatch.startStopwatch();
+        stopwatch.pauseStopwatch();
+
+        virtual.advance(Duration.ofSeconds(10));
+        assertEquals(10_000L, stopwatch.getPausedAccumMilli(), "A pause at 0ns should be counted");
+        stopwatch.resumeStopwatch();
+        assertEquals(10_000L, stopwatch.getTotalPausedMilli());
+        assertEquals(0L, stopwatch.getStartMilli(), "Resuming should not start the stopwatch over");
+
+        virtual.advance(Duration.ofSeconds(3));
+        assertEquals(Duration.ofSeconds(3), stopwatch.getDuration());
+        stopwatch.stopStopwatch();
+    }
+
+    @Test
+    @DisplayName("A stopwatch is written with the time it counted and was paused for, not its monotonic readings")
+    void testSerializedStopwatchBanksItsTime() throws Exception
+    {
+        final Clock virtual = Clock.virtual(LocalDateTime.of(2025, JANUARY, 1, 12, 0, 0));
+        final Stopwatch running = new Stopwatch("Running", false, false, virtual),
+                        paused = new Stopwatch("Paused", false, false, virtual);
+        running.startStopwatch();
+        paused.startStopwatch();
+        virtual.advance(Duration.ofSeconds(10));
+        paused.pauseStopwatch();
+        virtual.advance(Duration.ofSeconds(5));
+
+        final Stopwatch restoredRunning = roundTrip(running),
+                        restoredPaused = roundTrip(paused);
+        assertEquals(Duration.ofSeconds(15), running.getDuration(), "Writing the stopwatch should not change it");
+        assertEquals(Duration.ofSeconds(15), restoredRunning.getDuration(), "The time counted should be banked");
+        assertTrue(restoredRunning.isStarted());
+        assertEquals(Duration.ofSeconds(10), restoredPaused.getDuration());
+        assertEquals(5_000L, restoredPaused.getPausedAccumMilli(), "The time paused should be banked");
+
+        restoredRunning.startStopwatch();
+        restoredPaused.resumeStopwatch();
+        assertTrue(restoredRunning.getDuration().compareTo(Duration.ofSeconds(15)) >= 0, "It should count on from the banked time");
+        assertEquals(5_000L, restoredPaused.getTotalPausedMilli());
+        running.stopStopwatch();
+        paused.stopStopwatch();
+        restoredRunning.stopStopwatch();
+        restoredPaused.stopStopwatch();
+    }
+
     @Test
     @DisplayName("Test Resuming a Paused Stopwatch")
     void testResumeAPausedStopwatch() throws InterruptedException
@@ -150,6 +209,44 @@ public class StopwatchTest {
         assertNotEquals(0L, stopwatch.getLastLapMarkMilli());
     }
 
+    @Test
+    @DisplayName("Test elapsed time is worked out on read and freezes while paused")
+    void testElapsedTimeIsComputedOnRead() throws InterruptedException
+    {
+        final Stopwatch sw = new Stopwatch("Test Stopwatch", false, false, clock);
+        sw.startStopwatch();
+        assertFalse(sw.getScheduledTask().isPeriodic(), "Only the max time deadline should be scheduled");
+        sleep(100);
+        assertTrue(sw.getAccumMilli() >= 100, "Elapsed time should grow without a tick, was " + sw.getAccumMilli());
+
+        sw.pauseStopwatch();
+        assertNull(sw.getScheduledTask(), "The deadline should be cancelled while paused");
+        final long atPause = sw.getAccumMilli();
+        sleep(50);
+        assertEquals(atPause, sw.getAccumMilli(), "Elapsed time should not grow while paused");
+        assertEquals(Duration.ofMillis(atPause), sw.getDuration().truncatedTo(ChronoUnit.MILLIS));
+
+        sw.resumeStopwatch();
+        assertNotNull(sw.getScheduledTask(), "The deadline should be armed again on resume");
+        sw.stopStopwatch();
+    }
+
+    @Test
+    @DisplayName("Test Stopwatch stops itself at the max time of 1 hour")
+    void testStopwatchStopsAtMaxTime() throws InterruptedException
+    {
+        final Stopwatch sw = new Stopwatch("Test Stopwatch", false, false, clock);
+        sw.setDuration(Duration.ofHours(1).minusMillis(50));
+        sw.startStopwatch();
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (sw.isStarted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(sw.isStarted(), "Stopwatch should stop once it reaches 1 hour");
+        assertNull(sw.getScheduledTask());
+    }
+
     @ParameterizedTest
     @DisplayName("Test Comparing Two Stopwatches")
     @MethodSource("stopwatches")
@@ -285,7 +382,7 @@ public class StopwatchTest {
         assertFalse(sw.isPaused(), "isPaused should be false after stop");
         assertFalse(sw.isStarted(), "isStarted should be false after stop");
         assertNull(sw.getClock(), "Clock should be null after stop");
-        assertNull(sw.getSelfThread(), "SelfThread should be null after stop");
+        assertNull(sw.getScheduledTask(), "Scheduled task should be null after stop");
         assertNull(sw.getLaps(), "Laps should be null after stop");
         assertEquals(0L, sw.getStartMilli(), "startMilli should be 0 after stop");
         assertEquals(0L, sw.getAccumMilli(), "accumMilli should be 0 after stop");
@@ -399,4 +496,16 @@ public class StopwatchTest {
         sw.setLaps(null);
         assertNull(sw.getLaps());
     }
+
+    // Helper methods
+    /** Writes the object out and reads it back in */
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        { out.writeObject(object); }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        { return (T) in.readObject(); }
+    }
 }
@@ -1,5 +1,7 @@
 package clock.entity;
 
+import clock.engine.TimingWheel;
+import clock.engine.VirtualTimeSource;
 import clock.exception.InvalidInputException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,9 +11,16 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,7 +62,7 @@ class TimerTest
     @DisplayName("Create a Timer")
     void testCreatingATimer()
     {
-        String expectedName = "(Timer"+(Timer.timersCounter+1)+") 00:00:00";
+        String expectedName = "(Timer"+(Timer.timersCounter.get()+1)+") 00:00:00";
         assertEquals(expectedName, new clock.entity.Timer().toString());
     }
 
@@ -63,7 +72,7 @@ class TimerTest
     {
         timer1 = new clock.entity.Timer(1, 0, 0);
 
-        String expectedName = "(Timer"+Timer.timersCounter+") 01:00:00";
+        String expectedName = "(Timer"+Timer.timersCounter.get()+") 01:00:00";
         assertEquals(expectedName, timer1.toString(), "Strings don't match");
         assertSame(1, timer1.getHours());
         assertSame(0, timer1.getMinutes());
@@ -79,7 +88,7 @@ class TimerTest
         timer1 = new clock.entity.Timer(0, 5, 0, clock);
         timer2 = new clock.entity.Timer(0, 5, 0, "Two", clock);
 
-        String expectedName = "(Timer"+(Timer.timersCounter-1)+") 00:05:00";
+        String expectedName = "(Timer"+(Timer.timersCounter.get()-1)+") 00:05:00";
         assertEquals(expectedName, timer1.toString(), "Strings don't match");
         assertSame(0, timer1.getHours());
         assertSame(5, timer1.getMinutes());
@@ -170,7 +179,7 @@ class TimerTest
         sleep(6000); // wait for the timer to reach zero
 
         assertTrue(timer1.isTimerGoingOff(), "Timer should be going off");
-        String expectedName = "(Timer"+Timer.timersCounter+") 00:00:00";
+        String expectedName = "(Timer"+Timer.timersCounter.get()+") 00:00:00";
         assertEquals(expectedName, timer1.toString(), "Timer did not reach zero as expected");
     }
 
@@ -178,12 +187,12 @@ class TimerTest
     @DisplayName("Timer with tabbed over 'no name' reaches zero")
     void testTimerWithTabbedOverNoNameReachesZero()
     {
-        timer1 = new Timer(0, 0, 5, "Timer "+(Timer.timersCounter+1), clock);
+        timer1 = new Timer(0, 0, 5, "Timer "+(Timer.timersCounter.get()+1), clock);
         timer1.startTimer();
         sleep(6000); // wait for the timer to reach zero
 
         assertTrue(timer1.isTimerGoingOff(), "Timer should be going off");
-        String expecting = "(Timer " + Timer.timersCounter + ") 00:00:00";
+        String expecting = "(Timer " + Timer.timersCounter.get() + ") 00:00:00";
         assertEquals(expecting, timer1.toString(), "Timer did not match expecting");
     }
 
@@ -398,16 +407,16 @@ class TimerTest
     }
 
     @Test
-    @DisplayName("Test startTimer when already started does not create a new thread")
+    @DisplayName("Test startTimer when already started does not schedule it again")
     void testStartTimerWhenAlreadyStartedDoesNothing()
     {
         timer1 = new Timer(0, 5, 0, clock);
         timer1.startTimer();
-        final Thread firstThread = timer1.getSelfThread();
+        final TimingWheel.Timeout firstTask = timer1.getScheduledTask();
 
         timer1.startTimer();
 
-        assertSame(firstThread, timer1.getSelfThread(), "Starting an already-started timer should not replace the thread");
+        assertSame(firstTask, timer1.getScheduledTask(), "Starting an already-started timer should not replace the scheduled task");
     }
 
     @Test
@@ -461,8 +470,84 @@ class TimerTest
         timer1.setTriggered(false);
         assertFalse(timer1.isTriggered());
 
-        timer1.setMusicPlayer(null);
-        assertNull(timer1.getMusicPlayer());
+        timer1.setSound(null);
+        assertNull(timer1.getSound());
+    }
+
+    @Test
+    @DisplayName("A 12 hour timer on a virtual clock fires within one scheduler quantum")
+    void testTwelveHourTimerFiresOnTimeInVirtualTime()
+    {
+        final VirtualTimeSource time = new VirtualTimeSource();
+        final TimingWheel wheel = TimingWheel.manual(TimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, time);
+        final Duration quantum = Duration.ofMillis(TimingWheel.DEFAULT_TICK_MILLIS);
+        timer1 = new Timer(12, 0, 0, "Long Timer", clock);
+        timer1.setTimingWheel(wheel);
+        timer1.startTimer();
+
+        time.advance(Duration.ofHours(6));
+        wheel.advance();
+        assertEquals("06:00:00", timer1.getCountDownString(), "Half the time should be left");
+
+        time.advance(Duration.ofHours(6).minusMillis(1));
+        wheel.advance();
+        assertFalse(timer1.isTimerGoingOff(), "Timer should not fire early");
+        assertEquals("00:00:01", timer1.getCountDownString());
+
+        time.advance(quantum);
+        wheel.advance();
+        assertTrue(timer1.isTimerGoingOff(), "Timer should fire within one quantum of its deadline");
+        assertEquals("00:00:00", timer1.getCountDownString());
+        timer1.stopTimer();
+        wheel.shutdown();
+    }
+
+    @Test
+    @DisplayName("Time spent paused is banked and not counted down")
+    void testPausedTimeIsBanked()
+    {
+        final VirtualTimeSource time = new VirtualTimeSource();
+        final TimingWheel wheel = TimingWheel.manual(TimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, time);
+        timer1 = new Timer(0, 1, 0, "Paused Timer", clock);
+        timer1.setTimingWheel(wheel);
+        timer1.startTimer();
+
+        time.advance(Duration.ofSeconds(20));
+        timer1.pauseTimer();
+        time.advance(Duration.ofHours(1));
+        wheel.advance();
+        assertEquals("00:00:40", timer1.getCountDownString(), "Paused time should not count down");
+        assertFalse(timer1.isTimerGoingOff());
+
+        timer1.resumeTimer();
+        time.advance(Duration.ofSeconds(40));
+        wheel.advance();
+        assertTrue(timer1.isTimerGoingOff(), "Timer should fire once the banked time runs out");
+        timer1.stopTimer();
+        wheel.shutdown();
+    }
+
+    @Test
+    @DisplayName("A timer counting down is written with the time it has left, not its deadline")
+    void testSerializedTimerBanksItsTimeLeft() throws Exception
+    {
+        final VirtualTimeSource time = new VirtualTimeSource();
+        final TimingWheel wheel = TimingWheel.manual(TimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, time);
+        timer1 = new Timer(0, 5, 0, "Written Timer", clock);
+        timer1.setTimingWheel(wheel);
+        timer1.startTimer();
+        time.advance(Duration.ofMinutes(2));
+
+        timer2 = roundTrip(timer1);
+        assertNotNull(timer1.getScheduledTask(), "Writing the timer should not stop it");
+        assertEquals(180, timer1.getRemainingSeconds());
+        assertNull(timer2.getScheduledTask());
+        assertEquals(180, timer2.getRemainingSeconds(), "The time left should be banked");
+        timer2.startTimer();
+        assertNotNull(timer2.getScheduledTask());
+        assertTrue(timer2.getRemainingSeconds() > 170, "The restored timer should count down from the banked time");
+        timer1.stopTimer();
+        wheel.shutdown();
     }
 
     // Helper methods
@@ -476,4 +561,15 @@ class TimerTest
             Thread.currentThread().interrupt();
         }
     }
+
+    /** Writes the object out and reads it back in */
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        { out.writeObject(object); }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        { return (T) in.readObject(); }
+    }
 }
@@ -92,23 +92,27 @@ public class AnalogueClockPanelTest
     }
 
     @Test
-    @DisplayName("Test Stopping the AnalogueClockPanel Thread")
+    @DisplayName("Test Stopping the AnalogueClockPanel unsubscribes it from the clock's ticks")
     void testStopAnalogueClockPanelThread()
     {
+        final var tickBus = analogueClockPanel.getClock().getTickBus();
         analogueClockPanel.stop();
-        assertNull(analogueClockPanel.getThread(), "Thread should be null after stopping");
+        assertNull(analogueClockPanel.getTickBus(), "Tick bus should be null after stopping");
+        assertFalse(tickBus.isSubscribed(analogueClockPanel), "Panel should not get ticks after stopping");
     }
 
     @Test
-    @DisplayName("start() is idempotent — calling it twice reuses the same thread")
+    @DisplayName("start() is idempotent — calling it twice subscribes only once")
     void testStartIsIdempotent()
     {
         analogueClockPanel.stop();
         analogueClockPanel.start();
-        final Thread first = analogueClockPanel.getThread();
+        final var first = analogueClockPanel.getTickBus();
+        final int listeners = first.getListenerCount();
         analogueClockPanel.start();
-        assertSame(first, analogueClockPanel.getThread(),
-                "Second start() should not replace the existing thread");
+        assertSame(first, analogueClockPanel.getTickBus(),
+                "Second start() should not replace the existing subscription");
+        assertEquals(listeners, first.getListenerCount(), "Second start() should not subscribe again");
         analogueClockPanel.stop();
     }
 
@@ -217,6 +217,19 @@ public class ClockFrameTest
         assertNull(clockFrame.getScheduler(), "Scheduler should be null after stop()");
     }
 
+    @Test
+    @DisplayName("stop() shuts the scheduler down and ends the clock thread")
+    void testStopShutsTheSchedulerDown()
+    {
+        final var scheduler = clockFrame.getScheduler();
+        clockFrame.start();
+
+        clockFrame.stop();
+
+        assertTrue(scheduler.isShutdown(), "Scheduler should be shut down after stop()");
+        assertTrue(scheduler.isTerminated(), "The clock thread should have ended after stop()");
+    }
+
     @Test
     @DisplayName("setPanelType and getPanelType round-trip")
     void testSetGetPanelType()
@@ -42,7 +42,7 @@ class DisplayLapsPanelTest
     void beforeEach()
     {
         clock = new Clock();
-        Stopwatch.stopwatchCounter = 0L;
+        Stopwatch.stopwatchCounter.reset();
         stopwatchPanel = new StopwatchPanel(new ClockFrame(clock));
         stopwatchPanel.getClockFrame().changePanels(PANEL_STOPWATCH);
         displayLapsPanel = stopwatchPanel.getDisplayLapsPanel();
@@ -50,7 +50,7 @@ class DisplayTimePanelTest
     void beforeEach()
     {
         clock = new Clock();
-        Stopwatch.stopwatchCounter = 0L;
+        Stopwatch.stopwatchCounter.reset();
         stopwatchPanel = new StopwatchPanel(new ClockFrame(clock));
         stopwatchPanel.getClockFrame().changePanels(PANEL_STOPWATCH);
         displayTimePanel = stopwatchPanel.getDisplayTimePanel();
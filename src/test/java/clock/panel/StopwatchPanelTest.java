@@ -48,7 +48,7 @@ class StopwatchPanelTest {
     void beforeEach()
     {
         clock = new Clock();
-        Stopwatch.stopwatchCounter = 0L;
+        Stopwatch.stopwatchCounter.reset();
         stopwatchPanel = new StopwatchPanel(new ClockFrame(clock));
         stopwatchPanel.getClockFrame().changePanels(PANEL_STOPWATCH);
     }
@@ -178,7 +178,7 @@ class StopwatchPanelTest {
         stopwatchPanel.executeButtonAction(mockActionEvent); // clicks reset button
         assertEquals(DisplayTimePanel.startText, stopwatchPanel.getDisplayTimePanel().getClockText());
         assertEquals(0, clock.getListOfStopwatches().size());
-        assertEquals("Sw" + (Stopwatch.stopwatchCounter + 1), stopwatchPanel.getStopwatchNameField().getText());
+        assertEquals("Sw" + (Stopwatch.stopwatchCounter.get() + 1), stopwatchPanel.getStopwatchNameField().getText());
         assertEquals(START, stopwatchPanel.getStartButton().getText());
         assertEquals(LAP, stopwatchPanel.getLapButton().getText());
     }
@@ -0,0 +1,90 @@
+package clock.panel;
+
+import clock.entity.Clock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.*;
+
+import static clock.entity.Panel.PANEL_WORLD_CLOCK;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the {@link WorldClockPanel} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+@ExtendWith(MockitoExtension.class)
+public class WorldClockPanelTest
+{
+    private static final Logger logger = LogManager.getLogger(WorldClockPanelTest.class);
+
+    Clock clock;
+    WorldClockPanel worldClockPanel;
+
+    @Mock
+    Graphics g;
+
+    @Mock
+    FontMetrics fontMetrics;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", WorldClockPanelTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        clock = new Clock();
+        worldClockPanel = new WorldClockPanel(new ClockFrame(clock));
+        worldClockPanel.getClockFrame().changePanels(PANEL_WORLD_CLOCK);
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        worldClockPanel.getClockFrame().stop();
+        worldClockPanel.getClockFrame().dispose();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", WorldClockPanelTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Test WorldClockPanel Initialization")
+    void testWorldClockPanelInitialization()
+    {
+        assertEquals(PANEL_WORLD_CLOCK, worldClockPanel.getClockFrame().getPanelType(), "Current panel should be " + PANEL_WORLD_CLOCK);
+        assertEquals(WorldClockPanel.DEFAULT_ZONES, worldClockPanel.getWorldClock().getZones());
+        assertSame(clock.getTickBus(), worldClockPanel.getTickBus(), "The panel should be subscribed to the clock");
+    }
+
+    @Test
+    @DisplayName("stop() unsubscribes the panel from the clock")
+    void testStopUnsubscribes()
+    {
+        worldClockPanel.stop();
+        assertNull(worldClockPanel.getTickBus());
+        assertFalse(clock.getTickBus().isSubscribed(worldClockPanel));
+    }
+
+    @Test
+    @DisplayName("drawStructure draws one row for each zone")
+    void testDrawStructureDrawsEveryZone()
+    {
+        when(g.getFontMetrics(any())).thenReturn(fontMetrics);
+        worldClockPanel.getWorldClock().update(clock.getSnapshot().instant());
+
+        worldClockPanel.drawStructure(g);
+        verify(g, times(WorldClockPanel.DEFAULT_ZONES.size())).drawString(anyString(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,67 @@
+package clock.sound;
+
+import clock.exception.SoundException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link SoundCache} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class SoundCacheTest
+{
+    private static final Logger logger = LogManager.getLogger(SoundCacheTest.class);
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", SoundCacheTest.class.getSimpleName());
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", SoundCacheTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("The alarm sound is decoded once into 16-bit PCM and shared")
+    void testAlarmSoundIsDecodedOnce()
+    {
+        final SoundCache cache = new SoundCache(SoundCache.DEFAULT_MAX_BYTES_PER_SOUND);
+        final Sound sound = cache.get(SoundCache.ALARM_SOUND);
+
+        assertSame(sound, cache.get(SoundCache.ALARM_SOUND), "The second get reuses the decoded sound");
+        assertEquals(1, cache.size());
+        assertEquals(16, sound.getFormat().getSampleSizeInBits());
+        assertFalse(sound.getFormat().isBigEndian());
+        assertTrue(sound.getSizeInBytes() > 0);
+        assertEquals(0, sound.getSizeInBytes() % sound.getFormat().getFrameSize());
+        assertTrue(sound.getDurationMillis() > 0);
+        assertFalse(sound.isTruncated());
+        assertEquals(sound.getSizeInBytes(), cache.getSizeInBytes());
+        logger.info("decoded {}", sound);
+    }
+
+    @Test
+    @DisplayName("A sound is cut off at the limit of the cache")
+    void testSoundIsBounded()
+    {
+        final SoundCache cache = new SoundCache(64 * 1024);
+        final Sound sound = cache.get(SoundCache.ALARM_SOUND);
+
+        assertTrue(sound.isTruncated());
+        assertTrue(sound.getSizeInBytes() <= 64 * 1024);
+    }
+
+    @Test
+    @DisplayName("A missing sound is reported and not cached")
+    void testMissingSound()
+    {
+        final SoundCache cache = new SoundCache(SoundCache.DEFAULT_MAX_BYTES_PER_SOUND);
+        assertThrows(SoundException.class, () -> cache.get("sounds/missing.mp3"));
+        assertFalse(cache.contains("sounds/missing.mp3"));
+    }
+}
@@ -0,0 +1,169 @@
+package clock.sound;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the {@link SoundPlayer} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class SoundPlayerTest
+{
+    private static final Logger logger = LogManager.getLogger(SoundPlayerTest.class);
+
+    private SourceDataLine output;
+    private SoundPlayer player;
+    private Sound sound;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", SoundPlayerTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        sound = SoundCache.getDefault().get(SoundCache.ALARM_SOUND);
+        final long bytesPerMilli = (long) (sound.getFormat().getFrameRate() * sound.getFormat().getFrameSize() / 1000);
+        output = mock(SourceDataLine.class);
+        when(output.isOpen()).thenReturn(true);
+        // a line plays in real time: a write returns once its samples have been heard
+        when(output.write(any(byte[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+            final int length = invocation.getArgument(2);
+            try { Thread.sleep(Math.max(1, length / bytesPerMilli)); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            return length;
+        });
+        player = player(SoundPlayer.DEFAULT_DEDUP_WINDOW_MILLIS, SoundPlayer.DEFAULT_MAX_VOICES);
+    }
+
+    @AfterEach
+    void afterEach() { player.shutdown(); }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", SoundPlayerTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Play returns at once and the sound starts in the background")
+    void testPlayDoesNotBlock() throws InterruptedException
+    {
+        final long start = System.nanoTime();
+        final Playback playback = player.play(sound);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(sound.getDurationMillis()) / 10,
+                "Play should not wait for the sound");
+
+        awaitStarted(playback);
+        assertFalse(playback.isDone());
+        assertTrue(playback.getStartLatencyNanos() >= 0);
+        playback.cancel();
+        assertTrue(playback.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("A cancel goes silent within a few milliseconds")
+    void testCancelGoesSilentQuickly() throws InterruptedException
+    {
+        final Playback playback = player.play(sound);
+        awaitStarted(playback);
+        Thread.sleep(100);
+
+        assertTrue(playback.cancel());
+        assertTrue(playback.await(1, TimeUnit.SECONDS));
+        final long silence = playback.getSilenceLatencyNanos();
+        logger.info("cancel to silence took {} us", TimeUnit.NANOSECONDS.toMicros(silence));
+        assertTrue(silence < TimeUnit.MILLISECONDS.toNanos(50), "Silence took " + silence + " ns");
+        verify(output, atLeastOnce()).stop();
+        verify(output, atLeastOnce()).flush();
+        assertFalse(playback.cancel(), "A finished playback cannot be cancelled again");
+    }
+
+    @Test
+    @DisplayName("Requests for the same sound within the window join one voice")
+    void testRequestsAreMerged() throws InterruptedException
+    {
+        final Playback first = player.play(sound);
+        final Playback second = player.play(sound);
+        assertEquals(1, player.getMerged());
+        assertEquals(1, player.getActiveVoices());
+
+        first.cancel();
+        assertTrue(first.await(1, TimeUnit.SECONDS));
+        assertFalse(second.isDone(), "The voice plays on for the request still listening");
+        assertEquals(1, player.getActiveVoices());
+
+        second.cancel();
+        assertTrue(second.await(1, TimeUnit.SECONDS));
+        assertEquals(0, player.getActiveVoices());
+    }
+
+    @Test
+    @DisplayName("Requests past the most voices are dropped")
+    void testVoicesAreCapped()
+    {
+        player.shutdown();
+        player = player(0, 2);
+        final Playback first = player.play(sound);
+        final Playback second = player.play(sound);
+        final Playback third = player.play(sound);
+
+        assertEquals(0, player.getMerged());
+        assertEquals(1, player.getDropped());
+        assertEquals(3, player.getRequested());
+        assertTrue(third.isDone());
+        assertFalse(third.isStarted());
+        first.cancel();
+        second.cancel();
+    }
+
+    @Test
+    @DisplayName("The time from an alarm's trigger to its first samples is recorded")
+    void testStartLatencyIsRecordedByKind() throws InterruptedException
+    {
+        final long trigger = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+        final Playback playback = player.play(sound, Playback.Kind.ALARM, trigger);
+        awaitStarted(playback);
+
+        assertEquals(1, player.getStartLatencies(Playback.Kind.ALARM).getCount());
+        assertEquals(0, player.getStartLatencies(Playback.Kind.TIMER).getCount());
+        assertTrue(playback.getStartLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(playback.getStartLatencyNanos() < TimeUnit.MILLISECONDS.toNanos(SoundPlayer.START_BUDGET_MILLIS),
+                "The sound should start within the budget");
+        assertEquals(0, player.getOverBudget());
+        logger.info("alarm start latency {}", player.getStartLatencies(Playback.Kind.ALARM));
+        playback.cancel();
+    }
+
+    @Test
+    @DisplayName("Preloading decodes the sounds and opens the line without blocking")
+    void testPreload() throws InterruptedException
+    {
+        final SoundCache cache = new SoundCache(SoundCache.DEFAULT_MAX_BYTES_PER_SOUND);
+        final Thread preloading = player.preload(cache, SoundCache.REGISTERED_SOUNDS);
+        preloading.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertTrue(cache.contains(SoundCache.ALARM_SOUND));
+        verify(output).open(any(), anyInt());
+    }
+
+    private SoundPlayer player(long dedupWindowMillis, int maxVoices)
+    { return new SoundPlayer(new SoundLine(format -> output), Thread.ofPlatform().daemon(true).factory(), dedupWindowMillis, maxVoices); }
+
+    private static void awaitStarted(Playback playback) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!playback.isStarted() && System.nanoTime() < deadline) Thread.sleep(1);
+        assertTrue(playback.isStarted(), "The sound should have started");
+    }
+}
@@ -0,0 +1,115 @@
+package clock.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link AsyncFileAppender} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class AsyncFileAppenderTest
+{
+    private static final Logger logger = LogManager.getLogger(AsyncFileAppenderTest.class);
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private AbstractAppender file;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", AsyncFileAppenderTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        file = new AbstractAppender("TestFile", null, null, true, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(LogEvent event)
+            {
+                entered.countDown();
+                try { gate.await(5, TimeUnit.SECONDS); }
+                catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+                written.add(event.getMessage().getFormattedMessage());
+            }
+        };
+        file.start();
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", AsyncFileAppenderTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Every event is written, in order, by the time the appender stops")
+    void testEventsAreWrittenInOrder()
+    {
+        gate.countDown();
+        final AsyncFileAppender async = new AsyncFileAppender("Async", 64, Thread.ofPlatform().daemon(true).factory(), file);
+        async.start();
+        for (int i = 0; i < 500; i++) async.append(event(i % 2 == 0 ? Level.INFO : Level.DEBUG, "event " + i));
+        assertTrue(async.stop(5, TimeUnit.SECONDS));
+
+        assertEquals(500 - async.getDropped(), written.size());
+        assertEquals(written.size(), async.getWritten());
+        int last = -1;
+        for (String message : written)
+        {
+            final int i = Integer.parseInt(message.substring("event ".length()));
+            assertTrue(i > last, "Events are written in the order they were logged");
+            last = i;
+        }
+    }
+
+    @Test
+    @DisplayName("A filling buffer drops DEBUG events first and keeps INFO events")
+    void testDebugIsDroppedFirst() throws InterruptedException
+    {
+        final AsyncFileAppender async = new AsyncFileAppender("Async", 8, Thread.ofPlatform().daemon(true).factory(), file);
+        async.start();
+        async.append(event(Level.INFO, "held by the writer"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 7; i++) async.append(event(Level.DEBUG, "debug " + i));
+        assertEquals(6, async.getQueued(), "DEBUG is only let in while the buffer is under three quarters full");
+        assertEquals(1, async.getDropped());
+
+        async.append(event(Level.INFO, "info 1"));
+        async.append(event(Level.WARN, "warn 1"));
+        assertEquals(8, async.getQueued(), "INFO and above use the rest of the buffer");
+        assertEquals(1, async.getDropped());
+
+        gate.countDown();
+        assertTrue(async.stop(5, TimeUnit.SECONDS));
+        assertEquals(9, written.size());
+        assertTrue(written.contains("info 1"));
+        assertTrue(written.contains("warn 1"));
+        assertFalse(written.contains("debug 6"));
+    }
+
+    private static LogEvent event(Level level, String message)
+    {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(AsyncFileAppenderTest.class.getName())
+                .setLevel(level)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package clock.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ClockLogging} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class ClockLoggingTest
+{
+    private static final Logger logger = LogManager.getLogger(ClockLoggingTest.class);
+    private static final String TICK = ClockLoggingTest.class.getName()+".tick";
+    private static final int TICKS = 5_000;
+
+    private ClockLogging.Mode modeBefore;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", ClockLoggingTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        modeBefore = ClockLogging.getMode();
+        Configurator.setLevel(TICK, Level.DEBUG);
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        ClockLogging.setMode(modeBefore);
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", ClockLoggingTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Async mode puts the log files behind one writer, sync mode takes them back")
+    void testSwitchingModes()
+    {
+        ClockLogging.setMode(ClockLogging.Mode.ASYNC);
+        final Map<String, Appender> appenders = rootAppenders();
+        assertInstanceOf(AsyncFileAppender.class, appenders.get(ClockLogging.ASYNC_APPENDER_NAME));
+        ClockLogging.FILE_APPENDERS.forEach(name -> assertFalse(appenders.containsKey(name)));
+        assertTrue(appenders.containsKey("Console"), "The console stays on the thread that logs");
+
+        ClockLogging.setMode(ClockLogging.Mode.SYNC);
+        final Map<String, Appender> syncAppenders = rootAppenders();
+        assertFalse(syncAppenders.containsKey(ClockLogging.ASYNC_APPENDER_NAME));
+        ClockLogging.FILE_APPENDERS.forEach(name -> assertTrue(syncAppenders.containsKey(name)));
+    }
+
+    @Test
+    @DisplayName("The logging mode is taken off the command line")
+    void testConfigureRemovesTheLoggingArgument()
+    {
+        final String[] args = ClockLogging.configure(new String[]{"--logging=async", "panel_alarm"});
+        assertEquals(ClockLogging.Mode.ASYNC, ClockLogging.getMode());
+        assertArrayEquals(new String[]{"panel_alarm"}, args);
+        assertThrows(IllegalArgumentException.class, () -> ClockLogging.configure(new String[]{"--logging=later"}));
+    }
+
+    @Test
+    @DisplayName("Measures the time a tick spends logging at DEBUG, sync and async")
+    void testTickLatencySyncVersusAsync()
+    {
+        final Logger tick = LogManager.getLogger(TICK);
+        ClockLogging.setMode(ClockLogging.Mode.SYNC);
+        final long[] sync = measure(tick);
+        ClockLogging.setMode(ClockLogging.Mode.ASYNC);
+        final long[] async = measure(tick);
+        final AsyncFileAppender asyncFiles = (AsyncFileAppender) rootAppenders().get(ClockLogging.ASYNC_APPENDER_NAME);
+
+        logger.info("tick logging latency over {} DEBUG lines, sync: median {} ns, p99 {} ns, max {} ns",
+                TICKS, percentile(sync, 50), percentile(sync, 99), sync[TICKS-1]);
+        logger.info("tick logging latency over {} DEBUG lines, async: median {} ns, p99 {} ns, max {} ns, dropped {}",
+                TICKS, percentile(async, 50), percentile(async, 99), async[TICKS-1], asyncFiles.getDropped());
+        assertTrue(sync[0] > 0 && async[0] > 0);
+    }
+
+    /** Logs one DEBUG line a tick and returns the sorted nanoseconds each took */
+    private static long[] measure(Logger tick)
+    {
+        final long[] nanos = new long[TICKS];
+        for (int i = 0; i < TICKS; i++)
+        {
+            final long start = System.nanoTime();
+            tick.debug("tick {} at {}", i, start);
+            nanos[i] = Math.max(1, System.nanoTime() - start);
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, int percent)
+    { return sorted[Math.min(sorted.length-1, sorted.length * percent / 100)]; }
+
+    private static Map<String, Appender> rootAppenders()
+    { return ((LoggerContext) LogManager.getContext(false)).getConfiguration().getRootLogger().getAppenders(); }
+}
@@ -0,0 +1,58 @@
+package clock.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link LatencyHistogram} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class LatencyHistogramTest
+{
+    private static final Logger logger = LogManager.getLogger(LatencyHistogramTest.class);
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", LatencyHistogramTest.class.getSimpleName());
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", LatencyHistogramTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("Latencies fall in buckets that double in width")
+    void testBuckets()
+    {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(1, LatencyHistogram.bucketOf(1));
+        assertEquals(2, LatencyHistogram.bucketOf(2));
+        assertEquals(2, LatencyHistogram.bucketOf(3));
+        assertEquals(11, LatencyHistogram.bucketOf(1024));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Percentiles are read as the upper edge of their bucket")
+    void testPercentiles()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(50));
+        for (int i = 0; i < 99; i++) histogram.record(TimeUnit.MICROSECONDS.toNanos(700));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1024, histogram.getPercentileMicros(50));
+        assertEquals(1024, histogram.getPercentileMicros(99));
+        assertEquals(65536, histogram.getPercentileMicros(100));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(40), histogram.getMaxNanos());
+        logger.info("{}", histogram);
+    }
+}
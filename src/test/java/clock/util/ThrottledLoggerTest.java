@@ -0,0 +1,106 @@
+package clock.util;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ThrottledLogger} class
+ *
+ * @author michael ball
+ * @version since 3.0.4
+ */
+class ThrottledLoggerTest
+{
+    private static final Logger logger = LogManager.getLogger(ThrottledLoggerTest.class);
+    private static final String HOT_PATH = ThrottledLoggerTest.class.getName()+".hotPath";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private Logger hotPath;
+
+    @BeforeAll
+    static void beforeClass()
+    {
+        logger.info("Starting {}...", ThrottledLoggerTest.class.getSimpleName());
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        Configurator.setLevel(HOT_PATH, Level.INFO);
+        hotPath = LogManager.getLogger(HOT_PATH);
+        nanos.set(0L);
+    }
+
+    @AfterAll
+    static void afterAll() { logger.info("Concluding {}", ThrottledLoggerTest.class.getSimpleName()); }
+
+    @Test
+    @DisplayName("At most so many messages get through each second")
+    void testPerSecond()
+    {
+        final ThrottledLogger throttled = new ThrottledLogger(hotPath, Level.INFO, 2, 1, nanos::get);
+        for (int i = 0; i < 1000; i++) throttled.log("frame {}", i);
+        assertEquals(2, throttled.getLogged());
+        assertEquals(998, throttled.getHeldBack());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        throttled.log("frame {}", 1000);
+        assertEquals(2, throttled.getLogged(), "The second has not ended yet");
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        throttled.log("frame {}", 1001);
+        assertEquals(3, throttled.getLogged(), "A new second lets messages through again");
+    }
+
+    @Test
+    @DisplayName("Sampling lets the first message through, then every nth")
+    void testSampled()
+    {
+        final ThrottledLogger throttled = new ThrottledLogger(hotPath, Level.INFO, 0, 60, nanos::get);
+        int permitted = 0;
+        for (int i = 0; i < 180; i++) if (throttled.permits()) permitted++;
+        assertEquals(3, permitted);
+        assertEquals(3, throttled.getLogged());
+        assertEquals(177, throttled.getHeldBack());
+    }
+
+    @Test
+    @DisplayName("A message that is held back is never formatted")
+    void testHeldBackMessagesAreNotFormatted()
+    {
+        final AtomicInteger formatted = new AtomicInteger();
+        final Object value = new Object() {
+            @Override
+            public String toString() { formatted.incrementAndGet(); return "value"; }
+        };
+        final ThrottledLogger throttled = new ThrottledLogger(hotPath, Level.INFO, 1, 1, nanos::get);
+        throttled.log("value {}", value);
+        final int formattedOnce = formatted.get();
+        for (int i = 0; i < 1000; i++) throttled.log("value {}", value);
+
+        assertEquals(formattedOnce, formatted.get());
+        assertEquals(1000, throttled.getHeldBack());
+    }
+
+    @Test
+    @DisplayName("Nothing is counted while the level is off")
+    void testLevelOff()
+    {
+        Configurator.setLevel(HOT_PATH, Level.WARN);
+        final ThrottledLogger throttled = new ThrottledLogger(hotPath, Level.INFO, 0, 1, nanos::get);
+        assertFalse(throttled.isEnabled());
+        assertFalse(throttled.permits());
+        throttled.log("not logged");
+        assertEquals(0, throttled.getLogged());
+        assertEquals(0, throttled.getHeldBack());
+    }
+}